@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.l2jserver.Config;
+import com.l2jserver.geodriver.IBlock;
+import com.l2jserver.geodriver.IRegion;
+
+/**
+ * Geodata regions decoded into block objects at load, as the driver does, against {@link MappedGeoRegion} reading the mapped file on every lookup.<br>
+ * With {@code -p _geodata=<geodata directory>} the region files found there are used, otherwise generated regions with a mix of flat, complex and multilayer blocks.<br>
+ * The setup checks that both kinds of regions give the same lookup results and logs the heap each kind retains per region, measured as the used heap after a garbage collection before and after loading.<br>
+ * {@code load} is the startup cost of the region files, {@code lookup} the cost of a height and movement check at a random cell.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoDataBenchmark
+{
+	private static final Logger _log = Logger.getLogger(GeoDataBenchmark.class.getName());
+	
+	private static final int GENERATED_REGIONS = 4;
+	/** Lookups per invocation, so the lookup scores are per lookup. */
+	private static final int LOOKUPS = 1024;
+	private static final int CHECKED_LOOKUPS = 200000;
+	
+	@Param("")
+	public String _geodata;
+	
+	@Param(
+	{
+		"false",
+		"true"
+	})
+	public boolean _mapped;
+	
+	private final List<Path> _files = new ArrayList<>();
+	private IRegion[] _regions;
+	private final int[] _geoX = new int[LOOKUPS];
+	private final int[] _geoY = new int[LOOKUPS];
+	private final int[] _worldZ = new int[LOOKUPS];
+	private final int[] _region = new int[LOOKUPS];
+	
+	private static short cell(int height, int nswe)
+	{
+		return (short) (((height << 1) & 0xFFF0) | nswe);
+	}
+	
+	/**
+	 * Writes a region file, mostly complex blocks around a rolling height with some flat and multilayer blocks.
+	 * @param file the file
+	 * @param random the random generator
+	 * @throws IOException if the file could not be written
+	 */
+	static void generateRegion(Path file, Random random) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(IRegion.REGION_BLOCKS * (1 + (IBlock.BLOCK_CELLS * 7))).order(ByteOrder.LITTLE_ENDIAN);
+		for (int block = 0; block < IRegion.REGION_BLOCKS; block++)
+		{
+			final int height = -4000 + (int) (2000 * Math.sin(block / 2048.0)) + random.nextInt(64);
+			final int type = random.nextInt(100);
+			if (type < 30)
+			{
+				buffer.put((byte) IBlock.TYPE_FLAT);
+				buffer.putShort((short) height);
+			}
+			else if (type < 92)
+			{
+				buffer.put((byte) IBlock.TYPE_COMPLEX);
+				for (int cell = 0; cell < IBlock.BLOCK_CELLS; cell++)
+				{
+					buffer.putShort(cell(height + random.nextInt(48), random.nextInt(8) == 0 ? random.nextInt(16) : 15));
+				}
+			}
+			else
+			{
+				buffer.put((byte) IBlock.TYPE_MULTILAYER);
+				for (int cell = 0; cell < IBlock.BLOCK_CELLS; cell++)
+				{
+					final int layers = 1 + random.nextInt(3);
+					buffer.put((byte) layers);
+					for (int layer = layers - 1; layer >= 0; layer--)
+					{
+						buffer.putShort(cell(height + (layer * 400) + random.nextInt(32), random.nextInt(16)));
+					}
+				}
+			}
+		}
+		
+		final byte[] data = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(data);
+		Files.write(file, data);
+	}
+	
+	private IRegion[] loadRegions(boolean mapped) throws IOException
+	{
+		Config.GEODATA_MEMORY_MAPPED = mapped;
+		final IRegion[] regions = new IRegion[_files.size()];
+		for (int i = 0; i < regions.length; i++)
+		{
+			regions[i] = GeoData.readRegion(_files.get(i));
+		}
+		return regions;
+	}
+	
+	private static long usedHeap()
+	{
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+		{
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	@Setup
+	public void setUp() throws IOException
+	{
+		final Random random = new Random(GENERATED_REGIONS);
+		if (_geodata.isEmpty())
+		{
+			for (int i = 0; i < GENERATED_REGIONS; i++)
+			{
+				final Path file = Files.createTempFile("region", ".l2j");
+				file.toFile().deleteOnExit();
+				generateRegion(file, random);
+				_files.add(file);
+			}
+		}
+		else
+		{
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(_geodata), "*.l2j"))
+			{
+				for (Path file : files)
+				{
+					_files.add(file);
+				}
+			}
+		}
+		
+		// both kinds of regions must answer alike
+		final IRegion[] decoded = loadRegions(false);
+		final IRegion[] mapped = loadRegions(true);
+		for (int i = 0; i < CHECKED_LOOKUPS; i++)
+		{
+			final int region = random.nextInt(decoded.length);
+			final int geoX = random.nextInt(IRegion.REGION_CELLS_X);
+			final int geoY = random.nextInt(IRegion.REGION_CELLS_Y);
+			final int worldZ = -6000 + random.nextInt(6000);
+			final int nswe = random.nextInt(16);
+			if ((decoded[region].getNearestZ(geoX, geoY, worldZ) != mapped[region].getNearestZ(geoX, geoY, worldZ)) || (decoded[region].getNextLowerZ(geoX, geoY, worldZ) != mapped[region].getNextLowerZ(geoX, geoY, worldZ)) || (decoded[region].getNextHigherZ(geoX, geoY, worldZ) != mapped[region].getNextHigherZ(geoX, geoY, worldZ)) || (decoded[region].checkNearestNswe(geoX, geoY, worldZ, nswe) != mapped[region].checkNearestNswe(geoX, geoY, worldZ, nswe)))
+			{
+				throw new IllegalStateException("Regions differ at " + geoX + ", " + geoY + ", " + worldZ + " of " + _files.get(region));
+			}
+		}
+		
+		final long before = usedHeap();
+		_regions = loadRegions(_mapped);
+		final long retained = usedHeap() - before;
+		_log.info(GeoDataBenchmark.class.getSimpleName() + ": " + (_mapped ? "Mapped" : "Decoded") + " regions retain " + ((retained / _regions.length) / 1024) + " KB of heap per region.");
+		
+		for (int i = 0; i < LOOKUPS; i++)
+		{
+			_region[i] = random.nextInt(_regions.length);
+			_geoX[i] = random.nextInt(IRegion.REGION_CELLS_X);
+			_geoY[i] = random.nextInt(IRegion.REGION_CELLS_Y);
+			_worldZ[i] = -6000 + random.nextInt(6000);
+		}
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 10)
+	@Measurement(iterations = 20)
+	public IRegion[] load() throws IOException
+	{
+		return loadRegions(_mapped);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	@OperationsPerInvocation(LOOKUPS)
+	public void lookup(Blackhole blackhole)
+	{
+		for (int i = 0; i < LOOKUPS; i++)
+		{
+			final IRegion region = _regions[_region[i]];
+			blackhole.consume(region.getNearestZ(_geoX[i], _geoY[i], _worldZ[i]));
+			blackhole.consume(region.checkNearestNswe(_geoX[i], _geoY[i], _worldZ[i], 15));
+		}
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.l2jserver.Config;
+import com.l2jserver.gameserver.model.L2World;
+import com.l2jserver.gameserver.util.LosCache;
+
+/**
+ * Replay of the line of sight checks of a simulated mass PvP fight, with the line of sight cache disabled and enabled.<br>
+ * Two sides of 100 players fight for 60 ticks of one second over a generated geodata region. Every tick a third of the players move, each player checks its target three times (AI, cast start and hit), area casters check eight enemies and healers five allies.<br>
+ * The cache is dropped at the start of every tick, as a tick is longer than the cache time. No doors stand on the battlefield, the door check only looks up the region.<br>
+ * A score is the time to replay the whole fight, the hit rate is logged at the end of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LosCacheBenchmark
+{
+	private static final Logger _log = Logger.getLogger(LosCacheBenchmark.class.getName());
+	
+	private static final int REGION_X = 22;
+	private static final int REGION_Y = 22;
+	private static final int REGION_SIZE = 32768;
+	private static final int SIDE_PLAYERS = 100;
+	private static final int TICKS = 60;
+	
+	@Param(
+	{
+		"0",
+		"65536"
+	})
+	public int _cacheSize;
+	
+	private GeoData _geoData;
+	/** Looker and target coordinates of every check, six values per check. */
+	private int[] _checks;
+	/** Index of the first check of every tick, and the end of the checks. */
+	private final int[] _ticks = new int[TICKS + 1];
+	
+	private int[] _x;
+	private int[] _y;
+	private int[] _z;
+	private int[] _target;
+	private int _checkCount;
+	
+	private void addCheck(int looker, int target)
+	{
+		if (_checks.length < ((_checkCount + 1) * 6))
+		{
+			final int[] checks = new int[_checks.length * 2];
+			System.arraycopy(_checks, 0, checks, 0, _checks.length);
+			_checks = checks;
+		}
+		final int offset = _checkCount * 6;
+		_checks[offset] = _x[looker];
+		_checks[offset + 1] = _y[looker];
+		_checks[offset + 2] = _z[looker];
+		_checks[offset + 3] = _x[target];
+		_checks[offset + 4] = _y[target];
+		_checks[offset + 5] = _z[target];
+		_checkCount++;
+	}
+	
+	private static int enemy(int player, Random random)
+	{
+		return (player < SIDE_PLAYERS ? SIDE_PLAYERS : 0) + random.nextInt(SIDE_PLAYERS);
+	}
+	
+	private static int ally(int player, Random random)
+	{
+		return (player < SIDE_PLAYERS ? 0 : SIDE_PLAYERS) + random.nextInt(SIDE_PLAYERS);
+	}
+	
+	/**
+	 * Records the checks of the fight, the players standing on the ground of the region.
+	 */
+	private void recordFight()
+	{
+		final Random random = new Random(TICKS);
+		final int players = SIDE_PLAYERS * 2;
+		final int centerX = ((REGION_X - L2World.TILE_ZERO_COORD_X) * REGION_SIZE) + (REGION_SIZE / 2);
+		final int centerY = ((REGION_Y - L2World.TILE_ZERO_COORD_Y) * REGION_SIZE) + (REGION_SIZE / 2);
+		_x = new int[players];
+		_y = new int[players];
+		_z = new int[players];
+		_target = new int[players];
+		_checks = new int[players * 64];
+		for (int i = 0; i < players; i++)
+		{
+			_x[i] = centerX + (i < SIDE_PLAYERS ? -300 : 300) + random.nextInt(800) - 400;
+			_y[i] = centerY + random.nextInt(800) - 400;
+			_z[i] = _geoData.getHeight(_x[i], _y[i], 0);
+			_target[i] = enemy(i, random);
+		}
+		
+		for (int tick = 0; tick < TICKS; tick++)
+		{
+			_ticks[tick] = _checkCount;
+			for (int i = 0; i < players; i++)
+			{
+				if (random.nextInt(3) == 0)
+				{
+					final int step = 60 + random.nextInt(90);
+					final double angle = Math.atan2(_y[_target[i]] - _y[i], _x[_target[i]] - _x[i]) + ((random.nextDouble() - 0.5) * 2);
+					_x[i] += (int) (step * Math.cos(angle));
+					_y[i] += (int) (step * Math.sin(angle));
+					_z[i] = _geoData.getHeight(_x[i], _y[i], _z[i]);
+				}
+				if (random.nextInt(5) == 0)
+				{
+					_target[i] = enemy(i, random);
+				}
+			}
+			
+			for (int i = 0; i < players; i++)
+			{
+				for (int j = 0; j < 3; j++)
+				{
+					addCheck(i, _target[i]);
+				}
+				final int role = i % 10;
+				if (role < 2)
+				{
+					for (int j = 0; j < 8; j++)
+					{
+						addCheck(i, enemy(i, random));
+					}
+				}
+				else if (role == 9)
+				{
+					for (int j = 0; j < 5; j++)
+					{
+						addCheck(i, ally(i, random));
+					}
+				}
+			}
+		}
+		_ticks[TICKS] = _checkCount;
+	}
+	
+	@Setup
+	public void setUp() throws IOException
+	{
+		Config.DATAPACK_ROOT = Files.createTempDirectory("datapack").toFile();
+		Config.GEODATA_PATH = Files.createTempDirectory("geodata");
+		Config.GEODATA_REGIONS = new HashMap<>();
+		Config.GEODATA_REGIONS.put(REGION_X + "_" + REGION_Y, true);
+		Config.TRY_LOAD_UNSPECIFIED_REGIONS = false;
+		Config.LOS_CACHE_SIZE = _cacheSize;
+		Config.LOS_CACHE_TIME = 500;
+		final Path region = Config.GEODATA_PATH.resolve(REGION_X + "_" + REGION_Y + ".l2j");
+		region.toFile().deleteOnExit();
+		GeoDataBenchmark.generateRegion(region, new Random(REGION_X));
+		_geoData = GeoData.getInstance();
+		
+		recordFight();
+		int visible = 0;
+		for (int i = 0; i < _checkCount; i++)
+		{
+			final int offset = i * 6;
+			if (_geoData.canSeeTarget(_checks[offset], _checks[offset + 1], _checks[offset + 2], 0, _checks[offset + 3], _checks[offset + 4], _checks[offset + 5]))
+			{
+				visible++;
+			}
+		}
+		_log.info(LosCacheBenchmark.class.getSimpleName() + ": Replaying " + _checkCount + " line of sight checks over " + TICKS + " ticks, " + ((visible * 100) / _checkCount) + "% visible.");
+	}
+	
+	@TearDown
+	public void tearDown()
+	{
+		final LosCache cache = _geoData.getLosCache();
+		if (cache != null)
+		{
+			_log.info(LosCacheBenchmark.class.getSimpleName() + ": " + cache.getHits() + " hits, " + cache.getMisses() + " misses, " + String.format("%.1f", cache.getHitRate() * 100) + "% hit rate.");
+		}
+	}
+	
+	@Benchmark
+	public int replay()
+	{
+		int visible = 0;
+		for (int tick = 0; tick < TICKS; tick++)
+		{
+			_geoData.invalidateLosCache();
+			for (int i = _ticks[tick]; i < _ticks[tick + 1]; i++)
+			{
+				final int offset = i * 6;
+				if (_geoData.canSeeTarget(_checks[offset], _checks[offset + 1], _checks[offset + 2], 0, _checks[offset + 3], _checks[offset + 4], _checks[offset + 5]))
+				{
+					visible++;
+				}
+			}
+		}
+		return visible;
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.datatables;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.l2jserver.Config;
+import com.l2jserver.gameserver.data.xml.impl.NpcData;
+import com.l2jserver.gameserver.model.L2Spawn;
+import com.l2jserver.gameserver.model.actor.L2Npc;
+
+/**
+ * Boot of the XML spawn lists: parsing {@code data/spawnlist} and spawning the NPCs of the loaded spawns, with one or more spawn threads.<br>
+ * With {@code -p _datapack=<game directory>} the NPCs and spawn lists of the datapack are used, otherwise generated monsters spread over the world.<br>
+ * NPC object IDs come from the stack ID factory, which works without a database. Geodata is not loaded, spawn heights are kept as listed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SpawnBenchmark
+{
+	private static final int GENERATED_NPCS = 200;
+	
+	@Param("")
+	public String _datapack;
+	
+	@Param("20000")
+	public int _spawns;
+	
+	@Param(
+	{
+		"1",
+		"4"
+	})
+	public int _threads;
+	
+	private SpawnTable _spawnTable;
+	
+	private static void write(Path file, String schema, StringBuilder content) throws IOException
+	{
+		content.insert(0, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n").append("</list>\n");
+		final String xml = content.toString().replaceFirst("<list", "<list xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"" + schema + "\"");
+		Files.createDirectories(file.getParent());
+		Files.write(file, xml.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Writes a game directory with generated monster templates and one spawn list file.<br>
+	 * The datapack schemas are not part of the server, the files are validated against a schema accepting any list.
+	 * @return the game directory
+	 * @throws IOException if a file could not be written
+	 */
+	private File generateDatapack() throws IOException
+	{
+		final Path root = Files.createTempDirectory("datapack");
+		Files.createDirectories(root.resolve("data"));
+		Files.write(root.resolve("data/any.xsd"), "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"><xs:element name=\"list\"><xs:complexType><xs:sequence><xs:any processContents=\"skip\" minOccurs=\"0\" maxOccurs=\"unbounded\" /></xs:sequence><xs:anyAttribute processContents=\"skip\" /></xs:complexType></xs:element></xs:schema>".getBytes(StandardCharsets.UTF_8));
+		
+		final StringBuilder npcs = new StringBuilder("<list>\n");
+		for (int i = 1; i <= GENERATED_NPCS; i++)
+		{
+			final int id = 20000 + i;
+			npcs.append("<npc id=\"").append(id).append("\" displayId=\"").append(id).append("\" level=\"").append(1 + (i % 85)).append("\" type=\"L2Monster\" name=\"Monster ").append(i).append("\" usingServerSideName=\"false\" title=\"\" usingServerSideTitle=\"false\">");
+			npcs.append("<race>BEAST</race><stats><vitals hp=\"").append(100 * i).append("\" mp=\"").append(10 * i).append("\" /></stats></npc>\n");
+		}
+		write(root.resolve("data/stats/npcs/npcs.xml"), "../../any.xsd", npcs);
+		
+		final Random random = new Random(_spawns);
+		final StringBuilder spawns = new StringBuilder("<list enabled=\"true\">\n");
+		for (int i = 0; i < _spawns; i++)
+		{
+			// the mainland, where most of the retail spawns are
+			final int x = -130000 + random.nextInt(320000);
+			final int y = -60000 + random.nextInt(330000);
+			spawns.append("<spawn><npc id=\"").append(20001 + random.nextInt(GENERATED_NPCS)).append("\" x=\"").append(x).append("\" y=\"").append(y).append("\" z=\"-3000\" heading=\"").append(random.nextInt(65536)).append("\" respawnDelay=\"60\" /></spawn>\n");
+		}
+		write(root.resolve("data/spawnlist/spawns.xml"), "../any.xsd", spawns);
+		return root.toFile();
+	}
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException
+	{
+		Config.DATAPACK_ROOT = _datapack.isEmpty() ? generateDatapack() : new File(_datapack);
+		Config.IDFACTORY_TYPE = Config.IdFactoryType.Stack;
+		Config.GEODATA_PATH = Files.createTempDirectory("geodata");
+		Config.GEODATA_REGIONS = new HashMap<>();
+		Config.SPAWN_THREADS = _threads;
+		NpcData.getInstance();
+		_spawnTable = SpawnTable.getInstance();
+	}
+	
+	@TearDown(Level.Invocation)
+	public void despawn()
+	{
+		final List<L2Spawn> spawns = new ArrayList<>();
+		for (Set<L2Spawn> set : _spawnTable.getSpawnTable().values())
+		{
+			spawns.addAll(set);
+		}
+		for (L2Spawn spawn : spawns)
+		{
+			spawn.stopRespawn();
+			for (L2Npc npc : spawn.getSpawnedNpcs())
+			{
+				npc.deleteMe();
+			}
+			_spawnTable.deleteSpawn(spawn, false);
+		}
+	}
+	
+	@Benchmark
+	public int loadAndSpawn()
+	{
+		_spawnTable.parseDatapackDirectory("data/spawnlist", false);
+		return _spawnTable.spawnInitialSpawns().length;
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.idfactory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Concurrent stress benchmark of {@link IdLeases} against the synchronized {@link BitSet} allocation it replaced.<br>
+ * Every thread keeps a window of allocated IDs and releases the oldest one for each new one.<br>
+ * The lease benchmark fails if an ID is handed out twice, or if the IDs held by a finished thread are not given back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class IdLeasesBenchmark
+{
+	private static final int IDS = 1 << 20;
+	private static final int HELD_IDS = 256;
+	
+	private IdLeases _leases;
+	/** 1 while an ID is handed out. */
+	private AtomicIntegerArray _handedOut;
+	private LockedBitSet _lockedBitSet;
+	
+	/**
+	 * The IDs allocated by one thread and not released yet.
+	 */
+	@State(Scope.Thread)
+	public static class HeldIds
+	{
+		protected final int[] _ids = new int[HELD_IDS];
+		protected int _next;
+		
+		@Setup(Level.Trial)
+		public void setUp()
+		{
+			Arrays.fill(_ids, -1);
+		}
+	}
+	
+	/**
+	 * The allocation done by BitSetIDFactory before the leases.
+	 */
+	private static final class LockedBitSet
+	{
+		private final BitSet _usedIds = new BitSet(IDS);
+		private int _nextFreeId;
+		
+		protected synchronized int next()
+		{
+			final int id = _nextFreeId;
+			_usedIds.set(id);
+			_nextFreeId = _usedIds.nextClearBit(id);
+			return id;
+		}
+		
+		protected synchronized void release(int id)
+		{
+			_usedIds.clear(id);
+			if (id < _nextFreeId)
+			{
+				_nextFreeId = id;
+			}
+		}
+	}
+	
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		_leases = new IdLeases(new AtomicIdBitmap(IDS, new BitSet()));
+		_handedOut = new AtomicIntegerArray(IDS);
+		_lockedBitSet = new LockedBitSet();
+	}
+	
+	@Benchmark
+	public int leases(HeldIds held)
+	{
+		final int id = _leases.next();
+		if (id < 0)
+		{
+			throw new IllegalStateException("Ran out of ids.");
+		}
+		if (!_handedOut.compareAndSet(id, 0, 1))
+		{
+			throw new IllegalStateException("Id " + id + " handed out twice.");
+		}
+		
+		final int slot = held._next++ & (HELD_IDS - 1);
+		final int oldId = held._ids[slot];
+		held._ids[slot] = id;
+		if (oldId >= 0)
+		{
+			_handedOut.set(oldId, 0);
+			_leases.release(oldId);
+		}
+		return id;
+	}
+	
+	@Benchmark
+	public int lockedBitSet(HeldIds held)
+	{
+		final int id = _lockedBitSet.next();
+		final int slot = held._next++ & (HELD_IDS - 1);
+		final int oldId = held._ids[slot];
+		held._ids[slot] = id;
+		if (oldId >= 0)
+		{
+			_lockedBitSet.release(oldId);
+		}
+		return id;
+	}
+	
+	/**
+	 * Checks that the IDs leased and released by a thread that finished are given back.
+	 * @throws InterruptedException
+	 */
+	@TearDown(Level.Trial)
+	public void checkFinishedThread() throws InterruptedException
+	{
+		_leases.reclaimDeadThreads();
+		final int freeCount = _leases.getFreeCount();
+		
+		final Thread thread = new Thread(() -> _leases.release(_leases.next()));
+		thread.start();
+		thread.join();
+		if (_leases.getFreeCount() == freeCount)
+		{
+			throw new IllegalStateException("The finished thread did not lease any id.");
+		}
+		
+		_leases.reclaimDeadThreads();
+		if (_leases.getFreeCount() != freeCount)
+		{
+			throw new IllegalStateException("Ids of a finished thread were not given back: " + _leases.getFreeCount() + " free instead of " + freeCount + ".");
+		}
+	}
+}
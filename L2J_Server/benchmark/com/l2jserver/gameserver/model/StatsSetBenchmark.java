@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.l2jserver.gameserver.model.entity.Hero;
+
+/**
+ * Hero data kept in a map backed {@link StatsSet} against a {@link TypedStatsSet} of {@link Hero#HERO_SCHEMA}.<br>
+ * The setup logs the heap retained by each kind of set, measured as the used heap after a garbage collection before and after filling 16384 sets, the JVM has no object size API.<br>
+ * The benchmarks build a hero entry as Hero does on load, and read it as the hero list packets do. Run them with {@code -prof gc} for the bytes allocated per entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsSetBenchmark
+{
+	private static final Logger _log = Logger.getLogger(StatsSetBenchmark.class.getName());
+	
+	/** Sets read per invocation, so the scores are per hero entry. */
+	private static final int SETS = 1024;
+	
+	private final StatsSet[] _mapSets = new StatsSet[SETS];
+	private final StatsSet[] _typedSets = new StatsSet[SETS];
+	private int _next;
+	
+	private static StatsSet fill(StatsSet set, int id)
+	{
+		set.set("charId", 268435456 + id);
+		set.set("char_name", "Hero" + id);
+		set.set("class_id", 88 + (id % 31));
+		set.set(Hero.COUNT, id % 7);
+		set.set(Hero.PLAYED, id % 2);
+		set.set(Hero.CLAIMED, (id % 3) == 0);
+		set.set(Hero.CLAN_NAME, "Clan" + (id % 50));
+		set.set(Hero.CLAN_CREST, id % 50);
+		set.set(Hero.ALLY_NAME, "Ally" + (id % 10));
+		set.set(Hero.ALLY_CREST, id % 10);
+		return set;
+	}
+	
+	private static long usedHeap()
+	{
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+		{
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	/**
+	 * @param factory creates the empty sets
+	 * @return the heap retained by one filled set with its names, which are the same for both kinds of sets
+	 */
+	private static long retainedBytes(Supplier<StatsSet> factory)
+	{
+		final StatsSet[] sets = new StatsSet[SETS * 16];
+		final long before = usedHeap();
+		for (int i = 0; i < sets.length; i++)
+		{
+			sets[i] = fill(factory.get(), i);
+		}
+		final long bytes = (usedHeap() - before) / sets.length;
+		// keeps the sets reachable until they are measured
+		if (sets[sets.length - 1].isEmpty())
+		{
+			throw new IllegalStateException();
+		}
+		return bytes;
+	}
+	
+	@Setup
+	public void setUp()
+	{
+		for (int i = 0; i < SETS; i++)
+		{
+			_mapSets[i] = fill(new StatsSet(), i);
+			_typedSets[i] = fill(Hero.HERO_SCHEMA.newSet(), i);
+		}
+		_log.info(StatsSetBenchmark.class.getSimpleName() + ": A hero entry retains " + retainedBytes(StatsSet::new) + " bytes as a map and " + retainedBytes(Hero.HERO_SCHEMA::newSet) + " bytes typed.");
+	}
+	
+	private int read(StatsSet[] sets, Blackhole blackhole)
+	{
+		int next = _next;
+		int sum = 0;
+		for (int i = 0; i < SETS; i++)
+		{
+			final StatsSet set = sets[next];
+			sum += set.getInt("charId") + set.getInt("class_id") + set.getInt(Hero.COUNT, 0) + set.getInt(Hero.CLAN_CREST, 0) + set.getInt(Hero.ALLY_CREST, 0);
+			blackhole.consume(set.getString("char_name"));
+			blackhole.consume(set.getString(Hero.CLAN_NAME, null));
+			blackhole.consume(set.getBoolean(Hero.CLAIMED, false));
+			next = (next + 1) & (SETS - 1);
+		}
+		_next = next;
+		return sum;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(SETS)
+	public int readMap(Blackhole blackhole)
+	{
+		return read(_mapSets, blackhole);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(SETS)
+	public int readTyped(Blackhole blackhole)
+	{
+		return read(_typedSets, blackhole);
+	}
+	
+	@Benchmark
+	public StatsSet buildMap()
+	{
+		return fill(new StatsSet(), _next++ & (SETS - 1));
+	}
+	
+	@Benchmark
+	public StatsSet buildTyped()
+	{
+		return fill(Hero.HERO_SCHEMA.newSet(), _next++ & (SETS - 1));
+	}
+}
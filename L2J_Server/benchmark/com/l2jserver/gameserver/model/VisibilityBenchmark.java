@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+
+/**
+ * Radius queries of {@link L2World} in a crowded town, against the list building scan they replaced.<br>
+ * Objects are spread over the 3x3 regions around the center object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisibilityBenchmark
+{
+	private static final int CENTER_X = 83000;
+	private static final int CENTER_Y = 148000;
+	private static final int Z = -3400;
+	
+	@Param(
+	{
+		"500",
+		"3000"
+	})
+	public int _objects;
+	
+	@Param(
+	{
+		"150",
+		"1500"
+	})
+	public int _radius;
+	
+	private final List<BenchmarkObject> _spawned = new LinkedList<>();
+	private BenchmarkObject _center;
+	
+	/**
+	 * An object placed directly in its world region, without spawn or known list updates.
+	 */
+	private static final class BenchmarkObject extends L2Object
+	{
+		private static int _nextId = 1;
+		
+		protected BenchmarkObject(int x, int y)
+		{
+			super(_nextId++);
+			setXYZInvisible(x, y, Z);
+			final L2WorldRegion region = L2World.getInstance().getRegion(x, y);
+			setWorldRegion(region);
+			region.addVisibleObject(this);
+		}
+		
+		protected void remove()
+		{
+			getWorldRegion().removeVisibleObject(this);
+			setWorldRegion(null);
+		}
+		
+		@Override
+		public int getId()
+		{
+			return 0;
+		}
+		
+		@Override
+		public boolean isAutoAttackable(L2Character attacker)
+		{
+			return false;
+		}
+		
+		@Override
+		public void sendInfo(L2PcInstance activeChar)
+		{
+		}
+	}
+	
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		final Random random = new Random(_objects);
+		final int spread = 3 << L2World.SHIFT_BY;
+		_center = new BenchmarkObject(CENTER_X, CENTER_Y);
+		_spawned.add(_center);
+		for (int i = 0; i < _objects; i++)
+		{
+			_spawned.add(new BenchmarkObject((CENTER_X + random.nextInt(spread)) - (spread / 2), (CENTER_Y + random.nextInt(spread)) - (spread / 2)));
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		for (BenchmarkObject object : _spawned)
+		{
+			object.remove();
+		}
+		_spawned.clear();
+	}
+	
+	@Benchmark
+	public void forEachVisible(Blackhole blackhole)
+	{
+		L2World.getInstance().forEachVisible(_center, _radius, L2Object.class, null, blackhole::consume);
+	}
+	
+	@Benchmark
+	public List<L2Object> getVisibleObjects()
+	{
+		return L2World.getInstance().getVisibleObjects(_center, _radius);
+	}
+	
+	/**
+	 * The radius query before the visibility rework: all surrounding regions copied to a linked list.
+	 * @return the objects in the radius
+	 */
+	@Benchmark
+	public List<L2Object> surroundingRegionsScan()
+	{
+		final int sqRadius = _radius * _radius;
+		final List<L2Object> result = new LinkedList<>();
+		for (L2WorldRegion region : _center.getWorldRegion().getSurroundingRegions())
+		{
+			for (L2Object object : region.getVisibleObjects().values())
+			{
+				if ((object == null) || object.equals(_center))
+				{
+					continue;
+				}
+				
+				if (sqRadius > _center.calculateDistance(object, false, true))
+				{
+					result.add(object);
+				}
+			}
+		}
+		return result;
+	}
+}
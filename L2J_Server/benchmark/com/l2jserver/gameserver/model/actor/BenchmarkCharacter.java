@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.actor;
+
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2NpcTemplate;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * A character built from an NPC template, without the ID factory and the datapack a real NPC needs.<br>
+ * It is not placed in the world, benchmarks use it as the caster or target of formulas and conditions.
+ */
+public final class BenchmarkCharacter extends L2Character
+{
+	private final int _level;
+	private final boolean _attackable;
+	
+	private BenchmarkCharacter(int objectId, L2NpcTemplate template, boolean attackable)
+	{
+		super(objectId, template);
+		_level = template.getLevel();
+		_attackable = attackable;
+	}
+	
+	/**
+	 * Creates a character with the standard NPC stat calculators.
+	 * @param objectId the object ID
+	 * @param level the level
+	 * @param pAtk the base physical attack
+	 * @param pDef the base physical defense
+	 * @param mAtk the base magical attack
+	 * @param mDef the base magical defense
+	 * @param attackable if {@code true} the character is a monster
+	 * @return the character
+	 */
+	public static BenchmarkCharacter create(int objectId, int level, int pAtk, int pDef, int mAtk, int mDef, boolean attackable)
+	{
+		final StatsSet set = new StatsSet();
+		set.set("id", objectId);
+		set.set("level", level);
+		set.set("baseSTR", 40);
+		set.set("baseCON", 43);
+		set.set("baseDEX", 30);
+		set.set("baseINT", 21);
+		set.set("baseWIT", 20);
+		set.set("baseMEN", 20);
+		set.set("baseHpMax", 10000);
+		set.set("baseMpMax", 2000);
+		set.set("basePAtk", pAtk);
+		set.set("basePDef", pDef);
+		set.set("baseMAtk", mAtk);
+		set.set("baseMDef", mDef);
+		set.set("baseCritRate", 4);
+		set.set("baseFire", 20);
+		set.set("baseWaterRes", 20);
+		final L2NpcTemplate template = new L2NpcTemplate(set);
+		template.setSkills(null);
+		return new BenchmarkCharacter(objectId, template, attackable);
+	}
+	
+	@Override
+	public boolean isNpc()
+	{
+		return true;
+	}
+	
+	@Override
+	public boolean isAttackable()
+	{
+		return _attackable;
+	}
+	
+	@Override
+	public int getLevel()
+	{
+		return _level;
+	}
+	
+	@Override
+	public int getId()
+	{
+		return getObjectId();
+	}
+	
+	@Override
+	public boolean isAutoAttackable(L2Character attacker)
+	{
+		return true;
+	}
+	
+	@Override
+	public void sendInfo(L2PcInstance activeChar)
+	{
+	}
+	
+	@Override
+	public void updateAbnormalVisualEffects()
+	{
+	}
+	
+	@Override
+	public L2ItemInstance getActiveWeaponInstance()
+	{
+		return null;
+	}
+	
+	@Override
+	public L2Weapon getActiveWeaponItem()
+	{
+		return null;
+	}
+	
+	@Override
+	public L2ItemInstance getSecondaryWeaponInstance()
+	{
+		return null;
+	}
+	
+	@Override
+	public L2Item getSecondaryWeaponItem()
+	{
+		return null;
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.conditions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.l2jserver.gameserver.GameTimeController;
+import com.l2jserver.gameserver.engines.DocumentBase;
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.BenchmarkCharacter;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.util.file.filter.XMLFilter;
+
+/**
+ * Evaluation of skill conditions as parsed, against the trees {@link ConditionCompiler} made of them.<br>
+ * With {@code -p _datapack=<game directory>} the conditions of every skill in {@code data/stats/skills} are evaluated, otherwise those of a generated skill file using the condition shapes most common in the skill set.<br>
+ * Conditions are checked by a level 80 NPC against a level 78 monster. Conditions that cannot be checked without a player or the rest of the datapack are left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionBenchmark
+{
+	private static final Logger _log = Logger.getLogger(ConditionBenchmark.class.getName());
+	
+	/** Conditions evaluated per invocation, so the scores are evaluations per second. */
+	private static final int EVALUATIONS = 1024;
+	private static final int GENERATED_SKILLS = 2000;
+	
+	@Param("")
+	public String _datapack;
+	
+	private Condition[] _interpreted;
+	private Condition[] _compiled;
+	private L2Character _caster;
+	private L2Character _target;
+	private Skill _skill;
+	private int _next;
+	
+	/**
+	 * Reads the condition trees of a skill file, using the table values of the first level of each skill.
+	 */
+	private static final class ConditionDocument extends DocumentBase
+	{
+		private final List<Condition> _conditions;
+		
+		protected ConditionDocument(File file, List<Condition> conditions)
+		{
+			super(file);
+			_conditions = conditions;
+		}
+		
+		@Override
+		protected void parseDocument(Document doc)
+		{
+			final NodeList skills = doc.getElementsByTagName("skill");
+			for (int i = 0; i < skills.getLength(); i++)
+			{
+				final Element skill = (Element) skills.item(i);
+				resetTable();
+				for (Node n = skill.getFirstChild(); n != null; n = n.getNextSibling())
+				{
+					if ("table".equalsIgnoreCase(n.getNodeName()))
+					{
+						parseTable(n);
+					}
+				}
+				
+				final NodeList conditions = skill.getElementsByTagName("cond");
+				for (int j = 0; j < conditions.getLength(); j++)
+				{
+					try
+					{
+						final Condition condition = parseCondition(conditions.item(j).getFirstChild(), 1);
+						if (condition != null)
+						{
+							_conditions.add(condition);
+						}
+					}
+					catch (RuntimeException e)
+					{
+						// needs game data that is not loaded
+					}
+				}
+			}
+		}
+		
+		@Override
+		protected StatsSet getStatsSet()
+		{
+			return null;
+		}
+		
+		@Override
+		protected String getTableValue(String name)
+		{
+			return getTableValue(name, 1);
+		}
+		
+		@Override
+		protected String getTableValue(String name, int idx)
+		{
+			final String[] table = _tables.get(name);
+			return table != null ? table[Math.min(idx, table.length) - 1] : null;
+		}
+	}
+	
+	/**
+	 * Writes a skill file with the usual condition shapes: weapon checks, hp and level checks of the caster, target distance and race, negated states and effect lookups.
+	 * @return the skill file
+	 * @throws IOException if the file could not be written
+	 */
+	private static File generateSkills() throws IOException
+	{
+		final String[] kinds =
+		{
+			"SWORD,BLUNT,DUAL,DUALBLUNT",
+			"BOW,CROSSBOW",
+			"DAGGER,DUALDAGGER",
+			"POLE"
+		};
+		final String[] races =
+		{
+			"UNDEAD",
+			"BEAST",
+			"HUMANOID",
+			"DEMONIC"
+		};
+		
+		final StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<list>\n");
+		for (int id = 1; id <= GENERATED_SKILLS; id++)
+		{
+			sb.append("<skill id=\"").append(id).append("\" levels=\"1\" name=\"Skill ").append(id).append("\">\n");
+			sb.append("<table name=\"#hp\"> ").append(30 + ((id % 5) * 10)).append(" </table>\n");
+			sb.append("<table name=\"#level\"> ").append(20 + ((id % 8) * 10)).append(" </table>\n");
+			switch (id % 6)
+			{
+				case 0:
+					sb.append("<cond msgId=\"113\" addName=\"1\"><using kind=\"").append(kinds[id % kinds.length]).append("\" /></cond>\n");
+					break;
+				case 1:
+					sb.append("<cond><and><player hp=\"#hp\" /><using kind=\"").append(kinds[id % kinds.length]).append("\" /></and></cond>\n");
+					break;
+				case 2:
+					sb.append("<cond><and><and><player level=\"#level\" /><player resting=\"false\" /></and><not><target mindistance=\"80\" /></not></and></cond>\n");
+					break;
+				case 3:
+					sb.append("<cond><or><target race=\"").append(races[id % races.length]).append("\" /><target race=\"").append(races[(id + 1) % races.length]).append("\" /></or></cond>\n");
+					break;
+				case 4:
+					sb.append("<cond><and><target active_effect_id=\"").append(1000 + (id % 50)).append("\" /><player hp=\"#hp\" /><not><not><player flying=\"false\" /></not></not></and></cond>\n");
+					break;
+				default:
+					sb.append("<cond><and><player mp=\"").append(10 + ((id % 3) * 10)).append("\" /><game night=\"false\" /><player behind=\"true\" /></and></cond>\n");
+					break;
+			}
+			sb.append("</skill>\n");
+		}
+		sb.append("</list>\n");
+		
+		final File file = File.createTempFile("skills", ".xml");
+		file.deleteOnExit();
+		Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+	
+	@Setup
+	public void setUp() throws IOException
+	{
+		// the night condition checks the time of day
+		GameTimeController.init();
+		
+		final List<File> files = new ArrayList<>();
+		if (_datapack.isEmpty())
+		{
+			files.add(generateSkills());
+		}
+		else
+		{
+			final File[] skillFiles = new File(_datapack, "data/stats/skills").listFiles(new XMLFilter());
+			if (skillFiles == null)
+			{
+				throw new IllegalArgumentException("No skill files in " + _datapack);
+			}
+			files.addAll(Arrays.asList(skillFiles));
+		}
+		
+		final List<Condition> parsed = new ArrayList<>();
+		for (File file : files)
+		{
+			new ConditionDocument(file, parsed).parse();
+		}
+		
+		_caster = BenchmarkCharacter.create(1, 80, 1500, 600, 1000, 500, false);
+		_target = BenchmarkCharacter.create(2, 78, 1200, 800, 900, 650, true);
+		final StatsSet set = new StatsSet();
+		set.set("skill_id", 3);
+		set.set("level", 1);
+		set.set("name", "Power Strike");
+		set.set("operateType", "A1");
+		_skill = new Skill(set);
+		
+		final ConditionCompiler compiler = new ConditionCompiler();
+		final List<Condition> interpreted = new ArrayList<>(parsed.size());
+		final List<Condition> compiled = new ArrayList<>(parsed.size());
+		for (Condition condition : parsed)
+		{
+			final Condition compiledCondition = compiler.compile(condition);
+			try
+			{
+				condition.test(_caster, _target, _skill, null);
+				compiledCondition.test(_caster, _target, _skill, null);
+			}
+			catch (RuntimeException e)
+			{
+				continue;
+			}
+			interpreted.add(condition);
+			compiled.add(compiledCondition);
+		}
+		_interpreted = interpreted.toArray(new Condition[interpreted.size()]);
+		_compiled = compiled.toArray(new Condition[compiled.size()]);
+		_log.info(ConditionBenchmark.class.getSimpleName() + ": Evaluating " + _interpreted.length + " of " + parsed.size() + " conditions, " + compiler.getStats() + ".");
+	}
+	
+	private void evaluate(Condition[] conditions, Blackhole blackhole)
+	{
+		int next = _next;
+		for (int i = 0; i < EVALUATIONS; i++)
+		{
+			blackhole.consume(conditions[next].test(_caster, _target, _skill, null));
+			if (++next == conditions.length)
+			{
+				next = 0;
+			}
+		}
+		_next = next;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(EVALUATIONS)
+	public void interpreted(Blackhole blackhole)
+	{
+		evaluate(_interpreted, blackhole);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(EVALUATIONS)
+	public void compiled(Blackhole blackhole)
+	{
+		evaluate(_compiled, blackhole);
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.itemcontainer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.l2jserver.gameserver.enums.ItemLocation;
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.items.L2EtcItem;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * {@link ItemContainer} lookups and transfers against the copy-on-write list with linear scans it replaced.<br>
+ * The shot benchmarks look up the soulshot stack added last to an inventory, as every auto attack does.<br>
+ * The transfer benchmarks move every item of a warehouse to another one and back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemContainerBenchmark
+{
+	private static final int SHOT_ID = 1463;
+	
+	@Param(
+	{
+		"200",
+		"2000"
+	})
+	private int _items;
+	
+	private BenchmarkContainer _container;
+	private BenchmarkContainer _otherContainer;
+	private CopyOnWriteItems _cowItems;
+	private CopyOnWriteItems _otherCowItems;
+	
+	/**
+	 * A warehouse without owner, nothing is stored in database.
+	 */
+	private static final class BenchmarkContainer extends ItemContainer
+	{
+		@Override
+		protected L2Character getOwner()
+		{
+			return null;
+		}
+		
+		@Override
+		protected ItemLocation getBaseLocation()
+		{
+			return ItemLocation.WAREHOUSE;
+		}
+	}
+	
+	/**
+	 * The item storage of ItemContainer before the indexes.
+	 */
+	private static final class CopyOnWriteItems
+	{
+		protected final List<L2ItemInstance> _list = new CopyOnWriteArrayList<>();
+		
+		protected L2ItemInstance getItemByItemId(int itemId)
+		{
+			for (L2ItemInstance item : _list)
+			{
+				if ((item != null) && (item.getId() == itemId))
+				{
+					return item;
+				}
+			}
+			return null;
+		}
+	}
+	
+	private static L2EtcItem template(int id, boolean stackable)
+	{
+		final StatsSet set = new StatsSet();
+		set.set("item_id", id);
+		set.set("name", "Item " + id);
+		set.set("is_stackable", stackable);
+		return new L2EtcItem(set);
+	}
+	
+	@Setup
+	public void setUp()
+	{
+		_container = new BenchmarkContainer();
+		_otherContainer = new BenchmarkContainer();
+		_cowItems = new CopyOnWriteItems();
+		_otherCowItems = new CopyOnWriteItems();
+		
+		for (int i = 0; i < _items; i++)
+		{
+			final L2ItemInstance item = new L2ItemInstance(i + 1, template(10000 + i, false));
+			_container.addItem(item);
+			_cowItems._list.add(item);
+		}
+		
+		final L2ItemInstance shots = new L2ItemInstance(_items + 1, template(SHOT_ID, true));
+		_container.addItem(shots);
+		_cowItems._list.add(shots);
+	}
+	
+	@Benchmark
+	public L2ItemInstance shotLookup()
+	{
+		return _container.getItemByItemId(SHOT_ID);
+	}
+	
+	@Benchmark
+	public L2ItemInstance shotLookupCopyOnWrite()
+	{
+		return _cowItems.getItemByItemId(SHOT_ID);
+	}
+	
+	@Benchmark
+	public int warehouseTransfer()
+	{
+		for (L2ItemInstance item : _container.getItemList())
+		{
+			_container.removeItem(item);
+			_otherContainer.addItem(item);
+		}
+		for (L2ItemInstance item : _otherContainer.getItemList())
+		{
+			_otherContainer.removeItem(item);
+			_container.addItem(item);
+		}
+		return _container.getSize();
+	}
+	
+	@Benchmark
+	public int warehouseTransferCopyOnWrite()
+	{
+		for (L2ItemInstance item : _cowItems._list)
+		{
+			_cowItems._list.remove(item);
+			_otherCowItems._list.add(item);
+		}
+		for (L2ItemInstance item : _otherCowItems._list)
+		{
+			_otherCowItems._list.remove(item);
+			_cowItems._list.add(item);
+		}
+		return _cowItems._list.size();
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.stats;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.l2jserver.gameserver.GameTimeController;
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.BenchmarkCharacter;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.skills.Skill;
+
+/**
+ * Damage formulas of a level 80 fighter attacking a level 78 monster, both with the standard NPC stat calculators.<br>
+ * The per call benchmarks gather the stats of both sides on every formula, as every formula did before {@link DamageContext}, and still does through the signatures taking the characters.<br>
+ * The context benchmarks gather them once per attack, as the L2Character attack methods do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulasBenchmark
+{
+	private L2Character _attacker;
+	private L2Character _target;
+	private Skill _magicSkill;
+	
+	@Setup
+	public void setUp()
+	{
+		// the hit condition bonus checks the time of day
+		GameTimeController.init();
+		
+		_attacker = BenchmarkCharacter.create(1, 80, 1500, 600, 1000, 500, false);
+		_target = BenchmarkCharacter.create(2, 78, 1200, 800, 900, 650, true);
+		
+		final StatsSet set = new StatsSet();
+		set.set("skill_id", 1177);
+		set.set("level", 1);
+		set.set("name", "Wind Strike");
+		set.set("operateType", "A1");
+		set.set("isMagic", 1);
+		set.set("power", 120);
+		set.set("magicLvl", 78);
+		_magicSkill = new Skill(set);
+	}
+	
+	@Benchmark
+	public double physicalHitPerCall()
+	{
+		if (Formulas.calcHitMiss(_attacker, _target))
+		{
+			return 0;
+		}
+		final byte shld = Formulas.calcShldUse(_attacker, _target);
+		final boolean crit = Formulas.calcCrit(_attacker.getStat().getCriticalHit(_target, null), false, _target);
+		return Formulas.calcPhysDam(_attacker, _target, null, shld, crit, true);
+	}
+	
+	@Benchmark
+	public double physicalHitContext()
+	{
+		final DamageContext context = DamageContext.forHit(_attacker, _target, null);
+		double damage = 0;
+		if (!Formulas.calcHitMiss(context))
+		{
+			final byte shld = Formulas.calcShldUse(context, true);
+			final boolean crit = Formulas.calcCrit(context.getCriticalHitRate(), false, _target);
+			damage = Formulas.calcPhysDam(context, shld, crit, true);
+		}
+		context.release();
+		return damage;
+	}
+	
+	@Benchmark
+	public void dualHitPerCall(Blackhole blackhole)
+	{
+		for (int i = 0; i < 2; i++)
+		{
+			blackhole.consume(physicalHitPerCall());
+		}
+	}
+	
+	@Benchmark
+	public void dualHitContext(Blackhole blackhole)
+	{
+		final DamageContext context = DamageContext.forHit(_attacker, _target, null);
+		for (int i = 0; i < 2; i++)
+		{
+			if (!Formulas.calcHitMiss(context))
+			{
+				final byte shld = Formulas.calcShldUse(context, true);
+				final boolean crit = Formulas.calcCrit(context.getCriticalHitRate(), false, _target);
+				blackhole.consume(Formulas.calcPhysDam(context, shld, crit, true));
+			}
+		}
+		context.release();
+	}
+	
+	@Benchmark
+	public double magicDamage()
+	{
+		final boolean mcrit = Formulas.calcMCrit(_attacker.getMCriticalHit(_target, _magicSkill));
+		return Formulas.calcMagicDam(_attacker, _target, _magicSkill, Formulas.SHIELD_DEFENSE_FAILED, false, true, mcrit);
+	}
+}
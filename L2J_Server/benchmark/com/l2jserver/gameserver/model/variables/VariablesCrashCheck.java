@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.variables;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import com.l2jserver.Config;
+import com.l2jserver.L2DatabaseFactory;
+
+/**
+ * Crash check of the variable stores.<br>
+ * A child process keeps changing and storing the variables of a test character, and is killed at a random time, most of the time while a store is running.<br>
+ * The variables read back must be those of the last store the child reported done, or those of the store it was running, as a store is one transaction. Anything else is a lost or half written store.<br>
+ * Needs the game server database: {@code gradle variablesCrashCheck [-PcheckArgs="<jdbc url> <login> <password>"]}, the defaults are those of Server.properties.<br>
+ * The variables of character {@value #OWNER} are deleted before and after the check.
+ */
+public final class VariablesCrashCheck
+{
+	private static final Logger _log = Logger.getLogger(VariablesCrashCheck.class.getName());
+	
+	private static final int OWNER = Integer.MAX_VALUE - 1;
+	private static final int ROUNDS = 20;
+	private static final int VARIABLES = 50;
+	private static final String STORED = "stored ";
+	private static final String COUNT_QUERY = "SELECT COUNT(*) FROM character_variables WHERE charId = ?";
+	
+	private VariablesCrashCheck()
+	{
+	}
+	
+	/**
+	 * Applies the changes of one store: up to eight variables set, and sometimes one removed.
+	 * @param step the store, starting at 1
+	 * @param values the values to change
+	 */
+	private static void change(int step, Map<String, String> values)
+	{
+		final Random random = new Random(step);
+		final int count = 1 + random.nextInt(8);
+		for (int i = 0; i < count; i++)
+		{
+			values.put("var" + random.nextInt(VARIABLES), step + ":" + i);
+		}
+		if (random.nextInt(4) == 0)
+		{
+			values.remove("var" + random.nextInt(VARIABLES));
+		}
+	}
+	
+	/**
+	 * @param step the store, 0 for none
+	 * @return the variables once the given store is done
+	 */
+	private static Map<String, String> expected(int step)
+	{
+		final Map<String, String> values = new HashMap<>();
+		for (int i = 1; i <= step; i++)
+		{
+			change(i, values);
+		}
+		return values;
+	}
+	
+	private static void setDatabase(String[] args)
+	{
+		Config.DATABASE_DRIVER = "com.mysql.jdbc.Driver";
+		Config.DATABASE_URL = args.length > 0 ? args[0] : "jdbc:mysql://localhost/l2jgs";
+		Config.DATABASE_LOGIN = args.length > 1 ? args[1] : "root";
+		Config.DATABASE_PASSWORD = args.length > 2 ? args[2] : "";
+		Config.DATABASE_MAX_CONNECTIONS = 2;
+	}
+	
+	/**
+	 * Child process: stores the changes from the given step on, forever, reporting every store done on the standard output.
+	 * @param step the first store
+	 */
+	private static void runChild(int step)
+	{
+		final PlayerVariables variables = new PlayerVariables(OWNER);
+		final Map<String, String> values = new HashMap<>();
+		for (Map.Entry<String, Object> entry : variables.getSet().entrySet())
+		{
+			values.put(entry.getKey(), String.valueOf(entry.getValue()));
+		}
+		
+		for (;; step++)
+		{
+			final Map<String, String> before = new HashMap<>(values);
+			change(step, values);
+			for (String name : before.keySet())
+			{
+				if (!values.containsKey(name))
+				{
+					variables.remove(name);
+				}
+			}
+			for (Map.Entry<String, String> entry : values.entrySet())
+			{
+				if (!entry.getValue().equals(before.get(entry.getKey())))
+				{
+					variables.set(entry.getKey(), entry.getValue());
+				}
+			}
+			if (variables.hasChanges() && !variables.storeMe())
+			{
+				System.exit(1);
+			}
+			System.out.println(STORED + step);
+			System.out.flush();
+		}
+	}
+	
+	/**
+	 * @return the amount of variable rows of the test character, which is more than the amount of variables if a row is duplicated
+	 */
+	private static int countRows() throws SQLException
+	{
+		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
+			PreparedStatement ps = con.prepareStatement(COUNT_QUERY))
+		{
+			ps.setInt(1, OWNER);
+			try (ResultSet rs = ps.executeQuery())
+			{
+				return rs.next() ? rs.getInt(1) : 0;
+			}
+		}
+	}
+	
+	private static Map<String, String> reload()
+	{
+		final Map<String, String> values = new HashMap<>();
+		for (Map.Entry<String, Object> entry : new PlayerVariables(OWNER).getSet().entrySet())
+		{
+			values.put(entry.getKey(), String.valueOf(entry.getValue()));
+		}
+		return values;
+	}
+	
+	/**
+	 * Runs a child process and kills it after some stores.
+	 * @param step the first store of the child
+	 * @param random the random generator
+	 * @param args the database arguments
+	 * @return the last store the child reported done, {@code step - 1} if none
+	 */
+	private static int runAndKill(int step, Random random, String[] args) throws IOException, InterruptedException
+	{
+		final String[] command = new String[5 + args.length];
+		command[0] = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		command[1] = "-cp";
+		command[2] = System.getProperty("java.class.path");
+		command[3] = VariablesCrashCheck.class.getName();
+		command[4] = "-child=" + step;
+		System.arraycopy(args, 0, command, 5, args.length);
+		final Process child = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		
+		final int stores = 5 + random.nextInt(50);
+		int stored = step - 1;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream())))
+		{
+			String line;
+			while ((stored < ((step - 1) + stores)) && ((line = reader.readLine()) != null))
+			{
+				if (line.startsWith(STORED))
+				{
+					stored = Integer.parseInt(line.substring(STORED.length()));
+				}
+			}
+			// a store takes a few milliseconds, land somewhere inside the next one
+			LockSupport.parkNanos(random.nextInt(3000000));
+			child.destroyForcibly();
+			child.waitFor(30, TimeUnit.SECONDS);
+			// stores reported before the kill
+			while ((line = reader.readLine()) != null)
+			{
+				if (line.startsWith(STORED))
+				{
+					stored = Integer.parseInt(line.substring(STORED.length()));
+				}
+			}
+		}
+		if (stored < step)
+		{
+			throw new IllegalStateException("The child stored nothing, exit value " + child.exitValue() + ".");
+		}
+		return stored;
+	}
+	
+	/**
+	 * @param args {@code [jdbc url] [login] [password]}
+	 * @throws Exception if the database cannot be used or the child process cannot be run
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		if ((args.length > 0) && args[0].startsWith("-child="))
+		{
+			final String[] databaseArgs = new String[args.length - 1];
+			System.arraycopy(args, 1, databaseArgs, 0, databaseArgs.length);
+			setDatabase(databaseArgs);
+			runChild(Integer.parseInt(args[0].substring("-child=".length())));
+			return;
+		}
+		
+		setDatabase(args);
+		new PlayerVariables(OWNER).deleteMe();
+		final Random random = new Random();
+		int done = 0;
+		int failures = 0;
+		for (int round = 1; round <= ROUNDS; round++)
+		{
+			final int stored = runAndKill(done + 1, random, args);
+			final Map<String, String> values = reload();
+			final int rows = countRows();
+			if (rows != values.size())
+			{
+				_log.warning(VariablesCrashCheck.class.getSimpleName() + ": Round " + round + ": " + rows + " rows for " + values.size() + " variables.");
+				failures++;
+			}
+			
+			if (values.equals(expected(stored)))
+			{
+				done = stored;
+			}
+			else if (values.equals(expected(stored + 1)))
+			{
+				// the store running when the child was killed was committed
+				done = stored + 1;
+			}
+			else
+			{
+				_log.warning(VariablesCrashCheck.class.getSimpleName() + ": Round " + round + ": variables after store " + stored + " are " + values + ", expected " + expected(stored) + ".");
+				failures++;
+				break;
+			}
+			_log.info(VariablesCrashCheck.class.getSimpleName() + ": Round " + round + ": killed after store " + stored + ", reloaded the variables of store " + done + ".");
+		}
+		
+		new PlayerVariables(OWNER).deleteMe();
+		L2DatabaseFactory.getInstance().shutdown();
+		if (failures > 0)
+		{
+			_log.warning(VariablesCrashCheck.class.getSimpleName() + ": Variables were lost in " + failures + " rounds.");
+			System.exit(1);
+		}
+		_log.info(VariablesCrashCheck.class.getSimpleName() + ": No variable lost in " + ROUNDS + " crashes.");
+	}
+}
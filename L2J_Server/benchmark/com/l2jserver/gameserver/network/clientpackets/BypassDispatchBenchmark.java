@@ -0,0 +1,542 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.clientpackets;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.l2jserver.gameserver.handler.AdminCommandHandler;
+import com.l2jserver.gameserver.handler.BypassHandler;
+import com.l2jserver.gameserver.handler.CommunityBoardHandler;
+import com.l2jserver.gameserver.handler.IAdminCommandHandler;
+import com.l2jserver.gameserver.handler.IBypassHandler;
+import com.l2jserver.gameserver.handler.IParseBoardHandler;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.network.clientpackets.RequestBypassToServer.BypassRoute;
+import com.l2jserver.gameserver.util.BypassParameters;
+import com.l2jserver.gameserver.util.Util;
+
+/**
+ * Dispatch of a bypass trace as {@link RequestBypassToServer} does it, up to the call of the handler: the html validation check, the community board check, the route, the parameters and the handler lookup.<br>
+ * {@code chain} is the dispatch with the startsWith chain, the split parameters and the scan of the community board commands it replaced, {@code trie} the dispatch of the packet with its prefix tries.<br>
+ * With {@code -p _trace=<file>} the bypasses of the file are used, one per line, otherwise a generated town trace: mostly NPC dialogs, menu selections and community board pages.<br>
+ * Handlers are stubs registered with the commands of the datapack handlers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BypassDispatchBenchmark
+{
+	private static final Logger _log = Logger.getLogger(BypassDispatchBenchmark.class.getName());
+	
+	/** Bypasses dispatched per invocation, so the scores are per bypass. */
+	private static final int BYPASSES = 1024;
+	private static final int GENERATED_BYPASSES = 4096;
+	
+	private static final String[] NON_HTML_COMMANDS =
+	{
+		"_bbs",
+		"bbs",
+		"_mail",
+		"_friend",
+		"_match",
+		"_diary",
+		"_olympiad?command",
+		"menu_select",
+		"manor_menu_select"
+	};
+	
+	private static final String[][] BOARD_COMMANDS =
+	{
+		{
+			"_bbshome",
+			"_bbstop"
+		},
+		{
+			"_bbsgetfav",
+			"bbs_add_fav",
+			"_bbsdelfav_"
+		},
+		{
+			"_friendlist",
+			"_friendblocklist"
+		},
+		{
+			"_bbsclan",
+			"_bbsclan_list",
+			"_bbsclan_clanhome"
+		},
+		{
+			"_bbsloc"
+		},
+		{
+			"_maillist"
+		},
+		{
+			"_bbsmemo",
+			"_bbstopics"
+		}
+	};
+	
+	private static final String[] BYPASS_COMMANDS =
+	{
+		"Link",
+		"Quest",
+		"Chat",
+		"multisell",
+		"exc_multisell",
+		"Buy",
+		"BuyShadowItem",
+		"Sell",
+		"SkillList",
+		"Augment",
+		"Remove",
+		"arenachange",
+		"package_withdraw",
+		"package_deposit",
+		"ItemAuction",
+		"withdrawp",
+		"depositp",
+		"withdrawc",
+		"depositc",
+		"TerritoryStatus",
+		"observesiege",
+		"observeoracle",
+		"observe",
+		"player_help",
+		"RideWyvern",
+		"GiveBlessing",
+		"supportmagic",
+		"supportmagicservitor",
+		"voice",
+		"Wear",
+		"npcfind_byid",
+		"olympiaddesc",
+		"olympiadnoble",
+		"olybuff",
+		"olympiad",
+		"watchmatch",
+		"TutorialClose",
+		"QuestList",
+		"TerritoryWar",
+		"Festival"
+	};
+	
+	private static final String[] ADMIN_COMMANDS =
+	{
+		"admin_teleportto",
+		"admin_recall",
+		"admin_heal",
+		"admin_kill",
+		"admin_spawn",
+		"admin_delete",
+		"admin_invul",
+		"admin_admin"
+	};
+	
+	@Param("")
+	public String _trace;
+	
+	private String[] _bypasses;
+	private int _next;
+	
+	/** The community board commands as registered before the trie, lower case, by command. */
+	private final Map<String, IParseBoardHandler> _boards = new HashMap<>();
+	/** The bypass handlers as registered before, lower case, by name. */
+	private final Map<String, IBypassHandler> _bypassHandlers = new HashMap<>();
+	
+	private static final class BoardHandler implements IParseBoardHandler
+	{
+		private final String[] _commands;
+		
+		protected BoardHandler(String[] commands)
+		{
+			_commands = commands;
+		}
+		
+		@Override
+		public boolean parseCommunityBoardCommand(String command, L2PcInstance player)
+		{
+			return true;
+		}
+		
+		@Override
+		public String[] getCommunityBoardCommands()
+		{
+			return _commands;
+		}
+	}
+	
+	private static final class Handler implements IBypassHandler, IAdminCommandHandler
+	{
+		private final String[] _commands;
+		
+		protected Handler(String[] commands)
+		{
+			_commands = commands;
+		}
+		
+		@Override
+		public boolean useBypass(String command, L2PcInstance activeChar, L2Character bypassOrigin)
+		{
+			return true;
+		}
+		
+		@Override
+		public String[] getBypassList()
+		{
+			return _commands;
+		}
+		
+		@Override
+		public boolean useAdminCommand(String command, L2PcInstance activeChar)
+		{
+			return true;
+		}
+		
+		@Override
+		public String[] getAdminCommandList()
+		{
+			return _commands;
+		}
+	}
+	
+	/**
+	 * @return a trace of town bypasses
+	 */
+	private static String[] generateTrace()
+	{
+		final Random random = new Random(GENERATED_BYPASSES);
+		final String[] trace = new String[GENERATED_BYPASSES];
+		for (int i = 0; i < trace.length; i++)
+		{
+			final int npc = 268435456 + random.nextInt(50000);
+			final int kind = random.nextInt(100);
+			if (kind < 30)
+			{
+				final String[] actions =
+				{
+					"Chat " + random.nextInt(5),
+					"Quest",
+					"Link default/" + (30000 + random.nextInt(2000)) + "-1.htm",
+					"multisell " + random.nextInt(900),
+					"SkillList"
+				};
+				trace[i] = "npc_" + npc + "_" + actions[random.nextInt(actions.length)];
+			}
+			else if (kind < 50)
+			{
+				trace[i] = BYPASS_COMMANDS[random.nextInt(BYPASS_COMMANDS.length)] + " " + random.nextInt(1000);
+			}
+			else if (kind < 65)
+			{
+				final String[] commands = BOARD_COMMANDS[random.nextInt(BOARD_COMMANDS.length)];
+				trace[i] = commands[random.nextInt(commands.length)] + (random.nextBoolean() ? ";" + random.nextInt(100) : "");
+			}
+			else if (kind < 80)
+			{
+				trace[i] = "menu_select?ask=" + (-303 + random.nextInt(10)) + "&reply=" + random.nextInt(10);
+			}
+			else if (kind < 85)
+			{
+				trace[i] = "manor_menu_select?ask=" + random.nextInt(10) + "&state=-1&time=" + random.nextInt(2);
+			}
+			else if (kind < 90)
+			{
+				trace[i] = (random.nextBoolean() ? "_match" : "_diary") + "?class=" + (88 + random.nextInt(31)) + "&page=" + (1 + random.nextInt(3));
+			}
+			else if (kind < 93)
+			{
+				trace[i] = "_olympiad?command=move_op_field&field=" + (1 + random.nextInt(22));
+			}
+			else if (kind < 98)
+			{
+				trace[i] = "item_" + npc + "_" + (random.nextBoolean() ? "Quest" : "Chat 0");
+			}
+			else
+			{
+				trace[i] = ADMIN_COMMANDS[random.nextInt(ADMIN_COMMANDS.length)] + " " + random.nextInt(100);
+			}
+		}
+		return trace;
+	}
+	
+	@Setup
+	public void setUp() throws IOException
+	{
+		for (String[] commands : BOARD_COMMANDS)
+		{
+			final BoardHandler handler = new BoardHandler(commands);
+			CommunityBoardHandler.getInstance().registerHandler(handler);
+			for (String command : commands)
+			{
+				_boards.put(command.toLowerCase(), handler);
+			}
+		}
+		for (int i = 0; i < BYPASS_COMMANDS.length; i += 4)
+		{
+			final String[] commands = new String[Math.min(4, BYPASS_COMMANDS.length - i)];
+			System.arraycopy(BYPASS_COMMANDS, i, commands, 0, commands.length);
+			final Handler handler = new Handler(commands);
+			BypassHandler.getInstance().registerHandler(handler);
+			for (String command : commands)
+			{
+				_bypassHandlers.put(command.toLowerCase(), handler);
+			}
+		}
+		AdminCommandHandler.getInstance().registerHandler(new Handler(ADMIN_COMMANDS));
+		
+		if (_trace.isEmpty())
+		{
+			_bypasses = generateTrace();
+		}
+		else
+		{
+			final List<String> bypasses = new ArrayList<>();
+			for (String line : Files.readAllLines(Paths.get(_trace), StandardCharsets.UTF_8))
+			{
+				if (!line.isEmpty())
+				{
+					bypasses.add(line);
+				}
+			}
+			_bypasses = bypasses.toArray(new String[bypasses.size()]);
+		}
+		_log.info(BypassDispatchBenchmark.class.getSimpleName() + ": Dispatching " + _bypasses.length + " bypasses.");
+	}
+	
+	private IParseBoardHandler getBoardByScan(String cmd)
+	{
+		for (IParseBoardHandler cb : _boards.values())
+		{
+			for (String command : cb.getCommunityBoardCommands())
+			{
+				if (cmd.toLowerCase().startsWith(command.toLowerCase()))
+				{
+					return cb;
+				}
+			}
+		}
+		return null;
+	}
+	
+	private IBypassHandler getBypassHandlerBySubstring(String command)
+	{
+		if (command.contains(" "))
+		{
+			command = command.substring(0, command.indexOf(" "));
+		}
+		return _bypassHandlers.get(command.toLowerCase());
+	}
+	
+	private static Object npcOrItem(String command, int idStart)
+	{
+		final int endOfId = command.indexOf('_', idStart + 1);
+		final String id = endOfId > 0 ? command.substring(idStart, endOfId) : command.substring(idStart);
+		return Util.isDigit(id) && (endOfId > 0) ? Integer.parseInt(id) + command.substring(endOfId + 1) : null;
+	}
+	
+	/**
+	 * The dispatch before the prefix tries.
+	 * @param command the bypass
+	 * @param blackhole receives the validation flag, the route parameters and the handler
+	 */
+	private void chain(String command, Blackhole blackhole)
+	{
+		boolean requiresBypassValidation = true;
+		for (String possibleNonHtmlCommand : NON_HTML_COMMANDS)
+		{
+			if (command.startsWith(possibleNonHtmlCommand))
+			{
+				requiresBypassValidation = false;
+				break;
+			}
+		}
+		blackhole.consume(requiresBypassValidation);
+		
+		if (command.startsWith("admin_"))
+		{
+			blackhole.consume(AdminCommandHandler.getInstance().getHandler(command.split(" ")[0]));
+		}
+		else if (getBoardByScan(command) != null)
+		{
+			blackhole.consume(getBoardByScan(command));
+		}
+		else if (command.startsWith("npc_"))
+		{
+			blackhole.consume(npcOrItem(command, 4));
+		}
+		else if (command.startsWith("item_"))
+		{
+			blackhole.consume(npcOrItem(command, 5));
+		}
+		else if (command.startsWith("_match") || command.startsWith("_diary"))
+		{
+			final StringTokenizer st = new StringTokenizer(command.substring(command.indexOf("?") + 1), "&");
+			blackhole.consume(Integer.parseInt(st.nextToken().split("=")[1]) + Integer.parseInt(st.nextToken().split("=")[1]));
+		}
+		else if (command.startsWith("_olympiad?command"))
+		{
+			blackhole.consume(Integer.parseInt(command.split("=")[2]));
+			blackhole.consume(getBypassHandlerBySubstring("arenachange"));
+		}
+		else if (command.startsWith("menu_select"))
+		{
+			final String[] split = command.substring(command.indexOf("?") + 1).split("&");
+			blackhole.consume(Integer.parseInt(split[0].split("=")[1]) + Integer.parseInt(split[1].split("=")[1]));
+		}
+		else if (command.startsWith("manor_menu_select"))
+		{
+			final String[] split = command.substring(command.indexOf("?") + 1).split("&");
+			blackhole.consume(Integer.parseInt(split[0].split("=")[1]) + Integer.parseInt(split[1].split("=")[1]));
+			blackhole.consume(split[2].split("=")[1].equals("1"));
+		}
+		else
+		{
+			blackhole.consume(getBypassHandlerBySubstring(command));
+		}
+	}
+	
+	/**
+	 * The dispatch of {@link RequestBypassToServer}.
+	 * @param command the bypass
+	 * @param blackhole receives the validation flag, the route parameters and the handler
+	 */
+	private static void trie(String command, Blackhole blackhole)
+	{
+		blackhole.consume(!RequestBypassToServer.NON_HTML_COMMANDS.hasPrefixOf(command));
+		
+		final BypassRoute route = RequestBypassToServer.ROUTES.getLongestPrefix(command);
+		if (route == BypassRoute.ADMIN)
+		{
+			final int endOfCommand = command.indexOf(' ');
+			blackhole.consume(AdminCommandHandler.getInstance().getHandler(endOfCommand >= 0 ? command.substring(0, endOfCommand) : command));
+		}
+		else if (CommunityBoardHandler.getInstance().isCommunityBoardCommand(command))
+		{
+			blackhole.consume(CommunityBoardHandler.getInstance().getHandler(command));
+		}
+		else if (route != null)
+		{
+			switch (route)
+			{
+				case NPC:
+					blackhole.consume(npcOrItem(command, 4));
+					break;
+				case ITEM:
+					blackhole.consume(npcOrItem(command, 5));
+					break;
+				case MATCH:
+				case DIARY:
+				{
+					final BypassParameters params = new BypassParameters(command);
+					blackhole.consume(params.nextInt() + params.nextInt());
+					break;
+				}
+				case OLYMPIAD:
+				{
+					final BypassParameters params = new BypassParameters(command);
+					params.skip();
+					blackhole.consume(params.nextInt());
+					blackhole.consume(BypassHandler.getInstance().getHandler("arenachange"));
+					break;
+				}
+				case MENU_SELECT:
+				{
+					final BypassParameters params = new BypassParameters(command);
+					blackhole.consume(params.nextInt() + params.nextInt());
+					break;
+				}
+				case MANOR_MENU_SELECT:
+				{
+					final BypassParameters params = new BypassParameters(command);
+					blackhole.consume(params.nextInt() + params.nextInt());
+					blackhole.consume(params.nextString().equals("1"));
+					break;
+				}
+				default:
+					break;
+			}
+		}
+		else
+		{
+			blackhole.consume(BypassHandler.getInstance().getHandler(command));
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(BYPASSES)
+	public void chain(Blackhole blackhole)
+	{
+		int next = _next;
+		for (int i = 0; i < BYPASSES; i++)
+		{
+			chain(_bypasses[next], blackhole);
+			if (++next == _bypasses.length)
+			{
+				next = 0;
+			}
+		}
+		_next = next;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(BYPASSES)
+	public void trie(Blackhole blackhole)
+	{
+		int next = _next;
+		for (int i = 0; i < BYPASSES; i++)
+		{
+			trie(_bypasses[next], blackhole);
+			if (++next == _bypasses.length)
+			{
+				next = 0;
+			}
+		}
+		_next = next;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scheduler load of one attack round of simultaneous melee fighters.<br>
+ * Each fighter schedules a hit and an attack end event, the round ends once all events ran.<br>
+ * {@link CombatTaskManager} is compared with one scheduled future per event on the same pool, as L2Character did before.<br>
+ * All events are due at once, so the round measures scheduling and dispatch cost rather than the attack delays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatTaskManagerBenchmark
+{
+	/** Default AiMaxThread. */
+	private static final int AI_THREADS = 6;
+	
+	@Param("2000")
+	private int _fighters;
+	
+	private ScheduledThreadPoolExecutor _aiPool;
+	private CombatTaskManager _combatTaskManager;
+	private final AtomicInteger _pending = new AtomicInteger();
+	private final Runnable _event = _pending::decrementAndGet;
+	
+	@Setup
+	public void setUp()
+	{
+		_aiPool = new ScheduledThreadPoolExecutor(AI_THREADS);
+		_aiPool.prestartAllCoreThreads();
+		_combatTaskManager = new CombatTaskManager(_aiPool);
+	}
+	
+	@TearDown
+	public void tearDown()
+	{
+		_aiPool.shutdownNow();
+	}
+	
+	private void awaitRound()
+	{
+		while (_pending.get() > 0)
+		{
+			Thread.yield();
+		}
+	}
+	
+	@Benchmark
+	public void combatTaskManager()
+	{
+		_pending.set(_fighters * 2);
+		for (int i = 0; i < _fighters; i++)
+		{
+			_combatTaskManager.schedule(_event, 0);
+			_combatTaskManager.schedule(_event, 0);
+		}
+		awaitRound();
+	}
+	
+	@Benchmark
+	public void scheduledFutures()
+	{
+		_pending.set(_fighters * 2);
+		for (int i = 0; i < _fighters; i++)
+		{
+			_aiPool.schedule(_event, 0, TimeUnit.MILLISECONDS);
+			_aiPool.schedule(_event, 0, TimeUnit.MILLISECONDS);
+		}
+		awaitRound();
+	}
+}
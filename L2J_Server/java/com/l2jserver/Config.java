@@ -482,6 +482,7 @@ public final class Config
 	public static int EVENT_MAX_THREAD;
 	public static int CLIENT_PACKET_QUEUE_SIZE;
 	public static int CLIENT_PACKET_QUEUE_MAX_BURST_SIZE;
+	public static int CLIENT_PACKET_QUEUE_TIME_SLICE;
 	public static int CLIENT_PACKET_QUEUE_MAX_PACKETS_PER_SECOND;
 	public static int CLIENT_PACKET_QUEUE_MEASURE_INTERVAL;
 	public static int CLIENT_PACKET_QUEUE_MAX_AVERAGE_PACKETS_PER_SECOND;
@@ -489,6 +490,8 @@ public final class Config
 	public static int CLIENT_PACKET_QUEUE_MAX_OVERFLOWS_PER_MIN;
 	public static int CLIENT_PACKET_QUEUE_MAX_UNDERFLOWS_PER_MIN;
 	public static int CLIENT_PACKET_QUEUE_MAX_UNKNOWN_PER_MIN;
+	public static boolean PACKET_PROFILER;
+	public static int PACKET_PROFILER_DUMP_INTERVAL;
 	public static boolean DEADLOCK_DETECTOR;
 	public static int DEADLOCK_CHECK_INTERVAL;
 	public static boolean RESTART_ON_DEADLOCK;
@@ -797,6 +800,7 @@ public final class Config
 	public static boolean ALT_ATTACKABLE_NPCS;
 	public static boolean ALT_GAME_VIEWNPC;
 	public static int MAX_DRIFT_RANGE;
+	public static int SPAWN_THREADS;
 	public static boolean SHOW_NPC_LVL;
 	public static boolean SHOW_CREST_WITHOUT_QUEST;
 	public static boolean ENABLE_RANDOM_ENCHANT_EFFECT;
@@ -935,6 +939,9 @@ public final class Config
 	public static int MMO_MAX_READ_PER_PASS;
 	public static int MMO_HELPER_BUFFER_COUNT;
 	public static boolean MMO_TCP_NODELAY;
+	public static boolean PACKET_COALESCING;
+	public static int PACKET_COALESCING_FLUSH_INTERVAL;
+	public static int PACKET_COALESCING_MAX_PACKETS;
 	
 	// --------------------------------------------------
 	// Vitality Settings
@@ -971,6 +978,7 @@ public final class Config
 	
 	public static IdFactoryType IDFACTORY_TYPE;
 	public static boolean BAD_ID_CHECKING;
+	public static boolean ID_SNAPSHOT;
 	
 	public static double ENCHANT_CHANCE_ELEMENT_STONE;
 	public static double ENCHANT_CHANCE_ELEMENT_CRYSTAL;
@@ -1075,6 +1083,8 @@ public final class Config
 	
 	// GeoData Settings
 	public static int PATHFINDING;
+	public static boolean ASYNC_PATHFINDING;
+	public static int PATHFINDING_THREADS;
 	public static File PATHNODE_DIR;
 	public static String PATHFIND_BUFFERS;
 	public static float LOW_WEIGHT;
@@ -1089,6 +1099,11 @@ public final class Config
 	public static Path GEODATA_PATH;
 	public static boolean TRY_LOAD_UNSPECIFIED_REGIONS;
 	public static Map<String, Boolean> GEODATA_REGIONS;
+	public static int GEODATA_LOAD_THREADS;
+	public static boolean GEODATA_LOAD_ON_DEMAND;
+	public static boolean GEODATA_MEMORY_MAPPED;
+	public static int LOS_CACHE_SIZE;
+	public static long LOS_CACHE_TIME;
 	
 	/**
 	 * This class initializes all global variables for configuration.<br>
@@ -1688,12 +1703,16 @@ public final class Config
 			MMO_MAX_READ_PER_PASS = mmoSettings.getInt("MaxReadPerPass", 12);
 			MMO_HELPER_BUFFER_COUNT = mmoSettings.getInt("HelperBufferCount", 20);
 			MMO_TCP_NODELAY = mmoSettings.getBoolean("TcpNoDelay", false);
+			PACKET_COALESCING = mmoSettings.getBoolean("PacketCoalescing", false);
+			PACKET_COALESCING_FLUSH_INTERVAL = mmoSettings.getInt("PacketCoalescingFlushInterval", 20);
+			PACKET_COALESCING_MAX_PACKETS = mmoSettings.getInt("PacketCoalescingMaxPackets", 12);
 			
 			// Load IdFactory L2Properties file (if exists)
 			final PropertiesParser IdFactory = new PropertiesParser(ID_CONFIG_FILE);
 			
 			IDFACTORY_TYPE = IdFactory.getEnum("IDFactory", IdFactoryType.class, IdFactoryType.BitSet);
 			BAD_ID_CHECKING = IdFactory.getBoolean("BadIdChecking", true);
+			ID_SNAPSHOT = IdFactory.getBoolean("IdSnapshot", true);
 			
 			// Load General L2Properties file (if exists)
 			final PropertiesParser General = new PropertiesParser(GENERAL_CONFIG_FILE);
@@ -1756,6 +1775,7 @@ public final class Config
 			{
 				CLIENT_PACKET_QUEUE_MAX_BURST_SIZE = MMO_MAX_READ_PER_PASS + 1;
 			}
+			CLIENT_PACKET_QUEUE_TIME_SLICE = General.getInt("ClientPacketQueueTimeSlice", 10);
 			CLIENT_PACKET_QUEUE_MAX_PACKETS_PER_SECOND = General.getInt("ClientPacketQueueMaxPacketsPerSecond", 80);
 			CLIENT_PACKET_QUEUE_MEASURE_INTERVAL = General.getInt("ClientPacketQueueMeasureInterval", 5);
 			CLIENT_PACKET_QUEUE_MAX_AVERAGE_PACKETS_PER_SECOND = General.getInt("ClientPacketQueueMaxAveragePacketsPerSecond", 40);
@@ -1763,6 +1783,8 @@ public final class Config
 			CLIENT_PACKET_QUEUE_MAX_OVERFLOWS_PER_MIN = General.getInt("ClientPacketQueueMaxOverflowsPerMin", 1);
 			CLIENT_PACKET_QUEUE_MAX_UNDERFLOWS_PER_MIN = General.getInt("ClientPacketQueueMaxUnderflowsPerMin", 1);
 			CLIENT_PACKET_QUEUE_MAX_UNKNOWN_PER_MIN = General.getInt("ClientPacketQueueMaxUnknownPerMin", 5);
+			PACKET_PROFILER = General.getBoolean("PacketProfiler", true);
+			PACKET_PROFILER_DUMP_INTERVAL = General.getInt("PacketProfilerDumpInterval", 60);
 			DEADLOCK_DETECTOR = General.getBoolean("DeadLockDetector", true);
 			DEADLOCK_CHECK_INTERVAL = General.getInt("DeadLockCheckInterval", 20);
 			RESTART_ON_DEADLOCK = General.getBoolean("RestartOnDeadlock", false);
@@ -1954,6 +1976,7 @@ public final class Config
 			ALT_ATTACKABLE_NPCS = NPC.getBoolean("AltAttackableNpcs", true);
 			ALT_GAME_VIEWNPC = NPC.getBoolean("AltGameViewNpc", false);
 			MAX_DRIFT_RANGE = NPC.getInt("MaxDriftRange", 300);
+			SPAWN_THREADS = NPC.getInt("SpawnThreads", 0);
 			SHOW_NPC_LVL = NPC.getBoolean("ShowNpcLevel", false);
 			SHOW_CREST_WITHOUT_QUEST = NPC.getBoolean("ShowCrestWithoutQuest", false);
 			ENABLE_RANDOM_ENCHANT_EFFECT = NPC.getBoolean("EnableRandomEnchantEffect", false);
@@ -2658,6 +2681,8 @@ public final class Config
 			}
 			
 			PATHFINDING = geoData.getInt("PathFinding", 0);
+			ASYNC_PATHFINDING = geoData.getBoolean("AsyncPathFinding", true);
+			PATHFINDING_THREADS = geoData.getInt("PathFindingThreads", 2);
 			PATHFIND_BUFFERS = geoData.getString("PathFindBuffers", "100x6;128x6;192x6;256x4;320x4;384x4;500x2");
 			LOW_WEIGHT = geoData.getFloat("LowWeight", 0.5f);
 			MEDIUM_WEIGHT = geoData.getFloat("MediumWeight", 2);
@@ -2670,6 +2695,11 @@ public final class Config
 			COORD_SYNCHRONIZE = geoData.getInt("CoordSynchronize", -1);
 			GEODATA_PATH = Paths.get(geoData.getString("GeoDataPath", "./data/geodata"));
 			TRY_LOAD_UNSPECIFIED_REGIONS = geoData.getBoolean("TryLoadUnspecifiedRegions", true);
+			GEODATA_LOAD_THREADS = geoData.getInt("GeoDataLoadThreads", 4);
+			GEODATA_LOAD_ON_DEMAND = geoData.getBoolean("GeoDataLoadOnDemand", false);
+			GEODATA_MEMORY_MAPPED = geoData.getBoolean("GeoDataMemoryMapped", false);
+			LOS_CACHE_SIZE = geoData.getInt("LosCacheSize", 65536);
+			LOS_CACHE_TIME = geoData.getLong("LosCacheTime", 500);
 			GEODATA_REGIONS = new HashMap<>();
 			for (int regionX = L2World.TILE_X_MIN; regionX <= L2World.TILE_X_MAX; regionX++)
 			{
@@ -2966,6 +2996,9 @@ public final class Config
 					CLIENT_PACKET_QUEUE_MAX_BURST_SIZE = MMO_MAX_READ_PER_PASS;
 				}
 				break;
+			case "clientpacketqueuetimeslice":
+				CLIENT_PACKET_QUEUE_TIME_SLICE = Integer.parseInt(pValue);
+				break;
 			case "clientpacketqueuemaxpacketspersecond":
 				CLIENT_PACKET_QUEUE_MAX_PACKETS_PER_SECOND = Integer.parseInt(pValue);
 				break;
@@ -18,13 +18,31 @@
  */
 package com.l2jserver.gameserver;
 
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jserver.Config;
 import com.l2jserver.gameserver.data.xml.impl.DoorData;
+import com.l2jserver.gameserver.handler.TelnetHandler;
 import com.l2jserver.gameserver.model.L2Object;
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.Location;
@@ -32,8 +50,12 @@ import com.l2jserver.gameserver.model.interfaces.ILocational;
 import com.l2jserver.gameserver.util.GeoUtils;
 import com.l2jserver.gameserver.util.LinePointIterator;
 import com.l2jserver.gameserver.util.LinePointIterator3D;
+import com.l2jserver.gameserver.util.LosCache;
 import com.l2jserver.geodriver.Cell;
 import com.l2jserver.geodriver.GeoDriver;
+import com.l2jserver.geodriver.IRegion;
+import com.l2jserver.geodriver.regions.NullRegion;
+import com.l2jserver.geodriver.regions.Region;
 
 /**
  * @author -Nemesiss-, HorridoJoho
@@ -46,61 +68,269 @@ public class GeoData
 	private static final int MAX_SEE_OVER_HEIGHT = 48;
 	private static final int SPAWN_Z_DELTA_LIMIT = 100;
 	
+	/** Converts coordinates, the regions are kept here so that they can also be memory mapped regions. */
 	private final GeoDriver _driver = new GeoDriver();
+	private final AtomicReferenceArray<IRegion> _regions = new AtomicReferenceArray<>(GeoDriver.GEO_REGIONS);
+	/** Regions found at boot but not loaded yet, by region index, when loading on demand. */
+	private final Map<Integer, Path> _pendingRegions = new ConcurrentHashMap<>();
+	private final AtomicInteger _loadedRegions = new AtomicInteger();
+	private final AtomicLong _mappedBytes = new AtomicLong();
+	private final LosCache _losCache = Config.LOS_CACHE_SIZE > 0 ? new LosCache(Config.LOS_CACHE_SIZE, Config.LOS_CACHE_TIME) : null;
 	
 	protected GeoData()
 	{
-		int loadedRegions = 0;
-		try
+		TelnetHandler.getInstance().registerHandler(new GeoDataTelnetHandler());
+		for (int i = 0; i < _regions.length(); i++)
 		{
-			for (int regionX = L2World.TILE_X_MIN; regionX <= L2World.TILE_X_MAX; regionX++)
+			_regions.set(i, NullRegion.INSTANCE);
+		}
+		
+		final long start = System.currentTimeMillis();
+		// always on grids are never activated, there would be nothing to trigger loading on demand
+		final boolean onDemand = Config.GEODATA_LOAD_ON_DEMAND && !Config.GRIDS_ALWAYS_ON;
+		final List<Path> required = new ArrayList<>();
+		final List<Path> optional = new ArrayList<>();
+		for (int regionX = L2World.TILE_X_MIN; regionX <= L2World.TILE_X_MAX; regionX++)
+		{
+			for (int regionY = L2World.TILE_Y_MIN; regionY <= L2World.TILE_Y_MAX; regionY++)
 			{
-				for (int regionY = L2World.TILE_Y_MIN; regionY <= L2World.TILE_Y_MAX; regionY++)
+				final Path geoFilePath = Config.GEODATA_PATH.resolve(String.format(FILE_NAME_FORMAT, regionX, regionY));
+				final Boolean loadFile = Config.GEODATA_REGIONS.get(regionX + "_" + regionY);
+				if (loadFile != null)
 				{
-					final Path geoFilePath = Config.GEODATA_PATH.resolve(String.format(FILE_NAME_FORMAT, regionX, regionY));
-					final Boolean loadFile = Config.GEODATA_REGIONS.get(regionX + "_" + regionY);
-					if (loadFile != null)
+					if (loadFile)
 					{
-						if (loadFile)
-						{
-							LOGGER.info(getClass().getSimpleName() + ": Loading " + geoFilePath.getFileName() + "...");
-							_driver.loadRegion(geoFilePath, regionX, regionY);
-							loadedRegions++;
-						}
+						required.add(geoFilePath);
 					}
-					else if (Config.TRY_LOAD_UNSPECIFIED_REGIONS && Files.exists(geoFilePath))
+				}
+				else if (Config.TRY_LOAD_UNSPECIFIED_REGIONS && Files.exists(geoFilePath))
+				{
+					if (onDemand)
+					{
+						_pendingRegions.put(getRegionIndex(regionX, regionY), geoFilePath);
+					}
+					else
 					{
-						try
-						{
-							LOGGER.info(getClass().getSimpleName() + ": Loading " + geoFilePath.getFileName() + "...");
-							_driver.loadRegion(geoFilePath, regionX, regionY);
-							loadedRegions++;
-						}
-						catch (Exception e)
-						{
-							LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Failed to load " + geoFilePath.getFileName() + "!", e);
-						}
+						optional.add(geoFilePath);
 					}
 				}
 			}
 		}
+		
+		// Regions are loaded in parallel, they are kept in an atomic array.
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Config.GEODATA_LOAD_THREADS));
+		try
+		{
+			final List<Future<?>> requiredLoads = new ArrayList<>(required.size());
+			for (Path geoFilePath : required)
+			{
+				requiredLoads.add(executor.submit(() ->
+				{
+					loadRegion(geoFilePath);
+					return null;
+				}));
+			}
+			for (Path geoFilePath : optional)
+			{
+				executor.execute(() ->
+				{
+					try
+					{
+						loadRegion(geoFilePath);
+					}
+					catch (Exception e)
+					{
+						LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Failed to load " + geoFilePath.getFileName() + "!", e);
+					}
+				});
+			}
+			
+			for (Future<?> load : requiredLoads)
+			{
+				load.get();
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
 		catch (Exception e)
 		{
 			LOGGER.log(Level.SEVERE, getClass().getSimpleName() + ": Failed to load geodata!", e);
 			System.exit(1);
 		}
+		finally
+		{
+			executor.shutdownNow();
+		}
 		
-		LOGGER.info(getClass().getSimpleName() + ": Loaded " + loadedRegions + " regions.");
+		LOGGER.info(getClass().getSimpleName() + ": Loaded " + _loadedRegions.get() + " regions" + (Config.GEODATA_MEMORY_MAPPED ? ", " + (_mappedBytes.get() / 1048576) + " MB kept memory mapped," : "") + " in " + (System.currentTimeMillis() - start) + " ms.");
+		if (!_pendingRegions.isEmpty())
+		{
+			LOGGER.info(getClass().getSimpleName() + ": " + _pendingRegions.size() + " regions will be loaded when first activated.");
+		}
+	}
+	
+	private static int getRegionIndex(int regionX, int regionY)
+	{
+		return (regionX * GeoDriver.GEO_REGIONS_Y) + regionY;
+	}
+	
+	/**
+	 * Maps a region file and reads it, either decoding all its blocks like the driver does or keeping the mapping for {@link MappedGeoRegion}.
+	 * @param geoFilePath the region file
+	 * @return the region
+	 * @throws IOException if the file could not be mapped
+	 */
+	static IRegion readRegion(Path geoFilePath) throws IOException
+	{
+		try (RandomAccessFile raf = new RandomAccessFile(geoFilePath.toFile(), "r"))
+		{
+			final ByteBuffer buffer = raf.getChannel().map(MapMode.READ_ONLY, 0, raf.length()).order(ByteOrder.LITTLE_ENDIAN);
+			return Config.GEODATA_MEMORY_MAPPED ? new MappedGeoRegion(buffer) : new Region(buffer);
+		}
+	}
+	
+	private void loadRegion(Path geoFilePath) throws IOException
+	{
+		final String[] name = geoFilePath.getFileName().toString().split("[_.]");
+		LOGGER.info(getClass().getSimpleName() + ": Loading " + geoFilePath.getFileName() + "...");
+		final IRegion region = readRegion(geoFilePath);
+		_regions.set(getRegionIndex(Integer.parseInt(name[0]), Integer.parseInt(name[1])), region);
+		_loadedRegions.incrementAndGet();
+		if (region instanceof MappedGeoRegion)
+		{
+			_mappedBytes.addAndGet(((MappedGeoRegion) region).getMappedBytes());
+		}
+		// lines of sight through the region were checked without its geodata
+		invalidateLosCache();
+	}
+	
+	private IRegion getRegion(int geoX, int geoY)
+	{
+		if ((geoX < 0) || (geoX >= GeoDriver.GEO_CELLS_X) || (geoY < 0) || (geoY >= GeoDriver.GEO_CELLS_Y))
+		{
+			throw new IllegalArgumentException();
+		}
+		return _regions.get(getRegionIndex(geoX / IRegion.REGION_CELLS_X, geoY / IRegion.REGION_CELLS_Y));
+	}
+	
+	/**
+	 * @return the pending region file holding the given world coordinates, taken out of the pending regions, {@code null} if there is none
+	 */
+	private Path takePendingRegion(int worldX, int worldY)
+	{
+		if (_pendingRegions.isEmpty())
+		{
+			return null;
+		}
+		return _pendingRegions.remove(getRegionIndex((worldX >> 15) + L2World.TILE_ZERO_COORD_X, (worldY >> 15) + L2World.TILE_ZERO_COORD_Y));
+	}
+	
+	private void loadPendingRegion(Path geoFilePath)
+	{
+		try
+		{
+			loadRegion(geoFilePath);
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Failed to load " + geoFilePath.getFileName() + "!", e);
+		}
+	}
+	
+	/**
+	 * Starts loading the geodata region holding the given world coordinates on the general pool if it is still pending.<br>
+	 * The caller does not wait, the area has no geodata until the load is done.
+	 * @param worldX the world X coordinate
+	 * @param worldY the world Y coordinate
+	 */
+	public void loadRegionAt(int worldX, int worldY)
+	{
+		final Path geoFilePath = takePendingRegion(worldX, worldY);
+		if (geoFilePath != null)
+		{
+			ThreadPoolManager.getInstance().executeGeneral(() -> loadPendingRegion(geoFilePath));
+		}
+	}
+	
+	/**
+	 * Loads the pending geodata regions holding the given locations and waits for them, used for the spawns made at startup.
+	 * @param locations the locations
+	 */
+	public void loadRegionsAt(Collection<? extends ILocational> locations)
+	{
+		if (_pendingRegions.isEmpty())
+		{
+			return;
+		}
+		
+		final List<Path> regions = new ArrayList<>();
+		for (ILocational location : locations)
+		{
+			final Path geoFilePath = takePendingRegion(location.getX(), location.getY());
+			if (geoFilePath != null)
+			{
+				regions.add(geoFilePath);
+			}
+		}
+		if (regions.isEmpty())
+		{
+			return;
+		}
+		
+		final long start = System.currentTimeMillis();
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Config.GEODATA_LOAD_THREADS));
+		try
+		{
+			for (Path geoFilePath : regions)
+			{
+				executor.execute(() -> loadPendingRegion(geoFilePath));
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		LOGGER.info(getClass().getSimpleName() + ": Loaded " + regions.size() + " regions used by spawns in " + (System.currentTimeMillis() - start) + " ms, " + _pendingRegions.size() + " left to load on demand.");
+	}
+	
+	/**
+	 * @return the amount of loaded regions
+	 */
+	public int getLoadedRegionCount()
+	{
+		return _loadedRegions.get();
+	}
+	
+	/**
+	 * @return the amount of regions waiting to be loaded on demand
+	 */
+	public int getPendingRegionCount()
+	{
+		return _pendingRegions.size();
+	}
+	
+	/**
+	 * @return the size of the region files kept memory mapped, 0 when the regions are decoded at load
+	 */
+	public long getMappedBytes()
+	{
+		return _mappedBytes.get();
 	}
 	
 	public boolean hasGeoPos(int geoX, int geoY)
 	{
-		return _driver.hasGeoPos(geoX, geoY);
+		return getRegion(geoX, geoY).hasGeo();
 	}
 	
 	public boolean checkNearestNswe(int geoX, int geoY, int worldZ, int nswe)
 	{
-		return _driver.checkNearestNswe(geoX, geoY, worldZ, nswe);
+		return getRegion(geoX, geoY).checkNearestNswe(geoX, geoY, worldZ, nswe);
 	}
 	
 	public boolean checkNearestNsweAntiCornerCut(int geoX, int geoY, int worldZ, int nswe)
@@ -135,17 +365,17 @@ public class GeoData
 	
 	public int getNearestZ(int geoX, int geoY, int worldZ)
 	{
-		return _driver.getNearestZ(geoX, geoY, worldZ);
+		return getRegion(geoX, geoY).getNearestZ(geoX, geoY, worldZ);
 	}
 	
 	public int getNextLowerZ(int geoX, int geoY, int worldZ)
 	{
-		return _driver.getNextLowerZ(geoX, geoY, worldZ);
+		return getRegion(geoX, geoY).getNextLowerZ(geoX, geoY, worldZ);
 	}
 	
 	public int getNextHigherZ(int geoX, int geoY, int worldZ)
 	{
-		return _driver.getNextHigherZ(geoX, geoY, worldZ);
+		return getRegion(geoX, geoY).getNextHigherZ(geoX, geoY, worldZ);
 	}
 	
 	public int getGeoX(int worldX)
@@ -275,11 +505,44 @@ public class GeoData
 	 */
 	public boolean canSeeTarget(int x, int y, int z, int instanceId, int tx, int ty, int tz)
 	{
-		if (DoorData.getInstance().checkIfDoorsBetween(x, y, z, tx, ty, tz, instanceId, true))
+		if (_losCache == null)
 		{
-			return false;
+			return !DoorData.getInstance().checkIfDoorsBetween(x, y, z, tx, ty, tz, instanceId, true) && canSeeTarget(x, y, z, tx, ty, tz);
+		}
+		
+		final int geoX = getGeoX(x);
+		final int geoY = getGeoY(y);
+		final int tGeoX = getGeoX(tx);
+		final int tGeoY = getGeoY(ty);
+		final Boolean cached = _losCache.get(geoX, geoY, z, tGeoX, tGeoY, tz, instanceId);
+		if (cached != null)
+		{
+			return cached;
+		}
+		
+		final int epoch = _losCache.getEpoch();
+		final boolean canSee = !DoorData.getInstance().checkIfDoorsBetween(x, y, z, tx, ty, tz, instanceId, true) && canSeeTarget(x, y, z, tx, ty, tz);
+		_losCache.put(geoX, geoY, z, tGeoX, tGeoY, tz, instanceId, epoch, canSee);
+		return canSee;
+	}
+	
+	/**
+	 * Drops the cached line of sight results, called whenever a door changes state.
+	 */
+	public void invalidateLosCache()
+	{
+		if (_losCache != null)
+		{
+			_losCache.invalidate();
 		}
-		return canSeeTarget(x, y, z, tx, ty, tz);
+	}
+	
+	/**
+	 * @return the line of sight cache, {@code null} if disabled
+	 */
+	public LosCache getLosCache()
+	{
+		return _losCache;
 	}
 	
 	private int getLosGeoZ(int prevX, int prevY, int prevGeoZ, int curX, int curY, int nswe)
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import java.io.PrintWriter;
+import java.net.Socket;
+
+import com.l2jserver.gameserver.handler.ITelnetHandler;
+import com.l2jserver.gameserver.util.LosCache;
+
+/**
+ * Telnet access to the {@link GeoData} region and line of sight cache statistics.<br>
+ * Usage: {@code geodata}.
+ */
+final class GeoDataTelnetHandler implements ITelnetHandler
+{
+	private static final String[] COMMANDS =
+	{
+		"geodata"
+	};
+	
+	@Override
+	public boolean useCommand(String command, PrintWriter _print, Socket _cSocket, int _uptime)
+	{
+		final GeoData geoData = GeoData.getInstance();
+		_print.println(String.format("Regions: %d loaded, %d pending, %d MB kept memory mapped.", geoData.getLoadedRegionCount(), geoData.getPendingRegionCount(), geoData.getMappedBytes() / 1048576));
+		
+		final LosCache losCache = geoData.getLosCache();
+		if (losCache != null)
+		{
+			_print.println(String.format("LOS cache: %d hits, %d misses, %.2f%% hit rate, epoch %d.", losCache.getHits(), losCache.getMisses(), losCache.getHitRate() * 100, losCache.getEpoch()));
+		}
+		else
+		{
+			_print.println("LOS cache: disabled.");
+		}
+		_print.flush();
+		return true;
+	}
+	
+	@Override
+	public String[] getCommandList()
+	{
+		return COMMANDS;
+	}
+}
@@ -18,18 +18,20 @@
  */
 package com.l2jserver.gameserver;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 import com.l2jserver.Config;
 import com.l2jserver.gameserver.enums.ItemLocation;
 import com.l2jserver.gameserver.instancemanager.ItemsOnGroundManager;
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.taskmanager.DeadlineQueue;
 
+/**
+ * Destroys the dropped items once their lifetime on ground is over.<br>
+ * Items are indexed by the time they expire at, so each check only touches the expired items instead of every item on ground.
+ */
 public final class ItemsAutoDestroy
 {
-	private final Map<Integer, L2ItemInstance> _items = new ConcurrentHashMap<>();
+	private final DeadlineQueue<L2ItemInstance> _items = new DeadlineQueue<>();
 	
 	protected ItemsAutoDestroy()
 	{
@@ -41,73 +43,69 @@ public final class ItemsAutoDestroy
 		return SingletonHolder._instance;
 	}
 	
-	public synchronized void addItem(L2ItemInstance item)
+	public void addItem(L2ItemInstance item)
 	{
 		item.setDropTime(System.currentTimeMillis());
-		_items.put(item.getObjectId(), item);
+		_items.schedule(item, item.getDropTime() + getLifeTime(item));
+	}
+	
+	/**
+	 * Stops tracking an item, called when it leaves the ground.
+	 * @param item the item
+	 */
+	public void removeItem(L2ItemInstance item)
+	{
+		_items.remove(item);
 	}
 	
-	public synchronized void removeItems()
+	public void removeItems()
 	{
 		final long curtime = System.currentTimeMillis();
-		for (L2ItemInstance item : _items.values())
+		for (L2ItemInstance item : _items.poll(curtime))
 		{
-			if (item == null)
+			if ((item.getDropTime() == 0) || (item.getItemLocation() != ItemLocation.VOID))
 			{
 				continue;
 			}
 			
-			if ((item.getDropTime() == 0) || (item.getItemLocation() != ItemLocation.VOID))
+			// the item may have been dropped again since it was added
+			final long expireTime = item.getDropTime() + getLifeTime(item);
+			if (expireTime > curtime)
 			{
-				_items.remove(item.getObjectId());
+				_items.schedule(item, expireTime);
+				continue;
 			}
-			else
+			
+			L2World.getInstance().removeVisibleObject(item, item.getWorldRegion());
+			L2World.getInstance().removeObject(item);
+			if (Config.SAVE_DROPPED_ITEM)
 			{
-				if (item.getItem().getAutoDestroyTime() > 0)
-				{
-					if ((curtime - item.getDropTime()) > item.getItem().getAutoDestroyTime())
-					{
-						L2World.getInstance().removeVisibleObject(item, item.getWorldRegion());
-						L2World.getInstance().removeObject(item);
-						_items.remove(item.getObjectId());
-						if (Config.SAVE_DROPPED_ITEM)
-						{
-							ItemsOnGroundManager.getInstance().removeObject(item);
-						}
-					}
-				}
-				else if (item.getItem().hasExImmediateEffect())
-				{
-					if ((curtime - item.getDropTime()) > Config.HERB_AUTO_DESTROY_TIME)
-					{
-						L2World.getInstance().removeVisibleObject(item, item.getWorldRegion());
-						L2World.getInstance().removeObject(item);
-						_items.remove(item.getObjectId());
-						if (Config.SAVE_DROPPED_ITEM)
-						{
-							ItemsOnGroundManager.getInstance().removeObject(item);
-						}
-					}
-				}
-				else
-				{
-					final long sleep = ((Config.AUTODESTROY_ITEM_AFTER == 0) ? 3600000 : Config.AUTODESTROY_ITEM_AFTER * 1000);
-					
-					if ((curtime - item.getDropTime()) > sleep)
-					{
-						L2World.getInstance().removeVisibleObject(item, item.getWorldRegion());
-						L2World.getInstance().removeObject(item);
-						_items.remove(item.getObjectId());
-						if (Config.SAVE_DROPPED_ITEM)
-						{
-							ItemsOnGroundManager.getInstance().removeObject(item);
-						}
-					}
-				}
+				ItemsOnGroundManager.getInstance().removeObject(item);
 			}
 		}
 	}
 	
+	/**
+	 * @return the amount of items waiting to be destroyed
+	 */
+	public int size()
+	{
+		return _items.size();
+	}
+	
+	private static long getLifeTime(L2ItemInstance item)
+	{
+		if (item.getItem().getAutoDestroyTime() > 0)
+		{
+			return item.getItem().getAutoDestroyTime();
+		}
+		else if (item.getItem().hasExImmediateEffect())
+		{
+			return Config.HERB_AUTO_DESTROY_TIME;
+		}
+		return (Config.AUTODESTROY_ITEM_AFTER == 0) ? 3600000 : Config.AUTODESTROY_ITEM_AFTER * 1000;
+	}
+	
 	private static class SingletonHolder
 	{
 		protected static final ItemsAutoDestroy _instance = new ItemsAutoDestroy();
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import java.nio.ByteBuffer;
+
+import com.l2jserver.geodriver.IBlock;
+import com.l2jserver.geodriver.IRegion;
+
+/**
+ * A geodata region read straight from its memory mapped file.<br>
+ * Only the offset of each block is kept on the heap, cells are decoded from the mapping on every lookup instead of one block object per block being decoded at load.<br>
+ * Lookups give the same results as the driver's region, the buffer is only read with absolute gets so it can be shared by all threads.
+ */
+final class MappedGeoRegion implements IRegion
+{
+	private static final int MAX_LAYERS = 125;
+	
+	private final ByteBuffer _buffer;
+	private final int[] _blockOffsets = new int[REGION_BLOCKS];
+	
+	/**
+	 * @param buffer the region file, in little endian order
+	 */
+	MappedGeoRegion(ByteBuffer buffer)
+	{
+		_buffer = buffer;
+		int offset = 0;
+		for (int block = 0; block < REGION_BLOCKS; block++)
+		{
+			_blockOffsets[block] = offset;
+			final int blockType = buffer.get(offset++);
+			switch (blockType)
+			{
+				case IBlock.TYPE_FLAT:
+					offset += 2;
+					break;
+				case IBlock.TYPE_COMPLEX:
+					offset += IBlock.BLOCK_CELLS * 2;
+					break;
+				case IBlock.TYPE_MULTILAYER:
+					for (int cell = 0; cell < IBlock.BLOCK_CELLS; cell++)
+					{
+						final int layers = buffer.get(offset);
+						if ((layers <= 0) || (layers > MAX_LAYERS))
+						{
+							throw new RuntimeException("Geo file corrupted! Invalid layers count!");
+						}
+						offset += 1 + (layers * 2);
+					}
+					break;
+				default:
+					throw new RuntimeException("Invalid block type " + blockType + "!");
+			}
+		}
+	}
+	
+	/**
+	 * @return the size of the mapped region file
+	 */
+	public int getMappedBytes()
+	{
+		return _buffer.capacity();
+	}
+	
+	private int getBlockOffset(int geoX, int geoY)
+	{
+		return _blockOffsets[(((geoX / IBlock.BLOCK_CELLS_X) % REGION_BLOCKS_X) * REGION_BLOCKS_Y) + ((geoY / IBlock.BLOCK_CELLS_Y) % REGION_BLOCKS_Y)];
+	}
+	
+	private static int getCellIndex(int geoX, int geoY)
+	{
+		return ((geoX % IBlock.BLOCK_CELLS_X) * IBlock.BLOCK_CELLS_Y) + (geoY % IBlock.BLOCK_CELLS_Y);
+	}
+	
+	private short getComplexCell(int blockOffset, int geoX, int geoY)
+	{
+		return _buffer.getShort(blockOffset + 1 + (getCellIndex(geoX, geoY) * 2));
+	}
+	
+	/**
+	 * @return the offset of the layer count of the cell in a multilayer block
+	 */
+	private int getLayersOffset(int blockOffset, int geoX, int geoY)
+	{
+		int offset = blockOffset + 1;
+		for (int cell = getCellIndex(geoX, geoY); cell > 0; cell--)
+		{
+			offset += 1 + (_buffer.get(offset) * 2);
+		}
+		return offset;
+	}
+	
+	private static int getHeight(short cell)
+	{
+		return ((short) (cell & 0x0FFF0)) >> 1;
+	}
+	
+	private static int getNswe(short cell)
+	{
+		return cell & 0x000F;
+	}
+	
+	private short getNearestLayer(int layersOffset, int worldZ)
+	{
+		final int end = layersOffset + 1 + (_buffer.get(layersOffset) * 2);
+		// a cell has at least one layer, so this is set at least once on the loop below
+		int nearestDZ = 0;
+		short nearest = 0;
+		for (int offset = layersOffset + 1; offset < end; offset += 2)
+		{
+			final short layer = _buffer.getShort(offset);
+			final int layerZ = getHeight(layer);
+			if (layerZ == worldZ)
+			{
+				return layer;
+			}
+			
+			final int layerDZ = Math.abs(layerZ - worldZ);
+			if ((offset == (layersOffset + 1)) || (layerDZ < nearestDZ))
+			{
+				nearestDZ = layerDZ;
+				nearest = layer;
+			}
+		}
+		return nearest;
+	}
+	
+	@Override
+	public boolean checkNearestNswe(int geoX, int geoY, int worldZ, int nswe)
+	{
+		final int blockOffset = getBlockOffset(geoX, geoY);
+		switch (_buffer.get(blockOffset))
+		{
+			case IBlock.TYPE_FLAT:
+				return true;
+			case IBlock.TYPE_COMPLEX:
+				return (getNswe(getComplexCell(blockOffset, geoX, geoY)) & nswe) == nswe;
+			default:
+				return (getNswe(getNearestLayer(getLayersOffset(blockOffset, geoX, geoY), worldZ)) & nswe) == nswe;
+		}
+	}
+	
+	@Override
+	public int getNearestZ(int geoX, int geoY, int worldZ)
+	{
+		final int blockOffset = getBlockOffset(geoX, geoY);
+		switch (_buffer.get(blockOffset))
+		{
+			case IBlock.TYPE_FLAT:
+				return _buffer.getShort(blockOffset + 1);
+			case IBlock.TYPE_COMPLEX:
+				return getHeight(getComplexCell(blockOffset, geoX, geoY));
+			default:
+				return getHeight(getNearestLayer(getLayersOffset(blockOffset, geoX, geoY), worldZ));
+		}
+	}
+	
+	@Override
+	public int getNextLowerZ(int geoX, int geoY, int worldZ)
+	{
+		final int blockOffset = getBlockOffset(geoX, geoY);
+		final int height;
+		switch (_buffer.get(blockOffset))
+		{
+			case IBlock.TYPE_FLAT:
+				height = _buffer.getShort(blockOffset + 1);
+				break;
+			case IBlock.TYPE_COMPLEX:
+				height = getHeight(getComplexCell(blockOffset, geoX, geoY));
+				break;
+			default:
+				final int layersOffset = getLayersOffset(blockOffset, geoX, geoY);
+				final int end = layersOffset + 1 + (_buffer.get(layersOffset) * 2);
+				int lowerZ = Integer.MIN_VALUE;
+				for (int offset = layersOffset + 1; offset < end; offset += 2)
+				{
+					final int layerZ = getHeight(_buffer.getShort(offset));
+					if (layerZ == worldZ)
+					{
+						return layerZ;
+					}
+					if ((layerZ < worldZ) && (layerZ > lowerZ))
+					{
+						lowerZ = layerZ;
+					}
+				}
+				return lowerZ == Integer.MIN_VALUE ? worldZ : lowerZ;
+		}
+		return height <= worldZ ? height : worldZ;
+	}
+	
+	@Override
+	public int getNextHigherZ(int geoX, int geoY, int worldZ)
+	{
+		final int blockOffset = getBlockOffset(geoX, geoY);
+		final int height;
+		switch (_buffer.get(blockOffset))
+		{
+			case IBlock.TYPE_FLAT:
+				height = _buffer.getShort(blockOffset + 1);
+				break;
+			case IBlock.TYPE_COMPLEX:
+				height = getHeight(getComplexCell(blockOffset, geoX, geoY));
+				break;
+			default:
+				final int layersOffset = getLayersOffset(blockOffset, geoX, geoY);
+				final int end = layersOffset + 1 + (_buffer.get(layersOffset) * 2);
+				int higherZ = Integer.MAX_VALUE;
+				for (int offset = layersOffset + 1; offset < end; offset += 2)
+				{
+					final int layerZ = getHeight(_buffer.getShort(offset));
+					if (layerZ == worldZ)
+					{
+						return layerZ;
+					}
+					if ((layerZ > worldZ) && (layerZ < higherZ))
+					{
+						higherZ = layerZ;
+					}
+				}
+				return higherZ == Integer.MAX_VALUE ? worldZ : higherZ;
+		}
+		return height >= worldZ ? height : worldZ;
+	}
+	
+	@Override
+	public boolean hasGeo()
+	{
+		return true;
+	}
+}
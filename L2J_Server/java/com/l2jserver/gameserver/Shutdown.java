@@ -27,6 +27,7 @@ import com.l2jserver.UPnPService;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
 import com.l2jserver.gameserver.data.sql.impl.OfflineTradersTable;
 import com.l2jserver.gameserver.datatables.BotReportTable;
+import com.l2jserver.gameserver.idfactory.IdFactory;
 import com.l2jserver.gameserver.instancemanager.CHSiegeManager;
 import com.l2jserver.gameserver.instancemanager.CastleManorManager;
 import com.l2jserver.gameserver.instancemanager.CursedWeaponsManager;
@@ -46,6 +47,7 @@ import com.l2jserver.gameserver.network.gameserverpackets.ServerStatus;
 import com.l2jserver.gameserver.network.serverpackets.ServerClose;
 import com.l2jserver.gameserver.network.serverpackets.SystemMessage;
 import com.l2jserver.gameserver.util.Broadcast;
+import com.l2jserver.log.AsyncLogWriter;
 
 /**
  * This class provides the functions for shutting down and restarting the server.<br>
@@ -279,6 +281,17 @@ public class Shutdown extends Thread
 				
 			}
 			
+			// write pending log records, halt skips the shutdown hooks
+			try
+			{
+				AsyncLogWriter.shutdownAll();
+				_log.info("Async Log Writers: Pending records written(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+			}
+			catch (Throwable t)
+			{
+				// ignore
+			}
+			
 			// server will quit, when this function ends.
 			if (getInstance()._shutdownMode == GM_RESTART)
 			{
@@ -557,6 +570,13 @@ public class Shutdown extends Thread
 			_log.info("Bot Report Table: Sucessfully saved reports to database!");
 		}
 		
+		// Store used object ids once nothing else writes them
+		if (Config.ID_SNAPSHOT)
+		{
+			IdFactory.getInstance().storeSnapshot();
+			_log.info("IdFactory: Used id's snapshot stored(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+		}
+		
 		try
 		{
 			Thread.sleep(5000);
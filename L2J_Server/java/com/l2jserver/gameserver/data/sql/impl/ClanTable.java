@@ -37,6 +37,7 @@ import com.l2jserver.gameserver.enums.UserInfoType;
 import com.l2jserver.gameserver.idfactory.IdFactory;
 import com.l2jserver.gameserver.instancemanager.AuctionManager;
 import com.l2jserver.gameserver.instancemanager.CHSiegeManager;
+import com.l2jserver.gameserver.instancemanager.ClanStateManager;
 import com.l2jserver.gameserver.instancemanager.FortManager;
 import com.l2jserver.gameserver.instancemanager.FortSiegeManager;
 import com.l2jserver.gameserver.instancemanager.SiegeManager;
@@ -84,32 +85,104 @@ public class ClanTable
 			ForumsBBSManager.getInstance().initRoot();
 		}
 		
-		L2Clan clan;
-		// Count the clans
-		int clanCount = 0;
+		restoreClans();
+		allianceCheck();
+		restorewars();
+	}
+	
+	/**
+	 * Restores all the clans reading each clan table once, instead of one set of queries per clan.
+	 */
+	private void restoreClans()
+	{
+		final Map<Integer, Integer> leaderIds = new HashMap<>();
 		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			Statement s = con.createStatement();
-			ResultSet rs = s.executeQuery("SELECT clan_id FROM clan_data"))
+			Statement s = con.createStatement())
 		{
-			while (rs.next())
+			try (ResultSet rs = s.executeQuery("SELECT * FROM clan_data ORDER BY clan_id"))
+			{
+				while (rs.next())
+				{
+					final L2Clan clan = new L2Clan(rs);
+					_clans.put(clan.getId(), clan);
+					leaderIds.put(clan.getId(), rs.getInt("leader_id"));
+				}
+			}
+			
+			try (ResultSet rs = s.executeQuery("SELECT clanid,char_name,level,classid,charId,title,power_grade,subpledge,apprentice,sponsor,sex,race FROM characters WHERE clanid > 0 ORDER BY clanid"))
+			{
+				while (rs.next())
+				{
+					final L2Clan clan = getClan(rs.getInt("clanid"));
+					if (clan != null)
+					{
+						clan.restoreMember(rs, leaderIds.get(clan.getId()));
+					}
+				}
+			}
+			
+			// sub-units before skills, sub-unit skills are added to them
+			try (ResultSet rs = s.executeQuery("SELECT clan_id,sub_pledge_id,name,leader_id FROM clan_subpledges ORDER BY clan_id"))
+			{
+				while (rs.next())
+				{
+					final L2Clan clan = getClan(rs.getInt("clan_id"));
+					if (clan != null)
+					{
+						clan.restoreSubPledge(rs);
+					}
+				}
+			}
+			
+			try (ResultSet rs = s.executeQuery("SELECT clan_id,privs,rank,party FROM clan_privs ORDER BY clan_id"))
 			{
-				int clanId = rs.getInt("clan_id");
-				_clans.put(clanId, new L2Clan(clanId));
-				clan = getClan(clanId);
-				if (clan.getDissolvingExpiryTime() != 0)
+				while (rs.next())
 				{
-					scheduleRemoveClan(clan.getId());
+					final L2Clan clan = getClan(rs.getInt("clan_id"));
+					if (clan != null)
+					{
+						clan.restoreRankPrivs(rs);
+					}
+				}
+			}
+			
+			try (ResultSet rs = s.executeQuery("SELECT clan_id,skill_id,skill_level,sub_pledge_id FROM clan_skills ORDER BY clan_id"))
+			{
+				while (rs.next())
+				{
+					final L2Clan clan = getClan(rs.getInt("clan_id"));
+					if (clan != null)
+					{
+						clan.restoreSkill(rs);
+					}
+				}
+			}
+			
+			try (ResultSet rs = s.executeQuery("SELECT clan_id,enabled,notice FROM clan_notices ORDER BY clan_id"))
+			{
+				while (rs.next())
+				{
+					final L2Clan clan = getClan(rs.getInt("clan_id"));
+					if (clan != null)
+					{
+						clan.restoreNotice(rs);
+					}
 				}
-				clanCount++;
 			}
 		}
 		catch (Exception e)
 		{
 			_log.log(Level.SEVERE, "Error restoring ClanTable.", e);
 		}
-		_log.info(getClass().getSimpleName() + ": Restored " + clanCount + " clans from the database.");
-		allianceCheck();
-		restorewars();
+		
+		for (L2Clan clan : _clans.values())
+		{
+			if (clan.getDissolvingExpiryTime() != 0)
+			{
+				scheduleRemoveClan(clan.getId());
+			}
+		}
+		_log.info(getClass().getSimpleName() + ": Restored " + _clans.size() + " clans from the database.");
 	}
 	
 	/**
@@ -269,6 +342,8 @@ public class ClanTable
 		
 		_clans.remove(clanId);
 		IdFactory.getInstance().releaseId(clanId);
+		// the clan_data row is deleted below, nothing left to store
+		ClanStateManager.getInstance().remove(clan);
 		
 		try (Connection con = L2DatabaseFactory.getInstance().getConnection())
 		{
@@ -534,12 +609,12 @@ public class ClanTable
 		return clanAllies;
 	}
 	
+	/**
+	 * Stores the pending clan reputation and Blood Alliance/Oath counts, called on shutdown.
+	 */
 	public void storeClanScore()
 	{
-		for (L2Clan clan : _clans.values())
-		{
-			clan.updateClanScoreInDB();
-		}
+		ClanStateManager.getInstance().store();
 	}
 	
 	public static ClanTable getInstance()
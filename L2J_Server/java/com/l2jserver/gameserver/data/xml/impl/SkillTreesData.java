@@ -102,6 +102,12 @@ public final class SkillTreesData implements IXmlReader
 	private static final Map<Integer, L2SkillLearn> _gameMasterAuraSkillTree = new HashMap<>();
 	// Remove skill tree
 	private static final Map<ClassId, Set<Integer>> _removeSkillCache = new HashMap<>();
+	// ClassId, complete skill tree including parent and common skills
+	private static final Map<ClassId, Map<Integer, L2SkillLearn>> _completeClassSkillTrees = new HashMap<>();
+	// ClassId, learnable skills sorted by required level, without removed skills
+	private static final Map<ClassId, L2SkillLearn[]> _learnableSkills = new HashMap<>();
+	// ClassId, learnable skills of the class itself sorted by required level, without removed skills, for awakened players
+	private static final Map<ClassId, L2SkillLearn[]> _awakenLearnableSkills = new HashMap<>();
 	
 	// Checker, sorted arrays of hash codes
 	private Map<Integer, int[]> _skillsByClassIdHashCodes; // Occupation skills
@@ -143,6 +149,9 @@ public final class SkillTreesData implements IXmlReader
 		_raceSkillTree.clear();
 		_revelationSkillTree.clear();
 		_dualClassSkillTree.clear();
+		_completeClassSkillTrees.clear();
+		_learnableSkills.clear();
+		_awakenLearnableSkills.clear();
 		
 		// Load files.
 		parseDatapackDirectory("data/skillTrees/", false);
@@ -150,6 +159,9 @@ public final class SkillTreesData implements IXmlReader
 		// Generate check arrays.
 		generateCheckArrays();
 		
+		// Generate learnable skill indexes.
+		generateLearnIndexes();
+		
 		_loading = false;
 		
 		// Logs a report with skill trees info.
@@ -603,19 +615,28 @@ public final class SkillTreesData implements IXmlReader
 	 */
 	public boolean hasAvailableSkills(L2PcInstance player, ClassId classId)
 	{
-		final Map<Integer, L2SkillLearn> skills = getCompleteClassSkillTree(classId);
-		for (L2SkillLearn skill : skills.values())
+		return hasAvailableSkills(player, classId, 0);
+	}
+	
+	/**
+	 * Only skills requiring a level above {@code fromLevel} are checked, on level up it is the level the player had before.
+	 * @param player
+	 * @param classId
+	 * @param fromLevel the level skills must require more than
+	 * @return {@code true} if player is able to learn new skills requiring a level above {@code fromLevel} on his current level, {@code false} otherwise.
+	 */
+	public boolean hasAvailableSkills(L2PcInstance player, ClassId classId, int fromLevel)
+	{
+		final L2SkillLearn[] skills = getLearnableSkills(classId, player.isInCategory(CategoryType.AWAKEN_GROUP));
+		for (int i = getFirstSkillAbove(skills, fromLevel); i < skills.length; i++)
 		{
-			if ((skill.getSkillId() == CommonSkill.DIVINE_INSPIRATION.getId()) || skill.isAutoGet() || skill.isLearnedByFS() || (skill.getGetLevel() > player.getLevel()))
-			{
-				continue;
-			}
-			final Skill oldSkill = player.getKnownSkill(skill.getSkillId());
-			if ((oldSkill != null) && (oldSkill.getLevel() == (skill.getSkillLevel() - 1)))
+			final L2SkillLearn skill = skills[i];
+			if (skill.getGetLevel() > player.getLevel())
 			{
-				return true;
+				break;
 			}
-			else if ((oldSkill == null) && (skill.getSkillLevel() == 1))
+			
+			if ((skill.getSkillId() != CommonSkill.DIVINE_INSPIRATION.getId()) && isLearnable(player, skill, false, false, player))
 			{
 				return true;
 			}
@@ -643,50 +664,29 @@ public final class SkillTreesData implements IXmlReader
 	 * @param includeByFs if {@code true} skills from Forgotten Scroll will be included
 	 * @param includeAutoGet if {@code true} Auto-Get skills will be included
 	 * @param holder
-	 * @return all available skills for a given {@code player}, {@code classId}, {@code includeByFs} and {@code includeAutoGet}
+	 * @return all available skills for a given {@code player}, {@code classId}, {@code includeByFs} and {@code includeAutoGet}, sorted by required level
 	 */
 	private List<L2SkillLearn> getAvailableSkills(L2PcInstance player, ClassId classId, boolean includeByFs, boolean includeAutoGet, ISkillsHolder holder)
 	{
-		final List<L2SkillLearn> result = new LinkedList<>();
-		final Map<Integer, L2SkillLearn> skills = getCompleteClassSkillTree(classId);
-		
-		if (skills.isEmpty())
+		final List<L2SkillLearn> result = new ArrayList<>();
+		if (_completeClassSkillTrees.getOrDefault(classId, Collections.emptyMap()).isEmpty())
 		{
 			// The Skill Tree for this class is undefined.
 			LOGGER.warning(getClass().getSimpleName() + ": Skilltree for class " + classId + " is not defined!");
 			return result;
 		}
 		
-		final boolean isAwaken = player.isInCategory(CategoryType.AWAKEN_GROUP);
-		
-		for (Entry<Integer, L2SkillLearn> entry : skills.entrySet())
+		for (L2SkillLearn skill : getLearnableSkills(classId, player.isInCategory(CategoryType.AWAKEN_GROUP)))
 		{
-			final L2SkillLearn skill = entry.getValue();
-			
-			if (((skill.getSkillId() == CommonSkill.DIVINE_INSPIRATION.getId()) && (!Config.AUTO_LEARN_DIVINE_INSPIRATION && includeAutoGet) && !player.isGM()) || (!includeAutoGet && skill.isAutoGet()) || (!includeByFs && skill.isLearnedByFS()) || isRemoveSkill(classId, skill.getSkillId()))
+			// Skills are sorted by required level.
+			if (skill.getGetLevel() > player.getLevel())
 			{
-				continue;
-			}
-			
-			if (isAwaken && !isCurrentClassSkillNoParent(classId, entry.getKey()))
-			{
-				continue;
+				break;
 			}
 			
-			if (player.getLevel() >= skill.getGetLevel())
+			if (isLearnable(player, skill, includeByFs, includeAutoGet, holder))
 			{
-				final Skill oldSkill = holder.getKnownSkill(skill.getSkillId());
-				if (oldSkill != null)
-				{
-					if (oldSkill.getLevel() == (skill.getSkillLevel() - 1))
-					{
-						result.add(skill);
-					}
-				}
-				else if (skill.getSkillLevel() == 1)
-				{
-					result.add(skill);
-				}
+				result.add(skill);
 			}
 		}
 		return result;
@@ -694,23 +694,91 @@ public final class SkillTreesData implements IXmlReader
 	
 	public Collection<Skill> getAllAvailableSkills(L2PcInstance player, ClassId classId, boolean includeByFs, boolean includeAutoGet)
 	{
+		final boolean isAwaken = player.isInCategory(CategoryType.AWAKEN_GROUP);
+		final Map<Integer, L2SkillLearn> skillTree = _completeClassSkillTrees.getOrDefault(classId, Collections.emptyMap());
+		
 		// Get available skills
 		PlayerSkillHolder holder = new PlayerSkillHolder(player);
 		List<L2SkillLearn> learnable = getAvailableSkills(player, classId, includeByFs, includeAutoGet, holder);
 		while (learnable.size() > 0)
 		{
+			final List<L2SkillLearn> next = new ArrayList<>();
 			for (L2SkillLearn s : learnable)
 			{
 				Skill sk = SkillData.getInstance().getSkill(s.getSkillId(), s.getSkillLevel());
 				holder.addSkill(sk);
+				
+				// Some skills depend of previous skills to be available, only the next level of a skill just learned can become available.
+				final int hashCode = SkillData.getSkillHashCode(s.getSkillId(), s.getSkillLevel() + 1);
+				final L2SkillLearn nextLevel = skillTree.get(hashCode);
+				if ((nextLevel != null) && !isRemoveSkill(classId, nextLevel.getSkillId()) && (!isAwaken || isCurrentClassSkillNoParent(classId, hashCode)) && isLearnable(player, nextLevel, includeByFs, includeAutoGet, holder))
+				{
+					next.add(nextLevel);
+				}
 			}
-			
-			// Get new available skills, some skills depend of previous skills to be available.
-			learnable = getAvailableSkills(player, classId, includeByFs, includeAutoGet, holder);
+			learnable = next;
 		}
 		return holder.getSkills().values();
 	}
 	
+	/**
+	 * @param player the learning skill player
+	 * @param skill the skill learn
+	 * @param includeByFs if {@code true} skills from Forgotten Scroll can be learned
+	 * @param includeAutoGet if {@code true} Auto-Get skills can be learned
+	 * @param holder the skills known by the player
+	 * @return {@code true} if the player can learn the skill on his current level, {@code false} otherwise
+	 */
+	private static boolean isLearnable(L2PcInstance player, L2SkillLearn skill, boolean includeByFs, boolean includeAutoGet, ISkillsHolder holder)
+	{
+		if (((skill.getSkillId() == CommonSkill.DIVINE_INSPIRATION.getId()) && (!Config.AUTO_LEARN_DIVINE_INSPIRATION && includeAutoGet) && !player.isGM()) || (!includeAutoGet && skill.isAutoGet()) || (!includeByFs && skill.isLearnedByFS()) || (player.getLevel() < skill.getGetLevel()))
+		{
+			return false;
+		}
+		
+		final Skill oldSkill = holder.getKnownSkill(skill.getSkillId());
+		if (oldSkill != null)
+		{
+			return oldSkill.getLevel() == (skill.getSkillLevel() - 1);
+		}
+		return skill.getSkillLevel() == 1;
+	}
+	
+	/**
+	 * @param classId the class Id
+	 * @param isAwaken if {@code true} only the skills of the class itself are returned
+	 * @return the learnable skills of the class sorted by required level
+	 */
+	private static L2SkillLearn[] getLearnableSkills(ClassId classId, boolean isAwaken)
+	{
+		final L2SkillLearn[] skills = (isAwaken ? _awakenLearnableSkills : _learnableSkills).get(classId);
+		return skills != null ? skills : new L2SkillLearn[0];
+	}
+	
+	/**
+	 * @param skills the skills sorted by required level
+	 * @param level the level
+	 * @return the index of the first skill requiring a level above {@code level}
+	 */
+	private static int getFirstSkillAbove(L2SkillLearn[] skills, int level)
+	{
+		int low = 0;
+		int high = skills.length;
+		while (low < high)
+		{
+			final int mid = (low + high) >>> 1;
+			if (skills[mid].getGetLevel() <= level)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
 	/**
 	 * Gets the available auto get skills.
 	 * @param player the player requesting the Auto-Get skills
@@ -1486,6 +1554,39 @@ public final class SkillTreesData implements IXmlReader
 		}
 	}
 	
+	/**
+	 * Create the learnable skill indexes of each class, removed skills are left out and skills are sorted by required level.
+	 */
+	private void generateLearnIndexes()
+	{
+		final Comparator<L2SkillLearn> byGetLevel = Comparator.comparingInt(L2SkillLearn::getGetLevel);
+		for (ClassId classId : ClassId.values())
+		{
+			final Map<Integer, L2SkillLearn> skillTree = getCompleteClassSkillTree(classId);
+			final List<L2SkillLearn> skills = new ArrayList<>();
+			final List<L2SkillLearn> awakenSkills = new ArrayList<>();
+			for (Entry<Integer, L2SkillLearn> entry : skillTree.entrySet())
+			{
+				if (isRemoveSkill(classId, entry.getValue().getSkillId()))
+				{
+					continue;
+				}
+				
+				skills.add(entry.getValue());
+				if (isCurrentClassSkillNoParent(classId, entry.getKey()))
+				{
+					awakenSkills.add(entry.getValue());
+				}
+			}
+			skills.sort(byGetLevel);
+			awakenSkills.sort(byGetLevel);
+			
+			_completeClassSkillTrees.put(classId, skillTree);
+			_learnableSkills.put(classId, skills.toArray(new L2SkillLearn[skills.size()]));
+			_awakenLearnableSkills.put(classId, awakenSkills.toArray(new L2SkillLearn[awakenSkills.size()]));
+		}
+	}
+	
 	/**
 	 * Create and store hash values for skills for easy and fast checks.
 	 */
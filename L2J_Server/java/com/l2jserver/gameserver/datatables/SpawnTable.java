@@ -22,11 +22,16 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,10 +42,12 @@ import org.w3c.dom.Node;
 
 import com.l2jserver.Config;
 import com.l2jserver.L2DatabaseFactory;
+import com.l2jserver.gameserver.GeoData;
 import com.l2jserver.gameserver.data.xml.impl.NpcData;
 import com.l2jserver.gameserver.instancemanager.DayNightSpawnManager;
 import com.l2jserver.gameserver.instancemanager.ZoneManager;
 import com.l2jserver.gameserver.model.L2Spawn;
+import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.actor.templates.L2NpcTemplate;
 import com.l2jserver.util.data.xml.IXmlReader;
@@ -58,6 +65,9 @@ public final class SpawnTable implements IXmlReader
 	
 	private static final Map<Integer, Set<L2Spawn>> _spawnTable = new ConcurrentHashMap<>();
 	
+	/** Spawns loaded but not spawned yet, in load order. */
+	private final List<L2Spawn> _initialSpawns = new ArrayList<>();
+	
 	private int _xmlSpawnCount = 0;
 	
 	/**
@@ -78,11 +88,108 @@ public final class SpawnTable implements IXmlReader
 			}
 			
 			// Load XML list
+			final int firstXmlSpawn = _initialSpawns.size();
 			parseDatapackDirectory("data/spawnlist", false);
+			
+			// spawn heights need the geodata of the spawns, also for the day and night spawns and the later respawns
+			final List<L2Spawn> spawns = new ArrayList<>();
+			for (Set<L2Spawn> set : _spawnTable.values())
+			{
+				spawns.addAll(set);
+			}
+			GeoData.getInstance().loadRegionsAt(spawns);
+			
+			final int[] npcCounts = spawnInitialSpawns();
+			for (int i = firstXmlSpawn; i < npcCounts.length; i++)
+			{
+				_xmlSpawnCount += npcCounts[i];
+			}
 			LOGGER.info(getClass().getSimpleName() + ": Loaded " + _xmlSpawnCount + " npc spawns from XML.");
 		}
 	}
 	
+	/**
+	 * Spawns the NPCs of the loaded spawns, one task per world region.<br>
+	 * A region is spawned by a single thread, so its NPCs are added to the world one after another and each thread takes its object IDs from its own lease of the ID factory.
+	 * @return the amount of NPCs spawned by each loaded spawn, in load order
+	 */
+	int[] spawnInitialSpawns()
+	{
+		final long start = System.currentTimeMillis();
+		final int[] npcCounts = new int[_initialSpawns.size()];
+		final Map<Integer, List<Integer>> regions = new HashMap<>();
+		for (int i = 0; i < _initialSpawns.size(); i++)
+		{
+			final L2Spawn spawn = _initialSpawns.get(i);
+			final int regionX = (spawn.getX() >> L2World.SHIFT_BY) + L2World.OFFSET_X;
+			final int regionY = (spawn.getY() >> L2World.SHIFT_BY) + L2World.OFFSET_Y;
+			regions.computeIfAbsent((regionX << 16) | regionY, k -> new ArrayList<>()).add(i);
+		}
+		
+		final int threads = Config.SPAWN_THREADS > 0 ? Config.SPAWN_THREADS : Runtime.getRuntime().availableProcessors();
+		if (threads == 1)
+		{
+			for (List<Integer> region : regions.values())
+			{
+				spawnRegion(region, npcCounts);
+			}
+		}
+		else
+		{
+			final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, regions.size())));
+			try
+			{
+				final List<Future<?>> spawns = new ArrayList<>(regions.size());
+				for (List<Integer> region : regions.values())
+				{
+					spawns.add(executor.submit(() -> spawnRegion(region, npcCounts)));
+				}
+				for (Future<?> spawn : spawns)
+				{
+					spawn.get();
+				}
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Initial spawn interrupted: " + e.getMessage(), e);
+			}
+			finally
+			{
+				executor.shutdownNow();
+			}
+		}
+		_initialSpawns.clear();
+		
+		int npcCount = 0;
+		for (int count : npcCounts)
+		{
+			npcCount += count;
+		}
+		final long time = Math.max(System.currentTimeMillis() - start, 1);
+		LOGGER.info(getClass().getSimpleName() + ": Spawned " + npcCount + " npcs in " + regions.size() + " regions on " + threads + " threads in " + time + " ms (" + ((npcCount * 1000L) / time) + " npcs per second).");
+		return npcCounts;
+	}
+	
+	/**
+	 * Spawns the NPCs of the loaded spawns of one world region.
+	 * @param region the indexes of the spawns of the region
+	 * @param npcCounts receives the amount of NPCs spawned by each spawn
+	 */
+	private void spawnRegion(List<Integer> region, int[] npcCounts)
+	{
+		for (int index : region)
+		{
+			try
+			{
+				npcCounts[index] = _initialSpawns.get(index).init();
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Spawn could not be initialized: " + e.getMessage(), e);
+			}
+		}
+	}
+	
 	/**
 	 * Verifies if the template exists and it's spawnable.
 	 * @param npcId the NPC ID
@@ -236,6 +343,7 @@ public final class SpawnTable implements IXmlReader
 									}
 								}
 								
+								// spawns of the default period are counted once spawned
 								_xmlSpawnCount += addSpawn(spawnInfo, map);
 							}
 						}
@@ -294,7 +402,7 @@ public final class SpawnTable implements IXmlReader
 	 * Creates NPC spawn
 	 * @param spawnInfo StatsSet of spawn parameters
 	 * @param AIData Map of specific AI parameters for this spawn
-	 * @return count NPC instances, spawned by this spawn
+	 * @return 1 for a day or night spawn, 0 otherwise
 	 */
 	private int addSpawn(StatsSet spawnInfo, Map<String, Integer> AIData)
 	{
@@ -325,8 +433,8 @@ public final class SpawnTable implements IXmlReader
 			NpcPersonalAIData.getInstance().storeData(spawnDat, AIData);
 			switch (spawnInfo.getInt("periodOfDay", 0))
 			{
-				case 0: // default
-					ret += spawnDat.init();
+				case 0: // default, spawned once everything is loaded
+					_initialSpawns.add(spawnDat);
 					break;
 				case 1: // Day
 					DayNightSpawnManager.getInstance().addDayCreature(spawnDat);
@@ -352,7 +460,7 @@ public final class SpawnTable implements IXmlReader
 	/**
 	 * Wrapper for {@link #addSpawn(StatsSet, Map)}.
 	 * @param spawnInfo StatsSet of spawn parameters
-	 * @return count NPC instances, spawned by this spawn
+	 * @return 1 for a day or night spawn, 0 otherwise
 	 */
 	private int addSpawn(StatsSet spawnInfo)
 	{
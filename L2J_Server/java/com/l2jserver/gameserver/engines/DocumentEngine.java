@@ -28,6 +28,7 @@ import com.l2jserver.Config;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.engines.items.DocumentItem;
 import com.l2jserver.gameserver.engines.skills.DocumentSkill;
+import com.l2jserver.gameserver.model.conditions.ConditionCompiler;
 import com.l2jserver.gameserver.model.items.L2Item;
 import com.l2jserver.gameserver.model.skills.Skill;
 import com.l2jserver.util.file.filter.XMLFilter;
@@ -105,6 +106,7 @@ public class DocumentEngine
 			}
 		}
 		_log.info(getClass().getSimpleName() + ": Loaded " + count + " Skill templates from XML files.");
+		_log.info(getClass().getSimpleName() + ": " + ConditionCompiler.getInstance().getStats() + ".");
 	}
 	
 	/**
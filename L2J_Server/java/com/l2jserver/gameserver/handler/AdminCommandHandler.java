@@ -56,12 +56,8 @@ public class AdminCommandHandler implements IHandler<IAdminCommandHandler, Strin
 	@Override
 	public IAdminCommandHandler getHandler(String adminCommand)
 	{
-		String command = adminCommand;
-		if (adminCommand.contains(" "))
-		{
-			command = adminCommand.substring(0, adminCommand.indexOf(" "));
-		}
-		return _datatable.get(command);
+		final int end = adminCommand.indexOf(' ');
+		return _datatable.get(end >= 0 ? adminCommand.substring(0, end) : adminCommand);
 	}
 	
 	@Override
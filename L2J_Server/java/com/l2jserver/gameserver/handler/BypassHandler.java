@@ -54,9 +54,10 @@ public class BypassHandler implements IHandler<IBypassHandler, String>
 	@Override
 	public IBypassHandler getHandler(String command)
 	{
-		if (command.contains(" "))
+		final int end = command.indexOf(' ');
+		if (end >= 0)
 		{
-			command = command.substring(0, command.indexOf(" "));
+			command = command.substring(0, end);
 		}
 		return _datatable.get(command.toLowerCase());
 	}
@@ -26,6 +26,7 @@ import java.util.logging.Logger;
 import com.l2jserver.Config;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.network.SystemMessageId;
+import com.l2jserver.gameserver.util.PrefixTrie;
 import com.l2jserver.gameserver.util.Util;
 
 /**
@@ -37,6 +38,8 @@ public final class CommunityBoardHandler implements IHandler<IParseBoardHandler,
 	private static final Logger LOG = Logger.getLogger(CommunityBoardHandler.class.getName());
 	/** The registered handlers. */
 	private final Map<String, IParseBoardHandler> _datatable = new HashMap<>();
+	/** The registered commands, rebuilt when handlers change. */
+	private volatile PrefixTrie<IParseBoardHandler> _commands = new PrefixTrie<>(true);
 	/** The bypasses used by the players. */
 	private final Map<Integer, String> _bypasses = new ConcurrentHashMap<>();
 	
@@ -52,6 +55,7 @@ public final class CommunityBoardHandler implements IHandler<IParseBoardHandler,
 		{
 			_datatable.put(cmd.toLowerCase(), handler);
 		}
+		updateCommands();
 	}
 	
 	@Override
@@ -61,22 +65,26 @@ public final class CommunityBoardHandler implements IHandler<IParseBoardHandler,
 		{
 			_datatable.remove(cmd.toLowerCase());
 		}
+		updateCommands();
 	}
 	
-	@Override
-	public IParseBoardHandler getHandler(String cmd)
+	private void updateCommands()
 	{
-		for (IParseBoardHandler cb : _datatable.values())
+		final PrefixTrie<IParseBoardHandler> commands = new PrefixTrie<>(true);
+		for (Map.Entry<String, IParseBoardHandler> entry : _datatable.entrySet())
 		{
-			for (String command : cb.getCommunityBoardCommands())
-			{
-				if (cmd.toLowerCase().startsWith(command.toLowerCase()))
-				{
-					return cb;
-				}
-			}
+			commands.put(entry.getKey(), entry.getValue());
 		}
-		return null;
+		_commands = commands;
+	}
+	
+	/**
+	 * Gets the handler of the longest registered command the given command starts with, ignoring case.
+	 */
+	@Override
+	public IParseBoardHandler getHandler(String cmd)
+	{
+		return _commands.getLongestPrefix(cmd);
 	}
 	
 	@Override
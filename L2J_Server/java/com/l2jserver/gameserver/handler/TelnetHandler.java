@@ -18,8 +18,8 @@
  */
 package com.l2jserver.gameserver.handler;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author UnAfraid
@@ -30,7 +30,7 @@ public class TelnetHandler implements IHandler<ITelnetHandler, String>
 	
 	protected TelnetHandler()
 	{
-		_telnetHandlers = new HashMap<>();
+		_telnetHandlers = new ConcurrentHashMap<>();
 	}
 	
 	@Override
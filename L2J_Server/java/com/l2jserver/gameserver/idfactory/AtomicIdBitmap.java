@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.idfactory;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free bitmap of used IDs.<br>
+ * The bitmap is split in segments allocated on first use, so memory grows with the highest used ID and never needs a stop-the-world resize.<br>
+ * IDs are leased one 64 bit word at a time: a single CAS claims every free bit of the word.
+ */
+final class AtomicIdBitmap
+{
+	private static final int WORD_SHIFT = 6;
+	private static final int SEGMENT_SHIFT = 10;
+	private static final int SEGMENT_WORDS = 1 << SEGMENT_SHIFT;
+	private static final int SEGMENT_MASK = SEGMENT_WORDS - 1;
+	
+	private final int _bits;
+	private final int _words;
+	private final long _lastWordUnusable;
+	private final AtomicReferenceArray<AtomicLongArray> _segments;
+	private final AtomicInteger _searchHint = new AtomicInteger();
+	private final AtomicInteger _freeCount;
+	
+	/**
+	 * @param bits the amount of IDs managed by this bitmap
+	 * @param used the IDs already in use
+	 */
+	AtomicIdBitmap(int bits, BitSet used)
+	{
+		_bits = bits;
+		_words = (int) ((bits + 63L) >>> WORD_SHIFT);
+		_lastWordUnusable = ((bits & 63) == 0) ? 0 : (-1L << (bits & 63));
+		_segments = new AtomicReferenceArray<>((_words + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		
+		final long[] words = used.toLongArray();
+		int usedCount = 0;
+		for (int i = 0; (i < words.length) && (i < _words); i++)
+		{
+			if (words[i] != 0)
+			{
+				segment(i).set(i & SEGMENT_MASK, words[i]);
+				usedCount += Long.bitCount(words[i]);
+			}
+		}
+		if (_lastWordUnusable != 0)
+		{
+			final AtomicLongArray segment = segment(_words - 1);
+			segment.set((_words - 1) & SEGMENT_MASK, segment.get((_words - 1) & SEGMENT_MASK) | _lastWordUnusable);
+		}
+		
+		_freeCount = new AtomicInteger(bits - usedCount);
+		_searchHint.set(Math.max(0, used.nextClearBit(0) >>> WORD_SHIFT));
+	}
+	
+	private AtomicLongArray segment(int wordIndex)
+	{
+		final int segmentIndex = wordIndex >>> SEGMENT_SHIFT;
+		AtomicLongArray segment = _segments.get(segmentIndex);
+		if (segment == null)
+		{
+			segment = new AtomicLongArray(SEGMENT_WORDS);
+			if (!_segments.compareAndSet(segmentIndex, null, segment))
+			{
+				segment = _segments.get(segmentIndex);
+			}
+		}
+		return segment;
+	}
+	
+	/**
+	 * Claims all the free IDs of the next word that has any.
+	 * @param lease the lease to fill with the claimed word index and bits
+	 * @return {@code true} if IDs were claimed, {@code false} if there are no free IDs left
+	 */
+	boolean lease(Lease lease)
+	{
+		final int start = _searchHint.get();
+		for (int n = 0; n < _words; n++)
+		{
+			int wordIndex = start + n;
+			if (wordIndex >= _words)
+			{
+				wordIndex -= _words;
+			}
+			
+			final AtomicLongArray segment = segment(wordIndex);
+			final int index = wordIndex & SEGMENT_MASK;
+			long word;
+			while ((word = segment.get(index)) != -1L)
+			{
+				if (segment.compareAndSet(index, word, -1L))
+				{
+					final long claimed = ~word;
+					_freeCount.addAndGet(-Long.bitCount(claimed));
+					_searchHint.compareAndSet(start, wordIndex + 1 < _words ? wordIndex + 1 : 0);
+					lease._wordIndex = wordIndex;
+					lease._bits = claimed;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Marks the IDs as free.
+	 * @param ids the ID offsets
+	 * @param count the amount of IDs to release from the array
+	 */
+	void release(int[] ids, int count)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			final int id = ids[i];
+			final int wordIndex = id >>> WORD_SHIFT;
+			final AtomicLongArray segment = segment(wordIndex);
+			final int index = wordIndex & SEGMENT_MASK;
+			final long bit = 1L << (id & 63);
+			long word;
+			do
+			{
+				word = segment.get(index);
+				if ((word & bit) == 0)
+				{
+					// Already free.
+					break;
+				}
+			}
+			while (!segment.compareAndSet(index, word, word & ~bit));
+			if ((word & bit) != 0)
+			{
+				_freeCount.incrementAndGet();
+			}
+		}
+	}
+	
+	/**
+	 * Marks the IDs left in a lease as free and empties the lease.
+	 * @param lease the lease
+	 * @return the amount of IDs given back
+	 */
+	int release(Lease lease)
+	{
+		final long bits = lease._bits;
+		if (bits == 0)
+		{
+			return 0;
+		}
+		
+		final AtomicLongArray segment = segment(lease._wordIndex);
+		final int index = lease._wordIndex & SEGMENT_MASK;
+		long word;
+		do
+		{
+			word = segment.get(index);
+		}
+		while (!segment.compareAndSet(index, word, word & ~bits));
+		lease._bits = 0;
+		
+		final int count = Long.bitCount(bits);
+		_freeCount.addAndGet(count);
+		return count;
+	}
+	
+	/**
+	 * @return the amount of IDs neither used nor leased
+	 */
+	int getFreeCount()
+	{
+		return _freeCount.get();
+	}
+	
+	/**
+	 * A word of IDs claimed by one thread, handed out without further synchronization.
+	 */
+	static final class Lease
+	{
+		protected int _wordIndex;
+		protected long _bits;
+		
+		/**
+		 * Takes the lowest ID of the lease.
+		 * @return the ID offset, {@code -1} if the lease is empty
+		 */
+		int next()
+		{
+			if (_bits == 0)
+			{
+				return -1;
+			}
+			
+			final int bit = Long.numberOfTrailingZeros(_bits);
+			_bits &= _bits - 1;
+			return (_wordIndex << WORD_SHIFT) + bit;
+		}
+	}
+}
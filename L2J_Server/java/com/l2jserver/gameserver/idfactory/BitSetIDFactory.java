@@ -18,33 +18,26 @@
  */
 package com.l2jserver.gameserver.idfactory;
 
-import java.util.BitSet;
-import java.util.concurrent.atomic.AtomicInteger;
-
 import com.l2jserver.gameserver.ThreadPoolManager;
-import com.l2jserver.util.PrimeFinder;
 
 /**
- * This class ..
+ * This class ..<br>
+ * IDs are tracked in a lock-free {@link AtomicIdBitmap}. Each thread leases a whole word of free IDs at once and hands them out without synchronization, and releases are given back in batches, see {@link IdLeases}.
  * @version $Revision: 1.2 $ $Date: 2004/06/27 08:12:59 $
  */
 public class BitSetIDFactory extends IdFactory
 {
-	private BitSet _freeIds;
-	private AtomicInteger _freeIdCount;
-	private AtomicInteger _nextFreeId;
+	private IdLeases _leases;
 	
-	protected class BitSetCapacityCheck implements Runnable
+	protected class IdLeaseReclaim implements Runnable
 	{
 		@Override
 		public void run()
 		{
-			synchronized (BitSetIDFactory.this)
+			final int reclaimed = _leases.reclaimDeadThreads();
+			if (reclaimed > 0)
 			{
-				if (reachingBitSetCapacity())
-				{
-					increaseBitSetCapacity();
-				}
+				_log.fine(BitSetIDFactory.class.getSimpleName() + ": Reclaimed " + reclaimed + " id's from finished threads.");
 			}
 		}
 	}
@@ -55,33 +48,20 @@ public class BitSetIDFactory extends IdFactory
 		
 		synchronized (BitSetIDFactory.class)
 		{
-			ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(new BitSetCapacityCheck(), 30000, 30000);
 			initialize();
 		}
-		_log.info(getClass().getSimpleName() + ": " + _freeIds.size() + " id's available.");
+		if (_initialized)
+		{
+			ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(new IdLeaseReclaim(), 30000, 30000);
+			_log.info(getClass().getSimpleName() + ": " + _leases.getFreeCount() + " id's available.");
+		}
 	}
 	
 	public void initialize()
 	{
 		try
 		{
-			_freeIds = new BitSet(PrimeFinder.nextPrime(100000));
-			_freeIds.clear();
-			_freeIdCount = new AtomicInteger(FREE_OBJECT_ID_SIZE);
-			
-			for (int usedObjectId : extractUsedObjectIDTable())
-			{
-				int objectID = usedObjectId - FIRST_OID;
-				if (objectID < 0)
-				{
-					_log.warning(getClass().getSimpleName() + ": Object ID " + usedObjectId + " in DB is less than minimum ID of " + FIRST_OID);
-					continue;
-				}
-				_freeIds.set(usedObjectId - FIRST_OID);
-				_freeIdCount.decrementAndGet();
-			}
-			
-			_nextFreeId = new AtomicInteger(_freeIds.nextClearBit(0));
+			_leases = new IdLeases(new AtomicIdBitmap(FREE_OBJECT_ID_SIZE, extractUsedObjectIDs()));
 			_initialized = true;
 		}
 		catch (Exception e)
@@ -92,75 +72,32 @@ public class BitSetIDFactory extends IdFactory
 	}
 	
 	@Override
-	public synchronized void releaseId(int objectID)
+	public void releaseId(int objectID)
 	{
-		if ((objectID - FIRST_OID) > -1)
-		{
-			_freeIds.clear(objectID - FIRST_OID);
-			_freeIdCount.incrementAndGet();
-		}
-		else
+		final int id = objectID - FIRST_OID;
+		if ((id < 0) || (id >= FREE_OBJECT_ID_SIZE))
 		{
-			_log.warning(getClass().getSimpleName() + ": Release objectID " + objectID + " failed (< " + FIRST_OID + ")");
+			_log.warning(getClass().getSimpleName() + ": Release objectID " + objectID + " failed (" + (id < 0 ? "< " + FIRST_OID : ">= " + (FIRST_OID + FREE_OBJECT_ID_SIZE)) + ")");
+			return;
 		}
+		
+		_leases.release(id);
 	}
 	
 	@Override
-	public synchronized int getNextId()
+	public int getNextId()
 	{
-		int newID = _nextFreeId.get();
-		_freeIds.set(newID);
-		_freeIdCount.decrementAndGet();
-		
-		int nextFree = _freeIds.nextClearBit(newID);
-		
-		if (nextFree < 0)
+		final int id = _leases.next();
+		if (id < 0)
 		{
-			nextFree = _freeIds.nextClearBit(0);
+			throw new NullPointerException("Ran out of valid Id's.");
 		}
-		if (nextFree < 0)
-		{
-			if (_freeIds.size() < FREE_OBJECT_ID_SIZE)
-			{
-				increaseBitSetCapacity();
-			}
-			else
-			{
-				throw new NullPointerException("Ran out of valid Id's.");
-			}
-		}
-		
-		_nextFreeId.set(nextFree);
-		
-		return newID + FIRST_OID;
+		return id + FIRST_OID;
 	}
 	
 	@Override
-	public synchronized int size()
-	{
-		return _freeIdCount.get();
-	}
-	
-	/**
-	 * @return
-	 */
-	protected synchronized int usedIdCount()
-	{
-		return (size() - FIRST_OID);
-	}
-	
-	/**
-	 * @return
-	 */
-	protected synchronized boolean reachingBitSetCapacity()
-	{
-		return PrimeFinder.nextPrime((usedIdCount() * 11) / 10) > _freeIds.size();
-	}
-	
-	protected synchronized void increaseBitSetCapacity()
+	public int size()
 	{
-		BitSet newBitSet = new BitSet(PrimeFinder.nextPrime((usedIdCount() * 11) / 10));
-		newBitSet.or(_freeIds);
-		_freeIds = newBitSet;
+		return _leases.getFreeCount();
 	}
 }
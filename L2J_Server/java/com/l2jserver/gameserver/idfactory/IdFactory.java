@@ -18,16 +18,32 @@
  */
 package com.l2jserver.gameserver.idfactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 import com.l2jserver.Config;
 import com.l2jserver.L2DatabaseFactory;
@@ -122,6 +138,10 @@ public abstract class IdFactory
 	};
 	//@formatter:on
 	
+	private static final File SNAPSHOT_FILE = new File("data/idfactory.snapshot");
+	private static final int SNAPSHOT_MAGIC = 0x4C324944;
+	private static final int SNAPSHOT_VERSION = 1;
+	
 	private static final String[] TIMESTAMPS_CLEAN =
 	{
 		"DELETE FROM character_instance_time WHERE time <= ?",
@@ -339,35 +359,234 @@ public abstract class IdFactory
 	}
 	
 	/**
-	 * @return
+	 * @return the used object IDs, sorted
 	 * @throws Exception
-	 * @throws SQLException
 	 */
 	protected final Integer[] extractUsedObjectIDTable() throws Exception
 	{
-		final List<Integer> temp = new ArrayList<>();
+		return extractUsedObjectIDs().stream().mapToObj(id -> id + FIRST_OID).toArray(Integer[]::new);
+	}
+	
+	/**
+	 * Gets the used object IDs from the snapshot stored at the last clean shutdown, or from the database if there is no valid snapshot.
+	 * @return the used object IDs, as offsets from {@link #FIRST_OID}
+	 * @throws Exception
+	 */
+	protected final BitSet extractUsedObjectIDs() throws Exception
+	{
+		if (Config.ID_SNAPSHOT)
+		{
+			final BitSet usedIds = loadSnapshot();
+			if (usedIds != null)
+			{
+				return usedIds;
+			}
+		}
+		
+		final long start = System.currentTimeMillis();
+		final BitSet usedIds = scanUsedObjectIDs();
+		_log.info(getClass().getSimpleName() + ": Extracted " + usedIds.cardinality() + " used id's from database in " + (System.currentTimeMillis() - start) + " ms.");
+		return usedIds;
+	}
+	
+	/**
+	 * Reads the used object IDs of all tables, one query and connection per table in parallel.
+	 * @return the used object IDs, as offsets from {@link #FIRST_OID}
+	 * @throws Exception
+	 */
+	private BitSet scanUsedObjectIDs() throws Exception
+	{
+		final ExecutorService executor = Executors.newFixedThreadPool(ID_EXTRACTS.length);
+		try
+		{
+			final List<Future<BitSet>> tasks = new ArrayList<>(ID_EXTRACTS.length);
+			for (String[] tblClmn : ID_EXTRACTS)
+			{
+				tasks.add(executor.submit(() -> scanUsedObjectIDs(tblClmn[0], tblClmn[1])));
+			}
+			
+			final BitSet usedIds = new BitSet();
+			for (Future<BitSet> task : tasks)
+			{
+				usedIds.or(task.get());
+			}
+			return usedIds;
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	private BitSet scanUsedObjectIDs(String table, String column) throws SQLException
+	{
+		final BitSet usedIds = new BitSet();
+		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
+			Statement s = con.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY))
+		{
+			// Makes MySQL stream the rows instead of buffering the whole table.
+			s.setFetchSize(Integer.MIN_VALUE);
+			try (ResultSet rs = s.executeQuery("SELECT " + column + " FROM " + table))
+			{
+				while (rs.next())
+				{
+					final int usedObjectId = rs.getInt(1);
+					if (usedObjectId < FIRST_OID)
+					{
+						_log.warning(getClass().getSimpleName() + ": Object ID " + usedObjectId + " in " + table + " is less than minimum ID of " + FIRST_OID);
+						continue;
+					}
+					usedIds.set(usedObjectId - FIRST_OID);
+				}
+			}
+		}
+		return usedIds;
+	}
+	
+	/**
+	 * Gets the row count and highest ID of each table holding object IDs.
+	 * @return the row count and highest ID, per table
+	 * @throws SQLException
+	 */
+	private long[][] getTableStats() throws SQLException
+	{
+		final long[][] stats = new long[ID_EXTRACTS.length][2];
 		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
 			Statement s = con.createStatement())
 		{
+			for (int i = 0; i < ID_EXTRACTS.length; i++)
+			{
+				try (ResultSet rs = s.executeQuery("SELECT COUNT(*), MAX(" + ID_EXTRACTS[i][1] + ") FROM " + ID_EXTRACTS[i][0]))
+				{
+					if (rs.next())
+					{
+						stats[i][0] = rs.getLong(1);
+						stats[i][1] = rs.getLong(2);
+					}
+				}
+			}
+		}
+		return stats;
+	}
+	
+	/**
+	 * Loads and deletes the used object IDs snapshot.<br>
+	 * The snapshot is rejected if its checksum does not match, or if any table now holds more rows or a higher ID than when it was stored.
+	 * @return the used object IDs, as offsets from {@link #FIRST_OID}, {@code null} if there is no valid snapshot
+	 */
+	private BitSet loadSnapshot()
+	{
+		if (!SNAPSHOT_FILE.isFile())
+		{
+			return null;
+		}
+		
+		final long start = System.currentTimeMillis();
+		try
+		{
+			final long[][] storedStats = new long[ID_EXTRACTS.length][2];
+			final long[] words;
+			final CRC32 crc = new CRC32();
+			try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(new FileInputStream(SNAPSHOT_FILE)), crc)))
+			{
+				if ((in.readInt() != SNAPSHOT_MAGIC) || (in.readInt() != SNAPSHOT_VERSION) || (in.readInt() != FIRST_OID) || (in.readInt() != ID_EXTRACTS.length))
+				{
+					_log.warning(getClass().getSimpleName() + ": Ignoring used id's snapshot of a different format.");
+					return null;
+				}
+				
+				for (long[] tableStats : storedStats)
+				{
+					tableStats[0] = in.readLong();
+					tableStats[1] = in.readLong();
+				}
+				
+				words = new long[in.readInt()];
+				for (int i = 0; i < words.length; i++)
+				{
+					words[i] = in.readLong();
+				}
+				
+				final long checksum = crc.getValue();
+				if (in.readLong() != checksum)
+				{
+					_log.warning(getClass().getSimpleName() + ": Ignoring used id's snapshot with a wrong checksum.");
+					return null;
+				}
+			}
 			
-			String extractUsedObjectIdsQuery = "";
-			
-			for (String[] tblClmn : ID_EXTRACTS)
+			final long[][] stats = getTableStats();
+			for (int i = 0; i < ID_EXTRACTS.length; i++)
 			{
-				extractUsedObjectIdsQuery += "SELECT " + tblClmn[1] + " FROM " + tblClmn[0] + " UNION ";
+				if ((stats[i][0] > storedStats[i][0]) || (stats[i][1] > storedStats[i][1]))
+				{
+					_log.warning(getClass().getSimpleName() + ": Ignoring used id's snapshot, table " + ID_EXTRACTS[i][0] + " changed since it was stored.");
+					return null;
+				}
 			}
 			
-			extractUsedObjectIdsQuery = extractUsedObjectIdsQuery.substring(0, extractUsedObjectIdsQuery.length() - 7); // Remove the last " UNION "
-			try (ResultSet rs = s.executeQuery(extractUsedObjectIdsQuery))
+			final BitSet usedIds = BitSet.valueOf(words);
+			_log.info(getClass().getSimpleName() + ": Loaded " + usedIds.cardinality() + " used id's from snapshot in " + (System.currentTimeMillis() - start) + " ms.");
+			return usedIds;
+		}
+		catch (Exception e)
+		{
+			_log.log(Level.WARNING, getClass().getSimpleName() + ": Could not load used id's snapshot: " + e.getMessage(), e);
+			return null;
+		}
+		finally
+		{
+			// A snapshot is only valid for the boot right after the shutdown that stored it.
+			if (!SNAPSHOT_FILE.delete())
 			{
-				while (rs.next())
+				_log.warning(getClass().getSimpleName() + ": Could not delete used id's snapshot " + SNAPSHOT_FILE + ".");
+			}
+		}
+	}
+	
+	/**
+	 * Stores the used object IDs found in the database, so the next boot can skip reading them.<br>
+	 * Must be called on shutdown, once all data has been saved.
+	 */
+	public void storeSnapshot()
+	{
+		if (!Config.ID_SNAPSHOT)
+		{
+			return;
+		}
+		
+		final File tempFile = new File(SNAPSHOT_FILE.getPath() + ".tmp");
+		try
+		{
+			final long[][] stats = getTableStats();
+			final long[] words = scanUsedObjectIDs().toLongArray();
+			final CRC32 crc = new CRC32();
+			try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)), crc)))
+			{
+				out.writeInt(SNAPSHOT_MAGIC);
+				out.writeInt(SNAPSHOT_VERSION);
+				out.writeInt(FIRST_OID);
+				out.writeInt(ID_EXTRACTS.length);
+				for (long[] tableStats : stats)
+				{
+					out.writeLong(tableStats[0]);
+					out.writeLong(tableStats[1]);
+				}
+				out.writeInt(words.length);
+				for (long word : words)
 				{
-					temp.add(rs.getInt(1));
+					out.writeLong(word);
 				}
+				out.flush();
+				out.writeLong(crc.getValue());
 			}
+			Files.move(tempFile.toPath(), SNAPSHOT_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (Exception e)
+		{
+			_log.log(Level.WARNING, getClass().getSimpleName() + ": Could not store used id's snapshot: " + e.getMessage(), e);
+			tempFile.delete();
 		}
-		Collections.sort(temp);
-		return temp.toArray(new Integer[temp.size()]);
 	}
 	
 	public boolean isInitialized()
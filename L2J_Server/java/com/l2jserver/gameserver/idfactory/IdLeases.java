@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.idfactory;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.l2jserver.gameserver.idfactory.AtomicIdBitmap.Lease;
+
+/**
+ * Hands out the IDs of an {@link AtomicIdBitmap} from per thread leases.<br>
+ * Each thread takes IDs from a leased word without synchronization and gives released IDs back in batches.<br>
+ * A thread holds at most one word of leased IDs and one batch of released IDs, {@link #reclaimDeadThreads()} gives them back once the thread died.
+ */
+final class IdLeases
+{
+	private static final int RELEASE_BATCH_SIZE = 32;
+	
+	private final AtomicIdBitmap _bitmap;
+	private final Queue<ThreadIds> _allThreadIds = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<ThreadIds> _threadIds = ThreadLocal.withInitial(this::register);
+	
+	/**
+	 * The IDs a thread leased and the IDs it released but did not give back yet.
+	 */
+	private static final class ThreadIds
+	{
+		protected final Thread _owner;
+		protected final Lease _lease = new Lease();
+		protected final int[] _released = new int[RELEASE_BATCH_SIZE];
+		protected int _releasedCount;
+		
+		protected ThreadIds(Thread owner)
+		{
+			_owner = owner;
+		}
+	}
+	
+	/**
+	 * @param bitmap the used IDs
+	 */
+	IdLeases(AtomicIdBitmap bitmap)
+	{
+		_bitmap = bitmap;
+	}
+	
+	private ThreadIds register()
+	{
+		final ThreadIds threadIds = new ThreadIds(Thread.currentThread());
+		_allThreadIds.add(threadIds);
+		return threadIds;
+	}
+	
+	/**
+	 * @return the next free ID offset, {@code -1} if there are no free IDs left
+	 */
+	int next()
+	{
+		final Lease lease = _threadIds.get()._lease;
+		final int id = lease.next();
+		if ((id >= 0) || !_bitmap.lease(lease))
+		{
+			return id;
+		}
+		return lease.next();
+	}
+	
+	/**
+	 * @param id the ID offset to free
+	 */
+	void release(int id)
+	{
+		final ThreadIds threadIds = _threadIds.get();
+		threadIds._released[threadIds._releasedCount++] = id;
+		if (threadIds._releasedCount == RELEASE_BATCH_SIZE)
+		{
+			_bitmap.release(threadIds._released, RELEASE_BATCH_SIZE);
+			threadIds._releasedCount = 0;
+		}
+	}
+	
+	/**
+	 * Gives back the leased and released IDs held by threads that died.<br>
+	 * A dead thread no longer touches its IDs and its last writes are visible once {@link Thread#isAlive()} returned {@code false}.
+	 * @return the amount of IDs given back
+	 */
+	int reclaimDeadThreads()
+	{
+		int reclaimed = 0;
+		final Iterator<ThreadIds> it = _allThreadIds.iterator();
+		while (it.hasNext())
+		{
+			final ThreadIds threadIds = it.next();
+			if (threadIds._owner.isAlive())
+			{
+				continue;
+			}
+			
+			it.remove();
+			reclaimed += _bitmap.release(threadIds._lease);
+			_bitmap.release(threadIds._released, threadIds._releasedCount);
+			reclaimed += threadIds._releasedCount;
+			threadIds._releasedCount = 0;
+		}
+		return reclaimed;
+	}
+	
+	/**
+	 * @return the amount of IDs neither used nor leased
+	 */
+	int getFreeCount()
+	{
+		return _bitmap.getFreeCount();
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.instancemanager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jserver.L2DatabaseFactory;
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.handler.TelnetHandler;
+import com.l2jserver.gameserver.model.L2Clan;
+
+/**
+ * Write-behind for the clan counters.<br>
+ * Reputation, Blood Alliance and Blood Oath counts change on every siege kill, changed clans are marked and stored together in one batch periodically instead of one update per change.
+ */
+public final class ClanStateManager
+{
+	private static final Logger _log = Logger.getLogger(ClanStateManager.class.getName());
+	
+	private static final String UPDATE_CLAN_STATE = "UPDATE clan_data SET reputation_score=?,blood_alliance_count=?,blood_oath_count=? WHERE clan_id=?";
+	
+	/** Interval between two stores of the changed clans, in milliseconds. */
+	private static final long STORE_INTERVAL = 60000;
+	
+	private final Map<Integer, L2Clan> _changedClans = new ConcurrentHashMap<>();
+	
+	private final AtomicLong _storedCount = new AtomicLong();
+	private final AtomicLong _batchCount = new AtomicLong();
+	
+	protected ClanStateManager()
+	{
+		ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(this::store, STORE_INTERVAL, STORE_INTERVAL);
+		TelnetHandler.getInstance().registerHandler(new ClanStateTelnetHandler());
+	}
+	
+	/**
+	 * Marks the counters of a clan as changed, they are stored on the next run.
+	 * @param clan the clan
+	 */
+	public void markChanged(L2Clan clan)
+	{
+		_changedClans.put(clan.getId(), clan);
+	}
+	
+	/**
+	 * Drops the pending changes of a clan, used when the clan is deleted.
+	 * @param clan the clan
+	 */
+	public void remove(L2Clan clan)
+	{
+		_changedClans.remove(clan.getId(), clan);
+	}
+	
+	/**
+	 * Stores the counters of all the changed clans in one batch.
+	 */
+	public synchronized void store()
+	{
+		if (_changedClans.isEmpty())
+		{
+			return;
+		}
+		
+		final List<L2Clan> clans = new ArrayList<>(_changedClans.size());
+		for (L2Clan clan : _changedClans.values())
+		{
+			// a change made from now on marks the clan again
+			if (_changedClans.remove(clan.getId(), clan))
+			{
+				clans.add(clan);
+			}
+		}
+		
+		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
+			PreparedStatement ps = con.prepareStatement(UPDATE_CLAN_STATE))
+		{
+			for (L2Clan clan : clans)
+			{
+				ps.setInt(1, clan.getReputationScore());
+				ps.setInt(2, clan.getBloodAllianceCount());
+				ps.setInt(3, clan.getBloodOathCount());
+				ps.setInt(4, clan.getId());
+				ps.addBatch();
+			}
+			ps.executeBatch();
+			_storedCount.addAndGet(clans.size());
+			_batchCount.incrementAndGet();
+		}
+		catch (SQLException e)
+		{
+			_log.log(Level.WARNING, getClass().getSimpleName() + ": Could not store " + clans.size() + " clans: " + e.getMessage(), e);
+			// keep them for the next run
+			for (L2Clan clan : clans)
+			{
+				_changedClans.putIfAbsent(clan.getId(), clan);
+			}
+		}
+	}
+	
+	/**
+	 * @return the amount of clans waiting to be stored
+	 */
+	public int getPendingCount()
+	{
+		return _changedClans.size();
+	}
+	
+	/**
+	 * @return the amount of clan updates stored since startup
+	 */
+	public long getStoredCount()
+	{
+		return _storedCount.get();
+	}
+	
+	/**
+	 * @return the amount of batches executed since startup
+	 */
+	public long getBatchCount()
+	{
+		return _batchCount.get();
+	}
+	
+	public static ClanStateManager getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final ClanStateManager _instance = new ClanStateManager();
+	}
+}
@@ -29,12 +29,10 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
-import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import com.l2jserver.L2DatabaseFactory;
 import com.l2jserver.gameserver.ThreadPoolManager;
@@ -44,11 +42,13 @@ import com.l2jserver.gameserver.model.actor.L2Npc;
 import com.l2jserver.gameserver.model.actor.instance.CommissionManagerInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.commission.CommissionItem;
+import com.l2jserver.gameserver.model.commission.CommissionItemIndex;
+import com.l2jserver.gameserver.model.commission.CommissionItemType;
 import com.l2jserver.gameserver.model.entity.Message;
 import com.l2jserver.gameserver.model.itemcontainer.Inventory;
 import com.l2jserver.gameserver.model.itemcontainer.Mail;
-import com.l2jserver.gameserver.model.items.L2Item;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.model.items.type.CrystalType;
 import com.l2jserver.gameserver.network.SystemMessageId;
 import com.l2jserver.gameserver.network.serverpackets.commission.ExResponseCommissionBuyItem;
 import com.l2jserver.gameserver.network.serverpackets.commission.ExResponseCommissionDelete;
@@ -76,7 +76,9 @@ public final class CommissionManager
 	private static final String INSERT_COMMISSION_ITEM = "INSERT INTO `commission_items`(`item_object_id`, `price_per_unit`, `start_time`, `duration_in_days`) VALUES (?, ?, ?, ?)";
 	private static final String DELETE_COMMISSION_ITEM = "DELETE FROM `commission_items` WHERE `commission_id` = ?";
 	
-	private final Map<Long, CommissionItem> _commissionItems = new ConcurrentSkipListMap<>();
+	private final CommissionItemIndex _commissionItems = new CommissionItemIndex();
+	private ScheduledFuture<?> _expirationTask;
+	private Instant _expirationTaskTime;
 	
 	protected CommissionManager()
 	{
@@ -116,16 +118,7 @@ public final class CommissionManager
 						_log.warning(getClass().getSimpleName() + ": Failed loading commission item with commission id " + commissionId + " because item instance does not exist or failed to load.");
 						continue;
 					}
-					final CommissionItem commissionItem = new CommissionItem(commissionId, itemInstance, rs.getLong("price_per_unit"), rs.getTimestamp("start_time").toInstant(), rs.getByte("duration_in_days"));
-					_commissionItems.put(commissionItem.getCommissionId(), commissionItem);
-					if (commissionItem.getEndTime().isBefore(Instant.now()))
-					{
-						expireSale(commissionItem);
-					}
-					else
-					{
-						commissionItem.setSaleEndTask(ThreadPoolManager.getInstance().scheduleGeneral(() -> expireSale(commissionItem), Duration.between(Instant.now(), commissionItem.getEndTime()).toMillis()));
-					}
+					_commissionItems.add(new CommissionItem(commissionId, itemInstance, rs.getLong("price_per_unit"), rs.getTimestamp("start_time").toInstant(), rs.getByte("duration_in_days")));
 				}
 			}
 		}
@@ -133,21 +126,20 @@ public final class CommissionManager
 		{
 			_log.log(Level.WARNING, getClass().getSimpleName() + ": Failed loading commission items.", e);
 		}
+		
+		expireSales();
 	}
 	
 	/**
-	 * Shows the player the auctions filtered by filter.
+	 * Shows the player the auctions matching the given criteria.
 	 * @param player the player
-	 * @param filter the filter
+	 * @param itemTypes the item types, {@code null} for any type
+	 * @param grade the item grade, {@code null} for any grade
+	 * @param query the text the item name must contain, empty for any name
 	 */
-	public void showAuctions(L2PcInstance player, Predicate<L2Item> filter)
+	public void showAuctions(L2PcInstance player, Set<CommissionItemType> itemTypes, CrystalType grade, String query)
 	{
-		//@formatter:off
-		final List<CommissionItem> commissionItems = _commissionItems.values().stream()
-			.filter(c -> filter.test(c.getItemInfo().getItem()))
-			.limit(ITEMS_LIMIT_PER_REQUEST)
-			.collect(Collectors.toList());
-		//@formatter:on
+		final List<CommissionItem> commissionItems = _commissionItems.search(itemTypes, grade, query, ITEMS_LIMIT_PER_REQUEST);
 		
 		if (commissionItems.isEmpty())
 		{
@@ -173,12 +165,7 @@ public final class CommissionManager
 	 */
 	public void showPlayerAuctions(L2PcInstance player)
 	{
-		//@formatter:off
-		final List<CommissionItem> commissionItems = _commissionItems.values().stream()
-			.filter(c -> c.getItemInstance().getOwnerId() == player.getObjectId())
-			.limit(MAX_ITEMS_REGISTRED_PER_PLAYER)
-			.collect(Collectors.toList());
-		//@formatter:on
+		final List<CommissionItem> commissionItems = _commissionItems.getByOwner(player.getObjectId(), MAX_ITEMS_REGISTRED_PER_PLAYER);
 		
 		if (!commissionItems.isEmpty())
 		{
@@ -225,13 +212,7 @@ public final class CommissionManager
 		
 		synchronized (this)
 		{
-			//@formatter:off
-			final long playerRegisteredItems = _commissionItems.values().stream()
-				.filter(c -> c.getItemInstance().getOwnerId() == player.getObjectId())
-				.count();
-			//@formatter:on
-			
-			if (playerRegisteredItems >= MAX_ITEMS_REGISTRED_PER_PLAYER)
+			if (_commissionItems.countByOwner(player.getObjectId()) >= MAX_ITEMS_REGISTRED_PER_PLAYER)
 			{
 				player.sendPacket(SystemMessageId.THE_ITEM_HAS_FAILED_TO_BE_REGISTERED);
 				player.sendPacket(ExResponseCommissionRegister.FAILED);
@@ -269,9 +250,8 @@ public final class CommissionManager
 					if (rs.next())
 					{
 						final CommissionItem commissionItem = new CommissionItem(rs.getLong(1), itemInstance, pricePerUnit, startTime, durationInDays);
-						final ScheduledFuture<?> saleEndTask = ThreadPoolManager.getInstance().scheduleGeneral(() -> expireSale(commissionItem), Duration.between(Instant.now(), commissionItem.getEndTime()).toMillis());
-						commissionItem.setSaleEndTask(saleEndTask);
-						_commissionItems.put(commissionItem.getCommissionId(), commissionItem);
+						_commissionItems.add(commissionItem);
+						scheduleExpiration();
 						player.getLastCommissionInfos().put(itemInstance.getId(), new ExResponseCommissionInfo(itemInstance.getId(), pricePerUnit, itemCount, (byte) ((durationInDays - 1) / 2)));
 						player.sendPacket(SystemMessageId.THE_ITEM_HAS_BEEN_SUCCESSFULLY_REGISTERED);
 						player.sendPacket(ExResponseCommissionRegister.SUCCEED);
@@ -308,6 +288,14 @@ public final class CommissionManager
 			return;
 		}
 		
+		// the sale ended, the item goes back by mail
+		if (!commissionItem.getEndTime().isAfter(Instant.now()))
+		{
+			player.sendPacket(SystemMessageId.CANCELLATION_OF_SALE_HAS_FAILED_BECAUSE_REQUIREMENTS_ARE_NOT_MET);
+			player.sendPacket(ExResponseCommissionDelete.FAILED);
+			return;
+		}
+		
 		if ((player.getInventory().getSize(false) >= (player.getInventoryLimit() * 0.8)) || (player.getWeightPenalty() >= 3))
 		{
 			player.sendPacket(SystemMessageId.IF_THE_WEIGHT_IS_80_OR_MORE_AND_THE_INVENTORY_NUMBER_IS_90_OR_MORE_PURCHASE_CANCELLATION_IS_NOT_POSSIBLE);
@@ -316,7 +304,7 @@ public final class CommissionManager
 			return;
 		}
 		
-		if ((_commissionItems.remove(commissionId) == null) || !commissionItem.getSaleEndTask().cancel(false))
+		if (_commissionItems.remove(commissionId) == null)
 		{
 			player.sendPacket(SystemMessageId.CANCELLATION_OF_SALE_HAS_FAILED_BECAUSE_REQUIREMENTS_ARE_NOT_MET);
 			player.sendPacket(ExResponseCommissionDelete.FAILED);
@@ -352,7 +340,7 @@ public final class CommissionManager
 		}
 		
 		final L2ItemInstance itemInstance = commissionItem.getItemInstance();
-		if (itemInstance.getOwnerId() == player.getObjectId())
+		if ((itemInstance.getOwnerId() == player.getObjectId()) || !commissionItem.getEndTime().isAfter(Instant.now()))
 		{
 			player.sendPacket(SystemMessageId.ITEM_PURCHASE_HAS_FAILED);
 			player.sendPacket(ExResponseCommissionBuyItem.FAILED);
@@ -374,7 +362,7 @@ public final class CommissionManager
 			return;
 		}
 		
-		if ((_commissionItems.remove(commissionId) == null) || !commissionItem.getSaleEndTask().cancel(false))
+		if (_commissionItems.remove(commissionId) == null)
 		{
 			player.getInventory().addAdena("Commission error refund", totalPrice, player, null);
 			player.sendPacket(SystemMessageId.ITEM_PURCHASE_HAS_FAILED);
@@ -424,6 +412,44 @@ public final class CommissionManager
 		return false;
 	}
 	
+	/**
+	 * Expires the sales whose end time has passed, in end time order, then schedules the next expiration.
+	 */
+	private void expireSales()
+	{
+		synchronized (this)
+		{
+			_expirationTask = null;
+		}
+		
+		final Instant now = Instant.now();
+		CommissionItem commissionItem;
+		while (((commissionItem = _commissionItems.getNextExpiration()) != null) && !commissionItem.getEndTime().isAfter(now))
+		{
+			expireSale(commissionItem);
+		}
+		scheduleExpiration();
+	}
+	
+	/**
+	 * Schedules the expiration at the end time of the first sale to end, unless it is already scheduled at that time or earlier.
+	 */
+	private synchronized void scheduleExpiration()
+	{
+		final CommissionItem commissionItem = _commissionItems.getNextExpiration();
+		if ((commissionItem == null) || ((_expirationTask != null) && !_expirationTaskTime.isAfter(commissionItem.getEndTime())))
+		{
+			return;
+		}
+		
+		if (_expirationTask != null)
+		{
+			_expirationTask.cancel(false);
+		}
+		_expirationTaskTime = commissionItem.getEndTime();
+		_expirationTask = ThreadPoolManager.getInstance().scheduleGeneral(this::expireSales, Math.max(0, Duration.between(Instant.now(), _expirationTaskTime).toMillis()));
+	}
+	
 	/**
 	 * Expires the sale of a commission item and sends the item back to the player.
 	 * @param commissionItem the comission item
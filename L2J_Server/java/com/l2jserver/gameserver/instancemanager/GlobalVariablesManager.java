@@ -19,11 +19,9 @@
 package com.l2jserver.gameserver.instancemanager;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Map.Entry;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +39,7 @@ public final class GlobalVariablesManager extends AbstractVariables
 	// SQL Queries.
 	private static final String SELECT_QUERY = "SELECT * FROM global_variables";
 	private static final String DELETE_QUERY = "DELETE FROM global_variables";
+	private static final String DELETE_VAR_QUERY = "DELETE FROM global_variables WHERE var = ?";
 	private static final String INSERT_QUERY = "INSERT INTO global_variables (var, value) VALUES (?, ?)";
 	
 	protected GlobalVariablesManager()
@@ -68,7 +67,7 @@ public final class GlobalVariablesManager extends AbstractVariables
 		}
 		finally
 		{
-			compareAndSetChanges(true, false);
+			clearChanges();
 		}
 		_log.log(Level.INFO, getClass().getSimpleName() + ": Loaded " + getSet().size() + " variables.");
 		return true;
@@ -83,32 +82,18 @@ public final class GlobalVariablesManager extends AbstractVariables
 			return false;
 		}
 		
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			Statement del = con.createStatement();
-			PreparedStatement st = con.prepareStatement(INSERT_QUERY))
+		final int stored;
+		try
 		{
-			// Clear previous entries.
-			del.execute(DELETE_QUERY);
-			
-			// Insert all variables.
-			for (Entry<String, Object> entry : getSet().entrySet())
-			{
-				st.setString(1, entry.getKey());
-				st.setString(2, String.valueOf(entry.getValue()));
-				st.addBatch();
-			}
-			st.executeBatch();
+			// Write only the changed variables.
+			stored = storeChanges(DELETE_VAR_QUERY, INSERT_QUERY, null);
 		}
 		catch (SQLException e)
 		{
 			_log.log(Level.WARNING, getClass().getSimpleName() + ": Couldn't save global variables to database.", e);
 			return false;
 		}
-		finally
-		{
-			compareAndSetChanges(true, false);
-		}
-		_log.log(Level.INFO, getClass().getSimpleName() + ": Stored " + getSet().size() + " variables.");
+		_log.log(Level.INFO, getClass().getSimpleName() + ": Stored " + stored + " changed variables.");
 		return true;
 	}
 	
@@ -119,6 +104,7 @@ public final class GlobalVariablesManager extends AbstractVariables
 			Statement del = con.createStatement())
 		{
 			del.execute(DELETE_QUERY);
+			clearChanges();
 		}
 		catch (Exception e)
 		{
@@ -23,8 +23,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,14 +38,20 @@ import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
 
 /**
- * This class manage all items on ground.
+ * This class manage all items on ground.<br>
+ * Drops and pickups are recorded as pending changes, each save only writes the changed items in two batches.
  * @author Enforcer
  */
 public final class ItemsOnGroundManager implements Runnable
 {
 	private static final Logger _log = Logger.getLogger(ItemsOnGroundManager.class.getName());
 	
-	private final List<L2ItemInstance> _items = new CopyOnWriteArrayList<>();
+	private static final String INSERT_ITEM = "REPLACE INTO itemsonground(object_id,item_id,count,enchant_level,x,y,z,drop_time,equipable) VALUES(?,?,?,?,?,?,?,?,?)";
+	private static final String DELETE_ITEM = "DELETE FROM itemsonground WHERE object_id = ?";
+	
+	private final Map<Integer, L2ItemInstance> _items = new ConcurrentHashMap<>();
+	/** Object ids of the items changed since the last save, {@code true} to store the item, {@code false} to delete it. */
+	private final Map<Integer, Boolean> _changes = new ConcurrentHashMap<>();
 	
 	protected ItemsOnGroundManager()
 	{
@@ -124,7 +132,7 @@ public final class ItemsOnGroundManager implements Runnable
 					item.setProtected(dropTime == -1);
 					item.setIsVisible(true);
 					L2World.getInstance().addVisibleObject(item, item.getWorldRegion());
-					_items.add(item);
+					_items.put(item.getObjectId(), item);
 					count++;
 					// add to ItemsAutoDestroy only items not protected
 					if (!Config.LIST_PROTECTED_ITEMS.contains(item.getId()))
@@ -149,6 +157,11 @@ public final class ItemsOnGroundManager implements Runnable
 		if (Config.EMPTY_DROPPED_ITEM_TABLE_AFTER_LOAD)
 		{
 			emptyTable();
+			// the loaded items are not in database anymore
+			for (Integer objectId : _items.keySet())
+			{
+				_changes.put(objectId, true);
+			}
 		}
 	}
 	
@@ -158,14 +171,15 @@ public final class ItemsOnGroundManager implements Runnable
 		{
 			return;
 		}
-		_items.add(item);
+		_items.put(item.getObjectId(), item);
+		_changes.put(item.getObjectId(), true);
 	}
 	
 	public void removeObject(L2ItemInstance item)
 	{
-		if (Config.SAVE_DROPPED_ITEM)
+		if (Config.SAVE_DROPPED_ITEM && (_items.remove(item.getObjectId()) != null))
 		{
-			_items.remove(item);
+			_changes.put(item.getObjectId(), false);
 		}
 	}
 	
@@ -177,6 +191,7 @@ public final class ItemsOnGroundManager implements Runnable
 	public void cleanUp()
 	{
 		_items.clear();
+		_changes.clear();
 	}
 	
 	public void emptyTable()
@@ -195,56 +210,80 @@ public final class ItemsOnGroundManager implements Runnable
 	@Override
 	public synchronized void run()
 	{
-		if (!Config.SAVE_DROPPED_ITEM)
+		if (!Config.SAVE_DROPPED_ITEM || _changes.isEmpty())
 		{
 			return;
 		}
 		
-		emptyTable();
-		
-		if (_items.isEmpty())
+		final List<L2ItemInstance> stored = new ArrayList<>();
+		final List<Integer> deleted = new ArrayList<>();
+		for (Map.Entry<Integer, Boolean> entry : _changes.entrySet())
 		{
-			return;
+			// a change made while saving stays pending for the next save
+			if (!_changes.remove(entry.getKey(), entry.getValue()))
+			{
+				continue;
+			}
+			
+			final L2ItemInstance item = _items.get(entry.getKey());
+			if (entry.getValue() && (item != null))
+			{
+				if (!CursedWeaponsManager.getInstance().isCursed(item.getId())) // Cursed Items not saved to ground, prevent double save
+				{
+					stored.add(item);
+				}
+			}
+			else
+			{
+				deleted.add(entry.getKey());
+			}
 		}
 		
 		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement statement = con.prepareStatement("INSERT INTO itemsonground(object_id,item_id,count,enchant_level,x,y,z,drop_time,equipable) VALUES(?,?,?,?,?,?,?,?,?)"))
+			PreparedStatement delete = con.prepareStatement(DELETE_ITEM);
+			PreparedStatement insert = con.prepareStatement(INSERT_ITEM))
 		{
-			for (L2ItemInstance item : _items)
+			for (Integer objectId : deleted)
 			{
-				if (item == null)
-				{
-					continue;
-				}
-				
-				if (CursedWeaponsManager.getInstance().isCursed(item.getId()))
-				{
-					continue; // Cursed Items not saved to ground, prevent double save
-				}
-				
-				try
-				{
-					statement.setInt(1, item.getObjectId());
-					statement.setInt(2, item.getId());
-					statement.setLong(3, item.getCount());
-					statement.setInt(4, item.getEnchantLevel());
-					statement.setInt(5, item.getX());
-					statement.setInt(6, item.getY());
-					statement.setInt(7, item.getZ());
-					statement.setLong(8, (item.isProtected() ? -1 : item.getDropTime())); // item is protected or AutoDestroyed
-					statement.setLong(9, (item.isEquipable() ? 1 : 0)); // set equip-able
-					statement.execute();
-					statement.clearParameters();
-				}
-				catch (Exception e)
-				{
-					_log.log(Level.SEVERE, getClass().getSimpleName() + ": Error while inserting into table ItemsOnGround: " + e.getMessage(), e);
-				}
+				delete.setInt(1, objectId);
+				delete.addBatch();
+			}
+			
+			for (L2ItemInstance item : stored)
+			{
+				insert.setInt(1, item.getObjectId());
+				insert.setInt(2, item.getId());
+				insert.setLong(3, item.getCount());
+				insert.setInt(4, item.getEnchantLevel());
+				insert.setInt(5, item.getX());
+				insert.setInt(6, item.getY());
+				insert.setInt(7, item.getZ());
+				insert.setLong(8, (item.isProtected() ? -1 : item.getDropTime())); // item is protected or AutoDestroyed
+				insert.setLong(9, (item.isEquipable() ? 1 : 0)); // set equip-able
+				insert.addBatch();
+			}
+			
+			if (!deleted.isEmpty())
+			{
+				delete.executeBatch();
+			}
+			if (!stored.isEmpty())
+			{
+				insert.executeBatch();
 			}
 		}
 		catch (SQLException e)
 		{
 			_log.log(Level.SEVERE, getClass().getSimpleName() + ": SQL error while storing items on ground: " + e.getMessage(), e);
+			// keep the changes for the next save
+			for (Integer objectId : deleted)
+			{
+				_changes.putIfAbsent(objectId, false);
+			}
+			for (L2ItemInstance item : stored)
+			{
+				_changes.putIfAbsent(item.getObjectId(), true);
+			}
 		}
 	}
 	
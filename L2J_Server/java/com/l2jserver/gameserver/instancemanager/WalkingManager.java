@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
@@ -63,7 +64,7 @@ public final class WalkingManager implements IXmlReader
 	public static final byte REPEAT_RANDOM = 3;
 	
 	private final Map<String, L2WalkRoute> _routes = new HashMap<>(); // all available routes
-	private final Map<Integer, WalkInfo> _activeRoutes = new HashMap<>(); // each record represents NPC, moving by predefined route from _routes, and moving progress
+	private final Map<Integer, WalkInfo> _activeRoutes = new ConcurrentHashMap<>(); // each record represents NPC, moving by predefined route from _routes, and moving progress
 	private final Map<Integer, NpcRoutesHolder> _routesToAttach = new HashMap<>(); // each record represents NPC and all available routes for it
 	
 	protected WalkingManager()
@@ -44,6 +44,7 @@ import com.l2jserver.gameserver.data.sql.impl.CrestTable;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.enums.UserInfoType;
 import com.l2jserver.gameserver.instancemanager.CastleManager;
+import com.l2jserver.gameserver.instancemanager.ClanStateManager;
 import com.l2jserver.gameserver.instancemanager.FortManager;
 import com.l2jserver.gameserver.instancemanager.SiegeManager;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -133,6 +134,8 @@ public class L2Clan implements IIdentifiable, INamable
 	private int _bloodOathCount;
 	
 	private final ItemContainer _warehouse = new ClanWarehouse(this);
+	/** The warehouse of a restored clan is loaded on first access, most clans never open it. */
+	private volatile boolean _warehouseRestored;
 	private final List<Integer> _atWarWith = new CopyOnWriteArrayList<>();
 	private final List<Integer> _atWarAttackers = new CopyOnWriteArrayList<>();
 	
@@ -164,7 +167,19 @@ public class L2Clan implements IIdentifiable, INamable
 		_clanId = clanId;
 		initializePrivs();
 		restore();
-		getWarehouse().restore();
+	}
+	
+	/**
+	 * Creates a clan from a row of the clan_data table.<br>
+	 * Members, sub-units, privileges, skills and notice are restored separately, see {@link ClanTable}.
+	 * @param clanData the clan_data row
+	 * @throws SQLException
+	 */
+	public L2Clan(ResultSet clanData) throws SQLException
+	{
+		_clanId = clanData.getInt("clan_id");
+		initializePrivs();
+		restoreClanData(clanData);
 	}
 	
 	/**
@@ -177,6 +192,7 @@ public class L2Clan implements IIdentifiable, INamable
 		_clanId = clanId;
 		_name = clanName;
 		initializePrivs();
+		_warehouseRestored = true;
 	}
 	
 	/**
@@ -817,39 +833,29 @@ public class L2Clan implements IIdentifiable, INamable
 	}
 	
 	/**
-	 * Increase Blood Alliance count by config predefined count and updates the database.
+	 * Increase Blood Alliance count by config predefined count, the database is updated by the {@link ClanStateManager}.
 	 */
 	public void increaseBloodAllianceCount()
 	{
 		_bloodAllianceCount += SiegeManager.getInstance().getBloodAllianceReward();
-		updateBloodAllianceCountInDB();
+		ClanStateManager.getInstance().markChanged(this);
 	}
 	
 	/**
-	 * Reset the Blood Alliance count to zero and updates the database.
+	 * Reset the Blood Alliance count to zero, the database is updated by the {@link ClanStateManager}.
 	 */
 	public void resetBloodAllianceCount()
 	{
 		_bloodAllianceCount = 0;
-		updateBloodAllianceCountInDB();
+		ClanStateManager.getInstance().markChanged(this);
 	}
 	
 	/**
-	 * Store current Bloood Alliances count in database.
+	 * Store current Bloood Alliances count in database, on the next run of the {@link ClanStateManager}.
 	 */
 	public void updateBloodAllianceCountInDB()
 	{
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement ps = con.prepareStatement("UPDATE clan_data SET blood_alliance_count=? WHERE clan_id=?"))
-		{
-			ps.setInt(1, getBloodAllianceCount());
-			ps.setInt(2, getId());
-			ps.execute();
-		}
-		catch (Exception e)
-		{
-			_log.log(Level.WARNING, "Exception on updateBloodAllianceCountInDB(): " + e.getMessage(), e);
-		}
+		ClanStateManager.getInstance().markChanged(this);
 	}
 	
 	/**
@@ -861,57 +867,37 @@ public class L2Clan implements IIdentifiable, INamable
 	}
 	
 	/**
-	 * Increase Blood Oath count by config predefined count and updates the database.
+	 * Increase Blood Oath count by config predefined count, the database is updated by the {@link ClanStateManager}.
 	 */
 	public void increaseBloodOathCount()
 	{
 		_bloodOathCount += Config.FS_BLOOD_OATH_COUNT;
-		updateBloodOathCountInDB();
+		ClanStateManager.getInstance().markChanged(this);
 	}
 	
 	/**
-	 * Reset the Blood Oath count to zero and updates the database.
+	 * Reset the Blood Oath count to zero, the database is updated by the {@link ClanStateManager}.
 	 */
 	public void resetBloodOathCount()
 	{
 		_bloodOathCount = 0;
-		updateBloodOathCountInDB();
+		ClanStateManager.getInstance().markChanged(this);
 	}
 	
 	/**
-	 * Store current Bloood Alliances count in database.
+	 * Store current Blood Oath count in database, on the next run of the {@link ClanStateManager}.
 	 */
 	public void updateBloodOathCountInDB()
 	{
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement ps = con.prepareStatement("UPDATE clan_data SET blood_oath_count=? WHERE clan_id=?"))
-		{
-			ps.setInt(1, getBloodOathCount());
-			ps.setInt(2, getId());
-			ps.execute();
-		}
-		catch (Exception e)
-		{
-			_log.log(Level.WARNING, "Exception on updateBloodAllianceCountInDB(): " + e.getMessage(), e);
-		}
+		ClanStateManager.getInstance().markChanged(this);
 	}
 	
 	/**
-	 * Store in database current clan's reputation.
+	 * Store in database current clan's reputation, on the next run of the {@link ClanStateManager}.
 	 */
 	public void updateClanScoreInDB()
 	{
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement ps = con.prepareStatement("UPDATE clan_data SET reputation_score=? WHERE clan_id=?"))
-		{
-			ps.setInt(1, getReputationScore());
-			ps.setInt(2, getId());
-			ps.execute();
-		}
-		catch (Exception e)
-		{
-			_log.log(Level.WARNING, "Exception on updateClanScoreInDb(): " + e.getMessage(), e);
-		}
+		ClanStateManager.getInstance().markChanged(this);
 	}
 	
 	/**
@@ -1044,32 +1030,7 @@ public class L2Clan implements IIdentifiable, INamable
 			{
 				if (clanData.next())
 				{
-					setName(clanData.getString("clan_name"));
-					setLevel(clanData.getInt("clan_level"));
-					setCastleId(clanData.getInt("hasCastle"));
-					_bloodAllianceCount = clanData.getInt("blood_alliance_count");
-					_bloodOathCount = clanData.getInt("blood_oath_count");
-					setAllyId(clanData.getInt("ally_id"));
-					setAllyName(clanData.getString("ally_name"));
-					setAllyPenaltyExpiryTime(clanData.getLong("ally_penalty_expiry_time"), clanData.getInt("ally_penalty_type"));
-					if (getAllyPenaltyExpiryTime() < System.currentTimeMillis())
-					{
-						setAllyPenaltyExpiryTime(0, 0);
-					}
-					setCharPenaltyExpiryTime(clanData.getLong("char_penalty_expiry_time"));
-					if ((getCharPenaltyExpiryTime() + (Config.ALT_CLAN_JOIN_DAYS * 86400000L)) < System.currentTimeMillis()) // 24*60*60*1000 = 86400000
-					{
-						setCharPenaltyExpiryTime(0);
-					}
-					setDissolvingExpiryTime(clanData.getLong("dissolving_expiry_time"));
-					
-					setCrestId(clanData.getInt("crest_id"));
-					setCrestLargeId(clanData.getInt("crest_large_id"));
-					setAllyCrestId(clanData.getInt("ally_crest_id"));
-					
-					setReputationScore(clanData.getInt("reputation_score"), false);
-					setAuctionBiddedAt(clanData.getInt("auction_bid_at"), false);
-					setNewLeaderId(clanData.getInt("new_leader_id"), false);
+					restoreClanData(clanData);
 					
 					final int leaderId = (clanData.getInt("leader_id"));
 					
@@ -1080,18 +1041,9 @@ public class L2Clan implements IIdentifiable, INamable
 						select.setInt(1, getId());
 						try (ResultSet clanMember = select.executeQuery())
 						{
-							L2ClanMember member = null;
 							while (clanMember.next())
 							{
-								member = new L2ClanMember(this, clanMember);
-								if (member.getObjectId() == leaderId)
-								{
-									setLeader(member);
-								}
-								else
-								{
-									addClanMember(member);
-								}
+								restoreMember(clanMember, leaderId);
 							}
 						}
 					}
@@ -1114,6 +1066,55 @@ public class L2Clan implements IIdentifiable, INamable
 		}
 	}
 	
+	private void restoreClanData(ResultSet clanData) throws SQLException
+	{
+		setName(clanData.getString("clan_name"));
+		setLevel(clanData.getInt("clan_level"));
+		setCastleId(clanData.getInt("hasCastle"));
+		_bloodAllianceCount = clanData.getInt("blood_alliance_count");
+		_bloodOathCount = clanData.getInt("blood_oath_count");
+		setAllyId(clanData.getInt("ally_id"));
+		setAllyName(clanData.getString("ally_name"));
+		setAllyPenaltyExpiryTime(clanData.getLong("ally_penalty_expiry_time"), clanData.getInt("ally_penalty_type"));
+		if (getAllyPenaltyExpiryTime() < System.currentTimeMillis())
+		{
+			setAllyPenaltyExpiryTime(0, 0);
+		}
+		setCharPenaltyExpiryTime(clanData.getLong("char_penalty_expiry_time"));
+		if ((getCharPenaltyExpiryTime() + (Config.ALT_CLAN_JOIN_DAYS * 86400000L)) < System.currentTimeMillis()) // 24*60*60*1000 = 86400000
+		{
+			setCharPenaltyExpiryTime(0);
+		}
+		setDissolvingExpiryTime(clanData.getLong("dissolving_expiry_time"));
+		
+		setCrestId(clanData.getInt("crest_id"));
+		setCrestLargeId(clanData.getInt("crest_large_id"));
+		setAllyCrestId(clanData.getInt("ally_crest_id"));
+		
+		setReputationScore(clanData.getInt("reputation_score"), false);
+		setAuctionBiddedAt(clanData.getInt("auction_bid_at"), false);
+		setNewLeaderId(clanData.getInt("new_leader_id"), false);
+	}
+	
+	/**
+	 * Restores a clan member from a row of the characters table.
+	 * @param clanMember the characters row
+	 * @param leaderId the object id of the clan leader
+	 * @throws SQLException
+	 */
+	public void restoreMember(ResultSet clanMember, int leaderId) throws SQLException
+	{
+		final L2ClanMember member = new L2ClanMember(this, clanMember);
+		if (member.getObjectId() == leaderId)
+		{
+			setLeader(member);
+		}
+		else
+		{
+			addClanMember(member);
+		}
+	}
+	
 	private void restoreNotice()
 	{
 		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
@@ -1124,8 +1125,7 @@ public class L2Clan implements IIdentifiable, INamable
 			{
 				while (noticeData.next())
 				{
-					_noticeEnabled = noticeData.getBoolean("enabled");
-					_notice = noticeData.getString("notice");
+					restoreNotice(noticeData);
 				}
 			}
 		}
@@ -1135,6 +1135,17 @@ public class L2Clan implements IIdentifiable, INamable
 		}
 	}
 	
+	/**
+	 * Restores the notice from a row of the clan_notices table.
+	 * @param noticeData the clan_notices row
+	 * @throws SQLException
+	 */
+	public void restoreNotice(ResultSet noticeData) throws SQLException
+	{
+		_noticeEnabled = noticeData.getBoolean("enabled");
+		_notice = noticeData.getString("notice");
+	}
+	
 	private void storeNotice(String notice, boolean enabled)
 	{
 		if (notice == null)
@@ -1216,33 +1227,7 @@ public class L2Clan implements IIdentifiable, INamable
 				// Go though the recordset of this SQL query
 				while (rset.next())
 				{
-					int id = rset.getInt("skill_id");
-					int level = rset.getInt("skill_level");
-					// Create a L2Skill object for each record
-					Skill skill = SkillData.getInstance().getSkill(id, level);
-					// Add the L2Skill object to the L2Clan _skills
-					int subType = rset.getInt("sub_pledge_id");
-					
-					if (subType == -2)
-					{
-						_skills.put(skill.getId(), skill);
-					}
-					else if (subType == 0)
-					{
-						_subPledgeSkills.put(skill.getId(), skill);
-					}
-					else
-					{
-						SubPledge subunit = _subPledges.get(subType);
-						if (subunit != null)
-						{
-							subunit.addNewSkill(skill);
-						}
-						else
-						{
-							_log.info("Missing subpledge " + subType + " for clan " + this + ", skill skipped.");
-						}
-					}
+					restoreSkill(rset);
 				}
 			}
 		}
@@ -1252,6 +1237,47 @@ public class L2Clan implements IIdentifiable, INamable
 		}
 	}
 	
+	/**
+	 * Restores a skill from a row of the clan_skills table, sub-units must be restored first.
+	 * @param rset the clan_skills row
+	 * @throws SQLException
+	 */
+	public void restoreSkill(ResultSet rset) throws SQLException
+	{
+		int id = rset.getInt("skill_id");
+		int level = rset.getInt("skill_level");
+		// Create a L2Skill object for each record
+		Skill skill = SkillData.getInstance().getSkill(id, level);
+		if (skill == null)
+		{
+			_log.warning("Missing skill " + id + " level " + level + " for clan " + this + ", skill skipped.");
+			return;
+		}
+		// Add the L2Skill object to the L2Clan _skills
+		int subType = rset.getInt("sub_pledge_id");
+		
+		if (subType == -2)
+		{
+			_skills.put(skill.getId(), skill);
+		}
+		else if (subType == 0)
+		{
+			_subPledgeSkills.put(skill.getId(), skill);
+		}
+		else
+		{
+			SubPledge subunit = _subPledges.get(subType);
+			if (subunit != null)
+			{
+				subunit.addNewSkill(skill);
+			}
+			else
+			{
+				_log.info("Missing subpledge " + subType + " for clan " + this + ", skill skipped.");
+			}
+		}
+	}
+	
 	/**
 	 * @return all the clan skills.
 	 */
@@ -1594,6 +1620,17 @@ public class L2Clan implements IIdentifiable, INamable
 	
 	public ItemContainer getWarehouse()
 	{
+		if (!_warehouseRestored)
+		{
+			synchronized (_warehouse)
+			{
+				if (!_warehouseRestored)
+				{
+					_warehouse.restore();
+					_warehouseRestored = true;
+				}
+			}
+		}
 		return _warehouse;
 	}
 	
@@ -1783,12 +1820,7 @@ public class L2Clan implements IIdentifiable, INamable
 			{
 				while (rset.next())
 				{
-					int id = rset.getInt("sub_pledge_id");
-					String name = rset.getString("name");
-					int leaderId = rset.getInt("leader_id");
-					// Create a SubPledge object for each record
-					SubPledge pledge = new SubPledge(id, name, leaderId);
-					_subPledges.put(id, pledge);
+					restoreSubPledge(rset);
 				}
 			}
 		}
@@ -1798,6 +1830,21 @@ public class L2Clan implements IIdentifiable, INamable
 		}
 	}
 	
+	/**
+	 * Restores a sub-unit from a row of the clan_subpledges table.
+	 * @param rset the clan_subpledges row
+	 * @throws SQLException
+	 */
+	public void restoreSubPledge(ResultSet rset) throws SQLException
+	{
+		int id = rset.getInt("sub_pledge_id");
+		String name = rset.getString("name");
+		int leaderId = rset.getInt("leader_id");
+		// Create a SubPledge object for each record
+		SubPledge pledge = new SubPledge(id, name, leaderId);
+		_subPledges.put(id, pledge);
+	}
+	
 	/**
 	 * used to retrieve subPledge by type
 	 * @param pledgeType
@@ -1980,16 +2027,7 @@ public class L2Clan implements IIdentifiable, INamable
 				// Go though the recordset of this SQL query
 				while (rset.next())
 				{
-					int rank = rset.getInt("rank");
-					// int party = rset.getInt("party");
-					int privileges = rset.getInt("privs");
-					// Create a SubPledge object for each record
-					if (rank == -1)
-					{
-						continue;
-					}
-					
-					_privs.get(rank).setPrivs(privileges);
+					restoreRankPrivs(rset);
 				}
 			}
 		}
@@ -1999,6 +2037,23 @@ public class L2Clan implements IIdentifiable, INamable
 		}
 	}
 	
+	/**
+	 * Restores the privileges of a rank from a row of the clan_privs table.
+	 * @param rset the clan_privs row
+	 * @throws SQLException
+	 */
+	public void restoreRankPrivs(ResultSet rset) throws SQLException
+	{
+		int rank = rset.getInt("rank");
+		// int party = rset.getInt("party");
+		int privileges = rset.getInt("privs");
+		final RankPrivs privs = _privs.get(rank);
+		if (privs != null)
+		{
+			privs.setPrivs(privileges);
+		}
+	}
+	
 	public void initializePrivs()
 	{
 		for (int i = 1; i < 10; i++)
@@ -2152,7 +2207,7 @@ public class L2Clan implements IIdentifiable, INamable
 		broadcastToOnlineMembers(new PledgeShowInfoUpdate(this));
 		if (save)
 		{
-			updateClanScoreInDB();
+			ClanStateManager.getInstance().markChanged(this);
 		}
 	}
 	
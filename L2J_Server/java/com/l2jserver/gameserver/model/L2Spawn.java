@@ -30,7 +30,6 @@ import java.util.logging.Logger;
 
 import com.l2jserver.Config;
 import com.l2jserver.gameserver.GeoData;
-import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.data.sql.impl.TerritoryTable;
 import com.l2jserver.gameserver.data.xml.impl.NpcData;
 import com.l2jserver.gameserver.datatables.NpcPersonalAIData;
@@ -42,6 +41,7 @@ import com.l2jserver.gameserver.model.interfaces.ILocational;
 import com.l2jserver.gameserver.model.interfaces.INamable;
 import com.l2jserver.gameserver.model.interfaces.IPositionable;
 import com.l2jserver.gameserver.model.zone.type.NpcSpawnTerritory;
+import com.l2jserver.gameserver.taskmanager.RespawnTaskManager;
 import com.l2jserver.util.Rnd;
 
 /**
@@ -55,6 +55,9 @@ public class L2Spawn implements IPositionable, IIdentifiable, INamable
 {
 	protected static final Logger _log = Logger.getLogger(L2Spawn.class.getName());
 	
+	/** NPC constructors by template type, resolved once instead of once per spawn. */
+	private static final Map<String, Constructor<? extends L2Npc>> _constructors = new ConcurrentHashMap<>();
+	
 	/** String identifier of this spawn */
 	private String _name;
 	/** The link on the L2NpcTemplate object containing generic and static properties of this spawn (ex : RewardExp, RewardSP, AggroRange...) */
@@ -143,10 +146,20 @@ public class L2Spawn implements IPositionable, IIdentifiable, INamable
 			return;
 		}
 		
-		String className = "com.l2jserver.gameserver.model.actor.instance." + _template.getType() + "Instance";
-		
 		// Create the generic constructor of L2Npc managed by this L2Spawn
-		_constructor = Class.forName(className).asSubclass(L2Npc.class).getConstructor(L2NpcTemplate.class);
+		_constructor = getConstructor(_template.getType());
+	}
+	
+	private static Constructor<? extends L2Npc> getConstructor(String type) throws ClassNotFoundException, NoSuchMethodException
+	{
+		Constructor<? extends L2Npc> constructor = _constructors.get(type);
+		if (constructor == null)
+		{
+			String className = "com.l2jserver.gameserver.model.actor.instance." + type + "Instance";
+			constructor = Class.forName(className).asSubclass(L2Npc.class).getConstructor(L2NpcTemplate.class);
+			_constructors.put(type, constructor);
+		}
+		return constructor;
 	}
 	
 	/**
@@ -448,8 +461,7 @@ public class L2Spawn implements IPositionable, IIdentifiable, INamable
 			_scheduledCount++;
 			
 			// Create a new SpawnTask to launch after the respawn Delay
-			// ClientScheduler.getInstance().scheduleLow(new SpawnTask(npcId), _respawnDelay);
-			ThreadPoolManager.getInstance().scheduleGeneral(new SpawnTask(oldNpc), hasRespawnRandom() ? Rnd.get(_respawnMinDelay, _respawnMaxDelay) : _respawnMinDelay);
+			RespawnTaskManager.getInstance().add(new SpawnTask(oldNpc), hasRespawnRandom() ? Rnd.get(_respawnMinDelay, _respawnMaxDelay) : _respawnMinDelay);
 		}
 	}
 	
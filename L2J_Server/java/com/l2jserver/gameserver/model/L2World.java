@@ -22,14 +22,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.l2jserver.Config;
 import com.l2jserver.gameserver.data.sql.impl.CharNameTable;
 import com.l2jserver.gameserver.data.xml.impl.AdminData;
 import com.l2jserver.gameserver.model.actor.L2Playable;
@@ -275,27 +275,16 @@ public final class L2World
 			}
 		}
 		
-		if (!newRegion.isActive())
+		if (!newRegion.isActive() || !object.isVisible())
 		{
 			return;
 		}
-		// Get all visible objects contained in the _visibleObjects of L2WorldRegions
-		// in a circular area of 2000 units
-		List<L2Object> visibles = getVisibleObjects(object, 2000);
-		if (Config.DEBUG)
-		{
-			_log.finest("objects in range:" + visibles.size());
-		}
 		
 		// tell the player about the surroundings
-		// Go through the visible objects contained in the circular area
-		for (L2Object visible : visibles)
+		// Go through the visible objects contained in the _visibleObjects of L2WorldRegions
+		// in a circular area of 2000 units
+		forEachVisible(object, 2000, L2Object.class, null, visible ->
 		{
-			if (visible == null)
-			{
-				continue;
-			}
-			
 			// Add the object in L2ObjectHashSet(L2Object) _knownObjects of the visible L2Character according to conditions :
 			// - L2Character is visible
 			// - object is not already known
@@ -306,7 +295,7 @@ public final class L2World
 			// Add the visible L2Object in L2ObjectHashSet(L2Object) _knownObjects of the object according to conditions
 			// If visible L2Object is a L2PcInstance, add visible L2Object in L2ObjectHashSet(L2PcInstance) _knownPlayer of the object
 			object.getKnownList().addKnownObject(visible);
-		}
+		});
 	}
 	
 	/**
@@ -387,32 +376,13 @@ public final class L2World
 	 */
 	public List<L2Object> getVisibleObjects(L2Object object)
 	{
-		L2WorldRegion reg = object.getWorldRegion();
-		
-		if (reg == null)
+		if (object.getWorldRegion() == null)
 		{
 			return null;
 		}
 		
-		// Create a list in order to contain all visible objects.
-		final List<L2Object> result = new LinkedList<>();
-		for (L2WorldRegion regi : reg.getSurroundingRegions())
-		{
-			// Go through visible objects of the selected region
-			for (L2Object _object : regi.getVisibleObjects().values())
-			{
-				if ((_object == null) || _object.equals(object))
-				{
-					continue; // skip our own character
-				}
-				else if (!_object.isVisible())
-				{
-					continue; // skip dying objects
-				}
-				result.add(_object);
-			}
-		}
-		
+		final List<L2Object> result = new ArrayList<>();
+		forEachVisibleInRegions(object, L2Object.class, null, result::add);
 		return result;
 	}
 	
@@ -422,36 +392,15 @@ public final class L2World
 	 * Confusion...</li><BR>
 	 * @param object L2object that determine the center of the circular area
 	 * @param radius Radius of the circular area
-	 * @return
+	 * @return the objects found, empty if the radius is 0 or less
 	 */
 	public List<L2Object> getVisibleObjects(L2Object object, int radius)
 	{
-		if ((object == null) || !object.isVisible())
+		final List<L2Object> result = new ArrayList<>();
+		if ((object != null) && object.isVisible() && (radius > 0))
 		{
-			return new ArrayList<>();
+			forEachVisible(object, radius, L2Object.class, null, result::add);
 		}
-		
-		final int sqRadius = radius * radius;
-		
-		// Create a list in order to contain all visible objects.
-		final List<L2Object> result = new LinkedList<>();
-		for (L2WorldRegion regi : object.getWorldRegion().getSurroundingRegions())
-		{
-			// Go through visible objects of the selected region
-			for (L2Object _object : regi.getVisibleObjects().values())
-			{
-				if ((_object == null) || _object.equals(object))
-				{
-					continue; // skip our own character
-				}
-				
-				if (sqRadius > object.calculateDistance(_object, false, true))
-				{
-					result.add(_object);
-				}
-			}
-		}
-		
 		return result;
 	}
 	
@@ -460,35 +409,15 @@ public final class L2World
 	 * All surrounding L2WorldRegion are identified in <B>_surroundingRegions</B> of the selected L2WorldRegion in order to scan a large area around a L2Object <B><U> Example of use </U> :</B> <li>Define the target list of a skill</li> <li>Define the target list of a polearme attack</li>
 	 * @param object L2object that determine the center of the circular area
 	 * @param radius Radius of the spheric area
-	 * @return
+	 * @return the objects found, empty if the radius is 0 or less
 	 */
 	public List<L2Object> getVisibleObjects3D(L2Object object, int radius)
 	{
-		if ((object == null) || !object.isVisible())
-		{
-			return new ArrayList<>();
-		}
-		
-		final int sqRadius = radius * radius;
-		
-		// Create a list in order to contain all visible objects.
-		final List<L2Object> result = new LinkedList<>();
-		for (L2WorldRegion regi : object.getWorldRegion().getSurroundingRegions())
+		final List<L2Object> result = new ArrayList<>();
+		if ((object != null) && object.isVisible() && (radius > 0))
 		{
-			for (L2Object _object : regi.getVisibleObjects().values())
-			{
-				if ((_object == null) || _object.equals(object))
-				{
-					continue; // skip our own character
-				}
-				
-				if (sqRadius > object.calculateDistance(_object, true, true))
-				{
-					result.add(_object);
-				}
-			}
+			forEachVisible3D(object, radius, L2Object.class, null, result::add);
 		}
-		
 		return result;
 	}
 	
@@ -500,37 +429,123 @@ public final class L2World
 	 */
 	public List<L2Playable> getVisiblePlayable(L2Object object)
 	{
-		L2WorldRegion reg = object.getWorldRegion();
-		if (reg == null)
+		if (object.getWorldRegion() == null)
 		{
 			return null;
 		}
 		
-		// Create a list in order to contain all visible objects.
-		final List<L2Playable> result = new LinkedList<>();
-		for (L2WorldRegion regi : reg.getSurroundingRegions())
+		final List<L2Playable> result = new ArrayList<>();
+		forEachVisibleInRegions(object, L2Playable.class, null, result::add);
+		return result;
+	}
+	
+	/**
+	 * Applies an action to the visible objects of a type in the circular area (radius) centered on the object, without building any collection.<br>
+	 * Only the surrounding regions overlapping the square bounding the area are walked, and playable types only walk the playable maps of those regions.
+	 * @param <T> the type of the objects
+	 * @param object the object at the center of the area, never passed to the action
+	 * @param radius the radius of the circular area, nothing is found if it is 0 or less
+	 * @param type the type of the objects
+	 * @param filter the condition the objects must meet, {@code null} for none
+	 * @param action the action applied to every object found
+	 */
+	public <T extends L2Object> void forEachVisible(L2Object object, int radius, Class<T> type, Predicate<? super T> filter, Consumer<? super T> action)
+	{
+		if (radius > 0)
+		{
+			forEachVisible(object, radius, false, type, filter, action);
+		}
+	}
+	
+	/**
+	 * Same as {@link #forEachVisible(L2Object, int, Class, Predicate, Consumer)} in a spheric area.
+	 * @param <T> the type of the objects
+	 * @param object the object at the center of the area, never passed to the action
+	 * @param radius the radius of the spheric area, nothing is found if it is 0 or less
+	 * @param type the type of the objects
+	 * @param filter the condition the objects must meet, {@code null} for none
+	 * @param action the action applied to every object found
+	 */
+	public <T extends L2Object> void forEachVisible3D(L2Object object, int radius, Class<T> type, Predicate<? super T> filter, Consumer<? super T> action)
+	{
+		if (radius > 0)
+		{
+			forEachVisible(object, radius, true, type, filter, action);
+		}
+	}
+	
+	/**
+	 * Applies an action to the visible objects of a type in the object's and all surrounding regions, whatever their distance.
+	 * @param <T> the type of the objects
+	 * @param object the object whose region is scanned, never passed to the action
+	 * @param type the type of the objects
+	 * @param filter the condition the objects must meet, {@code null} for none
+	 * @param action the action applied to every object found
+	 */
+	public <T extends L2Object> void forEachVisibleInRegions(L2Object object, Class<T> type, Predicate<? super T> filter, Consumer<? super T> action)
+	{
+		forEachVisible(object, 0, false, type, filter, action);
+	}
+	
+	/**
+	 * @param radius the radius of the area, 0 for no distance check
+	 */
+	private <T extends L2Object> void forEachVisible(L2Object object, int radius, boolean includeZAxis, Class<T> type, Predicate<? super T> filter, Consumer<? super T> action)
+	{
+		if (object == null)
+		{
+			return;
+		}
+		
+		final L2WorldRegion region = object.getWorldRegion();
+		if (region == null)
+		{
+			return;
+		}
+		
+		int minX = region.getTileX() - 1;
+		int maxX = region.getTileX() + 1;
+		int minY = region.getTileY() - 1;
+		int maxY = region.getTileY() + 1;
+		if (radius > 0)
+		{
+			minX = Math.max(minX, ((object.getX() - radius) >> SHIFT_BY) + OFFSET_X);
+			maxX = Math.min(maxX, ((object.getX() + radius) >> SHIFT_BY) + OFFSET_X);
+			minY = Math.max(minY, ((object.getY() - radius) >> SHIFT_BY) + OFFSET_Y);
+			maxY = Math.min(maxY, ((object.getY() + radius) >> SHIFT_BY) + OFFSET_Y);
+		}
+		minX = Math.max(minX, 0);
+		maxX = Math.min(maxX, REGIONS_X);
+		minY = Math.max(minY, 0);
+		maxY = Math.min(maxY, REGIONS_Y);
+		
+		final double sqRadius = (double) radius * radius;
+		final boolean playable = L2Playable.class.isAssignableFrom(type);
+		for (int x = minX; x <= maxX; x++)
 		{
-			// Create an Iterator to go through the visible L2Object of the L2WorldRegion
-			Map<Integer, L2Playable> _allpls = regi.getVisiblePlayable();
-			Collection<L2Playable> _playables = _allpls.values();
-			// Go through visible object of the selected region
-			for (L2Playable _object : _playables)
+			for (int y = minY; y <= maxY; y++)
 			{
-				if ((_object == null) || _object.equals(object))
-				{
-					continue; // skip our own character
-				}
-				
-				if (!_object.isVisible())
+				final Map<Integer, ? extends L2Object> objects = playable ? _worldRegions[x][y].getVisiblePlayable() : _worldRegions[x][y].getVisibleObjects();
+				for (L2Object obj : objects.values())
 				{
-					continue; // skip dying objects
+					if ((obj == null) || (obj == object) || !type.isInstance(obj) || !obj.isVisible())
+					{
+						continue;
+					}
+					
+					if ((radius > 0) && (object.calculateDistance(obj, includeZAxis, true) >= sqRadius))
+					{
+						continue;
+					}
+					
+					final T found = type.cast(obj);
+					if ((filter == null) || filter.test(found))
+					{
+						action.accept(found);
+					}
 				}
-				
-				result.add(_object);
 			}
 		}
-		
-		return result;
 	}
 	
 	/**
@@ -28,6 +28,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Logger;
 
 import com.l2jserver.Config;
+import com.l2jserver.gameserver.GeoData;
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.datatables.SpawnTable;
 import com.l2jserver.gameserver.model.actor.L2Attackable;
@@ -326,13 +327,17 @@ public final class L2WorldRegion
 			return;
 		}
 		
+		// Geodata left to load on demand starts loading in the background on activation, it is never unloaded.
+		if (value)
+		{
+			GeoData.getInstance().loadRegionAt((_tileX - L2World.OFFSET_X) << L2World.SHIFT_BY, (_tileY - L2World.OFFSET_Y) << L2World.SHIFT_BY);
+		}
+		
 		_active = value;
 		
 		// turn the AI on or off to match the region's activation.
 		switchAI(value);
 		
-		// TODO
-		// turn the geodata on or off to match the region's activation.
 		if (value)
 		{
 			_log.fine("Starting Grid " + _tileX + "," + _tileY);
@@ -464,6 +469,22 @@ public final class L2WorldRegion
 		return _visibleObjects;
 	}
 	
+	/**
+	 * @return the x index of this region in the world region grid
+	 */
+	public int getTileX()
+	{
+		return _tileX;
+	}
+	
+	/**
+	 * @return the y index of this region in the world region grid
+	 */
+	public int getTileY()
+	{
+		return _tileY;
+	}
+	
 	public String getName()
 	{
 		return "(" + _tileX + ", " + _tileY + ")";
@@ -64,13 +64,23 @@ public class StatsSet implements IParserAdvUtils
 		return _set;
 	}
 	
+	/**
+	 * All the getters read the values through this method.
+	 * @param key the key
+	 * @return the value associated with the key, {@code null} if there is none
+	 */
+	protected Object getValue(String key)
+	{
+		return _set.get(key);
+	}
+	
 	/**
 	 * Add a set of couple values in the current set
 	 * @param newSet : StatsSet pointing out the list of couples to add in the current set
 	 */
 	public void add(StatsSet newSet)
 	{
-		_set.putAll(newSet.getSet());
+		_set.putAll(newSet instanceof TypedStatsSet ? ((TypedStatsSet) newSet).getValues() : newSet.getSet());
 	}
 	
 	/**
@@ -91,7 +101,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public boolean getBoolean(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Boolean value required, but not specified");
@@ -119,7 +129,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public boolean getBoolean(String key, boolean defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -141,7 +151,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public byte getByte(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Byte value required, but not specified");
@@ -163,7 +173,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public byte getByte(String key, byte defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -184,7 +194,7 @@ public class StatsSet implements IParserAdvUtils
 	
 	public byte[] getByteArray(String key, String splitOn)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Byte value required, but not specified");
@@ -227,7 +237,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public short getShort(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Short value required, but not specified");
@@ -249,7 +259,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public short getShort(String key, short defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -271,7 +281,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public int getInt(String key)
 	{
-		final Object val = _set.get(key);
+		final Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Integer value required, but not specified: " + key + "!");
@@ -295,7 +305,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public int getInt(String key, int defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -316,7 +326,7 @@ public class StatsSet implements IParserAdvUtils
 	
 	public int[] getIntArray(String key, String splitOn)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Integer value required, but not specified");
@@ -359,7 +369,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public long getLong(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Integer value required, but not specified");
@@ -381,7 +391,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public long getLong(String key, long defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -403,7 +413,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public float getFloat(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Float value required, but not specified");
@@ -425,7 +435,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public float getFloat(String key, float defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -447,7 +457,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public double getDouble(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Float value required, but not specified");
@@ -469,7 +479,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public double getDouble(String key, double defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -491,7 +501,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public String getString(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("String value required, but not specified");
@@ -502,7 +512,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public String getString(String key, String defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -513,7 +523,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public Duration getDuration(String key)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("String value required, but not specified");
@@ -524,7 +534,7 @@ public class StatsSet implements IParserAdvUtils
 	@Override
 	public Duration getDuration(String key, Duration defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -536,7 +546,7 @@ public class StatsSet implements IParserAdvUtils
 	@SuppressWarnings("unchecked")
 	public <T extends Enum<T>> T getEnum(String key, Class<T> enumClass)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			throw new IllegalArgumentException("Enum value of type " + enumClass.getName() + " required, but not specified");
@@ -559,7 +569,7 @@ public class StatsSet implements IParserAdvUtils
 	@SuppressWarnings("unchecked")
 	public <T extends Enum<T>> T getEnum(String key, Class<T> enumClass, T defaultValue)
 	{
-		Object val = _set.get(key);
+		Object val = getValue(key);
 		if (val == null)
 		{
 			return defaultValue;
@@ -581,7 +591,7 @@ public class StatsSet implements IParserAdvUtils
 	@SuppressWarnings("unchecked")
 	public final <A> A getObject(String name, Class<A> type)
 	{
-		Object obj = _set.get(name);
+		Object obj = getValue(name);
 		if ((obj == null) || !type.isAssignableFrom(obj.getClass()))
 		{
 			return null;
@@ -592,7 +602,7 @@ public class StatsSet implements IParserAdvUtils
 	
 	public SkillHolder getSkillHolder(String key)
 	{
-		Object obj = _set.get(key);
+		Object obj = getValue(key);
 		if ((obj == null) || !(obj instanceof SkillHolder))
 		{
 			return null;
@@ -604,7 +614,7 @@ public class StatsSet implements IParserAdvUtils
 	@SuppressWarnings("unchecked")
 	public List<MinionHolder> getMinionList(String key)
 	{
-		Object obj = _set.get(key);
+		Object obj = getValue(key);
 		if ((obj == null) || !(obj instanceof List<?>))
 		{
 			return Collections.EMPTY_LIST;
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields of a {@link TypedStatsSet}, each with a fixed type and slot.<br>
+ * A schema is declared once, usually as a constant, and can no longer be changed once it created a set.
+ */
+public final class StatsSetSchema
+{
+	/** Maximum amount of fields, the assigned fields of a set are tracked in a {@code long} mask. */
+	public static final int MAX_FIELDS = Long.SIZE;
+	
+	public enum FieldType
+	{
+		BOOLEAN,
+		INT,
+		LONG,
+		DOUBLE,
+		STRING
+	}
+	
+	private final Map<String, Field> _fields = new LinkedHashMap<>();
+	private volatile Map<String, Field> _compiled;
+	private int _primitives;
+	private int _objects;
+	
+	public StatsSetSchema addBoolean(String name)
+	{
+		return add(name, FieldType.BOOLEAN);
+	}
+	
+	public StatsSetSchema addInt(String name)
+	{
+		return add(name, FieldType.INT);
+	}
+	
+	public StatsSetSchema addLong(String name)
+	{
+		return add(name, FieldType.LONG);
+	}
+	
+	public StatsSetSchema addDouble(String name)
+	{
+		return add(name, FieldType.DOUBLE);
+	}
+	
+	public StatsSetSchema addString(String name)
+	{
+		return add(name, FieldType.STRING);
+	}
+	
+	/**
+	 * Adds a field.
+	 * @param name the name of the field
+	 * @param type the type of the field
+	 * @return this schema
+	 * @throws IllegalStateException if the schema already created a set
+	 * @throws IllegalArgumentException if the field already exists or there are too many fields
+	 */
+	public synchronized StatsSetSchema add(String name, FieldType type)
+	{
+		if (_compiled != null)
+		{
+			throw new IllegalStateException("Schema already in use, field " + name + " cannot be added!");
+		}
+		if (_fields.containsKey(name))
+		{
+			throw new IllegalArgumentException("Duplicate field " + name + "!");
+		}
+		if (_fields.size() >= MAX_FIELDS)
+		{
+			throw new IllegalArgumentException("More than " + MAX_FIELDS + " fields!");
+		}
+		
+		final int index = type == FieldType.STRING ? _objects++ : _primitives++;
+		_fields.put(name, new Field(name, type, index, _fields.size()));
+		return this;
+	}
+	
+	/**
+	 * @return a new empty set of this schema
+	 */
+	public TypedStatsSet newSet()
+	{
+		return new TypedStatsSet(this);
+	}
+	
+	/**
+	 * @param name the name of the field
+	 * @return the field, {@code null} if the schema has no such field
+	 */
+	protected Field getField(String name)
+	{
+		return _compiled.get(name);
+	}
+	
+	/**
+	 * @return the fields in declaration order
+	 */
+	protected Iterable<Field> getFields()
+	{
+		return _fields.values();
+	}
+	
+	/**
+	 * Freezes the schema, called by the first set created.
+	 */
+	protected synchronized void compile()
+	{
+		if (_compiled == null)
+		{
+			_compiled = Collections.unmodifiableMap(new HashMap<>(_fields));
+		}
+	}
+	
+	protected int getPrimitiveCount()
+	{
+		return _primitives;
+	}
+	
+	protected int getObjectCount()
+	{
+		return _objects;
+	}
+	
+	protected static final class Field
+	{
+		protected final String _name;
+		protected final FieldType _type;
+		/** Index in the primitive or object values. */
+		protected final int _index;
+		/** Bit in the assigned fields mask. */
+		protected final long _mask;
+		
+		protected Field(String name, FieldType type, int index, int bit)
+		{
+			_name = name;
+			_type = type;
+			_index = index;
+			_mask = 1L << bit;
+		}
+	}
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.l2jserver.gameserver.model.StatsSetSchema.Field;
+import com.l2jserver.gameserver.model.StatsSetSchema.FieldType;
+
+/**
+ * A {@link StatsSet} whose known keys are declared in a {@link StatsSetSchema}.<br>
+ * Values of schema fields are kept unboxed in arrays indexed by the field slot, getters matching the field type read them without casting or parsing.<br>
+ * Other getters convert the values like {@link StatsSet} does, keys outside the schema are kept in the regular map.<br>
+ * {@link #getSet()} is that map, schema fields cannot be written through it. {@link #getValues()} is a read-only view of all the values.
+ */
+public class TypedStatsSet extends StatsSet
+{
+	private final StatsSetSchema _schema;
+	private final long[] _primitives;
+	private final Object[] _objects;
+	private long _assigned;
+	private final Map<String, Object> _values = new Values();
+	
+	/**
+	 * The map of the keys outside the schema, schema fields are rejected so that a write to one is not silently ignored.
+	 */
+	private static final class FreeKeyMap extends LinkedHashMap<String, Object>
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final StatsSetSchema _schema;
+		
+		protected FreeKeyMap(StatsSetSchema schema)
+		{
+			_schema = schema;
+		}
+		
+		private void checkKey(String key)
+		{
+			if (_schema.getField(key) != null)
+			{
+				throw new UnsupportedOperationException(key + " is a schema field, it can only be set through the set methods");
+			}
+		}
+		
+		@Override
+		public Object put(String key, Object value)
+		{
+			checkKey(key);
+			return super.put(key, value);
+		}
+		
+		@Override
+		public void putAll(Map<? extends String, ? extends Object> map)
+		{
+			for (String key : map.keySet())
+			{
+				checkKey(key);
+			}
+			super.putAll(map);
+		}
+		
+		@Override
+		public Object putIfAbsent(String key, Object value)
+		{
+			checkKey(key);
+			return super.putIfAbsent(key, value);
+		}
+		
+		@Override
+		public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> function)
+		{
+			checkKey(key);
+			return super.compute(key, function);
+		}
+		
+		@Override
+		public Object computeIfAbsent(String key, Function<? super String, ? extends Object> function)
+		{
+			checkKey(key);
+			return super.computeIfAbsent(key, function);
+		}
+		
+		@Override
+		public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> function)
+		{
+			checkKey(key);
+			return super.merge(key, value, function);
+		}
+	}
+	
+	/**
+	 * Read-only view of the values, schema fields first.
+	 */
+	private final class Values extends AbstractMap<String, Object>
+	{
+		@Override
+		public Object get(Object key)
+		{
+			return key instanceof String ? getValue((String) key) : null;
+		}
+		
+		@Override
+		public boolean containsKey(Object key)
+		{
+			return get(key) != null;
+		}
+		
+		@Override
+		public Set<Entry<String, Object>> entrySet()
+		{
+			final Map<String, Object> values = new LinkedHashMap<>();
+			for (Field field : _schema.getFields())
+			{
+				if (isAssigned(field))
+				{
+					values.put(field._name, getValue(field._name));
+				}
+			}
+			values.putAll(getSet());
+			return Collections.unmodifiableMap(values).entrySet();
+		}
+	}
+	
+	protected TypedStatsSet(StatsSetSchema schema)
+	{
+		super(new FreeKeyMap(schema));
+		schema.compile();
+		_schema = schema;
+		_primitives = new long[schema.getPrimitiveCount()];
+		_objects = new Object[schema.getObjectCount()];
+	}
+	
+	public StatsSetSchema getSchema()
+	{
+		return _schema;
+	}
+	
+	private boolean isAssigned(Field field)
+	{
+		return (_assigned & field._mask) != 0;
+	}
+	
+	@Override
+	protected Object getValue(String key)
+	{
+		final Field field = _schema.getField(key);
+		if (field == null)
+		{
+			return super.getValue(key);
+		}
+		
+		if (!isAssigned(field))
+		{
+			return null;
+		}
+		
+		switch (field._type)
+		{
+			case BOOLEAN:
+				return _primitives[field._index] != 0;
+			case INT:
+				return (int) _primitives[field._index];
+			case LONG:
+				return _primitives[field._index];
+			case DOUBLE:
+				return Double.longBitsToDouble(_primitives[field._index]);
+			default:
+				return _objects[field._index];
+		}
+	}
+	
+	/**
+	 * @return a read-only view of all the values, schema fields first
+	 */
+	public Map<String, Object> getValues()
+	{
+		return _values;
+	}
+	
+	@Override
+	public void add(StatsSet newSet)
+	{
+		for (Entry<String, Object> entry : (newSet instanceof TypedStatsSet ? ((TypedStatsSet) newSet).getValues() : newSet.getSet()).entrySet())
+		{
+			set(entry.getKey(), entry.getValue());
+		}
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		return (_assigned == 0) && super.isEmpty();
+	}
+	
+	@Override
+	public boolean getBoolean(String key)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.BOOLEAN) && isAssigned(field))
+		{
+			return _primitives[field._index] != 0;
+		}
+		return super.getBoolean(key);
+	}
+	
+	@Override
+	public boolean getBoolean(String key, boolean defaultValue)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.BOOLEAN))
+		{
+			return isAssigned(field) ? _primitives[field._index] != 0 : defaultValue;
+		}
+		return super.getBoolean(key, defaultValue);
+	}
+	
+	@Override
+	public int getInt(String key)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.INT) && isAssigned(field))
+		{
+			return (int) _primitives[field._index];
+		}
+		return super.getInt(key);
+	}
+	
+	@Override
+	public int getInt(String key, int defaultValue)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.INT))
+		{
+			return isAssigned(field) ? (int) _primitives[field._index] : defaultValue;
+		}
+		return super.getInt(key, defaultValue);
+	}
+	
+	@Override
+	public long getLong(String key)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && ((field._type == FieldType.LONG) || (field._type == FieldType.INT)) && isAssigned(field))
+		{
+			return _primitives[field._index];
+		}
+		return super.getLong(key);
+	}
+	
+	@Override
+	public long getLong(String key, long defaultValue)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && ((field._type == FieldType.LONG) || (field._type == FieldType.INT)))
+		{
+			return isAssigned(field) ? _primitives[field._index] : defaultValue;
+		}
+		return super.getLong(key, defaultValue);
+	}
+	
+	@Override
+	public double getDouble(String key)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.DOUBLE) && isAssigned(field))
+		{
+			return Double.longBitsToDouble(_primitives[field._index]);
+		}
+		return super.getDouble(key);
+	}
+	
+	@Override
+	public double getDouble(String key, double defaultValue)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.DOUBLE))
+		{
+			return isAssigned(field) ? Double.longBitsToDouble(_primitives[field._index]) : defaultValue;
+		}
+		return super.getDouble(key, defaultValue);
+	}
+	
+	@Override
+	public String getString(String key)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.STRING) && isAssigned(field))
+		{
+			return (String) _objects[field._index];
+		}
+		return super.getString(key);
+	}
+	
+	@Override
+	public String getString(String key, String defaultValue)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.STRING))
+		{
+			return isAssigned(field) ? (String) _objects[field._index] : defaultValue;
+		}
+		return super.getString(key, defaultValue);
+	}
+	
+	/**
+	 * Sets a value, converted to the field type for schema fields.
+	 * @throws IllegalArgumentException if the value cannot be converted to the field type
+	 */
+	@Override
+	public void set(String name, Object value)
+	{
+		final Field field = _schema.getField(name);
+		if (field == null)
+		{
+			super.set(name, value);
+			return;
+		}
+		
+		if (value == null)
+		{
+			_assigned &= ~field._mask;
+			if (field._type == FieldType.STRING)
+			{
+				_objects[field._index] = null;
+			}
+			return;
+		}
+		
+		try
+		{
+			switch (field._type)
+			{
+				case BOOLEAN:
+					_primitives[field._index] = (value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean((String) value)) ? 1 : 0;
+					break;
+				case INT:
+					_primitives[field._index] = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt((String) value);
+					break;
+				case LONG:
+					_primitives[field._index] = value instanceof Number ? ((Number) value).longValue() : Long.parseLong((String) value);
+					break;
+				case DOUBLE:
+					_primitives[field._index] = Double.doubleToRawLongBits(value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble((String) value));
+					break;
+				default:
+					_objects[field._index] = String.valueOf(value);
+					break;
+			}
+		}
+		catch (Exception e)
+		{
+			throw new IllegalArgumentException(field._type + " value required for " + name + ", but found: " + value);
+		}
+		_assigned |= field._mask;
+	}
+	
+	@Override
+	public void set(String key, boolean value)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.BOOLEAN))
+		{
+			_primitives[field._index] = value ? 1 : 0;
+			_assigned |= field._mask;
+			return;
+		}
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, byte value)
+	{
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, short value)
+	{
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, int value)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && ((field._type == FieldType.INT) || (field._type == FieldType.LONG)))
+		{
+			_primitives[field._index] = value;
+			_assigned |= field._mask;
+			return;
+		}
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, long value)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.LONG))
+		{
+			_primitives[field._index] = value;
+			_assigned |= field._mask;
+			return;
+		}
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, float value)
+	{
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, double value)
+	{
+		final Field field = _schema.getField(key);
+		if ((field != null) && (field._type == FieldType.DOUBLE))
+		{
+			_primitives[field._index] = Double.doubleToRawLongBits(value);
+			_assigned |= field._mask;
+			return;
+		}
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, String value)
+	{
+		set(key, (Object) value);
+	}
+	
+	@Override
+	public void set(String key, Enum<?> value)
+	{
+		set(key, (Object) value);
+	}
+}
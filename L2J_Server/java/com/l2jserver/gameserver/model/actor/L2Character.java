@@ -126,6 +126,7 @@ import com.l2jserver.gameserver.model.skills.SkillChannelizer;
 import com.l2jserver.gameserver.model.skills.targets.L2TargetType;
 import com.l2jserver.gameserver.model.stats.BaseStats;
 import com.l2jserver.gameserver.model.stats.Calculator;
+import com.l2jserver.gameserver.model.stats.DamageContext;
 import com.l2jserver.gameserver.model.stats.Formulas;
 import com.l2jserver.gameserver.model.stats.Stats;
 import com.l2jserver.gameserver.model.stats.functions.AbstractFunction;
@@ -155,7 +156,10 @@ import com.l2jserver.gameserver.network.serverpackets.TeleportToLocation;
 import com.l2jserver.gameserver.network.serverpackets.UserInfo;
 import com.l2jserver.gameserver.pathfinding.AbstractNodeLoc;
 import com.l2jserver.gameserver.pathfinding.PathFinding;
+import com.l2jserver.gameserver.pathfinding.PathRequest;
+import com.l2jserver.gameserver.pathfinding.PathRequestManager;
 import com.l2jserver.gameserver.taskmanager.AttackStanceTaskManager;
+import com.l2jserver.gameserver.taskmanager.CombatTaskManager;
 import com.l2jserver.gameserver.util.Util;
 import com.l2jserver.util.EmptyQueue;
 import com.l2jserver.util.Rnd;
@@ -985,7 +989,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 							if (getCurrentMp() < mpConsume)
 							{
 								// If L2PcInstance doesn't have enough MP, stop the attack
-								ThreadPoolManager.getInstance().scheduleAi(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
+								CombatTaskManager.getInstance().schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
 								sendPacket(SystemMessageId.NOT_ENOUGH_MP);
 								sendPacket(ActionFailed.STATIC_PACKET);
 								return;
@@ -1003,7 +1007,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 						else
 						{
 							// Cancel the action because the bow can't be re-use at this moment
-							ThreadPoolManager.getInstance().scheduleAi(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
+							CombatTaskManager.getInstance().schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
 							sendPacket(ActionFailed.STATIC_PACKET);
 							return;
 						}
@@ -1047,7 +1051,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 							if (getCurrentMp() < mpConsume)
 							{
 								// If L2PcInstance doesn't have enough MP, stop the attack
-								ThreadPoolManager.getInstance().scheduleAi(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
+								CombatTaskManager.getInstance().schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
 								sendPacket(SystemMessageId.NOT_ENOUGH_MP);
 								sendPacket(ActionFailed.STATIC_PACKET);
 								return;
@@ -1065,7 +1069,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 						else
 						{
 							// Cancel the action because the crossbow can't be re-use at this moment
-							ThreadPoolManager.getInstance().scheduleAi(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
+							CombatTaskManager.getInstance().schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
 							sendPacket(ActionFailed.STATIC_PACKET);
 							return;
 						}
@@ -1196,7 +1200,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			}
 			
 			// Notify AI with EVT_READY_TO_ACT
-			ThreadPoolManager.getInstance().scheduleAi(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), timeAtk + reuse);
+			CombatTaskManager.getInstance().schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), timeAtk + reuse);
 		}
 		finally
 		{
@@ -1230,8 +1234,11 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		byte shld1 = 0;
 		boolean crit1 = false;
 		
+		// The stats of both sides are gathered once for this attack
+		final DamageContext context = DamageContext.forHit(this, target, null);
+		
 		// Calculate if hit is missed or not
-		boolean miss1 = Formulas.calcHitMiss(this, target);
+		boolean miss1 = Formulas.calcHitMiss(context);
 		
 		// Consume arrows
 		reduceArrowCount(false);
@@ -1242,13 +1249,13 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = Formulas.calcShldUse(context, true);
 			
 			// Calculate if hit is critical
-			crit1 = Formulas.calcCrit(getStat().getCriticalHit(target, null), false, target);
+			crit1 = Formulas.calcCrit(context.getCriticalHitRate(), false, target);
 			
 			// Calculate physical damages
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) Formulas.calcPhysDam(context, shld1, crit1, attack.hasSoulshot());
 			
 			// Bows Ranged Damage Formula (Damage gradually decreases when 60% or lower than full hit range, and increases when 60% or higher).
 			// full hit range is 500 which is the base bow range, and the 60% of this is 800.
@@ -1261,8 +1268,10 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			sendPacket(new SetupGauge(SetupGauge.RED, sAtk + reuse));
 		}
 		
+		context.release();
+		
 		// Create a new hit task with Medium priority
-		ThreadPoolManager.getInstance().scheduleAi(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
+		CombatTaskManager.getInstance().schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
 		
 		// Calculate and set the disable delay of the bow in function of the Attack Speed
 		_disableBowAttackEndTime = ((sAtk + reuse) / GameTimeController.MILLIS_IN_TICK) + GameTimeController.getInstance().getGameTicks();
@@ -1299,8 +1308,11 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		byte shld1 = 0;
 		boolean crit1 = false;
 		
+		// The stats of both sides are gathered once for this attack
+		final DamageContext context = DamageContext.forHit(this, target, null);
+		
 		// Calculate if hit is missed or not
-		boolean miss1 = Formulas.calcHitMiss(this, target);
+		boolean miss1 = Formulas.calcHitMiss(context);
 		
 		// Consume bolts
 		reduceArrowCount(true);
@@ -1311,13 +1323,13 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = Formulas.calcShldUse(context, true);
 			
 			// Calculate if hit is critical
-			crit1 = Formulas.calcCrit(getStat().getCriticalHit(target, null), false, target);
+			crit1 = Formulas.calcCrit(context.getCriticalHitRate(), false, target);
 			
 			// Calculate physical damages
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) Formulas.calcPhysDam(context, shld1, crit1, attack.hasSoulshot());
 		}
 		
 		// Check if the L2Character is a L2PcInstance
@@ -1331,8 +1343,10 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			sendPacket(sg);
 		}
 		
+		context.release();
+		
 		// Create a new hit task with Medium priority
-		ThreadPoolManager.getInstance().scheduleAi(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
+		CombatTaskManager.getInstance().schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
 		
 		// Calculate and set the disable delay of the bow in function of the Attack Speed
 		_disableCrossBowAttackEndTime = ((sAtk + reuse) / GameTimeController.MILLIS_IN_TICK) + GameTimeController.getInstance().getGameTicks();
@@ -1369,21 +1383,24 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		boolean crit1 = false;
 		boolean crit2 = false;
 		
+		// The stats of both sides are gathered once for this attack
+		final DamageContext context = DamageContext.forHit(this, target, null);
+		
 		// Calculate if hits are missed or not
-		boolean miss1 = Formulas.calcHitMiss(this, target);
-		boolean miss2 = Formulas.calcHitMiss(this, target);
+		boolean miss1 = Formulas.calcHitMiss(context);
+		boolean miss2 = Formulas.calcHitMiss(context);
 		
 		// Check if hit 1 isn't missed
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient against hit 1
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = Formulas.calcShldUse(context, true);
 			
 			// Calculate if hit 1 is critical
-			crit1 = Formulas.calcCrit(getStat().getCriticalHit(target, null), false, target);
+			crit1 = Formulas.calcCrit(context.getCriticalHitRate(), false, target);
 			
 			// Calculate physical damages of hit 1
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) Formulas.calcPhysDam(context, shld1, crit1, attack.hasSoulshot());
 			damage1 /= 2;
 		}
 		
@@ -1391,21 +1408,23 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (!miss2)
 		{
 			// Calculate if shield defense is efficient against hit 2
-			shld2 = Formulas.calcShldUse(this, target);
+			shld2 = Formulas.calcShldUse(context, true);
 			
 			// Calculate if hit 2 is critical
-			crit2 = Formulas.calcCrit(getStat().getCriticalHit(target, null), false, target);
+			crit2 = Formulas.calcCrit(context.getCriticalHitRate(), false, target);
 			
 			// Calculate physical damages of hit 2
-			damage2 = (int) Formulas.calcPhysDam(this, target, null, shld2, crit2, attack.hasSoulshot());
+			damage2 = (int) Formulas.calcPhysDam(context, shld2, crit2, attack.hasSoulshot());
 			damage2 /= 2;
 		}
 		
+		context.release();
+		
 		// Create a new hit task with Medium priority for hit 1
-		ThreadPoolManager.getInstance().scheduleAi(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk / 2);
+		CombatTaskManager.getInstance().schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk / 2);
 		
 		// Create a new hit task with Medium priority for hit 2 with a higher delay
-		ThreadPoolManager.getInstance().scheduleAi(new HitTask(this, target, damage2, crit2, miss2, attack.hasSoulshot(), shld2), sAtk);
+		CombatTaskManager.getInstance().schedule(new HitTask(this, target, damage2, crit2, miss2, attack.hasSoulshot(), shld2), sAtk);
 		
 		// Add those hits to the Server-Client packet Attack
 		attack.addHit(target, damage1, miss1, crit1, shld1);
@@ -1560,20 +1579,23 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		byte shld1 = 0;
 		boolean crit1 = false;
 		
+		// The stats of both sides are gathered once for this attack
+		final DamageContext context = DamageContext.forHit(this, target, null);
+		
 		// Calculate if hit is missed or not
-		boolean miss1 = Formulas.calcHitMiss(this, target);
+		boolean miss1 = Formulas.calcHitMiss(context);
 		
 		// Check if hit isn't missed
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = Formulas.calcShldUse(context, true);
 			
 			// Calculate if hit is critical
-			crit1 = Formulas.calcCrit(getStat().getCriticalHit(target, null), false, target);
+			crit1 = Formulas.calcCrit(context.getCriticalHitRate(), false, target);
 			
 			// Calculate physical damages
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) Formulas.calcPhysDam(context, shld1, crit1, attack.hasSoulshot());
 			
 			if (attackpercent != 100)
 			{
@@ -1581,8 +1603,10 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			}
 		}
 		
+		context.release();
+		
 		// Create a new hit task with Medium priority
-		ThreadPoolManager.getInstance().scheduleAi(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
+		CombatTaskManager.getInstance().schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
 		
 		// Add this hit to the Server-Client packet Attack
 		attack.addHit(target, damage1, miss1, crit1, shld1);
@@ -3504,6 +3528,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		public int geoPathAccurateTy;
 		public int geoPathGtx;
 		public int geoPathGty;
+		public PathRequest pathRequest; // path being searched, the character holds its position meanwhile
 	}
 	
 	/**
@@ -3985,6 +4010,15 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		return _move != null;
 	}
 	
+	/**
+	 * @return the path request the L2Character is waiting for, {@code null} if none
+	 */
+	public final PathRequest getPathRequest()
+	{
+		final MoveData m = _move;
+		return m != null ? m.pathRequest : null;
+	}
+	
 	/**
 	 * @return True if the L2Character is travelling a calculated path.
 	 */
@@ -3995,6 +4029,11 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		{
 			return false;
 		}
+		if (m.pathRequest != null)
+		{
+			// Waiting for the path to be found
+			return true;
+		}
 		if (m.onGeodataPathIndex == -1)
 		{
 			return false;
@@ -4136,6 +4175,12 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			return true;
 		}
 		
+		if (m.pathRequest != null)
+		{
+			// Hold the position until the path is found
+			return m.pathRequest.isDone() && !moveOnPath(m);
+		}
+		
 		// Check if this is the first update
 		if (m._moveTimestamp == 0)
 		{
@@ -4591,6 +4636,25 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 				// Overrides previous movement check
 				if ((isPlayable() && !isInVehicle) || isMinion() || isInCombat())
 				{
+					if (Config.ASYNC_PATHFINDING)
+					{
+						// Hold the position, the next movement tick after the path is found starts the movement.
+						final PathRequest request = new PathRequest(this, curX, curY, curZ, originalX, originalY, originalZ, getInstanceId(), isPlayable());
+						m.pathRequest = request;
+						m.geoPathGtx = gtx;
+						m.geoPathGty = gty;
+						m.geoPathAccurateTx = originalX;
+						m.geoPathAccurateTy = originalY;
+						m._xDestination = curX;
+						m._yDestination = curY;
+						m._zDestination = curZ;
+						m._moveStartTime = GameTimeController.getInstance().getGameTicks();
+						_move = m;
+						GameTimeController.getInstance().registerMovingObject(this);
+						PathRequestManager.getInstance().submit(request);
+						return;
+					}
+					
 					m.geoPath = PathFinding.getInstance().findPath(curX, curY, curZ, originalX, originalY, originalZ, getInstanceId(), isPlayable());
 					if ((m.geoPath == null) || (m.geoPath.size() < 2)) // No path found
 					{
@@ -4704,6 +4768,104 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		// to destination by GameTimeController
 	}
 	
+	/**
+	 * Starts the movement once the path of a pending path request is found, as {@link #moveToLocation(int, int, int, int)} does when it searches the path itself.<br>
+	 * Called by the movement tick.
+	 * @param pending the movement data waiting for the path
+	 * @return {@code true} if the L2Character is still moving, {@code false} if the movement was cancelled
+	 */
+	private boolean moveOnPath(MoveData pending)
+	{
+		if (_move != pending)
+		{
+			// A newer movement replaced this one meanwhile
+			return _move != null;
+		}
+		
+		final PathRequest request = pending.pathRequest;
+		final List<AbstractNodeLoc> path = request.getPath();
+		final MoveData m = new MoveData();
+		m.onGeodataPathIndex = -1;
+		if ((path == null) || (path.size() < 2)) // No path found
+		{
+			// Same rules as the synchronous path finding, see moveToLocation.
+			if (isPlayer() || (!isPlayable() && !isMinion() && (Math.abs(request.getTargetZ() - getZ()) > 140)) || (isSummon() && !((L2Summon) this).getFollowStatus()))
+			{
+				cancelPathMove(false);
+				return false;
+			}
+			
+			m.disregardingGeodata = true;
+			m._xDestination = request.getTargetX();
+			m._yDestination = request.getTargetY();
+			m._zDestination = request.getTargetZ();
+		}
+		else
+		{
+			if (request.isBlocked())
+			{
+				cancelPathMove(false);
+				return false;
+			}
+			
+			m.onGeodataPathIndex = 0; // on first segment
+			m.geoPath = path;
+			m.geoPathGtx = pending.geoPathGtx;
+			m.geoPathGty = pending.geoPathGty;
+			m.geoPathAccurateTx = pending.geoPathAccurateTx;
+			m.geoPathAccurateTy = pending.geoPathAccurateTy;
+			m._xDestination = path.get(0).getX();
+			m._yDestination = path.get(0).getY();
+			m._zDestination = path.get(0).getZ();
+		}
+		
+		final double dx = (m._xDestination - super.getX());
+		final double dy = (m._yDestination - super.getY());
+		final double distance = Math.sqrt((dx * dx) + (dy * dy));
+		if (distance < 1)
+		{
+			cancelPathMove(true);
+			return false;
+		}
+		
+		setHeading(Util.calculateHeadingFrom(getX(), getY(), m._xDestination, m._yDestination));
+		
+		// Caclulate the Nb of ticks between the current position and the destination
+		// One tick added for rounding reasons
+		final int ticksToMove = 1 + (int) ((GameTimeController.TICKS_PER_SECOND * distance) / getMoveSpeed());
+		
+		m._heading = 0; // initial value for coordinate sync
+		m._moveStartTime = GameTimeController.getInstance().getGameTicks();
+		_move = m;
+		
+		// Create a task to notify the AI that L2Character arrives at a check point of the movement
+		if ((ticksToMove * GameTimeController.MILLIS_IN_TICK) > 3000)
+		{
+			ThreadPoolManager.getInstance().scheduleAi(new NotifyAITask(this, CtrlEvent.EVT_ARRIVED_REVALIDATE), 2000);
+		}
+		
+		// Send a Server->Client packet CharMoveToLocation to the actor and all L2PcInstance in its _knownPlayers
+		broadcastPacket(new MoveToLocation(this));
+		return true;
+	}
+	
+	/**
+	 * Cancels a movement waiting for its path and sets the AI idle, as moveToLocation does when the path cannot be used.
+	 * @param stopFollow if {@code true} a summon stops following its owner
+	 */
+	private void cancelPathMove(boolean stopFollow)
+	{
+		_move = null;
+		ThreadPoolManager.getInstance().executeAi(() ->
+		{
+			if (stopFollow && isSummon())
+			{
+				((L2Summon) this).setFollowStatus(false);
+			}
+			getAI().setIntention(CtrlIntention.AI_INTENTION_IDLE);
+		});
+	}
+	
 	public boolean moveToNextRoutePoint()
 	{
 		if (!isOnGeodataPath())
@@ -4723,7 +4885,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 		
 		MoveData md = _move;
-		if (md == null)
+		if ((md == null) || (md.geoPath == null))
 		{
 			return false;
 		}
@@ -1725,13 +1725,7 @@ public class L2Npc extends L2Character
 	 */
 	public void broadcastEvent(String eventName, int radius, L2Object reference)
 	{
-		for (L2Object obj : L2World.getInstance().getVisibleObjects(this, radius))
-		{
-			if (obj.isNpc() && obj.hasListener(EventType.ON_NPC_EVENT_RECEIVED))
-			{
-				EventDispatcher.getInstance().notifyEventAsync(new OnNpcEventReceived(eventName, this, (L2Npc) obj, reference), obj);
-			}
-		}
+		L2World.getInstance().forEachVisible(this, radius, L2Npc.class, npc -> npc.hasListener(EventType.ON_NPC_EVENT_RECEIVED), npc -> EventDispatcher.getInstance().notifyEventAsync(new OnNpcEventReceived(eventName, this, npc, reference), npc));
 	}
 	
 	/**
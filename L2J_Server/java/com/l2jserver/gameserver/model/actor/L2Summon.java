@@ -120,10 +120,7 @@ public abstract class L2Summon extends L2Playable
 		setFollowStatus(true);
 		updateAndBroadcastStatus(0);
 		sendPacket(new RelationChanged(this, getOwner().getRelation(getOwner()), false));
-		for (L2PcInstance player : getOwner().getKnownList().getKnownPlayersInRadius(800))
-		{
-			player.sendPacket(new RelationChanged(this, getOwner().getRelation(player), isAutoAttackable(player)));
-		}
+		getOwner().getKnownList().forEachKnownPlayerInRadius(800, player -> player.sendPacket(new RelationChanged(this, getOwner().getRelation(player), isAutoAttackable(player))));
 		L2Party party = getOwner().getParty();
 		if (party != null)
 		{
@@ -25,6 +25,7 @@ import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.logging.Level;
 
+import com.l2jserver.gameserver.GeoData;
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.ai.L2CharacterAI;
 import com.l2jserver.gameserver.ai.L2DoorAI;
@@ -244,6 +245,7 @@ public class L2DoorInstance extends L2Character
 	public void setOpen(boolean open)
 	{
 		_open = open;
+		GeoData.getInstance().invalidateLosCache();
 		if (getChildId() > 0)
 		{
 			L2DoorInstance sibling = getSiblingDoor(getChildId());
@@ -652,6 +654,8 @@ public class L2DoorInstance extends L2Character
 			return false;
 		}
 		
+		GeoData.getInstance().invalidateLosCache();
+		
 		boolean isFort = ((getFort() != null) && (getFort().getResidenceId() > 0) && getFort().getSiege().isInProgress());
 		boolean isCastle = ((getCastle() != null) && (getCastle().getResidenceId() > 0) && getCastle().getSiege().isInProgress());
 		boolean isHall = ((getClanHall() != null) && getClanHall().isSiegableHall() && ((SiegableHall) getClanHall()).isInSiege());
@@ -663,6 +667,28 @@ public class L2DoorInstance extends L2Character
 		return true;
 	}
 	
+	@Override
+	public void doRevive()
+	{
+		super.doRevive();
+		GeoData.getInstance().invalidateLosCache();
+	}
+	
+	@Override
+	public void onSpawn()
+	{
+		super.onSpawn();
+		GeoData.getInstance().invalidateLosCache();
+	}
+	
+	@Override
+	public boolean decayMe()
+	{
+		final boolean decayed = super.decayMe();
+		GeoData.getInstance().invalidateLosCache();
+		return decayed;
+	}
+	
 	@Override
 	public void moveToLocation(int x, int y, int z, int offset)
 	{
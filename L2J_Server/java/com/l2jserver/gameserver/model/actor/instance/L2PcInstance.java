@@ -2074,7 +2074,7 @@ public final class L2PcInstance extends L2Playable
 		int weaponPenalty = 0;
 		int crystaltype;
 		
-		for (L2ItemInstance item : getInventory().getItems())
+		for (L2ItemInstance item : getInventory().getItemList())
 		{
 			if ((item != null) && item.isEquipped() && ((item.getItemType() != EtcItemType.ARROW) && (item.getItemType() != EtcItemType.BOLT)))
 			{
@@ -4268,12 +4268,11 @@ public final class L2PcInstance extends L2Playable
 		
 		mov.setInvisible(isInvisible());
 		
-		final Collection<L2PcInstance> plrs = getKnownList().getKnownPlayersInRadius(radiusInKnownlist);
-		for (L2PcInstance player : plrs)
+		getKnownList().forEachKnownPlayerInRadius(radiusInKnownlist, player ->
 		{
 			if ((player == null) || !isVisibleFor(player))
 			{
-				continue;
+				return;
 			}
 			player.sendPacket(mov);
 			if (mov instanceof CharInfo)
@@ -4300,7 +4299,7 @@ public final class L2PcInstance extends L2Playable
 					getKnownList().getKnownRelations().put(player.getObjectId(), relation);
 				}
 			}
-		}
+		});
 	}
 	
 	/**
@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import com.l2jserver.gameserver.model.L2Object;
 import com.l2jserver.gameserver.model.actor.L2Character;
@@ -221,21 +222,25 @@ public class CharKnownList extends ObjectKnownList
 	
 	public Collection<L2Character> getKnownCharactersInRadius(long radius)
 	{
-		List<L2Character> result = new ArrayList<>();
-		
-		final Collection<L2Object> objs = getKnownObjects().values();
-		for (L2Object obj : objs)
+		final List<L2Character> result = new ArrayList<>();
+		forEachKnownCharacterInRadius(radius, result::add);
+		return result;
+	}
+	
+	/**
+	 * Applies an action to the known characters in the given radius, without building a collection.
+	 * @param radius the radius
+	 * @param action the action applied to every character found
+	 */
+	public void forEachKnownCharacterInRadius(long radius, Consumer<? super L2Character> action)
+	{
+		for (L2Object obj : getKnownObjects().values())
 		{
-			if (obj instanceof L2Character)
+			if ((obj instanceof L2Character) && Util.checkIfInRange((int) radius, getActiveChar(), obj, true))
 			{
-				if (Util.checkIfInRange((int) radius, getActiveChar(), obj, true))
-				{
-					result.add((L2Character) obj);
-				}
+				action.accept((L2Character) obj);
 			}
 		}
-		
-		return result;
 	}
 	
 	public final Map<Integer, L2PcInstance> getKnownPlayers()
@@ -267,16 +272,24 @@ public class CharKnownList extends ObjectKnownList
 	
 	public final Collection<L2PcInstance> getKnownPlayersInRadius(long radius)
 	{
-		List<L2PcInstance> result = new ArrayList<>();
-		
-		final Collection<L2PcInstance> plrs = getKnownPlayers().values();
-		for (L2PcInstance player : plrs)
+		final List<L2PcInstance> result = new ArrayList<>();
+		forEachKnownPlayerInRadius(radius, result::add);
+		return result;
+	}
+	
+	/**
+	 * Applies an action to the known players in the given radius, without building a collection.
+	 * @param radius the radius
+	 * @param action the action applied to every player found
+	 */
+	public final void forEachKnownPlayerInRadius(long radius, Consumer<? super L2PcInstance> action)
+	{
+		for (L2PcInstance player : getKnownPlayers().values())
 		{
 			if (Util.checkIfInRange((int) radius, getActiveChar(), player, true))
 			{
-				result.add(player);
+				action.accept(player);
 			}
 		}
-		return result;
 	}
 }
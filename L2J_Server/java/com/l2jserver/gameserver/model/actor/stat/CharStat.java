@@ -693,30 +693,16 @@ public class CharStat
 		}
 		
 		// temp fix starts
-		int tempVal = 0, stats[] =
-		{
-			0,
-			0,
-			0,
-			0,
-			0,
-			0
-		};
-		
+		// strongest element power, called on every hit so no temporary array
+		int tempVal = 0;
 		byte returnVal = -2;
-		stats[0] = (int) calcStat(Stats.FIRE_POWER, _activeChar.getTemplate().getBaseFire());
-		stats[1] = (int) calcStat(Stats.WATER_POWER, _activeChar.getTemplate().getBaseWater());
-		stats[2] = (int) calcStat(Stats.WIND_POWER, _activeChar.getTemplate().getBaseWind());
-		stats[3] = (int) calcStat(Stats.EARTH_POWER, _activeChar.getTemplate().getBaseEarth());
-		stats[4] = (int) calcStat(Stats.HOLY_POWER, _activeChar.getTemplate().getBaseHoly());
-		stats[5] = (int) calcStat(Stats.DARK_POWER, _activeChar.getTemplate().getBaseDark());
-		
-		for (byte x = 0; x < 6; x++)
+		for (byte x = Elementals.FIRE; x <= Elementals.DARK; x++)
 		{
-			if (stats[x] > tempVal)
+			final int value = getAttackElementValue(x);
+			if (value > tempVal)
 			{
 				returnVal = x;
-				tempVal = stats[x];
+				tempVal = value;
 			}
 		}
 		
@@ -92,7 +92,7 @@ public class PlayableStat extends CharStat
 		if ((getLevel() > oldLevel) && getActiveChar().isPlayer())
 		{
 			final L2PcInstance activeChar = getActiveChar().getActingPlayer();
-			if (SkillTreesData.getInstance().hasAvailableSkills(activeChar, activeChar.getClassId()))
+			if (SkillTreesData.getInstance().hasAvailableSkills(activeChar, activeChar.getClassId(), oldLevel))
 			{
 				getActiveChar().sendPacket(ExNewSkillToLearnByLevelUp.STATIC_PACKET);
 			}
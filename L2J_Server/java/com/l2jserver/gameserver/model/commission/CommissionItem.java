@@ -20,7 +20,6 @@ package com.l2jserver.gameserver.model.commission;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.concurrent.ScheduledFuture;
 
 import com.l2jserver.gameserver.model.ItemInfo;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
@@ -36,7 +35,7 @@ public class CommissionItem
 	private final long _pricePerUnit;
 	private final Instant _startTime;
 	private final byte _durationInDays;
-	private ScheduledFuture<?> _saleEndTask;
+	private final Instant _endTime;
 	
 	public CommissionItem(long commissionId, L2ItemInstance itemInstance, long pricePerUnit, Instant startTime, byte durationInDays)
 	{
@@ -46,6 +45,7 @@ public class CommissionItem
 		_pricePerUnit = pricePerUnit;
 		_startTime = startTime;
 		_durationInDays = durationInDays;
+		_endTime = startTime.plus(durationInDays, ChronoUnit.DAYS);
 	}
 	
 	/**
@@ -108,24 +108,6 @@ public class CommissionItem
 	 */
 	public Instant getEndTime()
 	{
-		return _startTime.plus(_durationInDays, ChronoUnit.DAYS);
-	}
-	
-	/**
-	 * Gets the sale end task.
-	 * @return the sale end task
-	 */
-	public ScheduledFuture<?> getSaleEndTask()
-	{
-		return _saleEndTask;
-	}
-	
-	/**
-	 * Sets the sale end task.
-	 * @param saleEndTask the sale end task
-	 */
-	public void setSaleEndTask(ScheduledFuture<?> saleEndTask)
-	{
-		_saleEndTask = saleEndTask;
+		return _endTime;
 	}
 }
@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.commission;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.type.CrystalType;
+
+/**
+ * In-memory index of the commission items currently on sale.<br>
+ * Every index bucket is ordered by commission id, so a search only walks the smallest matching bucket and stops as soon as the requested amount of items has been collected.<br>
+ * Buckets count their items themselves, since the size of a skip list is only known by walking it.<br>
+ * Sale expiration is driven by a single queue ordered by end time.
+ */
+public final class CommissionItemIndex
+{
+	private static final Comparator<CommissionItem> END_TIME_ORDER = Comparator.comparing(CommissionItem::getEndTime).thenComparingLong(CommissionItem::getCommissionId);
+	
+	private final Bucket _items = new Bucket();
+	private final Map<CommissionItemType, Bucket> _byType = new EnumMap<>(CommissionItemType.class);
+	private final Map<CrystalType, Bucket> _byGrade = new EnumMap<>(CrystalType.class);
+	private final Map<Integer, Bucket> _byOwner = new ConcurrentHashMap<>();
+	private final NavigableMap<String, Bucket> _byName = new ConcurrentSkipListMap<>();
+	private final ConcurrentSkipListSet<CommissionItem> _expirations = new ConcurrentSkipListSet<>(END_TIME_ORDER);
+	
+	/**
+	 * Commission items ordered by commission id, with their count.<br>
+	 * Buckets are only changed under the index lock, the count is atomic so that lookups can read it without locking.
+	 */
+	private static final class Bucket
+	{
+		protected final NavigableMap<Long, CommissionItem> _entries = new ConcurrentSkipListMap<>();
+		protected final AtomicInteger _size = new AtomicInteger();
+		
+		protected void put(Long commissionId, CommissionItem commissionItem)
+		{
+			if (_entries.put(commissionId, commissionItem) == null)
+			{
+				_size.incrementAndGet();
+			}
+		}
+		
+		protected CommissionItem remove(Long commissionId)
+		{
+			final CommissionItem commissionItem = _entries.remove(commissionId);
+			if (commissionItem != null)
+			{
+				_size.decrementAndGet();
+			}
+			return commissionItem;
+		}
+		
+		protected int size()
+		{
+			return _size.get();
+		}
+	}
+	
+	public CommissionItemIndex()
+	{
+		for (CommissionItemType type : CommissionItemType.values())
+		{
+			_byType.put(type, new Bucket());
+		}
+		for (CrystalType grade : CrystalType.values())
+		{
+			_byGrade.put(grade, new Bucket());
+		}
+	}
+	
+	/**
+	 * Adds the commission item to all indexes.
+	 * @param commissionItem the commission item
+	 */
+	public synchronized void add(CommissionItem commissionItem)
+	{
+		final Long commissionId = commissionItem.getCommissionId();
+		final L2Item item = commissionItem.getItemInstance().getItem();
+		if (item.getCommissionItemType() != null)
+		{
+			_byType.get(item.getCommissionItemType()).put(commissionId, commissionItem);
+		}
+		_byGrade.get(item.getCrystalType()).put(commissionId, commissionItem);
+		_byOwner.computeIfAbsent(commissionItem.getItemInstance().getOwnerId(), k -> new Bucket()).put(commissionId, commissionItem);
+		_byName.computeIfAbsent(item.getName().toLowerCase(), k -> new Bucket()).put(commissionId, commissionItem);
+		_expirations.add(commissionItem);
+		_items.put(commissionId, commissionItem);
+	}
+	
+	/**
+	 * Removes the commission item from all indexes.<br>
+	 * Only one caller can succeed in removing a given commission item.<br>
+	 * Index updates are serialized, lookups never block.
+	 * @param commissionId the commission id
+	 * @return the removed commission item, {@code null} if it was not indexed
+	 */
+	public synchronized CommissionItem remove(long commissionId)
+	{
+		final CommissionItem commissionItem = _items.remove(commissionId);
+		if (commissionItem == null)
+		{
+			return null;
+		}
+		
+		final L2Item item = commissionItem.getItemInstance().getItem();
+		if (item.getCommissionItemType() != null)
+		{
+			_byType.get(item.getCommissionItemType()).remove(commissionId);
+		}
+		_byGrade.get(item.getCrystalType()).remove(commissionId);
+		_byOwner.computeIfPresent(commissionItem.getItemInstance().getOwnerId(), (k, v) -> ((v.remove(commissionId) != null) && (v.size() == 0)) ? null : v);
+		_byName.computeIfPresent(item.getName().toLowerCase(), (k, v) -> ((v.remove(commissionId) != null) && (v.size() == 0)) ? null : v);
+		_expirations.remove(commissionItem);
+		return commissionItem;
+	}
+	
+	/**
+	 * Gets the commission item.
+	 * @param commissionId the commission id
+	 * @return the commission item if it exists, {@code null} otherwise
+	 */
+	public CommissionItem get(long commissionId)
+	{
+		return _items._entries.get(commissionId);
+	}
+	
+	/**
+	 * Gets the first commission item to expire.
+	 * @return the commission item with the earliest end time, {@code null} if there are no items
+	 */
+	public CommissionItem getNextExpiration()
+	{
+		return _expirations.isEmpty() ? null : _expirations.first();
+	}
+	
+	/**
+	 * Gets the commission items of an owner, ordered by commission id.
+	 * @param ownerId the owner object id
+	 * @param limit the maximum amount of items to return
+	 * @return the owner commission items
+	 */
+	public List<CommissionItem> getByOwner(int ownerId, int limit)
+	{
+		final Bucket items = _byOwner.get(ownerId);
+		final List<CommissionItem> result = new ArrayList<>();
+		if (items != null)
+		{
+			for (CommissionItem commissionItem : items._entries.values())
+			{
+				if (result.size() >= limit)
+				{
+					break;
+				}
+				result.add(commissionItem);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Counts the commission items of an owner.
+	 * @param ownerId the owner object id
+	 * @return the amount of items registered by the owner
+	 */
+	public int countByOwner(int ownerId)
+	{
+		final Bucket items = _byOwner.get(ownerId);
+		return items != null ? items.size() : 0;
+	}
+	
+	/**
+	 * Searches the commission items matching all given criteria whose sale has not ended yet, ordered by commission id.
+	 * @param itemTypes the item types to match, {@code null} to match any type
+	 * @param grade the grade to match, {@code null} to match any grade
+	 * @param query the text the item name must contain, {@code null} or empty to match any name
+	 * @param limit the maximum amount of items to return
+	 * @return the matching commission items
+	 */
+	public List<CommissionItem> search(Set<CommissionItemType> itemTypes, CrystalType grade, String query, int limit)
+	{
+		final String name = ((query == null) || query.isEmpty()) ? null : query.toLowerCase();
+		final Instant now = Instant.now();
+		
+		// Pick the smallest set of candidate buckets among the applicable indexes.
+		Collection<Bucket> candidates = null;
+		int candidatesSize = Integer.MAX_VALUE;
+		if (itemTypes != null)
+		{
+			final List<Bucket> buckets = new ArrayList<>(itemTypes.size());
+			int size = 0;
+			for (CommissionItemType type : itemTypes)
+			{
+				final Bucket bucket = _byType.get(type);
+				buckets.add(bucket);
+				size += bucket.size();
+			}
+			candidates = buckets;
+			candidatesSize = size;
+		}
+		if (grade != null)
+		{
+			final Bucket bucket = _byGrade.get(grade);
+			if (bucket.size() < candidatesSize)
+			{
+				candidates = Collections.singletonList(bucket);
+				candidatesSize = bucket.size();
+			}
+		}
+		if (name != null)
+		{
+			// The name index holds one entry per distinct item name, so the text is matched once per name instead of once per item.
+			final List<Bucket> buckets = new ArrayList<>();
+			int size = 0;
+			for (Map.Entry<String, Bucket> entry : _byName.entrySet())
+			{
+				if (entry.getKey().contains(name))
+				{
+					buckets.add(entry.getValue());
+					size += entry.getValue().size();
+				}
+			}
+			if (size < candidatesSize)
+			{
+				candidates = buckets;
+				candidatesSize = size;
+			}
+		}
+		if (candidates == null)
+		{
+			candidates = Collections.singletonList(_items);
+		}
+		
+		// Bounded top-N collection, the head of the queue is the highest commission id kept so far.
+		final PriorityQueue<CommissionItem> top = new PriorityQueue<>(Math.min(limit, Math.max(candidatesSize, 1)), Comparator.comparingLong(CommissionItem::getCommissionId).reversed());
+		for (Bucket bucket : candidates)
+		{
+			for (CommissionItem commissionItem : bucket._entries.values())
+			{
+				if ((top.size() >= limit) && (commissionItem.getCommissionId() > top.peek().getCommissionId()))
+				{
+					// Buckets are ordered by commission id, nothing further in this bucket can make it.
+					break;
+				}
+				
+				if (!matches(commissionItem, itemTypes, grade, name, now))
+				{
+					continue;
+				}
+				
+				top.add(commissionItem);
+				if (top.size() > limit)
+				{
+					top.poll();
+				}
+			}
+		}
+		
+		final List<CommissionItem> result = new ArrayList<>(top);
+		result.sort(Comparator.comparingLong(CommissionItem::getCommissionId));
+		return result;
+	}
+	
+	private boolean matches(CommissionItem commissionItem, Set<CommissionItemType> itemTypes, CrystalType grade, String name, Instant now)
+	{
+		if (!commissionItem.getEndTime().isAfter(now) || !_items._entries.containsKey(commissionItem.getCommissionId()))
+		{
+			return false;
+		}
+		
+		final L2Item item = commissionItem.getItemInfo().getItem();
+		if ((itemTypes != null) && !itemTypes.contains(item.getCommissionItemType()))
+		{
+			return false;
+		}
+		if ((grade != null) && (item.getCrystalType() != grade))
+		{
+			return false;
+		}
+		return (name == null) || item.getName().toLowerCase().contains(name);
+	}
+	
+	/**
+	 * Gets the amount of indexed commission items.
+	 * @return the amount of commission items
+	 */
+	public int size()
+	{
+		return _items.size();
+	}
+}
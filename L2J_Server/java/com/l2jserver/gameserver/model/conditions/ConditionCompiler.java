@@ -0,0 +1,436 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.conditions;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.skills.Skill;
+
+/**
+ * Simplifies condition trees once, when skills and items are loaded.
+ * <ul>
+ * <li>Nested {@code and}/{@code or} nodes are flattened and constant subtrees folded.</li>
+ * <li>Children of side effect free {@code and}/{@code or} nodes are ordered cheapest first, so the expensive checks run only when the cheap ones did not decide.</li>
+ * <li>Structurally identical subtrees are shared between all the skills and items using them.</li>
+ * </ul>
+ * A root condition carrying a message is never shared, the message belongs to the skill or item it was declared for.
+ */
+public final class ConditionCompiler
+{
+	/** Conditions sending packets or rolling random numbers, their evaluation order must be kept. */
+	private static final Set<Class<?>> IMPURE = new HashSet<>(Arrays.asList(ConditionGameChance.class, ConditionPlayerCallPc.class, ConditionPlayerCanCreateBase.class, ConditionPlayerCanCreateOutpost.class, ConditionPlayerCanResurrect.class, ConditionPlayerCanSummonPet.class, ConditionPlayerCanSummonSiegeGolem.class, ConditionPlayerCanSweep.class, ConditionPlayerCanSwitchSubclass.class, ConditionPlayerCanTakeCastle.class, ConditionPlayerCanTakeFort.class, ConditionPlayerCanTransform.class, ConditionPlayerCanUntransform.class, ConditionPlayerHasFreeSummonPoints.class, ConditionTargetMyPartyExceptMe.class));
+	
+	/** Conditions walking known lists, zones or inventories. */
+	private static final Set<Class<?>> EXPENSIVE = new HashSet<>(Arrays.asList(ConditionPlayerRangeFromNpc.class, ConditionPlayerInsideZoneId.class, ConditionPlayerLandingZone.class, ConditionSiegeZone.class, ConditionPlayerIsOnSide.class, ConditionPlayerSiegeSide.class, ConditionPlayerHasCastle.class, ConditionPlayerHasFort.class, ConditionPlayerHasClanHall.class, ConditionTargetAggro.class, ConditionPlayerActiveEffectId.class, ConditionTargetActiveEffectId.class, ConditionPlayerCheckAbnormal.class, ConditionTargetAbnormalType.class));
+	
+	private static final int CHEAP_COST = 1;
+	private static final int EXPENSIVE_COST = 10;
+	
+	private static final Condition TRUE = new Constant(true);
+	private static final Condition FALSE = new Constant(false);
+	
+	private final Map<String, Condition> _shared = new HashMap<>();
+	private final Map<Condition, String> _keys = new IdentityHashMap<>();
+	
+	private int _anonymous;
+	private int _compiled;
+	private int _reused;
+	private int _folded;
+	
+	protected ConditionCompiler()
+	{
+	}
+	
+	/**
+	 * Compiles a condition tree, the given tree is left untouched.
+	 * @param condition the condition tree, can be {@code null}
+	 * @return the compiled condition, {@code null} if the given condition is {@code null}
+	 */
+	public synchronized Condition compile(Condition condition)
+	{
+		if (condition == null)
+		{
+			return null;
+		}
+		
+		_compiled++;
+		return compileNode(condition);
+	}
+	
+	private Condition compileNode(Condition condition)
+	{
+		if (hasMessage(condition))
+		{
+			return compileWithMessage(condition);
+		}
+		
+		if (condition instanceof ConditionLogicAnd)
+		{
+			return compileLogic(((ConditionLogicAnd) condition).conditions, true, true);
+		}
+		if (condition instanceof ConditionLogicOr)
+		{
+			return compileLogic(((ConditionLogicOr) condition).conditions, false, true);
+		}
+		if (condition instanceof ConditionLogicNot)
+		{
+			final Condition inner = compileNode(((ConditionLogicNot) condition).getCondition());
+			if (inner instanceof Constant)
+			{
+				_folded++;
+				return ((Constant) inner)._value ? FALSE : TRUE;
+			}
+			if ((inner instanceof ConditionLogicNot) && !hasMessage(inner))
+			{
+				_folded++;
+				return ((ConditionLogicNot) inner).getCondition();
+			}
+			return share(new ConditionLogicNot(inner), "NOT(" + getKey(inner) + ")");
+		}
+		if (condition instanceof Constant)
+		{
+			return condition;
+		}
+		
+		final String key = getLeafKey(condition);
+		return key != null ? share(condition, key) : condition;
+	}
+	
+	/**
+	 * Compiles a condition carrying a message into its own instance.
+	 * @param condition the condition
+	 * @return the compiled condition, never shared
+	 */
+	private Condition compileWithMessage(Condition condition)
+	{
+		final Condition compiled;
+		if (condition instanceof ConditionLogicAnd)
+		{
+			compiled = compileLogic(((ConditionLogicAnd) condition).conditions, true, false);
+		}
+		else if (condition instanceof ConditionLogicOr)
+		{
+			compiled = compileLogic(((ConditionLogicOr) condition).conditions, false, false);
+		}
+		else if (condition instanceof ConditionLogicNot)
+		{
+			compiled = new ConditionLogicNot(compileNode(((ConditionLogicNot) condition).getCondition()));
+		}
+		else
+		{
+			return condition;
+		}
+		
+		final Condition result = compiled instanceof Constant ? new Constant(((Constant) compiled)._value) : compiled;
+		result.setMessage(condition.getMessage());
+		result.setMessageId(condition.getMessageId());
+		if (condition.isAddName())
+		{
+			result.addName();
+		}
+		return result;
+	}
+	
+	/**
+	 * Compiles the children of an {@code and} ({@code isAnd}) or {@code or} node.
+	 * @param conditions the children
+	 * @param isAnd {@code true} for an {@code and} node
+	 * @param shareable {@code false} to always return a new node
+	 * @return the compiled node
+	 */
+	private Condition compileLogic(Condition[] conditions, boolean isAnd, boolean shareable)
+	{
+		final Condition absorbing = isAnd ? FALSE : TRUE;
+		final Condition neutral = isAnd ? TRUE : FALSE;
+		
+		final List<Condition> children = new ArrayList<>(conditions.length);
+		for (Condition child : conditions)
+		{
+			final Condition compiled = compileNode(child);
+			if (compiled == absorbing)
+			{
+				// the following children are never evaluated, the previous ones still must be if they have side effects
+				_folded++;
+				if (children.stream().allMatch(this::isPure))
+				{
+					return absorbing;
+				}
+				children.add(compiled);
+				break;
+			}
+			if (compiled == neutral)
+			{
+				_folded++;
+				continue;
+			}
+			
+			final Condition[] nested = isAnd ? ((compiled instanceof ConditionLogicAnd) && !hasMessage(compiled) ? ((ConditionLogicAnd) compiled).conditions : null) : ((compiled instanceof ConditionLogicOr) && !hasMessage(compiled) ? ((ConditionLogicOr) compiled).conditions : null);
+			if (nested != null)
+			{
+				children.addAll(Arrays.asList(nested));
+			}
+			else
+			{
+				children.add(compiled);
+			}
+		}
+		
+		if (children.isEmpty())
+		{
+			_folded++;
+			return neutral;
+		}
+		if (shareable && (children.size() == 1))
+		{
+			return children.get(0);
+		}
+		
+		if (children.stream().allMatch(this::isPure))
+		{
+			children.sort(Comparator.comparingInt(this::getCost));
+		}
+		
+		final StringBuilder key = new StringBuilder(isAnd ? "AND(" : "OR(");
+		for (Condition child : children)
+		{
+			key.append(getKey(child)).append(',');
+		}
+		key.append(')');
+		
+		final Condition node;
+		if (isAnd)
+		{
+			final ConditionLogicAnd and = new ConditionLogicAnd();
+			and.conditions = children.toArray(new Condition[children.size()]);
+			node = and;
+		}
+		else
+		{
+			final ConditionLogicOr or = new ConditionLogicOr();
+			or.conditions = children.toArray(new Condition[children.size()]);
+			node = or;
+		}
+		return shareable ? share(node, key.toString()) : node;
+	}
+	
+	private Condition share(Condition condition, String key)
+	{
+		final Condition shared = _shared.putIfAbsent(key, condition);
+		if (shared != null)
+		{
+			_reused++;
+			return shared;
+		}
+		_keys.put(condition, key);
+		return condition;
+	}
+	
+	private String getKey(Condition condition)
+	{
+		if (condition == TRUE)
+		{
+			return "TRUE";
+		}
+		if (condition == FALSE)
+		{
+			return "FALSE";
+		}
+		
+		// conditions that can not be described are only equal to themselves
+		return _keys.computeIfAbsent(condition, c -> "@" + (++_anonymous));
+	}
+	
+	/**
+	 * Describes a leaf condition by its class and field values.
+	 * @param condition the condition
+	 * @return the description, {@code null} if a field holds a value that can not be compared by content
+	 */
+	private static String getLeafKey(Condition condition)
+	{
+		if (hasMessage(condition))
+		{
+			return null;
+		}
+		
+		final StringBuilder sb = new StringBuilder(condition.getClass().getName()).append('(');
+		for (Class<?> c = condition.getClass(); c != Condition.class; c = c.getSuperclass())
+		{
+			for (Field field : c.getDeclaredFields())
+			{
+				if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic())
+				{
+					continue;
+				}
+				
+				try
+				{
+					field.setAccessible(true);
+					sb.append(field.getName()).append('=');
+					if (!appendValue(sb, field.get(condition)))
+					{
+						return null;
+					}
+					sb.append(';');
+				}
+				catch (Exception e)
+				{
+					return null;
+				}
+			}
+		}
+		return sb.append(')').toString();
+	}
+	
+	private static boolean appendValue(StringBuilder sb, Object value)
+	{
+		if ((value == null) || (value instanceof Number) || (value instanceof Boolean) || (value instanceof Character))
+		{
+			sb.append(value);
+		}
+		else if (value instanceof String)
+		{
+			sb.append('"').append(((String) value).length()).append(':').append(value).append('"');
+		}
+		else if (value instanceof Enum)
+		{
+			sb.append(((Enum<?>) value).getDeclaringClass().getName()).append('.').append(((Enum<?>) value).name());
+		}
+		else if (value.getClass().isArray())
+		{
+			sb.append('[');
+			for (int i = 0; i < Array.getLength(value); i++)
+			{
+				if (!appendValue(sb, Array.get(value, i)))
+				{
+					return false;
+				}
+				sb.append(',');
+			}
+			sb.append(']');
+		}
+		else if (value instanceof Collection)
+		{
+			sb.append('{');
+			for (Object element : (Collection<?>) value)
+			{
+				if (!appendValue(sb, element))
+				{
+					return false;
+				}
+				sb.append(',');
+			}
+			sb.append('}');
+		}
+		else
+		{
+			return false;
+		}
+		return true;
+	}
+	
+	private boolean isPure(Condition condition)
+	{
+		if (condition instanceof ConditionLogicAnd)
+		{
+			return Arrays.stream(((ConditionLogicAnd) condition).conditions).allMatch(this::isPure);
+		}
+		if (condition instanceof ConditionLogicOr)
+		{
+			return Arrays.stream(((ConditionLogicOr) condition).conditions).allMatch(this::isPure);
+		}
+		if (condition instanceof ConditionLogicNot)
+		{
+			return isPure(((ConditionLogicNot) condition).getCondition());
+		}
+		return !IMPURE.contains(condition.getClass());
+	}
+	
+	private int getCost(Condition condition)
+	{
+		if (condition instanceof ConditionLogicAnd)
+		{
+			return Arrays.stream(((ConditionLogicAnd) condition).conditions).mapToInt(this::getCost).sum();
+		}
+		if (condition instanceof ConditionLogicOr)
+		{
+			return Arrays.stream(((ConditionLogicOr) condition).conditions).mapToInt(this::getCost).sum();
+		}
+		if (condition instanceof ConditionLogicNot)
+		{
+			return getCost(((ConditionLogicNot) condition).getCondition());
+		}
+		return EXPENSIVE.contains(condition.getClass()) ? EXPENSIVE_COST : CHEAP_COST;
+	}
+	
+	private static boolean hasMessage(Condition condition)
+	{
+		return (condition.getMessage() != null) || (condition.getMessageId() != 0) || condition.isAddName();
+	}
+	
+	/**
+	 * @return the amount of trees compiled, of subtrees replaced by a shared one and of folded constants
+	 */
+	public synchronized String getStats()
+	{
+		return _compiled + " conditions compiled, " + _shared.size() + " distinct subtrees, " + _reused + " shared, " + _folded + " folded";
+	}
+	
+	/**
+	 * A condition folded to a constant result.
+	 */
+	private static final class Constant extends Condition
+	{
+		protected final boolean _value;
+		
+		protected Constant(boolean value)
+		{
+			_value = value;
+		}
+		
+		@Override
+		public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
+		{
+			return _value;
+		}
+	}
+	
+	public static ConditionCompiler getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final ConditionCompiler _instance = new ConditionCompiler();
+	}
+}
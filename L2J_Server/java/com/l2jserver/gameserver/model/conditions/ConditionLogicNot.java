@@ -57,6 +57,14 @@ public class ConditionLogicNot extends Condition
 		super.setListener(listener);
 	}
 	
+	/**
+	 * @return the negated condition
+	 */
+	public Condition getCondition()
+	{
+		return _condition;
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
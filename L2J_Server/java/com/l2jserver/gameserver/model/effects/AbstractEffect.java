@@ -30,6 +30,7 @@ import com.l2jserver.gameserver.handler.EffectHandler;
 import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.actor.L2Character;
 import com.l2jserver.gameserver.model.conditions.Condition;
+import com.l2jserver.gameserver.model.conditions.ConditionCompiler;
 import com.l2jserver.gameserver.model.skills.BuffInfo;
 import com.l2jserver.gameserver.model.skills.Skill;
 import com.l2jserver.gameserver.model.stats.functions.AbstractFunction;
@@ -67,7 +68,7 @@ public abstract class AbstractEffect
 	 */
 	protected AbstractEffect(Condition attachCond, Condition applyCond, StatsSet set, StatsSet params)
 	{
-		_attachCond = attachCond;
+		_attachCond = ConditionCompiler.getInstance().compile(attachCond);
 		// _applyCond = applyCond;
 		_name = set.getString("name");
 		_ticks = set.getInt("ticks", 0);
@@ -45,6 +45,7 @@ import com.l2jserver.gameserver.instancemanager.CastleManager;
 import com.l2jserver.gameserver.model.L2Clan;
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.StatsSetSchema;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.actor.templates.L2NpcTemplate;
 import com.l2jserver.gameserver.model.itemcontainer.Inventory;
@@ -92,6 +93,12 @@ public class Hero
 	public static final String ALLY_NAME = "ally_name";
 	public static final String ALLY_CREST = "ally_crest";
 	
+	/** Hero data, also used by {@link Olympiad} for the heroes to be. */
+	public static final StatsSetSchema HERO_SCHEMA = new StatsSetSchema().addInt(Olympiad.CHAR_ID).addString(Olympiad.CHAR_NAME).addInt(Olympiad.CLASS_ID).addInt(COUNT).addInt(PLAYED).addBoolean(CLAIMED).addString(CLAN_NAME).addInt(CLAN_CREST).addString(ALLY_NAME).addInt(ALLY_CREST);
+	private static final StatsSetSchema HERO_COUNT_SCHEMA = new StatsSetSchema().addInt("victory").addInt("draw").addInt("loss");
+	private static final StatsSetSchema HERO_FIGHT_SCHEMA = new StatsSetSchema().addString("oponent").addString("oponentclass").addString("time").addString("start").addInt("classed").addString("result");
+	private static final StatsSetSchema HERO_DIARY_SCHEMA = new StatsSetSchema().addString("date").addString("action");
+	
 	public static final int ACTION_RAID_KILLED = 1;
 	public static final int ACTION_HERO_GAINED = 2;
 	public static final int ACTION_CASTLE_TAKEN = 3;
@@ -119,7 +126,7 @@ public class Hero
 		{
 			while (rset.next())
 			{
-				StatsSet hero = new StatsSet();
+				StatsSet hero = HERO_SCHEMA.newSet();
 				int charId = rset.getInt(Olympiad.CHAR_ID);
 				hero.set(Olympiad.CHAR_NAME, rset.getString(Olympiad.CHAR_NAME));
 				hero.set(Olympiad.CLASS_ID, rset.getInt(Olympiad.CLASS_ID));
@@ -138,7 +145,7 @@ public class Hero
 			
 			while (rset2.next())
 			{
-				StatsSet hero = new StatsSet();
+				StatsSet hero = HERO_SCHEMA.newSet();
 				int charId = rset2.getInt(Olympiad.CHAR_ID);
 				hero.set(Olympiad.CHAR_NAME, rset2.getString(Olympiad.CHAR_NAME));
 				hero.set(Olympiad.CLASS_ID, rset2.getInt(Olympiad.CLASS_ID));
@@ -238,7 +245,7 @@ public class Hero
 			{
 				while (rset.next())
 				{
-					StatsSet _diaryentry = new StatsSet();
+					StatsSet _diaryentry = HERO_DIARY_SCHEMA.newSet();
 					
 					long time = rset.getLong("time");
 					int action = rset.getInt("action");
@@ -284,7 +291,7 @@ public class Hero
 	public void loadFights(int charId)
 	{
 		final List<StatsSet> fights = new ArrayList<>();
-		StatsSet heroCountData = new StatsSet();
+		StatsSet heroCountData = HERO_COUNT_SCHEMA.newSet();
 		Calendar data = Calendar.getInstance();
 		data.set(Calendar.DAY_OF_MONTH, 1);
 		data.set(Calendar.HOUR_OF_DAY, 0);
@@ -330,7 +337,7 @@ public class Hero
 						String cls = ClassListData.getInstance().getClass(charTwoClass).getClientCode();
 						if ((name != null) && (cls != null))
 						{
-							StatsSet fight = new StatsSet();
+							StatsSet fight = HERO_FIGHT_SCHEMA.newSet();
 							fight.set("oponent", name);
 							fight.set("oponentclass", cls);
 							
@@ -366,7 +373,7 @@ public class Hero
 						String cls = ClassListData.getInstance().getClass(charOneClass).getClientCode();
 						if ((name != null) && (cls != null))
 						{
-							StatsSet fight = new StatsSet();
+							StatsSet fight = HERO_FIGHT_SCHEMA.newSet();
 							fight.set("oponent", name);
 							fight.set("oponentclass", cls);
 							
@@ -679,7 +686,7 @@ public class Hero
 			}
 			else
 			{
-				StatsSet newHero = new StatsSet();
+				StatsSet newHero = HERO_SCHEMA.newSet();
 				newHero.set(Olympiad.CHAR_NAME, hero.getString(Olympiad.CHAR_NAME));
 				newHero.set(Olympiad.CLASS_ID, hero.getInt(Olympiad.CLASS_ID));
 				newHero.set(COUNT, 1);
@@ -796,7 +803,7 @@ public class Hero
 		if ((list != null) && (template != null))
 		{
 			// Prepare new data
-			final StatsSet diaryEntry = new StatsSet();
+			final StatsSet diaryEntry = HERO_DIARY_SCHEMA.newSet();
 			final String date = (new SimpleDateFormat("yyyy-MM-dd HH")).format(new Date(System.currentTimeMillis()));
 			diaryEntry.set("date", date);
 			diaryEntry.set("action", template.getName() + " was defeated");
@@ -814,7 +821,7 @@ public class Hero
 		if ((list != null) && (castle != null))
 		{
 			// Prepare new data
-			final StatsSet diaryEntry = new StatsSet();
+			final StatsSet diaryEntry = HERO_DIARY_SCHEMA.newSet();
 			final String date = (new SimpleDateFormat("yyyy-MM-dd HH")).format(new Date(System.currentTimeMillis()));
 			diaryEntry.set("date", date);
 			diaryEntry.set("action", castle.getName() + " Castle was successfuly taken");
@@ -925,7 +932,7 @@ public class Hero
 		StatsSet hero = HEROES.get(player.getObjectId());
 		if (hero == null)
 		{
-			hero = new StatsSet();
+			hero = HERO_SCHEMA.newSet();
 			HEROES.put(player.getObjectId(), hero);
 		}
 		
@@ -78,7 +78,7 @@ public final class ClanWarehouse extends Warehouse
 	@Override
 	public boolean validateCapacity(long slots)
 	{
-		return ((_items.size() + slots) <= Config.WAREHOUSE_SLOTS_CLAN);
+		return ((getSize() + slots) <= Config.WAREHOUSE_SLOTS_CLAN);
 	}
 	
 	@Override
@@ -933,7 +933,7 @@ public abstract class Inventory extends ItemContainer
 		
 		synchronized (item)
 		{
-			if (!_items.contains(item))
+			if (getItemByObjectId(item.getObjectId()) == null)
 			{
 				return null;
 			}
@@ -968,7 +968,7 @@ public abstract class Inventory extends ItemContainer
 		
 		synchronized (item)
 		{
-			if (!_items.contains(item))
+			if (getItemByObjectId(item.getObjectId()) == null)
 			{
 				return null;
 			}
@@ -1748,7 +1748,7 @@ public abstract class Inventory extends ItemContainer
 	{
 		long weight = 0;
 		
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if ((item != null) && (item.getItem() != null))
 			{
@@ -1780,7 +1780,7 @@ public abstract class Inventory extends ItemContainer
 		
 		L2ItemInstance arrow = null;
 		
-		for (L2ItemInstance item : getItems())
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item.isEtcItem() && (item.getItem().getCrystalTypePlus() == bow.getCrystalTypePlus()) && (item.getEtcItem().getItemType() == EtcItemType.ARROW))
 			{
@@ -1802,7 +1802,7 @@ public abstract class Inventory extends ItemContainer
 	{
 		L2ItemInstance bolt = null;
 		
-		for (L2ItemInstance item : getItems())
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item.isEtcItem() && (item.getItem().getCrystalTypePlus() == crossbow.getCrystalTypePlus()) && (item.getEtcItem().getItemType() == EtcItemType.BOLT))
 			{
@@ -21,9 +21,13 @@ package com.l2jserver.gameserver.model.itemcontainer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,7 +49,14 @@ public abstract class ItemContainer
 {
 	protected static final Logger _log = Logger.getLogger(ItemContainer.class.getName());
 	
-	protected final List<L2ItemInstance> _items = new CopyOnWriteArrayList<>();
+	/** The items by object Id, in the order they were added, guarded by itself. Change it only through {@link #addItem(L2ItemInstance)} and {@link #removeItem(L2ItemInstance)} to keep the other indexes up to date. */
+	private final Map<Integer, L2ItemInstance> _items = new LinkedHashMap<>();
+	/** The items by item Id, each list in the order the items were added, guarded by {@link #_items}. */
+	private final Map<Integer, List<L2ItemInstance>> _itemsByItemId = new HashMap<>();
+	/** The amount of items allowing self resurrection, guarded by {@link #_items}. */
+	private int _selfResurrectionItems;
+	/** The items when they last changed, {@code null} until it is read again after a change. */
+	private volatile List<L2ItemInstance> _snapshot = Collections.emptyList();
 	
 	protected ItemContainer()
 	{
@@ -73,7 +84,10 @@ public abstract class ItemContainer
 	 */
 	public int getSize()
 	{
-		return _items.size();
+		synchronized (_items)
+		{
+			return _items.size();
+		}
 	}
 	
 	/**
@@ -81,7 +95,30 @@ public abstract class ItemContainer
 	 */
 	public L2ItemInstance[] getItems()
 	{
-		return _items.toArray(new L2ItemInstance[_items.size()]);
+		final List<L2ItemInstance> items = getItemList();
+		return items.toArray(new L2ItemInstance[items.size()]);
+	}
+	
+	/**
+	 * Unlike {@link #getItems()}, no copy is made: the list is a snapshot of the items, shared until they change.
+	 * @return the items in inventory, read only
+	 */
+	public List<L2ItemInstance> getItemList()
+	{
+		List<L2ItemInstance> snapshot = _snapshot;
+		if (snapshot == null)
+		{
+			synchronized (_items)
+			{
+				snapshot = _snapshot;
+				if (snapshot == null)
+				{
+					snapshot = Collections.unmodifiableList(Arrays.asList(_items.values().toArray(new L2ItemInstance[_items.size()])));
+					_snapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
 	}
 	
 	/**
@@ -90,14 +127,11 @@ public abstract class ItemContainer
 	 */
 	public L2ItemInstance getItemByItemId(int itemId)
 	{
-		for (L2ItemInstance item : _items)
+		synchronized (_items)
 		{
-			if ((item != null) && (item.getId() == itemId))
-			{
-				return item;
-			}
+			final List<L2ItemInstance> items = _itemsByItemId.get(itemId);
+			return (items == null) || items.isEmpty() ? null : items.get(0);
 		}
-		return null;
 	}
 	
 	/**
@@ -105,14 +139,10 @@ public abstract class ItemContainer
 	 */
 	public final boolean haveItemForSelfResurrection()
 	{
-		for (L2ItemInstance item : _items)
+		synchronized (_items)
 		{
-			if ((item != null) && (item.getItem().isAllowSelfResurrection()))
-			{
-				return true;
-			}
+			return _selfResurrectionItems > 0;
 		}
-		return false;
 	}
 	
 	/**
@@ -121,15 +151,11 @@ public abstract class ItemContainer
 	 */
 	public List<L2ItemInstance> getItemsByItemId(int itemId)
 	{
-		final List<L2ItemInstance> returnList = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		synchronized (_items)
 		{
-			if ((item != null) && (item.getId() == itemId))
-			{
-				returnList.add(item);
-			}
+			final List<L2ItemInstance> items = _itemsByItemId.get(itemId);
+			return items != null ? new ArrayList<>(items) : new ArrayList<>(0);
 		}
-		return returnList;
 	}
 	
 	/**
@@ -139,11 +165,18 @@ public abstract class ItemContainer
 	 */
 	public L2ItemInstance getItemByItemId(int itemId, L2ItemInstance itemToIgnore)
 	{
-		for (L2ItemInstance item : _items)
+		synchronized (_items)
 		{
-			if ((item != null) && (item.getId() == itemId) && !item.equals(itemToIgnore))
+			final List<L2ItemInstance> items = _itemsByItemId.get(itemId);
+			if (items != null)
 			{
-				return item;
+				for (L2ItemInstance item : items)
+				{
+					if (!item.equals(itemToIgnore))
+					{
+						return item;
+					}
+				}
 			}
 		}
 		return null;
@@ -155,14 +188,10 @@ public abstract class ItemContainer
 	 */
 	public L2ItemInstance getItemByObjectId(int objectId)
 	{
-		for (L2ItemInstance item : _items)
+		synchronized (_items)
 		{
-			if ((item != null) && (item.getObjectId() == objectId))
-			{
-				return item;
-			}
+			return _items.get(objectId);
 		}
-		return null;
 	}
 	
 	/**
@@ -187,26 +216,35 @@ public abstract class ItemContainer
 	{
 		long count = 0;
 		
-		for (L2ItemInstance item : _items)
+		synchronized (_items)
 		{
-			if ((item.getId() == itemId) && ((item.getEnchantLevel() == enchantLevel) || (enchantLevel < 0)) && (includeEquipped || !item.isEquipped()))
+			final List<L2ItemInstance> items = _itemsByItemId.get(itemId);
+			if (items == null)
 			{
-				if (item.isStackable())
-				{
-					// FIXME: Zoey76: if there are more than one stacks of the same item Id
-					// it will return the count of the last one, if is not possible to
-					// have more than one stacks of the same item Id,
-					// it will continue iterating over all items
-					// possible fixes:
-					// count += item.getCount();
-					// or
-					// count = item.getCount();
-					// break;
-					count = item.getCount();
-				}
-				else
+				return 0;
+			}
+			
+			for (L2ItemInstance item : items)
+			{
+				if (((item.getEnchantLevel() == enchantLevel) || (enchantLevel < 0)) && (includeEquipped || !item.isEquipped()))
 				{
-					count++;
+					if (item.isStackable())
+					{
+						// FIXME: Zoey76: if there are more than one stacks of the same item Id
+						// it will return the count of the last one, if is not possible to
+						// have more than one stacks of the same item Id,
+						// it will continue iterating over all items
+						// possible fixes:
+						// count += item.getCount();
+						// or
+						// count = item.getCount();
+						// break;
+						count = item.getCount();
+					}
+					else
+					{
+						count++;
+					}
 				}
 			}
 		}
@@ -442,7 +480,7 @@ public abstract class ItemContainer
 		
 		synchronized (item)
 		{
-			if (!_items.contains(item))
+			if (getItemByObjectId(item.getObjectId()) == null)
 			{
 				return null;
 			}
@@ -602,7 +640,7 @@ public abstract class ItemContainer
 	 */
 	public void destroyAllItems(String process, L2PcInstance actor, Object reference)
 	{
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item != null)
 			{
@@ -616,26 +654,14 @@ public abstract class ItemContainer
 	 */
 	public long getAdena()
 	{
-		for (L2ItemInstance item : _items)
-		{
-			if ((item != null) && (item.getId() == Inventory.ADENA_ID))
-			{
-				return item.getCount();
-			}
-		}
-		return 0;
+		final L2ItemInstance adena = getItemByItemId(Inventory.ADENA_ID);
+		return adena != null ? adena.getCount() : 0;
 	}
 	
 	public long getBeautyTickets()
 	{
-		for (L2ItemInstance item : _items)
-		{
-			if ((item != null) && (item.getId() == Inventory.BEAUTY_TICKET_ID))
-			{
-				return item.getCount();
-			}
-		}
-		return 0;
+		final L2ItemInstance tickets = getItemByItemId(Inventory.BEAUTY_TICKET_ID);
+		return tickets != null ? tickets.getCount() : 0;
 	}
 	
 	/**
@@ -644,7 +670,16 @@ public abstract class ItemContainer
 	 */
 	protected void addItem(L2ItemInstance item)
 	{
-		_items.add(item);
+		synchronized (_items)
+		{
+			_items.put(item.getObjectId(), item);
+			_itemsByItemId.computeIfAbsent(item.getId(), k -> new ArrayList<>(1)).add(item);
+			if (item.getItem().isAllowSelfResurrection())
+			{
+				_selfResurrectionItems++;
+			}
+			_snapshot = null;
+		}
 	}
 	
 	/**
@@ -654,7 +689,40 @@ public abstract class ItemContainer
 	 */
 	protected boolean removeItem(L2ItemInstance item)
 	{
-		return _items.remove(item);
+		synchronized (_items)
+		{
+			if (!_items.remove(item.getObjectId(), item))
+			{
+				return false;
+			}
+			
+			final List<L2ItemInstance> items = _itemsByItemId.get(item.getId());
+			items.remove(item);
+			if (items.isEmpty())
+			{
+				_itemsByItemId.remove(item.getId());
+			}
+			if (item.getItem().isAllowSelfResurrection())
+			{
+				_selfResurrectionItems--;
+			}
+			_snapshot = null;
+		}
+		return true;
+	}
+	
+	/**
+	 * Removes all the items from inventory, without any other processing.
+	 */
+	protected void clearItems()
+	{
+		synchronized (_items)
+		{
+			_items.clear();
+			_itemsByItemId.clear();
+			_selfResurrectionItems = 0;
+			_snapshot = Collections.emptyList();
+		}
 	}
 	
 	/**
@@ -671,7 +739,7 @@ public abstract class ItemContainer
 	{
 		if (getOwner() != null)
 		{
-			for (L2ItemInstance item : _items)
+			for (L2ItemInstance item : getItemList())
 			{
 				if (item != null)
 				{
@@ -681,7 +749,7 @@ public abstract class ItemContainer
 				}
 			}
 		}
-		_items.clear();
+		clearItems();
 	}
 	
 	/**
@@ -691,7 +759,7 @@ public abstract class ItemContainer
 	{
 		if (getOwner() != null)
 		{
-			for (L2ItemInstance item : _items)
+			for (L2ItemInstance item : getItemList())
 			{
 				if (item != null)
 				{
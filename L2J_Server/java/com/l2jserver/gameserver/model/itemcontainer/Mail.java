@@ -69,7 +69,7 @@ public class Mail extends ItemContainer
 	public void setNewMessageId(int messageId)
 	{
 		_messageId = messageId;
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item == null)
 			{
@@ -84,7 +84,7 @@ public class Mail extends ItemContainer
 	
 	public void returnToWh(ItemContainer wh)
 	{
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item == null)
 			{
@@ -114,7 +114,7 @@ public class Mail extends ItemContainer
 	@Override
 	public void updateDatabase()
 	{
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item != null)
 			{
@@ -142,7 +142,7 @@ public class PcInventory extends Inventory
 	public L2ItemInstance[] getUniqueItems(boolean allowAdena, boolean allowAncientAdena, boolean onlyAvailable)
 	{
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item == null)
 			{
@@ -187,7 +187,7 @@ public class PcInventory extends Inventory
 	public L2ItemInstance[] getUniqueItemsByEnchantLevel(boolean allowAdena, boolean allowAncientAdena, boolean onlyAvailable)
 	{
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item == null)
 			{
@@ -238,7 +238,7 @@ public class PcInventory extends Inventory
 	public L2ItemInstance[] getAllItemsByItemId(int itemId, boolean includeEquipped)
 	{
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item == null)
 			{
@@ -273,7 +273,7 @@ public class PcInventory extends Inventory
 	public L2ItemInstance[] getAllItemsByItemId(int itemId, int enchantment, boolean includeEquipped)
 	{
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item == null)
 			{
@@ -297,7 +297,7 @@ public class PcInventory extends Inventory
 	public L2ItemInstance[] getAvailableItems(boolean allowAdena, boolean allowNonTradeable, boolean feightable)
 	{
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if ((item == null) || !item.isAvailable(getOwner(), allowAdena, allowNonTradeable) || !canManipulateWithItemId(item.getId()))
 			{
@@ -325,7 +325,7 @@ public class PcInventory extends Inventory
 	public L2ItemInstance[] getAugmentedItems()
 	{
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if ((item != null) && item.isAugmented())
 			{
@@ -342,7 +342,7 @@ public class PcInventory extends Inventory
 	public L2ItemInstance[] getElementItems()
 	{
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if ((item != null) && (item.getElementals() != null))
 			{
@@ -360,7 +360,7 @@ public class PcInventory extends Inventory
 	public TradeItem[] getAvailableItems(TradeList tradeList)
 	{
 		List<TradeItem> list = new LinkedList<>();
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if ((item != null) && item.isAvailable(getOwner(), false, false))
 			{
@@ -980,7 +980,7 @@ public class PcInventory extends Inventory
 	{
 		if (!questItem)
 		{
-			return (((_items.size() - _questSlots) + slots) <= _owner.getInventoryLimit());
+			return (((getSize() - _questSlots) + slots) <= _owner.getInventoryLimit());
 		}
 		return (_questSlots + slots) <= _owner.getQuestInventoryLimit();
 	}
@@ -1107,7 +1107,7 @@ public class PcInventory extends Inventory
 	 */
 	public void applyItemSkills()
 	{
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			item.giveSkillsToOwner();
 			item.applyEnchantStats();
@@ -63,8 +63,8 @@ public class PcRefund extends ItemContainer
 		{
 			if (getSize() > 12)
 			{
-				L2ItemInstance removedItem = _items.remove(0);
-				if (removedItem != null)
+				L2ItemInstance removedItem = getItemList().get(0);
+				if (removeItem(removedItem))
 				{
 					ItemTable.getInstance().destroyItem("ClearRefund", removedItem, getOwner(), null);
 					removedItem.updateDatabase(true);
@@ -87,7 +87,7 @@ public class PcRefund extends ItemContainer
 	{
 		try
 		{
-			for (L2ItemInstance item : _items)
+			for (L2ItemInstance item : getItemList())
 			{
 				if (item != null)
 				{
@@ -100,7 +100,7 @@ public class PcRefund extends ItemContainer
 		{
 			_log.log(Level.SEVERE, "deleteMe()", e);
 		}
-		_items.clear();
+		clearItems();
 	}
 	
 	@Override
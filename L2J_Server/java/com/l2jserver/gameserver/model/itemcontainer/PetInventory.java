@@ -80,7 +80,7 @@ public class PetInventory extends Inventory
 	@Override
 	public boolean validateCapacity(long slots)
 	{
-		return ((_items.size() + slots) <= _owner.getInventoryLimit());
+		return ((getSize() + slots) <= _owner.getInventoryLimit());
 	}
 	
 	public boolean validateWeight(L2ItemInstance item, long count)
@@ -118,7 +118,7 @@ public class PetInventory extends Inventory
 	{
 		super.restore();
 		// check for equiped items from other pets
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			if (item.isEquipped())
 			{
@@ -132,7 +132,7 @@ public class PetInventory extends Inventory
 	
 	public void transferItemsToOwner()
 	{
-		for (L2ItemInstance item : _items)
+		for (L2ItemInstance item : getItemList())
 		{
 			getOwner().transferItem("return", item.getObjectId(), item.getCount(), getOwner().getOwner().getInventory(), getOwner().getOwner(), getOwner());
 		}
@@ -36,6 +36,7 @@ import com.l2jserver.gameserver.model.actor.L2Summon;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.commission.CommissionItemType;
 import com.l2jserver.gameserver.model.conditions.Condition;
+import com.l2jserver.gameserver.model.conditions.ConditionCompiler;
 import com.l2jserver.gameserver.model.events.ListenersContainer;
 import com.l2jserver.gameserver.model.holders.SkillHolder;
 import com.l2jserver.gameserver.model.interfaces.IIdentifiable;
@@ -749,6 +750,7 @@ public abstract class L2Item extends ListenersContainer implements IIdentifiable
 	
 	public final void attach(Condition c)
 	{
+		c = ConditionCompiler.getInstance().compile(c);
 		if (_preConditions == null)
 		{
 			_preConditions = new ArrayList<>(1);
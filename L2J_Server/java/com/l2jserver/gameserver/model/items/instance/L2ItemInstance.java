@@ -36,6 +36,7 @@ import java.util.logging.Logger;
 import com.l2jserver.Config;
 import com.l2jserver.L2DatabaseFactory;
 import com.l2jserver.gameserver.GeoData;
+import com.l2jserver.gameserver.ItemsAutoDestroy;
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.data.xml.impl.AppearanceItemData;
 import com.l2jserver.gameserver.data.xml.impl.EnchantItemOptionsData;
@@ -287,6 +288,7 @@ public final class L2ItemInstance extends L2Object
 		// outside of synchronized to avoid deadlocks
 		// Remove the L2ItemInstance from the world
 		L2World.getInstance().removeVisibleObject(this, oldregion);
+		ItemsAutoDestroy.getInstance().removeItem(this);
 		
 		if (player.isPlayer())
 		{
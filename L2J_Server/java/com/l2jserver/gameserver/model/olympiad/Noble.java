@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.olympiad;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Olympiad statistics of a noble character.<br>
+ * Fields that take part in the ranking order may only be changed through {@link OlympiadRanking}, so the noble is never moved while it is indexed.
+ */
+public final class Noble
+{
+	private final int _charId;
+	private final int _classId;
+	private final String _name;
+	private int _points;
+	private int _compDone;
+	private int _compWon;
+	private int _compLost;
+	private int _compDrawn;
+	private int _compDoneWeek;
+	private int _compDoneWeekClassed;
+	private int _compDoneWeekNonClassed;
+	private int _compDoneWeekTeam;
+	private volatile boolean _new;
+	private volatile boolean _dirty;
+	
+	/**
+	 * Creates a new noble, not yet stored in database.
+	 * @param charId the character object id
+	 * @param classId the base class id
+	 * @param name the character name
+	 * @param points the starting points
+	 */
+	public Noble(int charId, int classId, String name, int points)
+	{
+		_charId = charId;
+		_classId = classId;
+		_name = name;
+		_points = points;
+		_new = true;
+		_dirty = true;
+	}
+	
+	/**
+	 * Creates a noble from a database row, the row must contain the columns named after the {@link Olympiad} constants.
+	 * @param rset the result set positioned on the row
+	 * @param weekly if {@code true} reads the weekly counters too
+	 * @throws SQLException
+	 */
+	Noble(ResultSet rset, boolean weekly) throws SQLException
+	{
+		_charId = rset.getInt(Olympiad.CHAR_ID);
+		_classId = rset.getInt(Olympiad.CLASS_ID);
+		_name = rset.getString(Olympiad.CHAR_NAME);
+		_points = rset.getInt(Olympiad.POINTS);
+		_compDone = rset.getInt(Olympiad.COMP_DONE);
+		_compWon = rset.getInt(Olympiad.COMP_WON);
+		_compLost = rset.getInt(Olympiad.COMP_LOST);
+		_compDrawn = rset.getInt(Olympiad.COMP_DRAWN);
+		if (weekly)
+		{
+			_compDoneWeek = rset.getInt(Olympiad.COMP_DONE_WEEK);
+			_compDoneWeekClassed = rset.getInt(Olympiad.COMP_DONE_WEEK_CLASSED);
+			_compDoneWeekNonClassed = rset.getInt(Olympiad.COMP_DONE_WEEK_NON_CLASSED);
+			_compDoneWeekTeam = rset.getInt(Olympiad.COMP_DONE_WEEK_TEAM);
+		}
+	}
+	
+	private Noble(Noble noble)
+	{
+		_charId = noble._charId;
+		_classId = noble._classId;
+		_name = noble._name;
+		_points = noble._points;
+		_compDone = noble._compDone;
+		_compWon = noble._compWon;
+		_compLost = noble._compLost;
+		_compDrawn = noble._compDrawn;
+	}
+	
+	/**
+	 * @return a copy of the end of period statistics, without the weekly counters
+	 */
+	Noble snapshot()
+	{
+		return new Noble(this);
+	}
+	
+	public int getCharId()
+	{
+		return _charId;
+	}
+	
+	public int getClassId()
+	{
+		return _classId;
+	}
+	
+	public String getName()
+	{
+		return _name;
+	}
+	
+	public int getPoints()
+	{
+		return _points;
+	}
+	
+	public int getCompDone()
+	{
+		return _compDone;
+	}
+	
+	public int getCompWon()
+	{
+		return _compWon;
+	}
+	
+	public int getCompLost()
+	{
+		return _compLost;
+	}
+	
+	public int getCompDrawn()
+	{
+		return _compDrawn;
+	}
+	
+	public int getCompDoneWeek()
+	{
+		return _compDoneWeek;
+	}
+	
+	public int getCompDoneWeekClassed()
+	{
+		return _compDoneWeekClassed;
+	}
+	
+	public int getCompDoneWeekNonClassed()
+	{
+		return _compDoneWeekNonClassed;
+	}
+	
+	public int getCompDoneWeekTeam()
+	{
+		return _compDoneWeekTeam;
+	}
+	
+	/**
+	 * @param stat the statistic column name, one of the {@link Olympiad} constants
+	 * @return {@code true} if the statistic takes part in the ranking order
+	 */
+	static boolean isRanked(String stat)
+	{
+		switch (stat)
+		{
+			case Olympiad.POINTS:
+			case Olympiad.COMP_DONE:
+			case Olympiad.COMP_WON:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Increases a statistic, the result never goes below zero.
+	 * @param stat the statistic column name, one of the {@link Olympiad} constants
+	 * @param increment the amount to add, can be negative
+	 */
+	void increase(String stat, int increment)
+	{
+		switch (stat)
+		{
+			case Olympiad.POINTS:
+				_points = Math.max(_points + increment, 0);
+				break;
+			case Olympiad.COMP_DONE:
+				_compDone = Math.max(_compDone + increment, 0);
+				break;
+			case Olympiad.COMP_WON:
+				_compWon = Math.max(_compWon + increment, 0);
+				break;
+			case Olympiad.COMP_LOST:
+				_compLost = Math.max(_compLost + increment, 0);
+				break;
+			case Olympiad.COMP_DRAWN:
+				_compDrawn = Math.max(_compDrawn + increment, 0);
+				break;
+			case Olympiad.COMP_DONE_WEEK:
+				_compDoneWeek = Math.max(_compDoneWeek + increment, 0);
+				break;
+			case Olympiad.COMP_DONE_WEEK_CLASSED:
+				_compDoneWeekClassed = Math.max(_compDoneWeekClassed + increment, 0);
+				break;
+			case Olympiad.COMP_DONE_WEEK_NON_CLASSED:
+				_compDoneWeekNonClassed = Math.max(_compDoneWeekNonClassed + increment, 0);
+				break;
+			case Olympiad.COMP_DONE_WEEK_TEAM:
+				_compDoneWeekTeam = Math.max(_compDoneWeekTeam + increment, 0);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown olympiad statistic: " + stat);
+		}
+		_dirty = true;
+	}
+	
+	void setPoints(int points)
+	{
+		_points = points;
+		_dirty = true;
+	}
+	
+	void resetWeeklyMatches()
+	{
+		_compDoneWeek = 0;
+		_compDoneWeekClassed = 0;
+		_compDoneWeekNonClassed = 0;
+		_compDoneWeekTeam = 0;
+		_dirty = true;
+	}
+	
+	/**
+	 * @return {@code true} if the noble has not been inserted in database yet
+	 */
+	boolean isNew()
+	{
+		return _new;
+	}
+	
+	/**
+	 * Takes the dirty flag, must be called before reading the values to store so a concurrent change marks the noble again.
+	 * @return {@code true} if the noble was dirty
+	 */
+	boolean clearDirty()
+	{
+		final boolean dirty = _dirty;
+		_dirty = false;
+		return dirty;
+	}
+	
+	/**
+	 * Marks the noble as stored.
+	 */
+	void setStored()
+	{
+		_new = false;
+	}
+	
+	/**
+	 * Marks the noble to be stored again, after a failed save.
+	 */
+	void setDirty()
+	{
+		_dirty = true;
+	}
+}
@@ -31,8 +31,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
@@ -58,7 +58,8 @@ public class Olympiad extends ListenersContainer
 	protected static final Logger _log = Logger.getLogger(Olympiad.class.getName());
 	protected static final Logger _logResults = Logger.getLogger("olympiad");
 	
-	private static final Map<Integer, StatsSet> NOBLES = new ConcurrentHashMap<>();
+	private static final OlympiadRanking NOBLES = new OlympiadRanking();
+	private static final OlympiadRanking MONTHLY_NOBLES = new OlympiadRanking();
 	private static final List<StatsSet> HEROS_TO_BE = new ArrayList<>();
 	private static final Map<Integer, Integer> NOBLES_RANK = new HashMap<>();
 	
@@ -68,12 +69,7 @@ public class Olympiad extends ListenersContainer
 	private static final String OLYMPIAD_LOAD_NOBLES = "SELECT olympiad_nobles.charId, olympiad_nobles.class_id, " + "characters.char_name, olympiad_nobles.olympiad_points, olympiad_nobles.competitions_done, " + "olympiad_nobles.competitions_won, olympiad_nobles.competitions_lost, olympiad_nobles.competitions_drawn, " + "olympiad_nobles.competitions_done_week, olympiad_nobles.competitions_done_week_classed, olympiad_nobles.competitions_done_week_non_classed, olympiad_nobles.competitions_done_week_team " + "FROM olympiad_nobles, characters WHERE characters.charId = olympiad_nobles.charId";
 	private static final String OLYMPIAD_SAVE_NOBLES = "INSERT INTO olympiad_nobles " + "(`charId`,`class_id`,`olympiad_points`,`competitions_done`,`competitions_won`,`competitions_lost`," + "`competitions_drawn`, `competitions_done_week`, `competitions_done_week_classed`, `competitions_done_week_non_classed`, `competitions_done_week_team`) VALUES (?,?,?,?,?,?,?,?,?,?,?)";
 	private static final String OLYMPIAD_UPDATE_NOBLES = "UPDATE olympiad_nobles SET " + "olympiad_points = ?, competitions_done = ?, competitions_won = ?, competitions_lost = ?, competitions_drawn = ?, competitions_done_week = ?, competitions_done_week_classed = ?, competitions_done_week_non_classed = ?, competitions_done_week_team = ? WHERE charId = ?";
-	private static final String OLYMPIAD_GET_HEROS = "SELECT olympiad_nobles.charId, characters.char_name " + "FROM olympiad_nobles, characters WHERE characters.charId = olympiad_nobles.charId " + "AND olympiad_nobles.class_id = ? AND olympiad_nobles.competitions_done >= " + Config.ALT_OLY_MIN_MATCHES + " AND olympiad_nobles.competitions_won > 0 " + "ORDER BY olympiad_nobles.olympiad_points DESC, olympiad_nobles.competitions_done DESC, olympiad_nobles.competitions_won DESC";
-	private static final String GET_ALL_CLASSIFIED_NOBLESS = "SELECT charId from olympiad_nobles_eom " + "WHERE competitions_done >= " + Config.ALT_OLY_MIN_MATCHES + " ORDER BY olympiad_points DESC, competitions_done DESC, competitions_won DESC";
-	private static final String GET_EACH_CLASS_LEADER = "SELECT characters.char_name from olympiad_nobles_eom, characters " + "WHERE characters.charId = olympiad_nobles_eom.charId AND olympiad_nobles_eom.class_id = ? " + "AND olympiad_nobles_eom.competitions_done >= " + Config.ALT_OLY_MIN_MATCHES + " " + "ORDER BY olympiad_nobles_eom.olympiad_points DESC, olympiad_nobles_eom.competitions_done DESC, olympiad_nobles_eom.competitions_won DESC LIMIT 10";
-	private static final String GET_EACH_CLASS_LEADER_CURRENT = "SELECT characters.char_name from olympiad_nobles, characters " + "WHERE characters.charId = olympiad_nobles.charId AND olympiad_nobles.class_id = ? " + "AND olympiad_nobles.competitions_done >= " + Config.ALT_OLY_MIN_MATCHES + " " + "ORDER BY olympiad_nobles.olympiad_points DESC, olympiad_nobles.competitions_done DESC, olympiad_nobles.competitions_won DESC LIMIT 10";
-	private static final String GET_EACH_CLASS_LEADER_SOULHOUND = "SELECT characters.char_name from olympiad_nobles_eom, characters " + "WHERE characters.charId = olympiad_nobles_eom.charId AND (olympiad_nobles_eom.class_id = ? OR olympiad_nobles_eom.class_id = 133) " + "AND olympiad_nobles_eom.competitions_done >= " + Config.ALT_OLY_MIN_MATCHES + " " + "ORDER BY olympiad_nobles_eom.olympiad_points DESC, olympiad_nobles_eom.competitions_done DESC, olympiad_nobles_eom.competitions_won DESC LIMIT 10";
-	private static final String GET_EACH_CLASS_LEADER_CURRENT_SOULHOUND = "SELECT characters.char_name from olympiad_nobles, characters " + "WHERE characters.charId = olympiad_nobles.charId AND (olympiad_nobles.class_id = ? OR olympiad_nobles.class_id = 133) " + "AND olympiad_nobles.competitions_done >= " + Config.ALT_OLY_MIN_MATCHES + " " + "ORDER BY olympiad_nobles.olympiad_points DESC, olympiad_nobles.competitions_done DESC, olympiad_nobles.competitions_won DESC LIMIT 10";
+	private static final String OLYMPIAD_LOAD_MONTHLY_NOBLES = "SELECT olympiad_nobles_eom.charId, olympiad_nobles_eom.class_id, " + "characters.char_name, olympiad_nobles_eom.olympiad_points, olympiad_nobles_eom.competitions_done, " + "olympiad_nobles_eom.competitions_won, olympiad_nobles_eom.competitions_lost, olympiad_nobles_eom.competitions_drawn " + "FROM olympiad_nobles_eom, characters WHERE characters.charId = olympiad_nobles_eom.charId";
 	
 	private static final String OLYMPIAD_DELETE_ALL = "TRUNCATE olympiad_nobles";
 	private static final String OLYMPIAD_MONTH_CLEAR = "TRUNCATE olympiad_nobles_eom";
@@ -117,6 +113,13 @@ public class Olympiad extends ListenersContainer
 		134
 	};
 	
+	/** Male and female soulhounds rank as one hero class. */
+	private static final int[] SOULHOUND_IDS =
+	{
+		132,
+		133
+	};
+	
 	private static final int COMP_START = Config.ALT_OLY_START_TIME; // 6PM
 	private static final int COMP_MIN = Config.ALT_OLY_MIN; // 00 mins
 	private static final long COMP_PERIOD = Config.ALT_OLY_CPERIOD; // 6 hours
@@ -219,6 +222,22 @@ public class Olympiad extends ListenersContainer
 			_nextWeeklyChange = Long.parseLong(OlympiadProperties.getProperty("NextWeeklyChange", "0"));
 		}
 		
+		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
+			PreparedStatement statement = con.prepareStatement(OLYMPIAD_LOAD_MONTHLY_NOBLES);
+			ResultSet rset = statement.executeQuery())
+		{
+			final List<Noble> nobles = new ArrayList<>();
+			while (rset.next())
+			{
+				nobles.add(new Noble(rset, false));
+			}
+			MONTHLY_NOBLES.set(nobles);
+		}
+		catch (Exception e)
+		{
+			_log.log(Level.WARNING, "Olympiad System: Error loading monthly noblesse data from database: ", e);
+		}
+		
 		switch (_period)
 		{
 			case 0:
@@ -254,24 +273,9 @@ public class Olympiad extends ListenersContainer
 			PreparedStatement statement = con.prepareStatement(OLYMPIAD_LOAD_NOBLES);
 			ResultSet rset = statement.executeQuery())
 		{
-			StatsSet statData;
 			while (rset.next())
 			{
-				statData = new StatsSet();
-				statData.set(CLASS_ID, rset.getInt(CLASS_ID));
-				statData.set(CHAR_NAME, rset.getString(CHAR_NAME));
-				statData.set(POINTS, rset.getInt(POINTS));
-				statData.set(COMP_DONE, rset.getInt(COMP_DONE));
-				statData.set(COMP_WON, rset.getInt(COMP_WON));
-				statData.set(COMP_LOST, rset.getInt(COMP_LOST));
-				statData.set(COMP_DRAWN, rset.getInt(COMP_DRAWN));
-				statData.set(COMP_DONE_WEEK, rset.getInt(COMP_DONE_WEEK));
-				statData.set(COMP_DONE_WEEK_CLASSED, rset.getInt(COMP_DONE_WEEK_CLASSED));
-				statData.set(COMP_DONE_WEEK_NON_CLASSED, rset.getInt(COMP_DONE_WEEK_NON_CLASSED));
-				statData.set(COMP_DONE_WEEK_TEAM, rset.getInt(COMP_DONE_WEEK_TEAM));
-				statData.set("to_save", false);
-				
-				addNobleStats(rset.getInt(CHAR_ID), statData);
+				NOBLES.add(new Noble(rset, true));
 			}
 		}
 		catch (Exception e)
@@ -319,19 +323,10 @@ public class Olympiad extends ListenersContainer
 	{
 		NOBLES_RANK.clear();
 		Map<Integer, Integer> tmpPlace = new HashMap<>();
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement statement = con.prepareStatement(GET_ALL_CLASSIFIED_NOBLESS);
-			ResultSet rset = statement.executeQuery())
+		int place = 1;
+		for (Noble noble : MONTHLY_NOBLES.getAll(noble -> noble.getCompDone() >= Config.ALT_OLY_MIN_MATCHES))
 		{
-			int place = 1;
-			while (rset.next())
-			{
-				tmpPlace.put(rset.getInt(CHAR_ID), place++);
-			}
-		}
-		catch (Exception e)
-		{
-			_log.log(Level.WARNING, "Olympiad System: Error loading noblesse data from database for Ranking: ", e);
+			tmpPlace.put(noble.getCharId(), place++);
 		}
 		
 		int rank1 = (int) Math.round(tmpPlace.size() * 0.01);
@@ -452,11 +447,22 @@ public class Olympiad extends ListenersContainer
 		return NOBLES.size();
 	}
 	
-	protected static StatsSet getNobleStats(int playerId)
+	protected static Noble getNobleStats(int playerId)
 	{
 		return NOBLES.get(playerId);
 	}
 	
+	/**
+	 * Increases a noble statistic, keeping the class ranking up to date.
+	 * @param noble the noble
+	 * @param stat the statistic column name
+	 * @param increment the amount to add, can be negative
+	 */
+	protected static void updateNobleStat(Noble noble, String stat, int increment)
+	{
+		NOBLES.increase(noble, stat, increment);
+	}
+	
 	private void updateCompStatus()
 	{
 		// _compStarted = false;
@@ -665,13 +671,7 @@ public class Olympiad extends ListenersContainer
 			return;
 		}
 		
-		int currentPoints;
-		for (StatsSet nobleInfo : NOBLES.values())
-		{
-			currentPoints = nobleInfo.getInt(POINTS);
-			currentPoints += WEEKLY_POINTS;
-			nobleInfo.set(POINTS, currentPoints);
-		}
+		NOBLES.updateAll(noble -> noble.setPoints(noble.getPoints() + WEEKLY_POINTS));
 	}
 	
 	/**
@@ -684,13 +684,7 @@ public class Olympiad extends ListenersContainer
 			return;
 		}
 		
-		for (StatsSet nobleInfo : NOBLES.values())
-		{
-			nobleInfo.set(COMP_DONE_WEEK, 0);
-			nobleInfo.set(COMP_DONE_WEEK_CLASSED, 0);
-			nobleInfo.set(COMP_DONE_WEEK_NON_CLASSED, 0);
-			nobleInfo.set(COMP_DONE_WEEK_TEAM, 0);
-		}
+		NOBLES.getNobles().forEach(Noble::resetWeeklyMatches);
 	}
 	
 	public int getCurrentCycle()
@@ -709,76 +703,79 @@ public class Olympiad extends ListenersContainer
 	}
 	
 	/**
-	 * Save noblesse data to database
+	 * Save the nobles changed since the last save to database, new nobles are inserted and the others updated in two batches.
 	 */
 	protected synchronized void saveNobleData()
 	{
-		if (NOBLES.isEmpty())
+		final List<Noble> inserts = new ArrayList<>();
+		final List<Noble> updates = new ArrayList<>();
+		for (Noble noble : NOBLES.getNobles())
+		{
+			// The flag is taken before the values are read, a change made meanwhile is saved next time.
+			if (noble.clearDirty())
+			{
+				(noble.isNew() ? inserts : updates).add(noble);
+			}
+		}
+		
+		if (inserts.isEmpty() && updates.isEmpty())
 		{
 			return;
 		}
 		
 		try (Connection con = L2DatabaseFactory.getInstance().getConnection())
 		{
-			for (Entry<Integer, StatsSet> entry : NOBLES.entrySet())
+			if (!inserts.isEmpty())
 			{
-				StatsSet nobleInfo = entry.getValue();
-				
-				if (nobleInfo == null)
-				{
-					continue;
-				}
-				
-				int charId = entry.getKey();
-				int classId = nobleInfo.getInt(CLASS_ID);
-				int points = nobleInfo.getInt(POINTS);
-				int compDone = nobleInfo.getInt(COMP_DONE);
-				int compWon = nobleInfo.getInt(COMP_WON);
-				int compLost = nobleInfo.getInt(COMP_LOST);
-				int compDrawn = nobleInfo.getInt(COMP_DRAWN);
-				int compDoneWeek = nobleInfo.getInt(COMP_DONE_WEEK);
-				int compDoneWeekClassed = nobleInfo.getInt(COMP_DONE_WEEK_CLASSED);
-				int compDoneWeekNonClassed = nobleInfo.getInt(COMP_DONE_WEEK_NON_CLASSED);
-				int compDoneWeekTeam = nobleInfo.getInt(COMP_DONE_WEEK_TEAM);
-				boolean toSave = nobleInfo.getBoolean("to_save");
-				
-				try (PreparedStatement statement = con.prepareStatement(toSave ? OLYMPIAD_SAVE_NOBLES : OLYMPIAD_UPDATE_NOBLES))
+				try (PreparedStatement statement = con.prepareStatement(OLYMPIAD_SAVE_NOBLES))
 				{
-					if (toSave)
+					for (Noble noble : inserts)
 					{
-						statement.setInt(1, charId);
-						statement.setInt(2, classId);
-						statement.setInt(3, points);
-						statement.setInt(4, compDone);
-						statement.setInt(5, compWon);
-						statement.setInt(6, compLost);
-						statement.setInt(7, compDrawn);
-						statement.setInt(8, compDoneWeek);
-						statement.setInt(9, compDoneWeekClassed);
-						statement.setInt(10, compDoneWeekNonClassed);
-						statement.setInt(11, compDoneWeekTeam);
-						
-						nobleInfo.set("to_save", false);
+						statement.setInt(1, noble.getCharId());
+						statement.setInt(2, noble.getClassId());
+						statement.setInt(3, noble.getPoints());
+						statement.setInt(4, noble.getCompDone());
+						statement.setInt(5, noble.getCompWon());
+						statement.setInt(6, noble.getCompLost());
+						statement.setInt(7, noble.getCompDrawn());
+						statement.setInt(8, noble.getCompDoneWeek());
+						statement.setInt(9, noble.getCompDoneWeekClassed());
+						statement.setInt(10, noble.getCompDoneWeekNonClassed());
+						statement.setInt(11, noble.getCompDoneWeekTeam());
+						statement.addBatch();
 					}
-					else
+					statement.executeBatch();
+				}
+				inserts.forEach(Noble::setStored);
+				inserts.clear();
+			}
+			
+			if (!updates.isEmpty())
+			{
+				try (PreparedStatement statement = con.prepareStatement(OLYMPIAD_UPDATE_NOBLES))
+				{
+					for (Noble noble : updates)
 					{
-						statement.setInt(1, points);
-						statement.setInt(2, compDone);
-						statement.setInt(3, compWon);
-						statement.setInt(4, compLost);
-						statement.setInt(5, compDrawn);
-						statement.setInt(6, compDoneWeek);
-						statement.setInt(7, compDoneWeekClassed);
-						statement.setInt(8, compDoneWeekNonClassed);
-						statement.setInt(9, compDoneWeekTeam);
-						statement.setInt(10, charId);
+						statement.setInt(1, noble.getPoints());
+						statement.setInt(2, noble.getCompDone());
+						statement.setInt(3, noble.getCompWon());
+						statement.setInt(4, noble.getCompLost());
+						statement.setInt(5, noble.getCompDrawn());
+						statement.setInt(6, noble.getCompDoneWeek());
+						statement.setInt(7, noble.getCompDoneWeekClassed());
+						statement.setInt(8, noble.getCompDoneWeekNonClassed());
+						statement.setInt(9, noble.getCompDoneWeekTeam());
+						statement.setInt(10, noble.getCharId());
+						statement.addBatch();
 					}
-					statement.execute();
+					statement.executeBatch();
 				}
 			}
 		}
 		catch (SQLException e)
 		{
+			inserts.forEach(Noble::setDirty);
+			updates.forEach(Noble::setDirty);
 			_log.log(Level.SEVERE, "Olympiad System: Failed to save noblesse data to database: ", e);
 		}
 	}
@@ -842,6 +839,13 @@ public class Olympiad extends ListenersContainer
 		{
 			_log.log(Level.SEVERE, "Olympiad System: Failed to update monthly noblese data: ", e);
 		}
+		
+		final List<Noble> snapshot = new ArrayList<>(NOBLES.size());
+		for (Noble noble : NOBLES.getNobles())
+		{
+			snapshot.add(noble.snapshot());
+		}
+		MONTHLY_NOBLES.set(snapshot);
 	}
 	
 	protected void sortHerosToBe()
@@ -853,179 +857,70 @@ public class Olympiad extends ListenersContainer
 		
 		LogRecord record;
 		_logResults.info("Noble,charid,classid,compDone,points");
-		for (Entry<Integer, StatsSet> entry : NOBLES.entrySet())
+		for (Noble noble : NOBLES.getNobles())
 		{
-			StatsSet nobleInfo = entry.getValue();
-			if (nobleInfo == null)
-			{
-				continue;
-			}
-			
-			int charId = entry.getKey();
-			int classId = nobleInfo.getInt(CLASS_ID);
-			String charName = nobleInfo.getString(CHAR_NAME);
-			int points = nobleInfo.getInt(POINTS);
-			int compDone = nobleInfo.getInt(COMP_DONE);
-			
-			record = new LogRecord(Level.INFO, charName);
+			record = new LogRecord(Level.INFO, noble.getName());
 			record.setParameters(new Object[]
 			{
-				charId,
-				classId,
-				compDone,
-				points
+				noble.getCharId(),
+				noble.getClassId(),
+				noble.getCompDone(),
+				noble.getPoints()
 			});
 			_logResults.log(record);
 		}
 		
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement statement = con.prepareStatement(OLYMPIAD_GET_HEROS))
+		final Predicate<Noble> eligible = noble -> (noble.getCompDone() >= Config.ALT_OLY_MIN_MATCHES) && (noble.getCompWon() > 0);
+		for (int classId : HERO_IDS)
 		{
-			StatsSet hero;
-			List<StatsSet> soulHounds = new ArrayList<>();
-			for (int element : HERO_IDS)
+			if (classId == 133)
 			{
-				statement.setInt(1, element);
-				
-				try (ResultSet rset = statement.executeQuery())
-				{
-					if (rset.next())
-					{
-						hero = new StatsSet();
-						hero.set(CLASS_ID, element);
-						hero.set(CHAR_ID, rset.getInt(CHAR_ID));
-						hero.set(CHAR_NAME, rset.getString(CHAR_NAME));
-						
-						if ((element == 132) || (element == 133)) // Male & Female Soulhounds rank as one hero class
-						{
-							hero = NOBLES.get(hero.getInt(CHAR_ID));
-							hero.set(CHAR_ID, rset.getInt(CHAR_ID));
-							soulHounds.add(hero);
-						}
-						else
-						{
-							record = new LogRecord(Level.INFO, "Hero " + hero.getString(CHAR_NAME));
-							record.setParameters(new Object[]
-							{
-								hero.getInt(CHAR_ID),
-								hero.getInt(CLASS_ID)
-							});
-							_logResults.log(record);
-							HEROS_TO_BE.add(hero);
-						}
-					}
-				}
+				// Ranked together with the male soulhounds.
+				continue;
 			}
 			
-			switch (soulHounds.size())
+			final List<Noble> leaders = NOBLES.getLeaders(getRankedClassIds(classId), eligible, 1);
+			if (leaders.isEmpty())
 			{
-				case 0:
-				{
-					break;
-				}
-				case 1:
-				{
-					hero = new StatsSet();
-					StatsSet winner = soulHounds.get(0);
-					hero.set(CLASS_ID, winner.getInt(CLASS_ID));
-					hero.set(CHAR_ID, winner.getInt(CHAR_ID));
-					hero.set(CHAR_NAME, winner.getString(CHAR_NAME));
-					
-					record = new LogRecord(Level.INFO, "Hero " + hero.getString(CHAR_NAME));
-					record.setParameters(new Object[]
-					{
-						hero.getInt(CHAR_ID),
-						hero.getInt(CLASS_ID)
-					});
-					_logResults.log(record);
-					HEROS_TO_BE.add(hero);
-					break;
-				}
-				case 2:
-				{
-					hero = new StatsSet();
-					StatsSet winner;
-					StatsSet hero1 = soulHounds.get(0);
-					StatsSet hero2 = soulHounds.get(1);
-					int hero1Points = hero1.getInt(POINTS);
-					int hero2Points = hero2.getInt(POINTS);
-					int hero1Comps = hero1.getInt(COMP_DONE);
-					int hero2Comps = hero2.getInt(COMP_DONE);
-					int hero1Wins = hero1.getInt(COMP_WON);
-					int hero2Wins = hero2.getInt(COMP_WON);
-					
-					if (hero1Points > hero2Points)
-					{
-						winner = hero1;
-					}
-					else if (hero2Points > hero1Points)
-					{
-						winner = hero2;
-					}
-					else
-					{
-						if (hero1Comps > hero2Comps)
-						{
-							winner = hero1;
-						}
-						else if (hero2Comps > hero1Comps)
-						{
-							winner = hero2;
-						}
-						else
-						{
-							if (hero1Wins > hero2Wins)
-							{
-								winner = hero1;
-							}
-							else
-							{
-								winner = hero2;
-							}
-						}
-					}
-					
-					hero.set(CLASS_ID, winner.getInt(CLASS_ID));
-					hero.set(CHAR_ID, winner.getInt(CHAR_ID));
-					hero.set(CHAR_NAME, winner.getString(CHAR_NAME));
-					
-					record = new LogRecord(Level.INFO, "Hero " + hero.getString(CHAR_NAME));
-					record.setParameters(new Object[]
-					{
-						hero.getInt(CHAR_ID),
-						hero.getInt(CLASS_ID)
-					});
-					_logResults.log(record);
-					HEROS_TO_BE.add(hero);
-					break;
-				}
+				continue;
 			}
+			
+			final Noble winner = leaders.get(0);
+			final StatsSet hero = Hero.HERO_SCHEMA.newSet();
+			hero.set(CLASS_ID, winner.getClassId());
+			hero.set(CHAR_ID, winner.getCharId());
+			hero.set(CHAR_NAME, winner.getName());
+			
+			record = new LogRecord(Level.INFO, "Hero " + hero.getString(CHAR_NAME));
+			record.setParameters(new Object[]
+			{
+				hero.getInt(CHAR_ID),
+				hero.getInt(CLASS_ID)
+			});
+			_logResults.log(record);
+			HEROS_TO_BE.add(hero);
 		}
-		catch (SQLException e)
+	}
+	
+	/**
+	 * @param classId the class id
+	 * @return the class ids ranked together with the given class
+	 */
+	private static int[] getRankedClassIds(int classId)
+	{
+		return (classId == 132) ? SOULHOUND_IDS : new int[]
 		{
-			_log.warning("Olympiad System: Couldnt load heros from DB");
-		}
+			classId
+		};
 	}
 	
 	public List<String> getClassLeaderBoard(int classId)
 	{
+		final OlympiadRanking ranking = Config.ALT_OLY_SHOW_MONTHLY_WINNERS ? MONTHLY_NOBLES : NOBLES;
 		final List<String> names = new ArrayList<>();
-		String query = Config.ALT_OLY_SHOW_MONTHLY_WINNERS ? ((classId == 132) ? GET_EACH_CLASS_LEADER_SOULHOUND : GET_EACH_CLASS_LEADER) : ((classId == 132) ? GET_EACH_CLASS_LEADER_CURRENT_SOULHOUND : GET_EACH_CLASS_LEADER_CURRENT);
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement ps = con.prepareStatement(query))
+		for (Noble noble : ranking.getLeaders(getRankedClassIds(classId), noble -> noble.getCompDone() >= Config.ALT_OLY_MIN_MATCHES, 10))
 		{
-			ps.setInt(1, classId);
-			try (ResultSet rset = ps.executeQuery())
-			{
-				while (rset.next())
-				{
-					names.add(rset.getString(CHAR_NAME));
-				}
-			}
-		}
-		catch (SQLException e)
-		{
-			_log.warning("Olympiad System: Couldn't load olympiad leaders from DB!");
+			names.add(noble.getName());
 		}
 		return names;
 	}
@@ -1043,8 +938,8 @@ public class Olympiad extends ListenersContainer
 			return 0;
 		}
 		
-		final StatsSet noble = NOBLES.get(objId);
-		if ((noble == null) || (noble.getInt(POINTS) == 0))
+		final Noble noble = NOBLES.get(objId);
+		if ((noble == null) || (noble.getPoints() == 0))
 		{
 			return 0;
 		}
@@ -1071,7 +966,7 @@ public class Olympiad extends ListenersContainer
 		
 		if (clear)
 		{
-			noble.set(POINTS, 0);
+			NOBLES.update(noble, n -> n.setPoints(0));
 		}
 		points *= Config.ALT_OLY_GP_PER_POINT;
 		return points;
@@ -1079,60 +974,32 @@ public class Olympiad extends ListenersContainer
 	
 	public int getNoblePoints(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(POINTS);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getPoints() : 0;
 	}
 	
 	public int getLastNobleOlympiadPoints(int objId)
 	{
-		int result = 0;
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection();
-			PreparedStatement ps = con.prepareStatement("SELECT olympiad_points FROM olympiad_nobles_eom WHERE charId = ?"))
-		{
-			ps.setInt(1, objId);
-			try (ResultSet rs = ps.executeQuery())
-			{
-				if (rs.first())
-				{
-					result = rs.getInt(1);
-				}
-			}
-		}
-		catch (Exception e)
-		{
-			_log.log(Level.WARNING, "Could not load last olympiad points:", e);
-		}
-		return result;
+		final Noble noble = MONTHLY_NOBLES.get(objId);
+		return (noble != null) ? noble.getPoints() : 0;
 	}
 	
 	public int getCompetitionDone(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(COMP_DONE);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getCompDone() : 0;
 	}
 	
 	public int getCompetitionWon(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(COMP_WON);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getCompWon() : 0;
 	}
 	
 	public int getCompetitionLost(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(COMP_LOST);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getCompLost() : 0;
 	}
 	
 	/**
@@ -1142,11 +1009,8 @@ public class Olympiad extends ListenersContainer
 	 */
 	public int getCompetitionDoneWeek(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(COMP_DONE_WEEK);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getCompDoneWeek() : 0;
 	}
 	
 	/**
@@ -1156,11 +1020,8 @@ public class Olympiad extends ListenersContainer
 	 */
 	public int getCompetitionDoneWeekClassed(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(COMP_DONE_WEEK_CLASSED);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getCompDoneWeekClassed() : 0;
 	}
 	
 	/**
@@ -1170,11 +1031,8 @@ public class Olympiad extends ListenersContainer
 	 */
 	public int getCompetitionDoneWeekNonClassed(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(COMP_DONE_WEEK_NON_CLASSED);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getCompDoneWeekNonClassed() : 0;
 	}
 	
 	/**
@@ -1184,11 +1042,8 @@ public class Olympiad extends ListenersContainer
 	 */
 	public int getCompetitionDoneWeekTeam(int objId)
 	{
-		if (!NOBLES.containsKey(objId))
-		{
-			return 0;
-		}
-		return NOBLES.get(objId).getInt(COMP_DONE_WEEK_TEAM);
+		final Noble noble = NOBLES.get(objId);
+		return (noble != null) ? noble.getCompDoneWeekTeam() : 0;
 	}
 	
 	/**
@@ -1246,13 +1101,12 @@ public class Olympiad extends ListenersContainer
 	}
 	
 	/**
-	 * @param charId the noble object Id.
-	 * @param data the stats set data to add.
-	 * @return the old stats set if the noble is already present, null otherwise.
+	 * @param noble the noble to add.
+	 * @return the old noble if the noble is already present, null otherwise.
 	 */
-	protected static StatsSet addNobleStats(int charId, StatsSet data)
+	protected static Noble addNoble(Noble noble)
 	{
-		return NOBLES.put(Integer.valueOf(charId), data);
+		return NOBLES.add(noble);
 	}
 	
 	public static Olympiad getInstance()
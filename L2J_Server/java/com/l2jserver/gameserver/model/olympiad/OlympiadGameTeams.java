@@ -585,8 +585,8 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 					for (int i = _teamOneSize; --i >= 0;)
 					{
 						par = _teamOne[i];
-						points = par.getStats().getInt(POINTS) / getDivider();
-						int val = Math.min(par.getStats().getInt(POINTS) / 3, Config.ALT_OLY_MAX_POINTS);
+						points = par.getStats().getPoints() / getDivider();
+						int val = Math.min(par.getStats().getPoints() / 3, Config.ALT_OLY_MAX_POINTS);
 						removePointsFromParticipant(par, val);
 						list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, points - val, -val));
 					}
@@ -597,8 +597,8 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 					for (int i = _teamTwoSize; --i >= 0;)
 					{
 						par = _teamTwo[i];
-						points = par.getStats().getInt(POINTS) / getDivider();
-						int val = Math.min(par.getStats().getInt(POINTS) / 3, Config.ALT_OLY_MAX_POINTS);
+						points = par.getStats().getPoints() / getDivider();
+						int val = Math.min(par.getStats().getPoints() / 3, Config.ALT_OLY_MAX_POINTS);
 						removePointsFromParticipant(par, val);
 						list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, points - val, -val));
 					}
@@ -637,7 +637,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 		int totalPointsTeamTwo = 0;
 		for (int i = 0; i < _teamOneSize; i++)
 		{
-			points = _teamOne[i].getStats().getInt(POINTS) / getDivider();
+			points = _teamOne[i].getStats().getPoints() / getDivider();
 			if (points <= 0)
 			{
 				points = 1;
@@ -654,7 +654,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 		
 		for (int i = _teamTwoSize; --i >= 0;)
 		{
-			points = _teamTwo[i].getStats().getInt(POINTS) / getDivider();
+			points = _teamTwo[i].getStats().getPoints() / getDivider();
 			if (points <= 0)
 			{
 				points = 1;
@@ -732,7 +732,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 						par.updateStat(COMP_LOST, 1);
 						points = pointsTeamTwo[i];
 						removePointsFromParticipant(par, points);
-						list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getInt(POINTS) - points, -points));
+						list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getPoints() - points, -points));
 					}
 					
 					points = min / MAX_TEAM_SIZE;
@@ -741,7 +741,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 						par = _teamOne[i];
 						par.updateStat(COMP_WON, 1);
 						addPointsToParticipant(par, points);
-						list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getInt(POINTS) + points, points));
+						list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getPoints() + points, points));
 					}
 					
 					for (int i = 0; i < _teamOneSize; i++)
@@ -763,7 +763,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 						par.updateStat(COMP_LOST, 1);
 						points = pointsTeamOne[i];
 						removePointsFromParticipant(par, points);
-						list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getInt(POINTS) - points, -points));
+						list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getPoints() - points, -points));
 					}
 					
 					points = min / MAX_TEAM_SIZE;
@@ -772,7 +772,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 						par = _teamTwo[i];
 						par.updateStat(COMP_WON, 1);
 						addPointsToParticipant(par, points);
-						list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getInt(POINTS) + points, points));
+						list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getPoints() + points, points));
 					}
 					
 					winside = 2;
@@ -791,7 +791,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 						par = _teamOne[i];
 						par.updateStat(COMP_LOST, 1);
 						removePointsFromParticipant(par, pointsTeamOne[i]);
-						list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getInt(POINTS) - pointsTeamOne[i], -pointsTeamOne[i]));
+						list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getPoints() - pointsTeamOne[i], -pointsTeamOne[i]));
 					}
 					
 					for (int i = _teamTwoSize; --i >= 0;)
@@ -799,7 +799,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 						par = _teamTwo[i];
 						par.updateStat(COMP_LOST, 1);
 						removePointsFromParticipant(par, pointsTeamTwo[i]);
-						list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getInt(POINTS) - pointsTeamOne[i], -pointsTeamOne[i]));
+						list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getPoints() - pointsTeamOne[i], -pointsTeamOne[i]));
 					}
 					
 					tie = true;
@@ -884,7 +884,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 					par.updateStat(COMP_LOST, 1);
 					points = pointsTeamTwo[i];
 					removePointsFromParticipant(par, points);
-					list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getInt(POINTS) - points, -points));
+					list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getPoints() - points, -points));
 				}
 				
 				points = min / MAX_TEAM_SIZE;
@@ -893,7 +893,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 					par = _teamOne[i];
 					par.updateStat(COMP_WON, 1);
 					addPointsToParticipant(par, points);
-					list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getInt(POINTS) + points, points));
+					list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getPoints() + points, points));
 				}
 				
 				winside = 1;
@@ -915,7 +915,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 					par.updateStat(COMP_LOST, 1);
 					points = pointsTeamOne[i];
 					removePointsFromParticipant(par, points);
-					list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getInt(POINTS) - points, -points));
+					list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getPoints() - points, -points));
 				}
 				
 				points = min / MAX_TEAM_SIZE;
@@ -924,7 +924,7 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 					par = _teamTwo[i];
 					par.updateStat(COMP_WON, 1);
 					addPointsToParticipant(par, points);
-					list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getInt(POINTS) + points, points));
+					list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getPoints() + points, points));
 				}
 				
 				winside = 2;
@@ -942,18 +942,18 @@ public class OlympiadGameTeams extends AbstractOlympiadGame
 				{
 					par = _teamOne[i];
 					par.updateStat(COMP_DRAWN, 1);
-					points = Math.min(par.getStats().getInt(POINTS) / getDivider(), Config.ALT_OLY_MAX_POINTS);
+					points = Math.min(par.getStats().getPoints() / getDivider(), Config.ALT_OLY_MAX_POINTS);
 					removePointsFromParticipant(par, points);
-					list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getInt(POINTS) - points, -points));
+					list1.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT1, par.getStats().getPoints() - points, -points));
 				}
 				
 				for (int i = 0; i < _teamTwoSize; i++)
 				{
 					par = _teamTwo[i];
 					par.updateStat(COMP_DRAWN, 1);
-					points = Math.min(par.getStats().getInt(POINTS) / getDivider(), Config.ALT_OLY_MAX_POINTS);
+					points = Math.min(par.getStats().getPoints() / getDivider(), Config.ALT_OLY_MAX_POINTS);
 					removePointsFromParticipant(par, points);
-					list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getInt(POINTS) - points, -points));
+					list2.add(new OlympiadInfo(par.getName(), par.getClanName(), par.getClanId(), par.getBaseClass(), _damageT2, par.getStats().getPoints() - points, -points));
 				}
 				tie = true;
 			}
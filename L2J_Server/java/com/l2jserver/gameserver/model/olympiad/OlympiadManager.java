@@ -29,7 +29,6 @@ import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.instancemanager.AntiFeedManager;
 import com.l2jserver.gameserver.model.L2Party;
 import com.l2jserver.gameserver.model.L2World;
-import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.network.SystemMessageId;
 import com.l2jserver.gameserver.network.serverpackets.NpcHtmlMessage;
@@ -504,23 +503,9 @@ public class OlympiadManager
 			return false;
 		}
 		
-		StatsSet statDat = Olympiad.getNobleStats(charId);
-		if (statDat == null)
-		{
-			statDat = new StatsSet();
-			statDat.set(Olympiad.CLASS_ID, noble.getBaseClass());
-			statDat.set(Olympiad.CHAR_NAME, noble.getName());
-			statDat.set(Olympiad.POINTS, Olympiad.DEFAULT_POINTS);
-			statDat.set(Olympiad.COMP_DONE, 0);
-			statDat.set(Olympiad.COMP_WON, 0);
-			statDat.set(Olympiad.COMP_LOST, 0);
-			statDat.set(Olympiad.COMP_DRAWN, 0);
-			statDat.set(Olympiad.COMP_DONE_WEEK, 0);
-			statDat.set(Olympiad.COMP_DONE_WEEK_CLASSED, 0);
-			statDat.set(Olympiad.COMP_DONE_WEEK_NON_CLASSED, 0);
-			statDat.set(Olympiad.COMP_DONE_WEEK_TEAM, 0);
-			statDat.set("to_save", true);
-			Olympiad.addNobleStats(charId, statDat);
+		if (Olympiad.getNobleStats(charId) == null)
+		{
+			Olympiad.addNoble(new Noble(charId, noble.getBaseClass(), noble.getName(), Olympiad.DEFAULT_POINTS));
 		}
 		
 		final int points = Olympiad.getInstance().getNoblePoints(charId);
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.olympiad;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Nobles indexed by object id and ranked per class.<br>
+ * Each class keeps its nobles sorted by points, competitions done and competitions won, the same order the ranking queries used, so leader boards and hero selection are read from memory.<br>
+ * A noble is re-positioned only when one of its ranked statistics changes.
+ */
+final class OlympiadRanking
+{
+	static final Comparator<Noble> ORDER = Comparator.comparingInt(Noble::getPoints).reversed().thenComparing(Comparator.comparingInt(Noble::getCompDone).reversed()).thenComparing(Comparator.comparingInt(Noble::getCompWon).reversed()).thenComparingInt(Noble::getCharId);
+	
+	private final Map<Integer, Noble> _nobles = new ConcurrentHashMap<>();
+	private final Map<Integer, NavigableSet<Noble>> _classes = new ConcurrentHashMap<>();
+	
+	/**
+	 * Adds or replaces a noble.
+	 * @param noble the noble
+	 * @return the replaced noble, {@code null} if there was none
+	 */
+	synchronized Noble add(Noble noble)
+	{
+		final Noble old = _nobles.put(noble.getCharId(), noble);
+		if (old != null)
+		{
+			getClassRanking(old.getClassId()).remove(old);
+		}
+		getClassRanking(noble.getClassId()).add(noble);
+		return old;
+	}
+	
+	/**
+	 * Replaces all nobles.
+	 * @param nobles the new nobles
+	 */
+	synchronized void set(Collection<Noble> nobles)
+	{
+		clear();
+		for (Noble noble : nobles)
+		{
+			add(noble);
+		}
+	}
+	
+	synchronized void clear()
+	{
+		_nobles.clear();
+		_classes.clear();
+	}
+	
+	Noble get(int charId)
+	{
+		return _nobles.get(charId);
+	}
+	
+	Collection<Noble> getNobles()
+	{
+		return _nobles.values();
+	}
+	
+	int size()
+	{
+		return _nobles.size();
+	}
+	
+	boolean isEmpty()
+	{
+		return _nobles.isEmpty();
+	}
+	
+	private NavigableSet<Noble> getClassRanking(int classId)
+	{
+		return _classes.computeIfAbsent(classId, k -> new ConcurrentSkipListSet<>(ORDER));
+	}
+	
+	/**
+	 * Increases a noble statistic, moving the noble in its class ranking if the statistic is ranked.
+	 * @param noble the noble
+	 * @param stat the statistic column name
+	 * @param increment the amount to add, can be negative
+	 */
+	void increase(Noble noble, String stat, int increment)
+	{
+		if (Noble.isRanked(stat))
+		{
+			update(noble, n -> n.increase(stat, increment));
+		}
+		else
+		{
+			noble.increase(stat, increment);
+		}
+	}
+	
+	/**
+	 * Applies a change to the ranked statistics of a noble.
+	 * @param noble the noble
+	 * @param change the change
+	 */
+	synchronized void update(Noble noble, Consumer<Noble> change)
+	{
+		final NavigableSet<Noble> ranking = getClassRanking(noble.getClassId());
+		final boolean ranked = ranking.remove(noble);
+		change.accept(noble);
+		if (ranked)
+		{
+			ranking.add(noble);
+		}
+	}
+	
+	/**
+	 * Applies a change to the ranked statistics of every noble.<br>
+	 * Class rankings are rebuilt aside and swapped in, readers never see a partial class.
+	 * @param change the change
+	 */
+	synchronized void updateAll(Consumer<Noble> change)
+	{
+		for (Map.Entry<Integer, NavigableSet<Noble>> entry : _classes.entrySet())
+		{
+			final List<Noble> nobles = new ArrayList<>(entry.getValue());
+			nobles.forEach(change);
+			final NavigableSet<Noble> ranking = new ConcurrentSkipListSet<>(ORDER);
+			ranking.addAll(nobles);
+			entry.setValue(ranking);
+		}
+	}
+	
+	/**
+	 * Gets the best ranked nobles of the given classes.
+	 * @param classIds the class ids ranked together
+	 * @param filter the condition a noble must meet
+	 * @param limit the maximum amount of nobles
+	 * @return the nobles in ranking order
+	 */
+	List<Noble> getLeaders(int[] classIds, Predicate<Noble> filter, int limit)
+	{
+		final List<Noble> leaders = new ArrayList<>(limit);
+		for (int classId : classIds)
+		{
+			final NavigableSet<Noble> ranking = _classes.get(classId);
+			if (ranking == null)
+			{
+				continue;
+			}
+			
+			int count = 0;
+			for (Noble noble : ranking)
+			{
+				if (count >= limit)
+				{
+					break;
+				}
+				if (filter.test(noble))
+				{
+					leaders.add(noble);
+					count++;
+				}
+			}
+		}
+		
+		if (classIds.length > 1)
+		{
+			leaders.sort(ORDER);
+			while (leaders.size() > limit)
+			{
+				leaders.remove(leaders.size() - 1);
+			}
+		}
+		return leaders;
+	}
+	
+	/**
+	 * Gets all the nobles meeting the condition, in ranking order across all classes.
+	 * @param filter the condition a noble must meet
+	 * @return the sorted nobles
+	 */
+	List<Noble> getAll(Predicate<Noble> filter)
+	{
+		final List<Noble> nobles = new ArrayList<>();
+		for (Noble noble : _nobles.values())
+		{
+			if (filter.test(noble))
+			{
+				nobles.add(noble);
+			}
+		}
+		nobles.sort(ORDER);
+		return nobles;
+	}
+}
@@ -19,7 +19,6 @@
 package com.l2jserver.gameserver.model.olympiad;
 
 import com.l2jserver.gameserver.model.L2World;
-import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
 /**
@@ -34,7 +33,7 @@ public final class Participant
 	private final int baseClass;
 	private boolean disconnected = false;
 	private boolean defaulted = false;
-	private final StatsSet stats;
+	private final Noble stats;
 	public String clanName;
 	public int clanId;
 	
@@ -76,12 +75,12 @@ public final class Participant
 	}
 	
 	/**
-	 * @param statName
-	 * @param increment
+	 * @param statName the statistic column name
+	 * @param increment the amount to add, the result never goes below zero
 	 */
 	public final void updateStat(String statName, int increment)
 	{
-		stats.set(statName, Math.max(stats.getInt(statName) + increment, 0));
+		Olympiad.updateNobleStat(stats, statName, increment);
 	}
 	
 	/**
@@ -127,7 +126,7 @@ public final class Participant
 	/**
 	 * @return the stats
 	 */
-	public StatsSet getStats()
+	public Noble getStats()
 	{
 		return stats;
 	}
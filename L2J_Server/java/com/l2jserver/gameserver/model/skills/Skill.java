@@ -52,6 +52,7 @@ import com.l2jserver.gameserver.model.actor.instance.L2BlockInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2CubicInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.conditions.Condition;
+import com.l2jserver.gameserver.model.conditions.ConditionCompiler;
 import com.l2jserver.gameserver.model.effects.AbstractEffect;
 import com.l2jserver.gameserver.model.effects.L2EffectType;
 import com.l2jserver.gameserver.model.entity.TvTEvent;
@@ -1542,6 +1543,7 @@ public final class Skill implements IIdentifiable
 	
 	public void attach(Condition c, boolean itemOrWeapon)
 	{
+		c = ConditionCompiler.getInstance().compile(c);
 		if (itemOrWeapon)
 		{
 			if (_itemPreCondition == null)
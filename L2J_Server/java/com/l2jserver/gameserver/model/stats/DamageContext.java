@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.stats;
+
+import com.l2jserver.Config;
+import com.l2jserver.gameserver.data.xml.impl.HitConditionBonusData;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.items.L2Armor;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.type.ArmorType;
+import com.l2jserver.gameserver.model.items.type.WeaponType;
+import com.l2jserver.gameserver.model.skills.Skill;
+
+/**
+ * The stats of an attacker and its target used by the physical hit formulas of {@link Formulas}.<br>
+ * Each group of stats is gathered on first use and then reused, the two hits of a dual weapon attack read them once.<br>
+ * The attacks of a character reuse a single context per thread, {@link #forHit(L2Character, L2Character, Skill)} resets it for the next hit and {@link #release()} ends the hit, so it must not be kept afterwards.<br>
+ * Single formula calls that do not belong to such an attack use their own context from {@link #of(L2Character, L2Character, Skill)}, they may run in the middle of a hit of the same thread.
+ */
+public final class DamageContext
+{
+	private static final ThreadLocal<DamageContext> CONTEXT = ThreadLocal.withInitial(DamageContext::new);
+	
+	private L2Character _attacker;
+	private L2Character _target;
+	private Skill _skill;
+	private boolean _isPvP;
+	private boolean _isPvE;
+	
+	private boolean _hitGathered;
+	private int _hitChance;
+	
+	private boolean _criticalGathered;
+	private double _criticalHitRate;
+	
+	private boolean _shieldGathered;
+	private double _shieldRate;
+	
+	private boolean _damageGathered;
+	private double _pAtk;
+	private double _pDef;
+	private double _shieldDef;
+	private double _traitBonus;
+	private double _pvpDamage;
+	private double _attributeBonus;
+	private double _pveDamage;
+	private int _npcLevelDiff;
+	
+	private boolean _criticalDamageGathered;
+	private double _criticalDamage;
+	private double _criticalDamageAdd;
+	private double _defenceCriticalDamage;
+	private double _defenceCriticalDamageAdd;
+	
+	private DamageContext()
+	{
+	}
+	
+	/**
+	 * @param attacker the attacker
+	 * @param target the target
+	 * @param skill the skill, {@code null} for a normal attack
+	 * @return the context of the current thread, reset for this hit
+	 */
+	public static DamageContext forHit(L2Character attacker, L2Character target, Skill skill)
+	{
+		return CONTEXT.get().reset(attacker, target, skill);
+	}
+	
+	/**
+	 * @param attacker the attacker
+	 * @param target the target
+	 * @param skill the skill, {@code null} for a normal attack
+	 * @return a new context for this hit, not shared with the thread
+	 */
+	public static DamageContext of(L2Character attacker, L2Character target, Skill skill)
+	{
+		return new DamageContext().reset(attacker, target, skill);
+	}
+	
+	private DamageContext reset(L2Character attacker, L2Character target, Skill skill)
+	{
+		_attacker = attacker;
+		_target = target;
+		_skill = skill;
+		_isPvP = attacker.isPlayable() && target.isPlayable();
+		_isPvE = attacker.isPlayable() && target.isAttackable();
+		_hitGathered = false;
+		_criticalGathered = false;
+		_shieldGathered = false;
+		_damageGathered = false;
+		_criticalDamageGathered = false;
+		return this;
+	}
+	
+	/**
+	 * Ends the hit, the context of the thread does not keep the characters and the skill until its next hit.
+	 */
+	public void release()
+	{
+		_attacker = null;
+		_target = null;
+		_skill = null;
+	}
+	
+	public L2Character getAttacker()
+	{
+		return _attacker;
+	}
+	
+	public L2Character getTarget()
+	{
+		return _target;
+	}
+	
+	/**
+	 * @return the skill, {@code null} for a normal attack
+	 */
+	public Skill getSkill()
+	{
+		return _skill;
+	}
+	
+	public boolean isPvP()
+	{
+		return _isPvP;
+	}
+	
+	public boolean isPvE()
+	{
+		return _isPvE;
+	}
+	
+	/**
+	 * @return the chance to hit, in tenths of percent between 200 and 980
+	 */
+	public int getHitChance()
+	{
+		if (!_hitGathered)
+		{
+			int chance = (80 + (2 * (_attacker.getAccuracy() - _target.getEvasionRate(_attacker)))) * 10;
+			
+			// Get additional bonus from the conditions when you are attacking
+			chance *= HitConditionBonusData.getInstance().getConditionBonus(_attacker, _target);
+			
+			chance = Math.max(chance, 200);
+			chance = Math.min(chance, 980);
+			_hitChance = chance;
+			_hitGathered = true;
+		}
+		return _hitChance;
+	}
+	
+	/**
+	 * @return the critical rate of the attacker against the target
+	 */
+	public double getCriticalHitRate()
+	{
+		if (!_criticalGathered)
+		{
+			_criticalHitRate = _attacker.getStat().getCriticalHit(_target, _skill);
+			_criticalGathered = true;
+		}
+		return _criticalHitRate;
+	}
+	
+	/**
+	 * @return the shield block rate of the target, 0 if it cannot block this hit
+	 */
+	public double getShieldRate()
+	{
+		if (!_shieldGathered)
+		{
+			_shieldRate = gatherShieldRate();
+			_shieldGathered = true;
+		}
+		return _shieldRate;
+	}
+	
+	private double gatherShieldRate()
+	{
+		if ((_skill != null) && _skill.ignoreShield())
+		{
+			return 0;
+		}
+		
+		final L2Item item = _target.getSecondaryWeaponItem();
+		if ((item == null) || !(item instanceof L2Armor) || (((L2Armor) item).getItemType() == ArmorType.SIGIL))
+		{
+			return 0;
+		}
+		
+		double shldRate = _target.calcStat(Stats.SHIELD_RATE, 0, _attacker, null) * BaseStats.DEX.calcBonus(_target);
+		if (shldRate <= 1e-6)
+		{
+			return 0;
+		}
+		
+		final int degreeside = (int) _target.calcStat(Stats.SHIELD_DEFENCE_ANGLE, 0, null, null) + 120;
+		if ((degreeside < 360) && (!_target.isFacing(_attacker, degreeside)))
+		{
+			return 0;
+		}
+		
+		// if attacker use bow and target wear shield, shield block rate is multiplied by 1.3 (30%)
+		final L2Weapon weapon = _attacker.getActiveWeaponItem();
+		if ((weapon != null) && (weapon.getItemType() == WeaponType.BOW))
+		{
+			shldRate *= 1.3;
+		}
+		return shldRate;
+	}
+	
+	private void gatherDamage()
+	{
+		if (_damageGathered)
+		{
+			return;
+		}
+		
+		_pAtk = _attacker.getPAtk(_target);
+		_pDef = _target.getPDef(_attacker);
+		// Defense bonuses in PvP fight
+		if (_isPvP)
+		{
+			_pDef *= (_skill == null) ? _target.calcStat(Stats.PVP_PHYSICAL_DEF, 1, null, null) : _target.calcStat(Stats.PVP_PHYS_SKILL_DEF, 1, null, null);
+		}
+		_shieldDef = _target.getShldDef();
+		
+		_traitBonus = Formulas.calcAttackTraitBonus(_attacker, _target);
+		_pvpDamage = _isPvP ? _attacker.calcStat((_skill == null) ? Stats.PVP_PHYSICAL_DMG : Stats.PVP_PHYS_SKILL_DMG, 1, null, null) : 1;
+		_attributeBonus = Formulas.calcAttributeBonus(_attacker, _target, _skill);
+		
+		_pveDamage = 1;
+		_npcLevelDiff = -1;
+		if (_target.isAttackable())
+		{
+			final L2Weapon weapon = _attacker.getActiveWeaponItem();
+			if ((weapon != null) && ((weapon.getItemType() == WeaponType.BOW) || (weapon.getItemType() == WeaponType.CROSSBOW)))
+			{
+				_pveDamage = _attacker.calcStat((_skill != null) ? Stats.PVE_BOW_SKILL_DMG : Stats.PVE_BOW_DMG, 1, null, null);
+			}
+			else
+			{
+				_pveDamage = _attacker.calcStat(Stats.PVE_PHYSICAL_DMG, 1, null, null);
+			}
+			
+			final L2PcInstance player = _attacker.getActingPlayer();
+			if (!_target.isRaid() && !_target.isRaidMinion() && (_target.getLevel() >= Config.MIN_NPC_LVL_DMG_PENALTY) && (player != null) && ((_target.getLevel() - player.getLevel()) >= 2))
+			{
+				_npcLevelDiff = _target.getLevel() - player.getLevel() - 1;
+			}
+		}
+		_damageGathered = true;
+	}
+	
+	private void gatherCriticalDamage()
+	{
+		if (_criticalDamageGathered)
+		{
+			return;
+		}
+		
+		_criticalDamage = _attacker.calcStat(Stats.CRITICAL_DAMAGE, 1, _target, _skill);
+		_criticalDamageAdd = _attacker.calcStat(Stats.CRITICAL_DAMAGE_ADD, 0, _target, _skill);
+		_defenceCriticalDamage = _target.calcStat(Stats.DEFENCE_CRITICAL_DAMAGE, 1, _target, null);
+		_defenceCriticalDamageAdd = _target.calcStat(Stats.DEFENCE_CRITICAL_DAMAGE_ADD, 0, _target, _skill);
+		_criticalDamageGathered = true;
+	}
+	
+	public double getPAtk()
+	{
+		gatherDamage();
+		return _pAtk;
+	}
+	
+	/**
+	 * @return the P. Def of the target, with its PvP defense bonus
+	 */
+	public double getPDef()
+	{
+		gatherDamage();
+		return _pDef;
+	}
+	
+	public double getShieldDef()
+	{
+		gatherDamage();
+		return _shieldDef;
+	}
+	
+	public double getCriticalDamage()
+	{
+		gatherCriticalDamage();
+		return _criticalDamage;
+	}
+	
+	public double getCriticalDamageAdd()
+	{
+		gatherCriticalDamage();
+		return _criticalDamageAdd;
+	}
+	
+	public double getDefenceCriticalDamage()
+	{
+		gatherCriticalDamage();
+		return _defenceCriticalDamage;
+	}
+	
+	public double getDefenceCriticalDamageAdd()
+	{
+		gatherCriticalDamage();
+		return _defenceCriticalDamageAdd;
+	}
+	
+	public double getTraitBonus()
+	{
+		gatherDamage();
+		return _traitBonus;
+	}
+	
+	/**
+	 * @return the PvP damage multiplier, 1 outside PvP
+	 */
+	public double getPvpDamage()
+	{
+		gatherDamage();
+		return _pvpDamage;
+	}
+	
+	public double getAttributeBonus()
+	{
+		gatherDamage();
+		return _attributeBonus;
+	}
+	
+	/**
+	 * @return the PvE damage multiplier, 1 if the target is not attackable
+	 */
+	public double getPveDamage()
+	{
+		gatherDamage();
+		return _pveDamage;
+	}
+	
+	/**
+	 * @return the index of the NPC level damage penalty, -1 if there is none
+	 */
+	public int getNpcLevelDiff()
+	{
+		gatherDamage();
+		return _npcLevelDiff;
+	}
+}
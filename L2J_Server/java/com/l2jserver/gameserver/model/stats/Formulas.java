@@ -19,10 +19,10 @@
 package com.l2jserver.gameserver.model.stats;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.l2jserver.Config;
-import com.l2jserver.gameserver.data.xml.impl.HitConditionBonusData;
 import com.l2jserver.gameserver.data.xml.impl.KarmaData;
 import com.l2jserver.gameserver.enums.ShotType;
 import com.l2jserver.gameserver.instancemanager.CastleManager;
@@ -44,10 +44,7 @@ import com.l2jserver.gameserver.model.entity.Castle;
 import com.l2jserver.gameserver.model.entity.ClanHall;
 import com.l2jserver.gameserver.model.entity.Fort;
 import com.l2jserver.gameserver.model.entity.Siege;
-import com.l2jserver.gameserver.model.items.L2Armor;
-import com.l2jserver.gameserver.model.items.L2Item;
 import com.l2jserver.gameserver.model.items.L2Weapon;
-import com.l2jserver.gameserver.model.items.type.ArmorType;
 import com.l2jserver.gameserver.model.items.type.WeaponType;
 import com.l2jserver.gameserver.model.skills.BuffInfo;
 import com.l2jserver.gameserver.model.skills.Skill;
@@ -94,6 +91,9 @@ public final class Formulas
 	
 	private static final byte MELEE_ATTACK_RANGE = 40;
 	
+	/** Weakness traits checked on every hit, {@code TraitType.values()} would copy the whole array each time. */
+	private static final TraitType[] WEAKNESS_TRAITS = Arrays.stream(TraitType.values()).filter(t -> t.getType() == 2).toArray(TraitType[]::new);
+	
 	/**
 	 * Return the period between 2 regeneration task (3s for L2Character, 5 min for L2DoorInstance).
 	 * @param cha
@@ -685,57 +685,59 @@ public final class Formulas
 	 */
 	public static final double calcPhysDam(L2Character attacker, L2Character target, Skill skill, byte shld, boolean crit, boolean ss)
 	{
-		final boolean isPvP = attacker.isPlayable() && target.isPlayable();
-		final boolean isPvE = attacker.isPlayable() && target.isAttackable();
-		double damage = attacker.getPAtk(target);
-		double defence = target.getPDef(attacker);
-		
-		// Defense bonuses in PvP fight
-		if (isPvP)
+		return calcPhysDam(DamageContext.of(attacker, target, skill), shld, crit, ss);
+	}
+	
+	/**
+	 * Calculated damage caused by ATTACK of attacker on target.
+	 * @param context the attacker, target and skill of the hit
+	 * @param shld
+	 * @param crit if the ATTACK have critical success
+	 * @param ss if weapon item was charged by soulshot
+	 * @return
+	 */
+	public static final double calcPhysDam(DamageContext context, byte shld, boolean crit, boolean ss)
+	{
+		final L2Character attacker = context.getAttacker();
+		final L2Character target = context.getTarget();
+		final Skill skill = context.getSkill();
+		if (shld == SHIELD_DEFENSE_PERFECT_BLOCK)
 		{
-			defence *= (skill == null) ? target.calcStat(Stats.PVP_PHYSICAL_DEF, 1, null, null) : target.calcStat(Stats.PVP_PHYS_SKILL_DEF, 1, null, null);
+			// perfect block, no need to gather the damage stats
+			return 1.;
 		}
 		
-		switch (shld)
+		double damage = context.getPAtk();
+		double defence = context.getPDef();
+		if ((shld == SHIELD_DEFENSE_SUCCEED) && !Config.ALT_GAME_SHIELD_BLOCKS)
 		{
-			case SHIELD_DEFENSE_SUCCEED:
-			{
-				if (!Config.ALT_GAME_SHIELD_BLOCKS)
-				{
-					defence += target.getShldDef();
-				}
-				break;
-			}
-			case SHIELD_DEFENSE_PERFECT_BLOCK: // perfect block
-			{
-				return 1.;
-			}
+			defence += context.getShieldDef();
 		}
 		
 		// Add soulshot boost.
 		int ssBoost = ss ? 2 : 1;
-		damage = (skill != null) ? ((damage * ssBoost) + skill.getPower(attacker, target, isPvP, isPvE)) : (damage * ssBoost);
+		damage = (skill != null) ? ((damage * ssBoost) + skill.getPower(attacker, target, context.isPvP(), context.isPvE())) : (damage * ssBoost);
 		
 		if (crit)
 		{
 			// Finally retail like formula
-			damage = 2 * attacker.calcStat(Stats.CRITICAL_DAMAGE, 1, target, skill) * target.calcStat(Stats.DEFENCE_CRITICAL_DAMAGE, 1, target, null) * ((70 * damage) / defence);
+			damage = 2 * context.getCriticalDamage() * context.getDefenceCriticalDamage() * ((70 * damage) / defence);
 			// Crit dmg add is almost useless in normal hits...
-			damage += ((attacker.calcStat(Stats.CRITICAL_DAMAGE_ADD, 0, target, skill) * 70) / defence);
-			damage += target.calcStat(Stats.DEFENCE_CRITICAL_DAMAGE_ADD, 0, target, skill);
+			damage += ((context.getCriticalDamageAdd() * 70) / defence);
+			damage += context.getDefenceCriticalDamageAdd();
 		}
 		else
 		{
 			damage = (70 * damage) / defence;
 		}
 		
-		damage *= calcAttackTraitBonus(attacker, target);
+		damage *= context.getTraitBonus();
 		
 		// Weapon random damage
 		damage *= attacker.getRandomDamageMultiplier();
 		if ((shld > 0) && Config.ALT_GAME_SHIELD_BLOCKS)
 		{
-			damage -= target.getShldDef();
+			damage -= context.getShieldDef();
 			if (damage < 0)
 			{
 				damage = 0;
@@ -752,17 +754,7 @@ public final class Formulas
 		}
 		
 		// Dmg bonuses in PvP fight
-		if (isPvP)
-		{
-			if (skill == null)
-			{
-				damage *= attacker.calcStat(Stats.PVP_PHYSICAL_DMG, 1, null, null);
-			}
-			else
-			{
-				damage *= attacker.calcStat(Stats.PVP_PHYS_SKILL_DMG, 1, null, null);
-			}
-		}
+		damage *= context.getPvpDamage();
 		
 		// Physical skill dmg boost
 		if (skill != null)
@@ -770,60 +762,43 @@ public final class Formulas
 			damage = attacker.calcStat(Stats.PHYSICAL_SKILL_POWER, damage, null, null);
 		}
 		
-		damage *= calcAttributeBonus(attacker, target, skill);
-		if (target.isAttackable())
+		damage *= context.getAttributeBonus();
+		damage *= context.getPveDamage();
+		
+		final int lvlDiff = context.getNpcLevelDiff();
+		if (lvlDiff >= 0)
 		{
-			final L2Weapon weapon = attacker.getActiveWeaponItem();
-			if ((weapon != null) && ((weapon.getItemType() == WeaponType.BOW) || (weapon.getItemType() == WeaponType.CROSSBOW)))
+			if (skill != null)
 			{
-				if (skill != null)
+				if (lvlDiff >= Config.NPC_SKILL_DMG_PENALTY.size())
 				{
-					damage *= attacker.calcStat(Stats.PVE_BOW_SKILL_DMG, 1, null, null);
+					damage *= Config.NPC_SKILL_DMG_PENALTY.get(Config.NPC_SKILL_DMG_PENALTY.size() - 1);
 				}
 				else
 				{
-					damage *= attacker.calcStat(Stats.PVE_BOW_DMG, 1, null, null);
+					damage *= Config.NPC_SKILL_DMG_PENALTY.get(lvlDiff);
 				}
 			}
-			else
+			else if (crit)
 			{
-				damage *= attacker.calcStat(Stats.PVE_PHYSICAL_DMG, 1, null, null);
-			}
-			if (!target.isRaid() && !target.isRaidMinion() && (target.getLevel() >= Config.MIN_NPC_LVL_DMG_PENALTY) && (attacker.getActingPlayer() != null) && ((target.getLevel() - attacker.getActingPlayer().getLevel()) >= 2))
-			{
-				int lvlDiff = target.getLevel() - attacker.getActingPlayer().getLevel() - 1;
-				if (skill != null)
+				if (lvlDiff >= Config.NPC_CRIT_DMG_PENALTY.size())
 				{
-					if (lvlDiff >= Config.NPC_SKILL_DMG_PENALTY.size())
-					{
-						damage *= Config.NPC_SKILL_DMG_PENALTY.get(Config.NPC_SKILL_DMG_PENALTY.size() - 1);
-					}
-					else
-					{
-						damage *= Config.NPC_SKILL_DMG_PENALTY.get(lvlDiff);
-					}
+					damage *= Config.NPC_CRIT_DMG_PENALTY.get(Config.NPC_CRIT_DMG_PENALTY.size() - 1);
+				}
+				else
+				{
+					damage *= Config.NPC_CRIT_DMG_PENALTY.get(lvlDiff);
 				}
-				else if (crit)
+			}
+			else
+			{
+				if (lvlDiff >= Config.NPC_DMG_PENALTY.size())
 				{
-					if (lvlDiff >= Config.NPC_CRIT_DMG_PENALTY.size())
-					{
-						damage *= Config.NPC_CRIT_DMG_PENALTY.get(Config.NPC_CRIT_DMG_PENALTY.size() - 1);
-					}
-					else
-					{
-						damage *= Config.NPC_CRIT_DMG_PENALTY.get(lvlDiff);
-					}
+					damage *= Config.NPC_DMG_PENALTY.get(Config.NPC_DMG_PENALTY.size() - 1);
 				}
 				else
 				{
-					if (lvlDiff >= Config.NPC_DMG_PENALTY.size())
-					{
-						damage *= Config.NPC_DMG_PENALTY.get(Config.NPC_DMG_PENALTY.size() - 1);
-					}
-					else
-					{
-						damage *= Config.NPC_DMG_PENALTY.get(lvlDiff);
-					}
+					damage *= Config.NPC_DMG_PENALTY.get(lvlDiff);
 				}
 			}
 		}
@@ -1132,15 +1107,16 @@ public final class Formulas
 	 */
 	public static boolean calcHitMiss(L2Character attacker, L2Character target)
 	{
-		int chance = (80 + (2 * (attacker.getAccuracy() - target.getEvasionRate(attacker)))) * 10;
-		
-		// Get additional bonus from the conditions when you are attacking
-		chance *= HitConditionBonusData.getInstance().getConditionBonus(attacker, target);
-		
-		chance = Math.max(chance, 200);
-		chance = Math.min(chance, 980);
-		
-		return chance < Rnd.get(1000);
+		return calcHitMiss(DamageContext.of(attacker, target, null));
+	}
+	
+	/**
+	 * @param context the attacker and target of the hit
+	 * @return {@code true} if hit missed (target evaded), {@code false} otherwise.
+	 */
+	public static boolean calcHitMiss(DamageContext context)
+	{
+		return context.getHitChance() < Rnd.get(1000);
 	}
 	
 	/**
@@ -1156,39 +1132,29 @@ public final class Formulas
 	 */
 	public static byte calcShldUse(L2Character attacker, L2Character target, Skill skill, boolean sendSysMsg)
 	{
-		if ((skill != null) && skill.ignoreShield())
-		{
-			return 0;
-		}
-		
-		L2Item item = target.getSecondaryWeaponItem();
-		if ((item == null) || !(item instanceof L2Armor) || (((L2Armor) item).getItemType() == ArmorType.SIGIL))
-		{
-			return 0;
-		}
-		
-		double shldRate = target.calcStat(Stats.SHIELD_RATE, 0, attacker, null) * BaseStats.DEX.calcBonus(target);
-		if (shldRate <= 1e-6)
-		{
-			return 0;
-		}
-		
-		int degreeside = (int) target.calcStat(Stats.SHIELD_DEFENCE_ANGLE, 0, null, null) + 120;
-		if ((degreeside < 360) && (!target.isFacing(attacker, degreeside)))
+		return calcShldUse(DamageContext.of(attacker, target, skill), sendSysMsg);
+	}
+	
+	/**
+	 * Returns:<br>
+	 * 0 = shield defense doesn't succeed<br>
+	 * 1 = shield defense succeed<br>
+	 * 2 = perfect block<br>
+	 * @param context the attacker, target and skill of the hit
+	 * @param sendSysMsg
+	 * @return
+	 */
+	public static byte calcShldUse(DamageContext context, boolean sendSysMsg)
+	{
+		final double shldRate = context.getShieldRate();
+		if (shldRate <= 0)
 		{
 			return 0;
 		}
 		
+		final L2Character target = context.getTarget();
 		byte shldSuccess = SHIELD_DEFENSE_FAILED;
-		// if attacker
-		// if attacker use bow and target wear shield, shield block rate is multiplied by 1.3 (30%)
-		L2Weapon at_weapon = attacker.getActiveWeaponItem();
-		if ((at_weapon != null) && (at_weapon.getItemType() == WeaponType.BOW))
-		{
-			shldRate *= 1.3;
-		}
-		
-		if ((shldRate > 0) && ((100 - Config.ALT_PERFECT_SHLD_BLOCK) < Rnd.get(100)))
+		if ((100 - Config.ALT_PERFECT_SHLD_BLOCK) < Rnd.get(100))
 		{
 			shldSuccess = SHIELD_DEFENSE_PERFECT_BLOCK;
 		}
@@ -1640,10 +1606,12 @@ public final class Formulas
 			}
 			else
 			{
-				if (attacker.getAttackElement() == skill.getElement())
+				// resolving the attack element goes through every element power, do it once
+				final byte attackElement = attacker.getAttackElement();
+				if (attackElement == skill.getElement())
 				{
-					attack_attribute = attacker.getAttackElementValue(attacker.getAttackElement()) + skill.getElementPower();
-					defence_attribute = target.getDefenseElementValue(attacker.getAttackElement());
+					attack_attribute = attacker.getAttackElementValue(attackElement) + skill.getElementPower();
+					defence_attribute = target.getDefenseElementValue(attackElement);
 				}
 				else
 				{
@@ -1654,8 +1622,9 @@ public final class Formulas
 		}
 		else
 		{
-			attack_attribute = attacker.getAttackElementValue(attacker.getAttackElement());
-			defence_attribute = target.getDefenseElementValue(attacker.getAttackElement());
+			final byte attackElement = attacker.getAttackElement();
+			attack_attribute = attacker.getAttackElementValue(attackElement);
+			defence_attribute = target.getDefenseElementValue(attackElement);
 		}
 		
 		double attack_attribute_mod = 0;
@@ -2135,15 +2104,12 @@ public final class Formulas
 		}
 		
 		double weaknessBonus = 1.0;
-		for (TraitType traitType : TraitType.values())
+		for (TraitType traitType : WEAKNESS_TRAITS)
 		{
-			if (traitType.getType() == 2)
+			weaknessBonus *= calcGeneralTraitBonus(attacker, target, traitType, true);
+			if (weaknessBonus == 0)
 			{
-				weaknessBonus *= calcGeneralTraitBonus(attacker, target, traitType, true);
-				if (weaknessBonus == 0)
-				{
-					return 0;
-				}
+				return 0;
 			}
 		}
 		
@@ -24,6 +24,7 @@ import java.util.logging.Logger;
 import com.l2jserver.gameserver.enums.StatFunction;
 import com.l2jserver.gameserver.model.actor.L2Character;
 import com.l2jserver.gameserver.model.conditions.Condition;
+import com.l2jserver.gameserver.model.conditions.ConditionCompiler;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
 import com.l2jserver.gameserver.model.skills.Skill;
 import com.l2jserver.gameserver.model.stats.Stats;
@@ -55,8 +56,8 @@ public final class FuncTemplate
 			_order = function.getOrder();
 		}
 		
-		_attachCond = attachCond;
-		_applayCond = applayCond;
+		_attachCond = ConditionCompiler.getInstance().compile(attachCond);
+		_applayCond = ConditionCompiler.getInstance().compile(applayCond);
 		_stat = stat;
 		_value = value;
 		
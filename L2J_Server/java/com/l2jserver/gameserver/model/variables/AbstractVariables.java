@@ -18,8 +18,16 @@
  */
 package com.l2jserver.gameserver.model.variables;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.l2jserver.L2DatabaseFactory;
 import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.interfaces.IDeletable;
 import com.l2jserver.gameserver.model.interfaces.IRestorable;
@@ -30,52 +38,82 @@ import com.l2jserver.gameserver.model.interfaces.IStorable;
  */
 public abstract class AbstractVariables extends StatsSet implements IRestorable, IStorable, IDeletable
 {
-	private final AtomicBoolean _hasChanges = new AtomicBoolean(false);
+	/** Names of the variables set or removed since the last load/save. */
+	private final Set<String> _changes = ConcurrentHashMap.newKeySet();
 	
 	/**
-	 * Overriding following methods to prevent from doing useless database operations if there is no changes since player's login.
+	 * Overriding following methods to prevent from doing useless database operations if there is no changes since player's login.<br>
+	 * The value is put before the name is marked, so a store running meanwhile either writes the new value or stores the variable again next time.
 	 */
 	
+	@Override
+	public final void set(String name, Object value)
+	{
+		super.set(name, value);
+		_changes.add(name);
+	}
+	
 	@Override
 	public final void set(String name, boolean value)
 	{
-		_hasChanges.compareAndSet(false, true);
 		super.set(name, value);
+		_changes.add(name);
+	}
+	
+	@Override
+	public final void set(String name, byte value)
+	{
+		super.set(name, value);
+		_changes.add(name);
+	}
+	
+	@Override
+	public final void set(String name, short value)
+	{
+		super.set(name, value);
+		_changes.add(name);
 	}
 	
 	@Override
 	public final void set(String name, double value)
 	{
-		_hasChanges.compareAndSet(false, true);
 		super.set(name, value);
+		_changes.add(name);
+	}
+	
+	@Override
+	public final void set(String name, float value)
+	{
+		super.set(name, value);
+		_changes.add(name);
 	}
 	
 	@Override
 	public final void set(String name, Enum<?> value)
 	{
-		_hasChanges.compareAndSet(false, true);
 		super.set(name, value);
+		_changes.add(name);
 	}
 	
 	@Override
 	public final void set(String name, int value)
 	{
-		_hasChanges.compareAndSet(false, true);
 		super.set(name, value);
+		_changes.add(name);
 	}
 	
 	@Override
 	public final void set(String name, long value)
 	{
-		_hasChanges.compareAndSet(false, true);
 		super.set(name, value);
+		_changes.add(name);
 	}
 	
 	@Override
 	public final void set(String name, String value)
 	{
-		_hasChanges.compareAndSet(false, true);
 		super.set(name, value);
+		_changes.add(name);
 	}
 	
 	/**
@@ -86,11 +124,11 @@ public abstract class AbstractVariables extends StatsSet implements IRestorable,
 	 */
 	public final void set(String name, String value, boolean markAsChanged)
 	{
+		super.set(name, value);
 		if (markAsChanged)
 		{
-			_hasChanges.compareAndSet(false, true);
+			_changes.add(name);
 		}
-		super.set(name, value);
 	}
 	
 	/**
@@ -108,18 +146,99 @@ public abstract class AbstractVariables extends StatsSet implements IRestorable,
 	 */
 	public final boolean hasChanges()
 	{
-		return _hasChanges.get();
+		return !_changes.isEmpty();
+	}
+	
+	/**
+	 * Forgets the changes made since the last load/save, called once the variables are restored.
+	 */
+	protected final void clearChanges()
+	{
+		_changes.clear();
 	}
 	
 	/**
-	 * Atomically sets the value to the given updated value if the current value {@code ==} the expected value.
-	 * @param expect
-	 * @param update
-	 * @return {@code true} if successful. {@code false} return indicates that the actual value was not equal to the expected value.
+	 * Stores the variables changed since the last load/save.<br>
+	 * Each changed variable is deleted and inserted again with its current value, removed variables are only deleted, all in one transaction.<br>
+	 * If the transaction fails the variables are marked as changed again, so the next store retries them.
+	 * @param deleteQuery the statement deleting one variable of the owner, the variable name being the last parameter
+	 * @param insertQuery the statement inserting one variable of the owner, the variable name and value being the last two parameters
+	 * @param owner the owner of the variables, set as first parameter of both statements, {@code null} if the statements have no owner
+	 * @return the amount of variables stored
+	 * @throws SQLException
 	 */
-	public final boolean compareAndSetChanges(boolean expect, boolean update)
+	protected final int storeChanges(String deleteQuery, String insertQuery, Object owner) throws SQLException
+	{
+		final List<String> changes = new ArrayList<>(_changes.size());
+		for (String name : _changes)
+		{
+			if (_changes.remove(name))
+			{
+				changes.add(name);
+			}
+		}
+		if (changes.isEmpty())
+		{
+			return 0;
+		}
+		
+		try (Connection con = L2DatabaseFactory.getInstance().getConnection())
+		{
+			con.setAutoCommit(false); // all or nothing
+			try (PreparedStatement del = con.prepareStatement(deleteQuery);
+				PreparedStatement ins = con.prepareStatement(insertQuery))
+			{
+				int index = 1;
+				if (owner != null)
+				{
+					del.setObject(index, owner);
+					ins.setObject(index, owner);
+					index++;
+				}
+				
+				boolean inserts = false;
+				for (String name : changes)
+				{
+					del.setString(index, name);
+					del.addBatch();
+					
+					final Object value = getSet().get(name);
+					if (value != null)
+					{
+						ins.setString(index, name);
+						ins.setString(index + 1, String.valueOf(value));
+						ins.addBatch();
+						inserts = true;
+					}
+				}
+				del.executeBatch();
+				if (inserts)
+				{
+					ins.executeBatch();
+				}
+				con.commit();
+			}
+			catch (SQLException e)
+			{
+				con.rollback();
+				throw e;
+			}
+			finally
+			{
+				con.setAutoCommit(true);
+			}
+		}
+		catch (SQLException e)
+		{
+			markChanged(changes);
+			throw e;
+		}
+		return changes.size();
+	}
+	
+	private void markChanged(Collection<String> names)
 	{
-		return _hasChanges.compareAndSet(expect, update);
+		_changes.addAll(names);
 	}
 	
 	/**
@@ -128,7 +247,7 @@ public abstract class AbstractVariables extends StatsSet implements IRestorable,
 	 */
 	public final void remove(String name)
 	{
-		_hasChanges.compareAndSet(false, true);
 		getSet().remove(name);
+		_changes.add(name);
 	}
 }
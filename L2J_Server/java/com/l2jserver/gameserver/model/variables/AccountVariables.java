@@ -22,7 +22,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Map.Entry;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,6 +37,7 @@ public class AccountVariables extends AbstractVariables
 	// SQL Queries.
 	private static final String SELECT_QUERY = "SELECT * FROM account_gsdata WHERE account_name = ?";
 	private static final String DELETE_QUERY = "DELETE FROM account_gsdata WHERE account_name = ?";
+	private static final String DELETE_VAR_QUERY = "DELETE FROM account_gsdata WHERE account_name = ? AND var = ?";
 	private static final String INSERT_QUERY = "INSERT INTO account_gsdata (account_name, var, value) VALUES (?, ?, ?)";
 	
 	private final String _accountName;
@@ -71,7 +71,7 @@ public class AccountVariables extends AbstractVariables
 		}
 		finally
 		{
-			compareAndSetChanges(true, false);
+			clearChanges();
 		}
 		return true;
 	}
@@ -85,37 +85,16 @@ public class AccountVariables extends AbstractVariables
 			return false;
 		}
 		
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection())
+		try
 		{
-			// Clear previous entries.
-			try (PreparedStatement st = con.prepareStatement(DELETE_QUERY))
-			{
-				st.setString(1, _accountName);
-				st.execute();
-			}
-			
-			// Insert all variables.
-			try (PreparedStatement st = con.prepareStatement(INSERT_QUERY))
-			{
-				st.setString(1, _accountName);
-				for (Entry<String, Object> entry : getSet().entrySet())
-				{
-					st.setString(2, entry.getKey());
-					st.setString(3, String.valueOf(entry.getValue()));
-					st.addBatch();
-				}
-				st.executeBatch();
-			}
+			// Write only the changed variables.
+			storeChanges(DELETE_VAR_QUERY, INSERT_QUERY, _accountName);
 		}
 		catch (SQLException e)
 		{
 			_log.log(Level.WARNING, getClass().getSimpleName() + ": Couldn't update variables for: " + _accountName, e);
 			return false;
 		}
-		finally
-		{
-			compareAndSetChanges(true, false);
-		}
 		return true;
 	}
 	
@@ -133,6 +112,7 @@ public class AccountVariables extends AbstractVariables
 			
 			// Clear all entries
 			getSet().clear();
+			clearChanges();
 		}
 		catch (Exception e)
 		{
@@ -22,7 +22,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Map.Entry;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,6 +38,7 @@ public class ItemVariables extends AbstractVariables
 	private static final String SELECT_QUERY = "SELECT * FROM item_variables WHERE id = ?";
 	private static final String SELECT_COUNT = "SELECT COUNT(*) FROM item_variables WHERE id = ?";
 	private static final String DELETE_QUERY = "DELETE FROM item_variables WHERE id = ?";
+	private static final String DELETE_VAR_QUERY = "DELETE FROM item_variables WHERE id = ? AND var = ?";
 	private static final String INSERT_QUERY = "INSERT INTO item_variables (id, var, val) VALUES (?, ?, ?)";
 	
 	private final int _objectId;
@@ -100,7 +100,7 @@ public class ItemVariables extends AbstractVariables
 		}
 		finally
 		{
-			compareAndSetChanges(true, false);
+			clearChanges();
 		}
 		return true;
 	}
@@ -114,37 +114,16 @@ public class ItemVariables extends AbstractVariables
 			return false;
 		}
 		
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection())
+		try
 		{
-			// Clear previous entries.
-			try (PreparedStatement st = con.prepareStatement(DELETE_QUERY))
-			{
-				st.setInt(1, _objectId);
-				st.execute();
-			}
-			
-			// Insert all variables.
-			try (PreparedStatement st = con.prepareStatement(INSERT_QUERY))
-			{
-				st.setInt(1, _objectId);
-				for (Entry<String, Object> entry : getSet().entrySet())
-				{
-					st.setString(2, entry.getKey());
-					st.setString(3, String.valueOf(entry.getValue()));
-					st.addBatch();
-				}
-				st.executeBatch();
-			}
+			// Write only the changed variables.
+			storeChanges(DELETE_VAR_QUERY, INSERT_QUERY, _objectId);
 		}
 		catch (SQLException e)
 		{
 			_log.log(Level.WARNING, getClass().getSimpleName() + ": Couldn't update variables for: " + _objectId, e);
 			return false;
 		}
-		finally
-		{
-			compareAndSetChanges(true, false);
-		}
 		return true;
 	}
 	
@@ -162,6 +141,7 @@ public class ItemVariables extends AbstractVariables
 			
 			// Clear all entries
 			getSet().clear();
+			clearChanges();
 		}
 		catch (Exception e)
 		{
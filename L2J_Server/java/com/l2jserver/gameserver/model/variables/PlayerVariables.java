@@ -22,7 +22,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Map.Entry;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,6 +39,7 @@ public class PlayerVariables extends AbstractVariables
 	// SQL Queries.
 	private static final String SELECT_QUERY = "SELECT * FROM character_variables WHERE charId = ?";
 	private static final String DELETE_QUERY = "DELETE FROM character_variables WHERE charId = ?";
+	private static final String DELETE_VAR_QUERY = "DELETE FROM character_variables WHERE charId = ? AND var = ?";
 	private static final String INSERT_QUERY = "INSERT INTO character_variables (charId, var, val) VALUES (?, ?, ?)";
 	
 	private final int _objectId;
@@ -73,7 +73,7 @@ public class PlayerVariables extends AbstractVariables
 		}
 		finally
 		{
-			compareAndSetChanges(true, false);
+			clearChanges();
 		}
 		return true;
 	}
@@ -87,37 +87,16 @@ public class PlayerVariables extends AbstractVariables
 			return false;
 		}
 		
-		try (Connection con = L2DatabaseFactory.getInstance().getConnection())
+		try
 		{
-			// Clear previous entries.
-			try (PreparedStatement st = con.prepareStatement(DELETE_QUERY))
-			{
-				st.setInt(1, _objectId);
-				st.execute();
-			}
-			
-			// Insert all variables.
-			try (PreparedStatement st = con.prepareStatement(INSERT_QUERY))
-			{
-				st.setInt(1, _objectId);
-				for (Entry<String, Object> entry : getSet().entrySet())
-				{
-					st.setString(2, entry.getKey());
-					st.setString(3, String.valueOf(entry.getValue()));
-					st.addBatch();
-				}
-				st.executeBatch();
-			}
+			// Write only the changed variables.
+			storeChanges(DELETE_VAR_QUERY, INSERT_QUERY, _objectId);
 		}
 		catch (SQLException e)
 		{
 			_log.log(Level.WARNING, getClass().getSimpleName() + ": Couldn't update variables for: " + getPlayer(), e);
 			return false;
 		}
-		finally
-		{
-			compareAndSetChanges(true, false);
-		}
 		return true;
 	}
 	
@@ -135,6 +114,7 @@ public class PlayerVariables extends AbstractVariables
 			
 			// Clear all entries
 			getSet().clear();
+			clearChanges();
 		}
 		catch (Exception e)
 		{
@@ -25,10 +25,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -52,6 +55,7 @@ import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.entity.L2Event;
 import com.l2jserver.gameserver.model.olympiad.OlympiadManager;
 import com.l2jserver.gameserver.model.zone.ZoneId;
+import com.l2jserver.gameserver.network.profiler.PacketProfiler;
 import com.l2jserver.gameserver.network.serverpackets.ActionFailed;
 import com.l2jserver.gameserver.network.serverpackets.L2GameServerPacket;
 import com.l2jserver.gameserver.network.serverpackets.ServerClose;
@@ -116,8 +120,18 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 	
 	private boolean _protocol;
 	
-	private final ArrayBlockingQueue<ReceivablePacket<L2GameClient>> _packetQueue;
-	private final ReentrantLock _queueLock = new ReentrantLock();
+	// Received packets, executed in order by one pool thread at a time
+	private final Queue<ReceivablePacket<L2GameClient>> _packetQueue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger _packetQueueSize = new AtomicInteger();
+	// Set while the client waits in or runs on a packet pool
+	private final AtomicBoolean _packetsScheduled = new AtomicBoolean();
+	private volatile long _packetExecutionTime;
+	private volatile long _executedPackets;
+	private volatile long _packetYields;
+	
+	// Server packets waiting to be handed to the connection, see SendQueueFlusher
+	private final Queue<L2GameServerPacket> _sendQueue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger _sendQueueSize = new AtomicInteger();
 	
 	private int[][] trace;
 	
@@ -129,8 +143,6 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		_crypt = new GameCrypt();
 		_stats = new ClientStats();
 		
-		_packetQueue = new ArrayBlockingQueue<>(Config.CLIENT_PACKET_QUEUE_SIZE);
-		
 		if (Config.CHAR_STORE_INTERVAL > 0)
 		{
 			_autoSaveInDB = ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(new AutoSaveTask(), 300000L, (Config.CHAR_STORE_INTERVAL * 60000L));
@@ -166,8 +178,14 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 	{
 		if (_state != pState)
 		{
+			final boolean leftGame = _state == GameClientState.IN_GAME;
 			_state = pState;
-			_packetQueue.clear();
+			clearPacketQueue();
+			if (leftGame)
+			{
+				// packets sent while in game go before the ones of the new state
+				flushPackets();
+			}
 		}
 	}
 	
@@ -277,10 +295,57 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 			return;
 		}
 		
-		getConnection().sendPacket(gsp);
+		if (Config.PACKET_COALESCING && (_state == GameClientState.IN_GAME))
+		{
+			_sendQueue.add(gsp);
+			final int size = _sendQueueSize.incrementAndGet();
+			if (size == 1)
+			{
+				SendQueueFlusher.getInstance().addPending(this);
+			}
+			else if (size >= Config.PACKET_COALESCING_MAX_PACKETS)
+			{
+				flushPackets();
+			}
+		}
+		else
+		{
+			// in game packets still queued go first
+			flushPackets();
+			getConnection().sendPacket(gsp);
+		}
 		gsp.runImpl();
 	}
 	
+	/**
+	 * Hands the queued server packets to the connection, in the order they were sent.
+	 */
+	public void flushPackets()
+	{
+		if (_sendQueueSize.get() <= 0)
+		{
+			return;
+		}
+		
+		int count = 0;
+		synchronized (_sendQueue)
+		{
+			L2GameServerPacket gsp;
+			while ((gsp = _sendQueue.poll()) != null)
+			{
+				getConnection().sendPacket(gsp);
+				// decremented once handed over, so senders outside the queue wait for this packet
+				_sendQueueSize.decrementAndGet();
+				count++;
+			}
+		}
+		
+		if (count > 0)
+		{
+			SendQueueFlusher.getInstance().onFlush(count);
+		}
+	}
+	
 	public boolean isDetached()
 	{
 		return _isDetached;
@@ -652,6 +717,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		{
 			return; // ofline shop
 		}
+		flushPackets();
 		if (_aditionalClosePacket != null)
 		{
 			getConnection().close(new L2GameServerPacket[]
@@ -672,6 +738,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		{
 			return; // ofline shop
 		}
+		flushPackets();
 		getConnection().close(gspArray);
 	}
 	
@@ -995,7 +1062,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		}
 		
 		// flood protection
-		if (getStats().countPacket(_packetQueue.size()))
+		if (getStats().countPacket(_packetQueueSize.get()))
 		{
 			sendPacket(ActionFailed.STATIC_PACKET);
 			return true;
@@ -1059,8 +1126,9 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 			return;
 		}
 		
-		if (!_packetQueue.offer(packet))
+		if (_packetQueueSize.incrementAndGet() > Config.CLIENT_PACKET_QUEUE_SIZE)
 		{
+			_packetQueueSize.decrementAndGet();
 			if (getStats().countQueueOverflow())
 			{
 				_log.severe("Client " + toString() + " - Disconnected, too many queue overflows.");
@@ -1072,12 +1140,20 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 			}
 			return;
 		}
+		_packetQueue.add(packet);
 		
-		if (_queueLock.isLocked())
+		// the running or waiting execution picks the packet up
+		if (_packetsScheduled.compareAndSet(false, true))
 		{
-			return;
+			schedulePackets();
 		}
-		
+	}
+	
+	/**
+	 * Hands the client to a packet pool, the caller must have set {@link #_packetsScheduled}.
+	 */
+	private void schedulePackets()
+	{
 		try
 		{
 			if (_state == GameClientState.CONNECTED)
@@ -1088,6 +1164,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 					{
 						_log.severe("Client " + toString() + " - Disconnected, too many packets in non-authed state.");
 					}
+					_packetsScheduled.set(false);
 					closeNow();
 					return;
 				}
@@ -1100,37 +1177,43 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		}
 		catch (RejectedExecutionException e)
 		{
+			_packetsScheduled.set(false);
 			// if the server is shutdown we ignore
 			if (!ThreadPoolManager.getInstance().isShutdown())
 			{
-				_log.severe("Failed executing: " + packet.getClass().getSimpleName() + " for Client: " + toString());
+				_log.severe("Failed executing packets for Client: " + toString());
 			}
 		}
 	}
 	
-	@Override
-	public void run()
+	private void clearPacketQueue()
 	{
-		if (!_queueLock.tryLock())
+		while (_packetQueue.poll() != null)
 		{
-			return;
+			_packetQueueSize.decrementAndGet();
 		}
-		
+	}
+	
+	/**
+	 * Executes the queued packets until the queue is empty, the burst size is reached or the time slice is used up.<br>
+	 * In the last two cases the client goes back at the end of the pool queue, so clients sending many packets cannot hold a thread while others wait.
+	 */
+	@Override
+	public void run()
+	{
+		final long start = System.nanoTime();
+		final long deadline = Config.CLIENT_PACKET_QUEUE_TIME_SLICE > 0 ? start + (Config.CLIENT_PACKET_QUEUE_TIME_SLICE * 1000000L) : Long.MAX_VALUE;
+		long now = start;
+		int count = 0;
 		try
 		{
-			int count = 0;
 			ReceivablePacket<L2GameClient> packet;
-			while (true)
+			while ((packet = _packetQueue.poll()) != null)
 			{
-				packet = _packetQueue.poll();
-				if (packet == null)
-				{
-					return;
-				}
-				
+				_packetQueueSize.decrementAndGet();
 				if (_isDetached) // clear queue immediately after detach
 				{
-					_packetQueue.clear();
+					clearPacketQueue();
 					return;
 				}
 				
@@ -1143,19 +1226,74 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 					_log.severe("Exception during execution " + packet.getClass().getSimpleName() + ", client: " + toString() + "," + e.getMessage());
 				}
 				
+				final long end = System.nanoTime();
+				if (Config.PACKET_PROFILER)
+				{
+					PacketProfiler.getInstance().recordClientPacket(packet.getClass(), end - now);
+				}
+				now = end;
+				
 				count++;
-				if (getStats().countBurst(count))
+				if (getStats().countBurst(count) || (now >= deadline))
 				{
+					if (!_packetQueue.isEmpty())
+					{
+						_packetYields++;
+					}
 					return;
 				}
 			}
 		}
 		finally
 		{
-			_queueLock.unlock();
+			// answers go out together, without waiting for the next flush
+			flushPackets();
+			
+			// only one thread runs the client at a time, the flag publishes these to the next one
+			_packetExecutionTime += now - start;
+			_executedPackets += count;
+			_packetsScheduled.set(false);
+			
+			// remaining packets and packets received after the last poll
+			if (!_packetQueue.isEmpty() && _packetsScheduled.compareAndSet(false, true))
+			{
+				schedulePackets();
+			}
 		}
 	}
 	
+	/**
+	 * @return the amount of received packets waiting for execution
+	 */
+	public int getPacketQueueSize()
+	{
+		return _packetQueueSize.get();
+	}
+	
+	/**
+	 * @return the time spent executing packets of this client, in nanoseconds
+	 */
+	public long getPacketExecutionTime()
+	{
+		return _packetExecutionTime;
+	}
+	
+	/**
+	 * @return the amount of packets executed for this client
+	 */
+	public long getExecutedPackets()
+	{
+		return _executedPackets;
+	}
+	
+	/**
+	 * @return how many times this client released its thread with packets still queued
+	 */
+	public long getPacketYields()
+	{
+		return _packetYields;
+	}
+	
 	public void setClientTracert(int[][] tracert)
 	{
 		trace = tracert;
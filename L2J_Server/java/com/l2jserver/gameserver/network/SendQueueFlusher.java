@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jserver.Config;
+import com.l2jserver.gameserver.ThreadPoolManager;
+
+/**
+ * Flushes the send queues of the game clients.<br>
+ * While in game, the server packets of a client are queued in the client and handed to the connection together: when the client packets are done running, when the queue reaches {@link Config#PACKET_COALESCING_MAX_PACKETS} or on the next flush of this task.<br>
+ * A burst of packets then reaches the selector in the same pass, and is encrypted and written to the socket in one go instead of one pass each.
+ */
+public final class SendQueueFlusher implements Runnable
+{
+	private static final Logger _log = Logger.getLogger(SendQueueFlusher.class.getName());
+	
+	private final Set<L2GameClient> _pending = ConcurrentHashMap.newKeySet();
+	
+	private final LongAdder _flushes = new LongAdder();
+	private final LongAdder _packets = new LongAdder();
+	
+	protected SendQueueFlusher()
+	{
+		if (Config.PACKET_COALESCING)
+		{
+			ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(this, Config.PACKET_COALESCING_FLUSH_INTERVAL, Config.PACKET_COALESCING_FLUSH_INTERVAL);
+		}
+	}
+	
+	/**
+	 * Marks a client as having queued packets, to be flushed on the next run.
+	 * @param client the client
+	 */
+	public void addPending(L2GameClient client)
+	{
+		_pending.add(client);
+	}
+	
+	@Override
+	public void run()
+	{
+		final Iterator<L2GameClient> it = _pending.iterator();
+		while (it.hasNext())
+		{
+			final L2GameClient client = it.next();
+			// removed before flushing, packets queued meanwhile mark the client again
+			it.remove();
+			try
+			{
+				client.flushPackets();
+			}
+			catch (Exception e)
+			{
+				_log.log(Level.WARNING, getClass().getSimpleName() + ": Error while flushing packets of " + client + ": " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Records a flush of a client send queue.
+	 * @param packets the amount of packets handed to the connection
+	 */
+	protected void onFlush(int packets)
+	{
+		_flushes.increment();
+		_packets.add(packets);
+	}
+	
+	/**
+	 * @return the amount of send queue flushes since startup
+	 */
+	public long getFlushCount()
+	{
+		return _flushes.sum();
+	}
+	
+	/**
+	 * @return the amount of packets flushed since startup
+	 */
+	public long getPacketCount()
+	{
+		return _packets.sum();
+	}
+	
+	/**
+	 * @return the average amount of packets handed to a connection per flush
+	 */
+	public double getAveragePacketsPerFlush()
+	{
+		final long flushes = _flushes.sum();
+		return flushes > 0 ? (double) _packets.sum() / flushes : 0;
+	}
+	
+	public static SendQueueFlusher getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final SendQueueFlusher _instance = new SendQueueFlusher();
+	}
+}
@@ -18,7 +18,6 @@
  */
 package com.l2jserver.gameserver.network.clientpackets;
 
-import java.util.StringTokenizer;
 import java.util.logging.Level;
 
 import com.l2jserver.Config;
@@ -46,7 +45,9 @@ import com.l2jserver.gameserver.network.SystemMessageId;
 import com.l2jserver.gameserver.network.serverpackets.ActionFailed;
 import com.l2jserver.gameserver.network.serverpackets.ConfirmDlg;
 import com.l2jserver.gameserver.network.serverpackets.NpcHtmlMessage;
+import com.l2jserver.gameserver.util.BypassParameters;
 import com.l2jserver.gameserver.util.GMAudit;
+import com.l2jserver.gameserver.util.PrefixTrie;
 import com.l2jserver.gameserver.util.Util;
 
 /**
@@ -69,6 +70,43 @@ public final class RequestBypassToServer extends L2GameClientPacket
 		"menu_select",
 		"manor_menu_select"
 	};
+	static final PrefixTrie<Boolean> NON_HTML_COMMANDS = new PrefixTrie<>(false);
+	
+	/**
+	 * Bypasses handled by this packet, matched by prefix.
+	 */
+	enum BypassRoute
+	{
+		ADMIN("admin_"),
+		NPC("npc_"),
+		ITEM("item_"),
+		MATCH("_match"),
+		DIARY("_diary"),
+		OLYMPIAD("_olympiad?command"),
+		MENU_SELECT("menu_select"),
+		MANOR_MENU_SELECT("manor_menu_select");
+		
+		protected final String _prefix;
+		
+		private BypassRoute(String prefix)
+		{
+			_prefix = prefix;
+		}
+	}
+	
+	static final PrefixTrie<BypassRoute> ROUTES = new PrefixTrie<>(false);
+	
+	static
+	{
+		for (String command : _possibleNonHtmlCommands)
+		{
+			NON_HTML_COMMANDS.put(command, Boolean.TRUE);
+		}
+		for (BypassRoute route : BypassRoute.values())
+		{
+			ROUTES.put(route._prefix, route);
+		}
+	}
 	
 	// S
 	private String _command;
@@ -95,18 +133,8 @@ public final class RequestBypassToServer extends L2GameClientPacket
 			return;
 		}
 		
-		boolean requiresBypassValidation = true;
-		for (String possibleNonHtmlCommand : _possibleNonHtmlCommands)
-		{
-			if (_command.startsWith(possibleNonHtmlCommand))
-			{
-				requiresBypassValidation = false;
-				break;
-			}
-		}
-		
 		int bypassOriginId = 0;
-		if (requiresBypassValidation)
+		if (!NON_HTML_COMMANDS.hasPrefixOf(_command))
 		{
 			bypassOriginId = activeChar.validateHtmlAction(_command);
 			if (bypassOriginId == -1)
@@ -129,9 +157,11 @@ public final class RequestBypassToServer extends L2GameClientPacket
 		
 		try
 		{
-			if (_command.startsWith("admin_"))
+			final BypassRoute route = ROUTES.getLongestPrefix(_command);
+			if (route == BypassRoute.ADMIN)
 			{
-				String command = _command.split(" ")[0];
+				final int endOfCommand = _command.indexOf(' ');
+				String command = endOfCommand >= 0 ? _command.substring(0, endOfCommand) : _command;
 				
 				IAdminCommandHandler ach = AdminCommandHandler.getInstance().getHandler(command);
 				
@@ -178,111 +208,124 @@ public final class RequestBypassToServer extends L2GameClientPacket
 			{
 				comeHere(activeChar);
 			}
-			else if (_command.startsWith("npc_"))
+			else if (route != null)
 			{
-				int endOfId = _command.indexOf('_', 5);
-				String id;
-				if (endOfId > 0)
-				{
-					id = _command.substring(4, endOfId);
-				}
-				else
+				switch (route)
 				{
-					id = _command.substring(4);
-				}
-				if (Util.isDigit(id))
-				{
-					L2Object object = L2World.getInstance().findObject(Integer.parseInt(id));
-					
-					if ((object != null) && object.isNpc() && (endOfId > 0) && activeChar.isInsideRadius(object, L2Npc.INTERACTION_DISTANCE, false, false))
+					case NPC:
 					{
-						((L2Npc) object).onBypassFeedback(activeChar, _command.substring(endOfId + 1));
+						int endOfId = _command.indexOf('_', 5);
+						String id;
+						if (endOfId > 0)
+						{
+							id = _command.substring(4, endOfId);
+						}
+						else
+						{
+							id = _command.substring(4);
+						}
+						if (Util.isDigit(id))
+						{
+							L2Object object = L2World.getInstance().findObject(Integer.parseInt(id));
+							
+							if ((object != null) && object.isNpc() && (endOfId > 0) && activeChar.isInsideRadius(object, L2Npc.INTERACTION_DISTANCE, false, false))
+							{
+								((L2Npc) object).onBypassFeedback(activeChar, _command.substring(endOfId + 1));
+							}
+						}
+						
+						activeChar.sendPacket(ActionFailed.STATIC_PACKET);
+						break;
 					}
-				}
-				
-				activeChar.sendPacket(ActionFailed.STATIC_PACKET);
-			}
-			else if (_command.startsWith("item_"))
-			{
-				int endOfId = _command.indexOf('_', 5);
-				String id;
-				if (endOfId > 0)
-				{
-					id = _command.substring(5, endOfId);
-				}
-				else
-				{
-					id = _command.substring(5);
-				}
-				try
-				{
-					final L2ItemInstance item = activeChar.getInventory().getItemByObjectId(Integer.parseInt(id));
-					if ((item != null) && (endOfId > 0))
+					case ITEM:
+					{
+						int endOfId = _command.indexOf('_', 5);
+						String id;
+						if (endOfId > 0)
+						{
+							id = _command.substring(5, endOfId);
+						}
+						else
+						{
+							id = _command.substring(5);
+						}
+						try
+						{
+							final L2ItemInstance item = activeChar.getInventory().getItemByObjectId(Integer.parseInt(id));
+							if ((item != null) && (endOfId > 0))
+							{
+								item.onBypassFeedback(activeChar, _command.substring(endOfId + 1));
+							}
+							
+							activeChar.sendPacket(ActionFailed.STATIC_PACKET);
+						}
+						catch (NumberFormatException nfe)
+						{
+							_log.log(Level.WARNING, "NFE for command [" + _command + "]", nfe);
+						}
+						break;
+					}
+					case MATCH:
 					{
-						item.onBypassFeedback(activeChar, _command.substring(endOfId + 1));
+						final BypassParameters params = new BypassParameters(_command);
+						int heroclass = params.nextInt();
+						int heropage = params.nextInt();
+						int heroid = Hero.getInstance().getHeroByClass(heroclass);
+						if (heroid > 0)
+						{
+							Hero.getInstance().showHeroFights(activeChar, heroclass, heroid, heropage);
+						}
+						break;
+					}
+					case DIARY:
+					{
+						final BypassParameters params = new BypassParameters(_command);
+						int heroclass = params.nextInt();
+						int heropage = params.nextInt();
+						int heroid = Hero.getInstance().getHeroByClass(heroclass);
+						if (heroid > 0)
+						{
+							Hero.getInstance().showHeroDiary(activeChar, heroclass, heroid, heropage);
+						}
+						break;
+					}
+					case OLYMPIAD:
+					{
+						final BypassParameters params = new BypassParameters(_command);
+						params.skip();
+						int arenaId = params.nextInt();
+						final IBypassHandler handler = BypassHandler.getInstance().getHandler("arenachange");
+						if (handler != null)
+						{
+							handler.useBypass("arenachange " + (arenaId - 1), activeChar, null);
+						}
+						break;
+					}
+					case MENU_SELECT:
+					{
+						final L2Npc lastNpc = activeChar.getLastFolkNPC();
+						if ((lastNpc != null) && lastNpc.canInteract(activeChar))
+						{
+							final BypassParameters params = new BypassParameters(_command);
+							final int ask = params.nextInt();
+							final int reply = params.nextInt();
+							EventDispatcher.getInstance().notifyEventAsync(new OnNpcMenuSelect(activeChar, lastNpc, ask, reply), lastNpc);
+						}
+						break;
+					}
+					case MANOR_MENU_SELECT:
+					{
+						final L2Npc lastNpc = activeChar.getLastFolkNPC();
+						if (Config.ALLOW_MANOR && (lastNpc != null) && lastNpc.canInteract(activeChar))
+						{
+							final BypassParameters params = new BypassParameters(_command);
+							final int ask = params.nextInt();
+							final int state = params.nextInt();
+							final boolean time = params.nextString().equals("1");
+							EventDispatcher.getInstance().notifyEventAsync(new OnNpcManorBypass(activeChar, lastNpc, ask, state, time), lastNpc);
+						}
+						break;
 					}
-					
-					activeChar.sendPacket(ActionFailed.STATIC_PACKET);
-				}
-				catch (NumberFormatException nfe)
-				{
-					_log.log(Level.WARNING, "NFE for command [" + _command + "]", nfe);
-				}
-			}
-			else if (_command.startsWith("_match"))
-			{
-				String params = _command.substring(_command.indexOf("?") + 1);
-				StringTokenizer st = new StringTokenizer(params, "&");
-				int heroclass = Integer.parseInt(st.nextToken().split("=")[1]);
-				int heropage = Integer.parseInt(st.nextToken().split("=")[1]);
-				int heroid = Hero.getInstance().getHeroByClass(heroclass);
-				if (heroid > 0)
-				{
-					Hero.getInstance().showHeroFights(activeChar, heroclass, heroid, heropage);
-				}
-			}
-			else if (_command.startsWith("_diary"))
-			{
-				String params = _command.substring(_command.indexOf("?") + 1);
-				StringTokenizer st = new StringTokenizer(params, "&");
-				int heroclass = Integer.parseInt(st.nextToken().split("=")[1]);
-				int heropage = Integer.parseInt(st.nextToken().split("=")[1]);
-				int heroid = Hero.getInstance().getHeroByClass(heroclass);
-				if (heroid > 0)
-				{
-					Hero.getInstance().showHeroDiary(activeChar, heroclass, heroid, heropage);
-				}
-			}
-			else if (_command.startsWith("_olympiad?command"))
-			{
-				int arenaId = Integer.parseInt(_command.split("=")[2]);
-				final IBypassHandler handler = BypassHandler.getInstance().getHandler("arenachange");
-				if (handler != null)
-				{
-					handler.useBypass("arenachange " + (arenaId - 1), activeChar, null);
-				}
-			}
-			else if (_command.startsWith("menu_select"))
-			{
-				final L2Npc lastNpc = activeChar.getLastFolkNPC();
-				if ((lastNpc != null) && lastNpc.canInteract(activeChar))
-				{
-					final String[] split = _command.substring(_command.indexOf("?") + 1).split("&");
-					final int ask = Integer.parseInt(split[0].split("=")[1]);
-					final int reply = Integer.parseInt(split[1].split("=")[1]);
-					EventDispatcher.getInstance().notifyEventAsync(new OnNpcMenuSelect(activeChar, lastNpc, ask, reply), lastNpc);
-				}
-			}
-			else if (_command.startsWith("manor_menu_select"))
-			{
-				final L2Npc lastNpc = activeChar.getLastFolkNPC();
-				if (Config.ALLOW_MANOR && (lastNpc != null) && lastNpc.canInteract(activeChar))
-				{
-					final String[] split = _command.substring(_command.indexOf("?") + 1).split("&");
-					final int ask = Integer.parseInt(split[0].split("=")[1]);
-					final int state = Integer.parseInt(split[1].split("=")[1]);
-					final boolean time = split[2].split("=")[1].equals("1");
-					EventDispatcher.getInstance().notifyEventAsync(new OnNpcManorBypass(activeChar, lastNpc, ask, state, time), lastNpc);
 				}
 			}
 			else
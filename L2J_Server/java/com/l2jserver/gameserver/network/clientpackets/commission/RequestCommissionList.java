@@ -18,13 +18,13 @@
  */
 package com.l2jserver.gameserver.network.clientpackets.commission;
 
-import java.util.function.Predicate;
+import java.util.EnumSet;
+import java.util.Set;
 
 import com.l2jserver.gameserver.instancemanager.CommissionManager;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.commission.CommissionItemType;
 import com.l2jserver.gameserver.model.commission.CommissionTreeType;
-import com.l2jserver.gameserver.model.items.L2Item;
 import com.l2jserver.gameserver.model.items.type.CrystalType;
 import com.l2jserver.gameserver.network.clientpackets.L2GameClientPacket;
 import com.l2jserver.gameserver.network.serverpackets.commission.ExCloseCommission;
@@ -65,21 +65,21 @@ public class RequestCommissionList extends L2GameClientPacket
 			return;
 		}
 		
-		Predicate<L2Item> filter = i -> true;
+		Set<CommissionItemType> itemTypes = null;
 		switch (_treeViewDepth)
 		{
 			case 1:
 				final CommissionTreeType commissionTreeType = CommissionTreeType.findByClientId(_itemType);
 				if (commissionTreeType != null)
 				{
-					filter = filter.and(i -> commissionTreeType.getCommissionItemTypes().contains(i.getCommissionItemType()));
+					itemTypes = commissionTreeType.getCommissionItemTypes();
 				}
 				break;
 			case 2:
 				final CommissionItemType commissionItemType = CommissionItemType.findByClientId(_itemType);
 				if (commissionItemType != null)
 				{
-					filter = filter.and(i -> i.getCommissionItemType() == commissionItemType);
+					itemTypes = EnumSet.of(commissionItemType);
 				}
 				break;
 		}
@@ -87,50 +87,49 @@ public class RequestCommissionList extends L2GameClientPacket
 		switch (_type)
 		{
 			case 0: // General
-				filter = filter.and(i -> true); // TODO: condition
+				// TODO: condition
 				break;
 			case 1: // Rare
-				filter = filter.and(i -> true); // TODO: condition
+				// TODO: condition
 				break;
 		}
 		
+		CrystalType grade = null;
 		switch (_grade)
 		{
 			case 0:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.NONE);
+				grade = CrystalType.NONE;
 				break;
 			case 1:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.D);
+				grade = CrystalType.D;
 				break;
 			case 2:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.C);
+				grade = CrystalType.C;
 				break;
 			case 3:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.B);
+				grade = CrystalType.B;
 				break;
 			case 4:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.A);
+				grade = CrystalType.A;
 				break;
 			case 5:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.S);
+				grade = CrystalType.S;
 				break;
 			case 6:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.S80);
+				grade = CrystalType.S80;
 				break;
 			case 7:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.R);
+				grade = CrystalType.R;
 				break;
 			case 8:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.R95);
+				grade = CrystalType.R95;
 				break;
 			case 9:
-				filter = filter.and(i -> i.getCrystalType() == CrystalType.R99);
+				grade = CrystalType.R99;
 				break;
 		}
 		
-		filter = filter.and(i -> _query.isEmpty() || i.getName().toLowerCase().contains(_query.toLowerCase()));
-		
-		CommissionManager.getInstance().showAuctions(player, filter);
+		CommissionManager.getInstance().showAuctions(player, itemTypes, grade, _query);
 	}
 	
 	@Override
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.profiler;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jserver.Config;
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.handler.TelnetHandler;
+
+/**
+ * Measures how long each client packet takes to run and each server packet takes to write.<br>
+ * Every packet class maps to exactly one opcode (and sub-opcode), so timings are kept per class; the class name is what the packet handler logs too.<br>
+ * Reports are available with the {@code packetprofiler} telnet command and dumped to {@link #DUMP_FILE} periodically.
+ */
+public final class PacketProfiler
+{
+	private static final Logger _log = Logger.getLogger(PacketProfiler.class.getName());
+	
+	public static final String DUMP_FILE = "log/PacketProfiler.txt";
+	
+	private static final Comparator<PacketTimings> BY_TOTAL_TIME = Comparator.comparingLong(PacketTimings::getTotalTime).reversed();
+	
+	private volatile Map<Class<?>, PacketTimings> _clientPackets = new ConcurrentHashMap<>();
+	private volatile Map<Class<?>, PacketTimings> _serverPackets = new ConcurrentHashMap<>();
+	private volatile long _startTime = System.currentTimeMillis();
+	
+	protected PacketProfiler()
+	{
+		TelnetHandler.getInstance().registerHandler(new PacketProfilerTelnetHandler());
+		if (Config.PACKET_PROFILER_DUMP_INTERVAL > 0)
+		{
+			final long interval = TimeUnit.MINUTES.toMillis(Config.PACKET_PROFILER_DUMP_INTERVAL);
+			ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(this::dump, interval, interval);
+		}
+		_log.info(getClass().getSimpleName() + ": Profiling packets" + (Config.PACKET_PROFILER_DUMP_INTERVAL > 0 ? ", dumping every " + Config.PACKET_PROFILER_DUMP_INTERVAL + " minutes." : "."));
+	}
+	
+	/**
+	 * Records the execution of a client packet.
+	 * @param packet the packet class
+	 * @param nanos the time spent in {@code run()}, in nanoseconds
+	 */
+	public void recordClientPacket(Class<?> packet, long nanos)
+	{
+		getTimings(_clientPackets, packet).record(nanos);
+	}
+	
+	/**
+	 * Records the writing of a server packet.
+	 * @param packet the packet class
+	 * @param nanos the time spent in {@code writeImpl()}, in nanoseconds
+	 */
+	public void recordServerPacket(Class<?> packet, long nanos)
+	{
+		getTimings(_serverPackets, packet).record(nanos);
+	}
+	
+	private static PacketTimings getTimings(Map<Class<?>, PacketTimings> timings, Class<?> packet)
+	{
+		// get first, computeIfAbsent locks the bin even when the key is present
+		final PacketTimings result = timings.get(packet);
+		if (result != null)
+		{
+			return result;
+		}
+		return timings.computeIfAbsent(packet, k -> new PacketTimings(k.getSimpleName()));
+	}
+	
+	/**
+	 * Drops all the recorded timings.
+	 */
+	public void reset()
+	{
+		_clientPackets = new ConcurrentHashMap<>();
+		_serverPackets = new ConcurrentHashMap<>();
+		_startTime = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Builds a report, packets sorted by total time spent.
+	 * @param client if {@code true} reports client packets, otherwise server packets
+	 * @param limit the maximum amount of packets listed, 0 for all
+	 * @return the report lines
+	 */
+	public List<String> getReport(boolean client, int limit)
+	{
+		final List<PacketTimings> timings = new ArrayList<>((client ? _clientPackets : _serverPackets).values());
+		timings.sort(BY_TOTAL_TIME);
+		
+		final List<String> lines = new ArrayList<>();
+		lines.add((client ? "Client packets (run)" : "Server packets (writeImpl)") + " since " + ((System.currentTimeMillis() - _startTime) / 1000) + " seconds, times in microseconds:");
+		lines.add(String.format("%-40s %12s %12s %9s %9s %9s %9s %9s", "Packet", "Count", "Total", "Avg", "p50", "p99", "p99.9", "Max"));
+		for (PacketTimings t : timings)
+		{
+			if ((limit > 0) && (lines.size() >= (limit + 2)))
+			{
+				break;
+			}
+			
+			final long count = t.getCount();
+			final long total = t.getTotalTime();
+			lines.add(String.format("%-40s %12d %12d %9d %9d %9d %9d %9d", t.getName(), count, toMicros(total), toMicros(count > 0 ? total / count : 0), toMicros(t.getPercentile(50)), toMicros(t.getPercentile(99)), toMicros(t.getPercentile(99.9)), toMicros(t.getMaxTime())));
+		}
+		return lines;
+	}
+	
+	private static long toMicros(long nanos)
+	{
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+	
+	/**
+	 * Writes the client and server packet reports to {@link #DUMP_FILE}, replacing the previous dump.
+	 */
+	public void dump()
+	{
+		final File file = new File(DUMP_FILE);
+		file.getParentFile().mkdirs();
+		try (FileWriter writer = new FileWriter(file))
+		{
+			for (String line : getReport(true, 0))
+			{
+				writer.write(line + Config.EOL);
+			}
+			writer.write(Config.EOL);
+			for (String line : getReport(false, 0))
+			{
+				writer.write(line + Config.EOL);
+			}
+		}
+		catch (IOException e)
+		{
+			_log.log(Level.WARNING, getClass().getSimpleName() + ": Could not write " + DUMP_FILE + ": ", e);
+		}
+	}
+	
+	public static PacketProfiler getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final PacketProfiler _instance = new PacketProfiler();
+	}
+}
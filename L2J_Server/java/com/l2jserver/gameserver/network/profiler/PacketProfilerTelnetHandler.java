@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.profiler;
+
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import com.l2jserver.Config;
+import com.l2jserver.gameserver.handler.ITelnetHandler;
+import com.l2jserver.gameserver.model.L2World;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.network.L2GameClient;
+import com.l2jserver.gameserver.network.SendQueueFlusher;
+
+/**
+ * Telnet access to the {@link PacketProfiler}.<br>
+ * Usage: {@code packetprofiler [client|server|clients] [limit]}, {@code packetprofiler dump} or {@code packetprofiler reset}.
+ */
+final class PacketProfilerTelnetHandler implements ITelnetHandler
+{
+	private static final String[] COMMANDS =
+	{
+		"packetprofiler"
+	};
+	
+	private static final int DEFAULT_LIMIT = 20;
+	
+	@Override
+	public boolean useCommand(String command, PrintWriter _print, Socket _cSocket, int _uptime)
+	{
+		final StringTokenizer st = new StringTokenizer(command);
+		st.nextToken();
+		final String action = st.hasMoreTokens() ? st.nextToken().toLowerCase() : "client";
+		switch (action)
+		{
+			case "client":
+			case "server":
+			{
+				int limit = DEFAULT_LIMIT;
+				if (st.hasMoreTokens())
+				{
+					try
+					{
+						limit = Integer.parseInt(st.nextToken());
+					}
+					catch (NumberFormatException e)
+					{
+						_print.println("Usage: packetprofiler [client|server] [limit]");
+						return false;
+					}
+				}
+				for (String line : PacketProfiler.getInstance().getReport(action.equals("client"), limit))
+				{
+					_print.println(line);
+				}
+				if (action.equals("server") && Config.PACKET_COALESCING)
+				{
+					final SendQueueFlusher flusher = SendQueueFlusher.getInstance();
+					_print.println(String.format("Send queues: %d packets in %d flushes, %.2f packets per flush.", flusher.getPacketCount(), flusher.getFlushCount(), flusher.getAveragePacketsPerFlush()));
+				}
+				break;
+			}
+			case "clients":
+			{
+				int limit = DEFAULT_LIMIT;
+				if (st.hasMoreTokens())
+				{
+					try
+					{
+						limit = Integer.parseInt(st.nextToken());
+					}
+					catch (NumberFormatException e)
+					{
+						_print.println("Usage: packetprofiler clients [limit]");
+						return false;
+					}
+				}
+				printClients(_print, limit);
+				break;
+			}
+			case "dump":
+			{
+				PacketProfiler.getInstance().dump();
+				_print.println("Packet profile written to " + PacketProfiler.DUMP_FILE + ".");
+				break;
+			}
+			case "reset":
+			{
+				PacketProfiler.getInstance().reset();
+				_print.println("Packet profile reset.");
+				break;
+			}
+			default:
+			{
+				_print.println("Usage: packetprofiler [client|server|clients] [limit] | dump | reset");
+				return false;
+			}
+		}
+		_print.flush();
+		return true;
+	}
+	
+	/**
+	 * Prints the clients that spent the most time executing packets, with their queue depth.
+	 * @param print the telnet output
+	 * @param limit the maximum amount of clients
+	 */
+	private static void printClients(PrintWriter print, int limit)
+	{
+		// the counters keep changing while packets run, sort a copy read once
+		final List<ClientStats> clients = new ArrayList<>();
+		int queued = 0;
+		for (L2PcInstance player : L2World.getInstance().getPlayers())
+		{
+			final L2GameClient client = player.getClient();
+			if ((client != null) && !client.isDetached())
+			{
+				final ClientStats stats = new ClientStats(client);
+				clients.add(stats);
+				queued += stats._queueSize;
+			}
+		}
+		clients.sort(Comparator.comparingLong((ClientStats stats) -> stats._executionTime).reversed());
+		
+		print.println(String.format("%-40s %10s %10s %10s %6s", "Client", "Packets", "Time (ms)", "Yields", "Queue"));
+		for (ClientStats stats : clients.subList(0, Math.min(limit, clients.size())))
+		{
+			print.println(String.format("%-40s %10d %10d %10d %6d", stats._client, stats._executedPackets, stats._executionTime / 1000000, stats._yields, stats._queueSize));
+		}
+		print.println(String.format("%d clients, %d packets queued.", clients.size(), queued));
+	}
+	
+	/**
+	 * The packet counters of a client, read once.
+	 */
+	private static final class ClientStats
+	{
+		protected final String _client;
+		protected final long _executedPackets;
+		protected final long _executionTime;
+		protected final long _yields;
+		protected final int _queueSize;
+		
+		protected ClientStats(L2GameClient client)
+		{
+			_client = client.toString();
+			_executedPackets = client.getExecutedPackets();
+			_executionTime = client.getPacketExecutionTime();
+			_yields = client.getPacketYields();
+			_queueSize = client.getPacketQueueSize();
+		}
+	}
+	
+	@Override
+	public String[] getCommandList()
+	{
+		return COMMANDS;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution time statistics of one packet type.<br>
+ * Times are recorded into a log-linear histogram: every power of two is split in 8 linear buckets, so any percentile is known within 12.5% while the whole histogram is a fixed array of counters.<br>
+ * Counters are striped or updated with CAS only, recording never takes a lock.
+ */
+public final class PacketTimings
+{
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 40; // ~18 minutes in nanoseconds
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+	
+	private final String _name;
+	private final LongAdder _count = new LongAdder();
+	private final LongAdder _totalTime = new LongAdder();
+	private final AtomicLong _maxTime = new AtomicLong();
+	private final AtomicLongArray _buckets = new AtomicLongArray(BUCKETS);
+	
+	public PacketTimings(String name)
+	{
+		_name = name;
+	}
+	
+	/**
+	 * Records one execution.
+	 * @param nanos the execution time in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		if (nanos < 0)
+		{
+			nanos = 0;
+		}
+		
+		_count.increment();
+		_totalTime.add(nanos);
+		_buckets.incrementAndGet(getBucket(nanos));
+		
+		long max;
+		while (nanos > (max = _maxTime.get()))
+		{
+			if (_maxTime.compareAndSet(max, nanos))
+			{
+				break;
+			}
+		}
+	}
+	
+	private static int getBucket(long nanos)
+	{
+		if (nanos < SUB_BUCKETS)
+		{
+			return (int) nanos;
+		}
+		
+		final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		if (exponent > MAX_EXPONENT)
+		{
+			return BUCKETS - 1;
+		}
+		final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return ((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS) + subBucket;
+	}
+	
+	private static long getBucketUpperBound(int bucket)
+	{
+		if (bucket < SUB_BUCKETS)
+		{
+			return bucket;
+		}
+		
+		final int shift = (bucket / SUB_BUCKETS) - 1;
+		final long lowerBound = (long) (SUB_BUCKETS + (bucket % SUB_BUCKETS)) << shift;
+		return (lowerBound + (1L << shift)) - 1;
+	}
+	
+	/**
+	 * Gets the time under which the given fraction of the executions completed.
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the time in nanoseconds, the upper bound of the matching histogram bucket
+	 */
+	public long getPercentile(double percentile)
+	{
+		final long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts[i] = _buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0)
+		{
+			return 0;
+		}
+		
+		final long rank = Math.max(1, (long) Math.ceil((total * percentile) / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+			{
+				return Math.min(getBucketUpperBound(i), getMaxTime());
+			}
+		}
+		return getMaxTime();
+	}
+	
+	public String getName()
+	{
+		return _name;
+	}
+	
+	public long getCount()
+	{
+		return _count.sum();
+	}
+	
+	/**
+	 * @return the sum of all execution times in nanoseconds
+	 */
+	public long getTotalTime()
+	{
+		return _totalTime.sum();
+	}
+	
+	/**
+	 * @return the longest execution time in nanoseconds
+	 */
+	public long getMaxTime()
+	{
+		return _maxTime.get();
+	}
+}
@@ -21,11 +21,13 @@ package com.l2jserver.gameserver.network.serverpackets;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.l2jserver.Config;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.interfaces.IPositionable;
 import com.l2jserver.gameserver.model.interfaces.IUpdateTypeComponent;
 import com.l2jserver.gameserver.model.itemcontainer.Inventory;
 import com.l2jserver.gameserver.network.L2GameClient;
+import com.l2jserver.gameserver.network.profiler.PacketProfiler;
 import com.l2jserver.mmocore.SendablePacket;
 
 /**
@@ -163,7 +165,16 @@ public abstract class L2GameServerPacket extends SendablePacket<L2GameClient>
 	{
 		try
 		{
-			writeImpl();
+			if (Config.PACKET_PROFILER)
+			{
+				final long start = System.nanoTime();
+				writeImpl();
+				PacketProfiler.getInstance().recordServerPacket(getClass(), System.nanoTime() - start);
+			}
+			else
+			{
+				writeImpl();
+			}
 		}
 		catch (Exception e)
 		{
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.pathfinding;
+
+import java.util.List;
+
+import com.l2jserver.gameserver.data.xml.impl.DoorData;
+import com.l2jserver.gameserver.model.actor.L2Character;
+
+/**
+ * A path search submitted to the {@link PathRequestManager}.<br>
+ * The path is computed on a path finding thread and read back by the movement tick once {@link #isDone()} returns {@code true}.
+ */
+public final class PathRequest
+{
+	private final L2Character _actor;
+	private final int _x;
+	private final int _y;
+	private final int _z;
+	private final int _tx;
+	private final int _ty;
+	private final int _tz;
+	private final int _instanceId;
+	private final boolean _playable;
+	private final long _submitTime = System.nanoTime();
+	
+	private List<AbstractNodeLoc> _path;
+	private boolean _blocked;
+	private volatile boolean _done;
+	
+	public PathRequest(L2Character actor, int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable)
+	{
+		_actor = actor;
+		_x = x;
+		_y = y;
+		_z = z;
+		_tx = tx;
+		_ty = ty;
+		_tz = tz;
+		_instanceId = instanceId;
+		_playable = playable;
+	}
+	
+	/**
+	 * Searches the path and checks the route for doors.<br>
+	 * The request is done even if the search fails, the actor then moves as if no path was found.
+	 */
+	void compute()
+	{
+		try
+		{
+			final List<AbstractNodeLoc> path = PathFinding.getInstance().findPath(_x, _y, _z, _tx, _ty, _tz, _instanceId, _playable);
+			if ((path != null) && (path.size() >= 2))
+			{
+				final AbstractNodeLoc first = path.get(0);
+				boolean blocked = DoorData.getInstance().checkIfDoorsBetween(_x, _y, _z, first.getX(), first.getY(), first.getZ(), _instanceId);
+				for (int i = 0; !blocked && (i < (path.size() - 1)); i++)
+				{
+					blocked = DoorData.getInstance().checkIfDoorsBetween(path.get(i), path.get(i + 1), _instanceId);
+				}
+				_blocked = blocked;
+			}
+			_path = path;
+		}
+		finally
+		{
+			_done = true;
+		}
+	}
+	
+	/**
+	 * @return {@code true} if the actor is no longer waiting for this request
+	 */
+	boolean isStale()
+	{
+		return _actor.getPathRequest() != this;
+	}
+	
+	long getSubmitTime()
+	{
+		return _submitTime;
+	}
+	
+	/**
+	 * @return {@code true} if the search has finished
+	 */
+	public boolean isDone()
+	{
+		return _done;
+	}
+	
+	/**
+	 * @return the path found, {@code null} or less than two nodes if there is none
+	 */
+	public List<AbstractNodeLoc> getPath()
+	{
+		return _path;
+	}
+	
+	/**
+	 * @return {@code true} if a closed door stands in the route
+	 */
+	public boolean isBlocked()
+	{
+		return _blocked;
+	}
+	
+	public int getTargetX()
+	{
+		return _tx;
+	}
+	
+	public int getTargetY()
+	{
+		return _ty;
+	}
+	
+	public int getTargetZ()
+	{
+		return _tz;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.pathfinding;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jserver.Config;
+import com.l2jserver.gameserver.handler.TelnetHandler;
+
+/**
+ * Runs path searches on a dedicated pool, so packet and AI threads never block on A* in complex terrain.<br>
+ * Requests nobody waits for anymore, because the character got a new move or stopped, are dropped before being searched.
+ */
+public final class PathRequestManager
+{
+	private static final Logger _log = Logger.getLogger(PathRequestManager.class.getName());
+	
+	private final ThreadPoolExecutor _executor;
+	
+	private final AtomicLong _submitted = new AtomicLong();
+	private final AtomicLong _completed = new AtomicLong();
+	private final AtomicLong _cancelled = new AtomicLong();
+	private final AtomicLong _waitTime = new AtomicLong();
+	private final AtomicLong _searchTime = new AtomicLong();
+	private final AtomicLong _maxWaitTime = new AtomicLong();
+	private final AtomicLong _maxSearchTime = new AtomicLong();
+	
+	protected PathRequestManager()
+	{
+		final int threads = Math.max(1, Config.PATHFINDING_THREADS);
+		final AtomicInteger threadNumber = new AtomicInteger(1);
+		_executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), r ->
+		{
+			final Thread thread = new Thread(r, "PathFinding-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		TelnetHandler.getInstance().registerHandler(new PathRequestTelnetHandler());
+		_log.info(getClass().getSimpleName() + ": Started with " + threads + " threads.");
+	}
+	
+	/**
+	 * Queues a path search.<br>
+	 * The request must already be the pending request of its actor, otherwise it is considered stale and dropped.
+	 * @param request the request
+	 */
+	public void submit(PathRequest request)
+	{
+		_submitted.incrementAndGet();
+		_executor.execute(() -> run(request));
+	}
+	
+	private void run(PathRequest request)
+	{
+		if (request.isStale())
+		{
+			_cancelled.incrementAndGet();
+			return;
+		}
+		
+		final long start = System.nanoTime();
+		try
+		{
+			request.compute();
+		}
+		catch (Exception e)
+		{
+			_log.log(Level.WARNING, getClass().getSimpleName() + ": Path search failed: ", e);
+		}
+		final long end = System.nanoTime();
+		
+		record(_waitTime, _maxWaitTime, start - request.getSubmitTime());
+		record(_searchTime, _maxSearchTime, end - start);
+		_completed.incrementAndGet();
+	}
+	
+	private static void record(AtomicLong total, AtomicLong max, long nanos)
+	{
+		total.addAndGet(nanos);
+		long current;
+		while (nanos > (current = max.get()))
+		{
+			if (max.compareAndSet(current, nanos))
+			{
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * @return the amount of requests waiting for a thread
+	 */
+	public int getQueueSize()
+	{
+		return _executor.getQueue().size();
+	}
+	
+	/**
+	 * @return the pool, queue and latency statistics, shown by the {@code pathfinding} telnet command
+	 */
+	public String[] getStats()
+	{
+		final long completed = Math.max(1, _completed.get());
+		return new String[]
+		{
+			"PathFinding Pool:",
+			" |- ActiveThreads:   " + _executor.getActiveCount(),
+			" |- PoolSize:        " + _executor.getPoolSize(),
+			" |- QueuedRequests:  " + getQueueSize(),
+			" |- Submitted:       " + _submitted.get(),
+			" |- Completed:       " + _completed.get(),
+			" |- Cancelled:       " + _cancelled.get(),
+			" |- AvgWait (us):    " + (TimeUnit.NANOSECONDS.toMicros(_waitTime.get()) / completed),
+			" |- MaxWait (us):    " + TimeUnit.NANOSECONDS.toMicros(_maxWaitTime.get()),
+			" |- AvgSearch (us):  " + (TimeUnit.NANOSECONDS.toMicros(_searchTime.get()) / completed),
+			" |- MaxSearch (us):  " + TimeUnit.NANOSECONDS.toMicros(_maxSearchTime.get())
+		};
+	}
+	
+	public static PathRequestManager getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final PathRequestManager _instance = new PathRequestManager();
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.pathfinding;
+
+import java.io.PrintWriter;
+import java.net.Socket;
+
+import com.l2jserver.gameserver.handler.ITelnetHandler;
+
+/**
+ * Telnet access to the {@link PathRequestManager} queue and latency statistics.<br>
+ * Usage: {@code pathfinding}.
+ */
+final class PathRequestTelnetHandler implements ITelnetHandler
+{
+	private static final String[] COMMANDS =
+	{
+		"pathfinding"
+	};
+	
+	@Override
+	public boolean useCommand(String command, PrintWriter _print, Socket _cSocket, int _uptime)
+	{
+		for (String line : PathRequestManager.getInstance().getStats())
+		{
+			_print.println(line);
+		}
+		_print.flush();
+		return true;
+	}
+	
+	@Override
+	public String[] getCommandList()
+	{
+		return COMMANDS;
+	}
+}
@@ -18,10 +18,6 @@
  */
 package com.l2jserver.gameserver.taskmanager;
 
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,7 +36,10 @@ public class AttackStanceTaskManager
 {
 	protected static final Logger _log = Logger.getLogger(AttackStanceTaskManager.class.getName());
 	
-	protected static final Map<L2Character, Long> _attackStanceTasks = new ConcurrentHashMap<>();
+	/** Time a character stays in attack stance after its last attack, in milliseconds. */
+	public static final long ATTACK_STANCE_TIME = 15000;
+	
+	protected static final DeadlineQueue<L2Character> _attackStanceTasks = new DeadlineQueue<>();
 	
 	/**
 	 * Instantiates a new attack stance task manager.
@@ -69,7 +68,7 @@ public class AttackStanceTaskManager
 					}
 				}
 			}
-			_attackStanceTasks.put(actor, System.currentTimeMillis());
+			_attackStanceTasks.schedule(actor, System.currentTimeMillis() + ATTACK_STANCE_TIME);
 		}
 	}
 	
@@ -102,50 +101,53 @@ public class AttackStanceTaskManager
 			{
 				actor = actor.getActingPlayer();
 			}
-			return _attackStanceTasks.containsKey(actor);
+			return _attackStanceTasks.contains(actor);
 		}
 		return false;
 	}
 	
+	/**
+	 * @return the amount of characters in attack stance
+	 */
+	public int size()
+	{
+		return _attackStanceTasks.size();
+	}
+	
+	/**
+	 * @return the time the next attack stance ends at in milliseconds, {@code Long.MAX_VALUE} if there is none
+	 */
+	public long getEarliestDeadline()
+	{
+		return _attackStanceTasks.getEarliestDeadline();
+	}
+	
 	protected class FightModeScheduler implements Runnable
 	{
 		@Override
 		public void run()
 		{
-			long current = System.currentTimeMillis();
-			try
+			for (L2Character actor : _attackStanceTasks.poll(System.currentTimeMillis()))
 			{
-				final Iterator<Entry<L2Character, Long>> iter = _attackStanceTasks.entrySet().iterator();
-				Entry<L2Character, Long> e;
-				L2Character actor;
-				while (iter.hasNext())
+				try
 				{
-					e = iter.next();
-					if ((current - e.getValue()) > 15000)
+					actor.broadcastPacket(new AutoAttackStop(actor.getObjectId()));
+					actor.getAI().setAutoAttacking(false);
+					if (actor.isPlayer() && actor.hasSummon())
 					{
-						actor = e.getKey();
-						if (actor != null)
+						final L2Summon pet = actor.getPet();
+						if (pet != null)
 						{
-							actor.broadcastPacket(new AutoAttackStop(actor.getObjectId()));
-							actor.getAI().setAutoAttacking(false);
-							if (actor.isPlayer() && actor.hasSummon())
-							{
-								final L2Summon pet = actor.getPet();
-								if (pet != null)
-								{
-									pet.broadcastPacket(new AutoAttackStop(pet.getObjectId()));
-								}
-								actor.getServitors().values().forEach(s -> s.broadcastPacket(new AutoAttackStop(s.getObjectId())));
-							}
+							pet.broadcastPacket(new AutoAttackStop(pet.getObjectId()));
 						}
-						iter.remove();
+						actor.getServitors().values().forEach(s -> s.broadcastPacket(new AutoAttackStop(s.getObjectId())));
 					}
 				}
-			}
-			catch (Exception e)
-			{
-				// Unless caught here, players remain in attack positions.
-				_log.log(Level.WARNING, "Error in FightModeScheduler: " + e.getMessage(), e);
+				catch (Exception e)
+				{
+					// Unless caught here, players remain in attack positions.
+					_log.log(Level.WARNING, "Error in FightModeScheduler: " + e.getMessage(), e);
+				}
 			}
 		}
 	}
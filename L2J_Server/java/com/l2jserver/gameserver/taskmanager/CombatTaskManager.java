@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jserver.gameserver.ThreadPoolManager;
+
+/**
+ * Combat event scheduler.<br>
+ * Hit resolutions and attack end notifications are short lived and very frequent, instead of one scheduled future each they are put in a single deadline ordered queue.<br>
+ * A dedicated thread sleeps until the earliest deadline and hands the due events to the AI pool in chunks of {@link #CHUNK_SIZE}.<br>
+ * Events run at their exact delay, the events of a chunk run in deadline order, then in the order they were scheduled.
+ */
+public final class CombatTaskManager
+{
+	private static final Logger _log = Logger.getLogger(CombatTaskManager.class.getName());
+	
+	/** Maximum amount of due events run by a single AI pool task. */
+	private static final int CHUNK_SIZE = 32;
+	
+	private final Executor _executor;
+	private final ReentrantLock _lock = new ReentrantLock();
+	private final Condition _headChanged = _lock.newCondition();
+	private final PriorityQueue<CombatTask> _queue = new PriorityQueue<>();
+	private long _sequence;
+	
+	protected CombatTaskManager()
+	{
+		this(ThreadPoolManager.getInstance()::executeAi);
+	}
+	
+	/**
+	 * @param executor the executor running the due events
+	 */
+	CombatTaskManager(Executor executor)
+	{
+		_executor = executor;
+		
+		final Thread thread = new Thread(this::dispatchLoop, getClass().getSimpleName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * Schedules a combat event.
+	 * @param task the event
+	 * @param delay the delay in milliseconds
+	 */
+	public void schedule(Runnable task, long delay)
+	{
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0));
+		_lock.lock();
+		try
+		{
+			final CombatTask combatTask = new CombatTask(task, deadline, _sequence++);
+			_queue.add(combatTask);
+			if (_queue.peek() == combatTask)
+			{
+				_headChanged.signal();
+			}
+		}
+		finally
+		{
+			_lock.unlock();
+		}
+	}
+	
+	private void dispatchLoop()
+	{
+		while (true)
+		{
+			final List<Runnable> due;
+			try
+			{
+				due = takeDue();
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+			
+			for (int i = 0; i < due.size(); i += CHUNK_SIZE)
+			{
+				final List<Runnable> chunk = due.subList(i, Math.min(i + CHUNK_SIZE, due.size()));
+				try
+				{
+					_executor.execute(() -> run(chunk));
+				}
+				catch (Exception e)
+				{
+					// this is the only dispatch thread, it must survive a rejecting pool, the events are run here instead of being lost
+					_log.log(Level.WARNING, getClass().getSimpleName() + ": Could not hand " + chunk.size() + " combat events to the AI pool, running them on the dispatch thread: " + e.getMessage(), e);
+					run(chunk);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Waits for the earliest deadline and takes all events due by then.
+	 * @return the due events, in deadline order
+	 * @throws InterruptedException if the dispatch thread was interrupted
+	 */
+	private List<Runnable> takeDue() throws InterruptedException
+	{
+		_lock.lock();
+		try
+		{
+			while (true)
+			{
+				final CombatTask head = _queue.peek();
+				if (head == null)
+				{
+					_headChanged.await();
+					continue;
+				}
+				
+				final long now = System.nanoTime();
+				final long wait = head._deadline - now;
+				if (wait > 0)
+				{
+					_headChanged.awaitNanos(wait);
+					continue;
+				}
+				
+				final List<Runnable> due = new ArrayList<>();
+				CombatTask task;
+				while (((task = _queue.peek()) != null) && ((task._deadline - now) <= 0))
+				{
+					due.add(_queue.poll()._task);
+				}
+				return due;
+			}
+		}
+		finally
+		{
+			_lock.unlock();
+		}
+	}
+	
+	private static void run(List<Runnable> tasks)
+	{
+		for (Runnable task : tasks)
+		{
+			try
+			{
+				task.run();
+			}
+			catch (Exception e)
+			{
+				_log.log(Level.WARNING, CombatTaskManager.class.getSimpleName() + ": Error while running " + task.getClass().getSimpleName() + ": " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	private static final class CombatTask implements Comparable<CombatTask>
+	{
+		protected final Runnable _task;
+		protected final long _deadline;
+		protected final long _sequence;
+		
+		protected CombatTask(Runnable task, long deadline, long sequence)
+		{
+			_task = task;
+			_deadline = deadline;
+			_sequence = sequence;
+		}
+		
+		@Override
+		public int compareTo(CombatTask other)
+		{
+			final long diff = _deadline - other._deadline;
+			if (diff != 0)
+			{
+				return diff < 0 ? -1 : 1;
+			}
+			return Long.compare(_sequence, other._sequence);
+		}
+	}
+	
+	public static CombatTaskManager getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final CombatTaskManager _instance = new CombatTaskManager();
+	}
+}
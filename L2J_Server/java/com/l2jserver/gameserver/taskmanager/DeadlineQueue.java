@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Keys ordered by the time they expire at.<br>
+ * The current deadline of every key is kept in a map, a min-heap holds one entry per key ordered by the deadline the key had when the entry was pushed.<br>
+ * Moving a deadline later only updates the map, the heap entry is pushed back with the new deadline when it reaches the top; so re-arming is O(1) and polling only touches entries whose time has come.
+ * @param <T> the type of the keys
+ */
+public final class DeadlineQueue<T>
+{
+	private final Map<T, Long> _deadlines = new ConcurrentHashMap<>();
+	private final PriorityQueue<Deadline<T>> _queue = new PriorityQueue<>();
+	
+	/**
+	 * Sets the deadline of a key, replacing the previous one.
+	 * @param key the key
+	 * @param deadline the time the key expires at, in milliseconds
+	 */
+	public void schedule(T key, long deadline)
+	{
+		final Long previous = _deadlines.put(key, deadline);
+		if ((previous == null) || (deadline < previous))
+		{
+			synchronized (_queue)
+			{
+				_queue.add(new Deadline<>(key, deadline));
+			}
+		}
+	}
+	
+	/**
+	 * Removes a key, its heap entry is dropped when it reaches the top.
+	 * @param key the key
+	 * @return {@code true} if the key was pending
+	 */
+	public boolean remove(T key)
+	{
+		return _deadlines.remove(key) != null;
+	}
+	
+	public boolean contains(T key)
+	{
+		return _deadlines.containsKey(key);
+	}
+	
+	/**
+	 * @param key the key
+	 * @return the deadline of the key in milliseconds, {@code Long.MAX_VALUE} if it is not pending
+	 */
+	public long getDeadline(T key)
+	{
+		final Long deadline = _deadlines.get(key);
+		return deadline != null ? deadline : Long.MAX_VALUE;
+	}
+	
+	/**
+	 * @return the amount of pending keys
+	 */
+	public int size()
+	{
+		return _deadlines.size();
+	}
+	
+	/**
+	 * @return the earliest pending deadline in milliseconds, {@code Long.MAX_VALUE} if there is none
+	 */
+	public long getEarliestDeadline()
+	{
+		synchronized (_queue)
+		{
+			Deadline<T> head;
+			while ((head = _queue.peek()) != null)
+			{
+				final Long deadline = _deadlines.get(head._key);
+				if ((deadline != null) && (deadline == head._deadline))
+				{
+					return deadline;
+				}
+				
+				_queue.poll();
+				if ((deadline != null) && (deadline > head._deadline))
+				{
+					_queue.add(new Deadline<>(head._key, deadline));
+				}
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+	
+	/**
+	 * Removes the keys expired at the given time.
+	 * @param time the current time in milliseconds
+	 * @return the expired keys in deadline order
+	 */
+	public List<T> poll(long time)
+	{
+		List<T> expired = null;
+		synchronized (_queue)
+		{
+			Deadline<T> head;
+			while (((head = _queue.peek()) != null) && (head._deadline <= time))
+			{
+				_queue.poll();
+				
+				Long deadline;
+				while ((deadline = _deadlines.get(head._key)) != null)
+				{
+					if (deadline > head._deadline)
+					{
+						// re-armed since the entry was pushed
+						_queue.add(new Deadline<>(head._key, deadline));
+						break;
+					}
+					
+					if (_deadlines.remove(head._key, deadline))
+					{
+						if (expired == null)
+						{
+							expired = new ArrayList<>();
+						}
+						expired.add(head._key);
+						break;
+					}
+				}
+			}
+		}
+		return expired != null ? expired : Collections.emptyList();
+	}
+	
+	/**
+	 * Performs an action for each pending key, in no particular order.
+	 * @param action the action, receiving the key and its deadline
+	 */
+	public void forEach(BiConsumer<? super T, ? super Long> action)
+	{
+		_deadlines.forEach(action);
+	}
+	
+	private static final class Deadline<T> implements Comparable<Deadline<T>>
+	{
+		protected final T _key;
+		protected final long _deadline;
+		
+		protected Deadline(T key, long deadline)
+		{
+			_key = key;
+			_deadline = deadline;
+		}
+		
+		@Override
+		public int compareTo(Deadline<T> other)
+		{
+			return Long.compare(_deadline, other._deadline);
+		}
+	}
+}
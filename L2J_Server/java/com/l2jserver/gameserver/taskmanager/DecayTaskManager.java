@@ -18,13 +18,11 @@
  */
 package com.l2jserver.gameserver.taskmanager;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import com.l2jserver.Config;
 import com.l2jserver.gameserver.model.actor.L2Attackable;
@@ -36,9 +34,19 @@ import com.l2jserver.gameserver.model.actor.templates.L2NpcTemplate;
  */
 public final class DecayTaskManager
 {
+	private static final Logger _log = Logger.getLogger(DecayTaskManager.class.getName());
+	
+	/** Interval between two checks for corpses to decay, in milliseconds. */
+	private static final long DECAY_CHECK_INTERVAL = 500;
+	
 	private final ScheduledExecutorService _decayExecutor = Executors.newSingleThreadScheduledExecutor();
 	
-	protected final Map<L2Character, ScheduledFuture<?>> _decayTasks = new ConcurrentHashMap<>();
+	protected final DeadlineQueue<L2Character> _decayTasks = new DeadlineQueue<>();
+	
+	protected DecayTaskManager()
+	{
+		_decayExecutor.scheduleAtFixedRate(this::decay, DECAY_CHECK_INTERVAL, DECAY_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+	}
 	
 	/**
 	 * Adds a decay task for the specified character.<br>
@@ -81,22 +89,7 @@ public final class DecayTaskManager
 	 */
 	public void add(L2Character character, long delay, TimeUnit timeUnit)
 	{
-		ScheduledFuture<?> decayTask = _decayExecutor.schedule(new DecayTask(character), delay, TimeUnit.SECONDS);
-		
-		decayTask = _decayTasks.put(character, decayTask);
-		// if decay task already existed cancel it so we use the new time
-		if (decayTask != null)
-		{
-			if (!decayTask.cancel(false))
-			{
-				// old decay task was completed while canceling it remove and cancel the new one
-				decayTask = _decayTasks.remove(character);
-				if (decayTask != null)
-				{
-					decayTask.cancel(false);
-				}
-			}
-		}
+		_decayTasks.schedule(character, System.currentTimeMillis() + timeUnit.toMillis(delay));
 	}
 	
 	/**
@@ -105,11 +98,7 @@ public final class DecayTaskManager
 	 */
 	public void cancel(L2Character character)
 	{
-		final ScheduledFuture<?> decayTask = _decayTasks.remove(character);
-		if (decayTask != null)
-		{
-			decayTask.cancel(false);
-		}
+		_decayTasks.remove(character);
 	}
 	
 	/**
@@ -119,29 +108,43 @@ public final class DecayTaskManager
 	 */
 	public long getRemainingTime(L2Character character)
 	{
-		final ScheduledFuture<?> decayTask = _decayTasks.get(character);
-		if (decayTask != null)
+		final long deadline = _decayTasks.getDeadline(character);
+		if (deadline != Long.MAX_VALUE)
 		{
-			return decayTask.getDelay(TimeUnit.MILLISECONDS);
+			return deadline - System.currentTimeMillis();
 		}
 		
 		return Long.MAX_VALUE;
 	}
 	
-	private class DecayTask implements Runnable
+	/**
+	 * @return the amount of corpses waiting to decay
+	 */
+	public int size()
 	{
-		private final L2Character _character;
-		
-		protected DecayTask(L2Character character)
-		{
-			_character = character;
-		}
-		
-		@Override
-		public void run()
+		return _decayTasks.size();
+	}
+	
+	/**
+	 * @return the time the next corpse decays at in milliseconds, {@code Long.MAX_VALUE} if there is none
+	 */
+	public long getEarliestDeadline()
+	{
+		return _decayTasks.getEarliestDeadline();
+	}
+	
+	protected void decay()
+	{
+		for (L2Character character : _decayTasks.poll(System.currentTimeMillis()))
 		{
-			_decayTasks.remove(_character);
-			_character.onDecay();
+			try
+			{
+				character.onDecay();
+			}
+			catch (Exception e)
+			{
+				_log.log(Level.WARNING, getClass().getSimpleName() + ": Error while decaying " + character + ": " + e.getMessage(), e);
+			}
 		}
 	}
 	
@@ -157,16 +160,17 @@ public final class DecayTaskManager
 		ret.append("Tasks dump:");
 		ret.append(Config.EOL);
 		
-		for (Entry<L2Character, ScheduledFuture<?>> entry : _decayTasks.entrySet())
+		final long now = System.currentTimeMillis();
+		_decayTasks.forEach((character, deadline) ->
 		{
 			ret.append("Class/Name: ");
-			ret.append(entry.getKey().getClass().getSimpleName());
+			ret.append(character.getClass().getSimpleName());
 			ret.append('/');
-			ret.append(entry.getKey().getName());
+			ret.append(character.getName());
 			ret.append(" decay timer: ");
-			ret.append(entry.getValue().getDelay(TimeUnit.MILLISECONDS));
+			ret.append(deadline - now);
 			ret.append(Config.EOL);
-		}
+		});
 		
 		return ret.toString();
 	}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jserver.gameserver.ThreadPoolManager;
+
+/**
+ * Runs the respawns of the NPC spawns.<br>
+ * Instead of one scheduled future per dead NPC, pending respawns are kept ordered by the time they are due and the due ones are handed to the general pool in chunks of {@link #CHUNK_SIZE} on each check.
+ */
+public final class RespawnTaskManager
+{
+	private static final Logger _log = Logger.getLogger(RespawnTaskManager.class.getName());
+	
+	/** Interval between two checks for due respawns, in milliseconds. */
+	private static final long RESPAWN_CHECK_INTERVAL = 500;
+	/** Maximum amount of respawns run by one pool task. */
+	private static final int CHUNK_SIZE = 32;
+	
+	private final DeadlineQueue<Runnable> _respawnTasks = new DeadlineQueue<>();
+	
+	protected RespawnTaskManager()
+	{
+		ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(this::respawn, RESPAWN_CHECK_INTERVAL, RESPAWN_CHECK_INTERVAL);
+	}
+	
+	/**
+	 * Adds a respawn task.
+	 * @param task the task
+	 * @param delay the delay in milliseconds
+	 */
+	public void add(Runnable task, long delay)
+	{
+		_respawnTasks.schedule(task, System.currentTimeMillis() + delay);
+	}
+	
+	/**
+	 * @return the amount of pending respawns
+	 */
+	public int size()
+	{
+		return _respawnTasks.size();
+	}
+	
+	/**
+	 * @return the time the next respawn is due at in milliseconds, {@code Long.MAX_VALUE} if there is none
+	 */
+	public long getEarliestDeadline()
+	{
+		return _respawnTasks.getEarliestDeadline();
+	}
+	
+	protected void respawn()
+	{
+		final List<Runnable> due = _respawnTasks.poll(System.currentTimeMillis());
+		for (int i = 0; i < due.size(); i += CHUNK_SIZE)
+		{
+			final List<Runnable> chunk = due.subList(i, Math.min(i + CHUNK_SIZE, due.size()));
+			try
+			{
+				ThreadPoolManager.getInstance().executeGeneral(() -> run(chunk));
+			}
+			catch (Exception e)
+			{
+				_log.log(Level.WARNING, getClass().getSimpleName() + ": Could not hand " + chunk.size() + " respawns to the general pool, running them on the check thread: " + e.getMessage(), e);
+				run(chunk);
+			}
+		}
+	}
+	
+	private void run(List<Runnable> tasks)
+	{
+		for (Runnable task : tasks)
+		{
+			try
+			{
+				task.run();
+			}
+			catch (Exception e)
+			{
+				_log.log(Level.WARNING, getClass().getSimpleName() + ": Error while running " + task + ": " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	public static RespawnTaskManager getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final RespawnTaskManager _instance = new RespawnTaskManager();
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the {@code key=value&key=value} parameters of a bypass in order.<br>
+ * Values are read in place from the command, without splitting it into substrings.
+ */
+public final class BypassParameters
+{
+	private final String _command;
+	private int _position;
+	private int _valueStart;
+	private int _valueEnd;
+	
+	/**
+	 * @param command the bypass, the parameters start after its first {@code ?}
+	 */
+	public BypassParameters(String command)
+	{
+		_command = command;
+		_position = command.indexOf('?') + 1;
+	}
+	
+	/**
+	 * @return {@code true} if there are parameters left
+	 */
+	public boolean hasNext()
+	{
+		return _position < _command.length();
+	}
+	
+	private void advance()
+	{
+		if (!hasNext())
+		{
+			throw new NoSuchElementException("Missing parameter in bypass: " + _command);
+		}
+		
+		int end = _command.indexOf('&', _position);
+		if (end < 0)
+		{
+			end = _command.length();
+		}
+		final int separator = _command.indexOf('=', _position);
+		if ((separator < 0) || (separator >= end))
+		{
+			throw new IllegalArgumentException("Parameter without value in bypass: " + _command);
+		}
+		_valueStart = separator + 1;
+		_valueEnd = end;
+		_position = end + 1;
+	}
+	
+	/**
+	 * Skips the next parameter.
+	 */
+	public void skip()
+	{
+		advance();
+	}
+	
+	/**
+	 * @return the value of the next parameter
+	 */
+	public String nextString()
+	{
+		advance();
+		return _command.substring(_valueStart, _valueEnd);
+	}
+	
+	/**
+	 * @return the value of the next parameter, as a decimal integer
+	 * @throws NumberFormatException if the value is not a decimal integer
+	 */
+	public int nextInt()
+	{
+		advance();
+		
+		int i = _valueStart;
+		final boolean negative = (i < _valueEnd) && (_command.charAt(i) == '-');
+		if (negative)
+		{
+			i++;
+		}
+		if (i == _valueEnd)
+		{
+			throw invalidNumber();
+		}
+		
+		long value = 0;
+		for (; i < _valueEnd; i++)
+		{
+			final int digit = _command.charAt(i) - '0';
+			if ((digit < 0) || (digit > 9))
+			{
+				throw invalidNumber();
+			}
+			value = (value * 10) + digit;
+			if (value > (negative ? Integer.MAX_VALUE + 1L : Integer.MAX_VALUE))
+			{
+				throw invalidNumber();
+			}
+		}
+		return (int) (negative ? -value : value);
+	}
+	
+	private NumberFormatException invalidNumber()
+	{
+		return new NumberFormatException("For input string: \"" + _command.substring(_valueStart, _valueEnd) + "\"");
+	}
+}
@@ -19,21 +19,19 @@
 package com.l2jserver.gameserver.util;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import com.l2jserver.Config;
+import com.l2jserver.log.AsyncLogWriter;
 
 /**
- * Audits Game Master's actions.
+ * Audits Game Master's actions.<br>
+ * Lines are written by an {@link AsyncLogWriter}, so the admin command never waits for the disk. Lines that do not fit into its buffer are dropped and counted.
  */
 public class GMAudit
 {
-	private static final Logger _log = Logger.getLogger(GMAudit.class.getName());
+	private static final AsyncLogWriter WRITER = new AsyncLogWriter("GMAudit", 4096, false, 1000);
 	
 	static
 	{
@@ -54,18 +52,10 @@ public class GMAudit
 		String name = com.l2jserver.util.Util.replaceIllegalCharacters(gmName);
 		if (!com.l2jserver.util.Util.isValidFileName(name))
 		{
-			name = "INVALID_GM_NAME_" + date;
+			name = "INVALID_GM_NAME_" + new SimpleDateFormat("yyyy-MM-dd").format(new Date());
 		}
 		
-		final File file = new File("log/GMAudit/" + name + ".txt");
-		try (FileWriter save = new FileWriter(file, true))
-		{
-			save.write(date + ">" + gmName + ">" + action + ">" + target + ">" + params + Config.EOL);
-		}
-		catch (IOException e)
-		{
-			_log.log(Level.SEVERE, "GMAudit for GM " + gmName + " could not be saved: ", e);
-		}
+		WRITER.write(new File("log/GMAudit/" + name + ".txt"), date + ">" + gmName + ">" + action + ">" + target + ">" + params + Config.EOL);
 	}
 	
 	/**
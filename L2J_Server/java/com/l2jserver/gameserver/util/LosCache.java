@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short lived cache of line of sight results.<br>
+ * Results are keyed by the geo cells of both ends, their height band and the instance, so characters standing still or moving within a cell share the result.<br>
+ * The cache is a fixed size direct mapped table of immutable entries: a colliding result replaces the previous one, reads and writes need no lock.<br>
+ * Entries expire after a short time and all of them are dropped at once when the epoch changes, which happens whenever a door changes state.
+ */
+public final class LosCache
+{
+	/** Height band size, in world units. */
+	private static final int Z_BAND_SHIFT = 4;
+	
+	private final LosEntry[] _entries;
+	private final int _mask;
+	private final long _ttl;
+	private final AtomicInteger _epoch = new AtomicInteger();
+	private final LongAdder _hits = new LongAdder();
+	private final LongAdder _misses = new LongAdder();
+	
+	/**
+	 * @param size the amount of entries, rounded up to a power of two
+	 * @param ttl the time results are kept, in milliseconds
+	 */
+	public LosCache(int size, long ttl)
+	{
+		final int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+		_entries = new LosEntry[capacity];
+		_mask = capacity - 1;
+		_ttl = ttl;
+	}
+	
+	private static long getCells(int geoX, int geoY, int tGeoX, int tGeoY)
+	{
+		return ((long) (geoX & 0xFFFF) << 48) | ((long) (geoY & 0xFFFF) << 32) | ((long) (tGeoX & 0xFFFF) << 16) | (tGeoY & 0xFFFF);
+	}
+	
+	private static int getZBands(int z, int tz)
+	{
+		return (((z >> Z_BAND_SHIFT) & 0xFFFF) << 16) | ((tz >> Z_BAND_SHIFT) & 0xFFFF);
+	}
+	
+	private int getIndex(long cells, int zBands, int instanceId)
+	{
+		long hash = (cells ^ (cells >>> 29)) + (zBands * 0x9E3779B97F4A7C15L) + instanceId;
+		hash ^= hash >>> 32;
+		hash *= 0xBF58476D1CE4E5B9L;
+		hash ^= hash >>> 29;
+		return (int) hash & _mask;
+	}
+	
+	/**
+	 * @param geoX the geo X of the looker
+	 * @param geoY the geo Y of the looker
+	 * @param z the world Z of the looker
+	 * @param tGeoX the geo X of the target
+	 * @param tGeoY the geo Y of the target
+	 * @param tz the world Z of the target
+	 * @param instanceId the instance Id
+	 * @return the cached result, {@code null} if there is none
+	 */
+	public Boolean get(int geoX, int geoY, int z, int tGeoX, int tGeoY, int tz, int instanceId)
+	{
+		final long cells = getCells(geoX, geoY, tGeoX, tGeoY);
+		final int zBands = getZBands(z, tz);
+		final LosEntry entry = _entries[getIndex(cells, zBands, instanceId)];
+		if ((entry != null) && (entry._cells == cells) && (entry._zBands == zBands) && (entry._instanceId == instanceId) && (entry._epoch == _epoch.get()) && (entry._expireTime > System.currentTimeMillis()))
+		{
+			_hits.increment();
+			return entry._result;
+		}
+		_misses.increment();
+		return null;
+	}
+	
+	/**
+	 * Stores a result, the arguments are the same as {@link #get(int, int, int, int, int, int, int)}.<br>
+	 * The epoch must be read before computing the result, so a result computed while a door changed state is dropped.
+	 * @param geoX the geo X of the looker
+	 * @param geoY the geo Y of the looker
+	 * @param z the world Z of the looker
+	 * @param tGeoX the geo X of the target
+	 * @param tGeoY the geo Y of the target
+	 * @param tz the world Z of the target
+	 * @param instanceId the instance Id
+	 * @param epoch the epoch the result was computed in
+	 * @param result the line of sight result
+	 */
+	public void put(int geoX, int geoY, int z, int tGeoX, int tGeoY, int tz, int instanceId, int epoch, boolean result)
+	{
+		final long cells = getCells(geoX, geoY, tGeoX, tGeoY);
+		final int zBands = getZBands(z, tz);
+		_entries[getIndex(cells, zBands, instanceId)] = new LosEntry(cells, zBands, instanceId, epoch, System.currentTimeMillis() + _ttl, result);
+	}
+	
+	/**
+	 * Drops all the cached results.
+	 */
+	public void invalidate()
+	{
+		_epoch.incrementAndGet();
+	}
+	
+	public long getHits()
+	{
+		return _hits.sum();
+	}
+	
+	public long getMisses()
+	{
+		return _misses.sum();
+	}
+	
+	/**
+	 * @return the ratio of lookups answered by the cache, between 0 and 1
+	 */
+	public double getHitRate()
+	{
+		final long hits = getHits();
+		final long total = hits + getMisses();
+		return total > 0 ? (double) hits / total : 0;
+	}
+	
+	public int getEpoch()
+	{
+		return _epoch.get();
+	}
+	
+	private static final class LosEntry
+	{
+		protected final long _cells;
+		protected final int _zBands;
+		protected final int _instanceId;
+		protected final int _epoch;
+		protected final long _expireTime;
+		protected final boolean _result;
+		
+		protected LosEntry(long cells, int zBands, int instanceId, int epoch, long expireTime, boolean result)
+		{
+			_cells = cells;
+			_zBands = zBands;
+			_instanceId = instanceId;
+			_epoch = epoch;
+			_expireTime = expireTime;
+			_result = result;
+		}
+	}
+}
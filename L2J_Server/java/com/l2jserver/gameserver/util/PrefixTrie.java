@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.util;
+
+import java.util.Arrays;
+
+/**
+ * Maps string prefixes to values, finding the prefixes of a text in a single pass over its characters.<br>
+ * A trie is filled once and read afterwards: it is not thread safe while values are added, so shared tries must be rebuilt and published rather than changed.
+ * @param <V> the type of the values
+ */
+public final class PrefixTrie<V>
+{
+	private final boolean _ignoreCase;
+	private final Node<V> _root = new Node<>();
+	private int _size;
+	
+	/**
+	 * @param ignoreCase if {@code true} prefixes match regardless of the case of their characters
+	 */
+	public PrefixTrie(boolean ignoreCase)
+	{
+		_ignoreCase = ignoreCase;
+	}
+	
+	private char normalize(char c)
+	{
+		return _ignoreCase ? Character.toLowerCase(c) : c;
+	}
+	
+	/**
+	 * Adds a prefix, replacing the value of an existing one.
+	 * @param prefix the prefix
+	 * @param value the value
+	 */
+	public void put(String prefix, V value)
+	{
+		Node<V> node = _root;
+		for (int i = 0; i < prefix.length(); i++)
+		{
+			node = node.getOrAddChild(normalize(prefix.charAt(i)));
+		}
+		if (node._value == null)
+		{
+			_size++;
+		}
+		node._value = value;
+	}
+	
+	/**
+	 * @param text the text
+	 * @return the value of the longest prefix of the text, {@code null} if no prefix matches
+	 */
+	public V getLongestPrefix(String text)
+	{
+		V result = _root._value;
+		Node<V> node = _root;
+		for (int i = 0; i < text.length(); i++)
+		{
+			node = node.getChild(normalize(text.charAt(i)));
+			if (node == null)
+			{
+				break;
+			}
+			if (node._value != null)
+			{
+				result = node._value;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * @param text the text
+	 * @return {@code true} if at least one prefix matches the text
+	 */
+	public boolean hasPrefixOf(String text)
+	{
+		Node<V> node = _root;
+		for (int i = 0; (node._value == null) && (i < text.length()); i++)
+		{
+			node = node.getChild(normalize(text.charAt(i)));
+			if (node == null)
+			{
+				return false;
+			}
+		}
+		return node._value != null;
+	}
+	
+	/**
+	 * @return the amount of prefixes
+	 */
+	public int size()
+	{
+		return _size;
+	}
+	
+	private static final class Node<V>
+	{
+		private static final char[] NO_KEYS = new char[0];
+		
+		protected char[] _keys = NO_KEYS;
+		protected Node<V>[] _children;
+		protected V _value;
+		
+		protected Node<V> getChild(char c)
+		{
+			final char[] keys = _keys;
+			for (int i = 0; i < keys.length; i++)
+			{
+				if (keys[i] == c)
+				{
+					return _children[i];
+				}
+			}
+			return null;
+		}
+		
+		@SuppressWarnings(
+		{
+			"unchecked",
+			"rawtypes"
+		})
+		protected Node<V> getOrAddChild(char c)
+		{
+			Node<V> child = getChild(c);
+			if (child == null)
+			{
+				child = new Node<>();
+				final int length = _keys.length;
+				_keys = Arrays.copyOf(_keys, length + 1);
+				_keys[length] = c;
+				_children = length == 0 ? new Node[1] : Arrays.copyOf(_children, length + 1);
+				_children[length] = child;
+			}
+			return child;
+		}
+	}
+}
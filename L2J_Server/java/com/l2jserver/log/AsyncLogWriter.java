@@ -0,0 +1,418 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jserver.util.BoundedRingBuffer;
+
+/**
+ * Asynchronous log file writer.<br>
+ * Producers only format their text and put it into a bounded lock-free ring buffer, a background thread drains it in batches, appends each batch to the target files and forces them to disk periodically.<br>
+ * When the buffer is full the record is either dropped and counted or the producer waits for free space, depending on the policy.<br>
+ * Only the most recently used files are kept open, the least recently used one is closed when a new file must be opened.
+ */
+public final class AsyncLogWriter implements Runnable
+{
+	private static final Logger _log = Logger.getLogger(AsyncLogWriter.class.getName());
+	
+	private static final Set<AsyncLogWriter> WRITERS = new CopyOnWriteArraySet<>();
+	
+	private static final int BATCH_SIZE = 512;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+	private static final int MAX_OPEN_FILES = 32;
+	
+	private final String _name;
+	private final BoundedRingBuffer<Entry> _buffer;
+	private final boolean _blockWhenFull;
+	private final long _syncInterval;
+	private final Thread _thread;
+	private final Map<File, FileSink> _sinks = new LinkedHashMap<File, FileSink>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, FileSink> eldest)
+		{
+			if (size() <= MAX_OPEN_FILES)
+			{
+				return false;
+			}
+			eldest.getValue().flush();
+			eldest.getValue().sync();
+			eldest.getValue().close();
+			return true;
+		}
+	};
+	
+	private final AtomicLong _published = new AtomicLong();
+	private final AtomicLong _written = new AtomicLong();
+	private final AtomicLong _dropped = new AtomicLong();
+	private long _reportedDropped;
+	private long _lastSync = System.currentTimeMillis();
+	/** Producers inside {@link #write(File, String)}, shutdown waits for them before the final drain. */
+	private final AtomicInteger _producers = new AtomicInteger();
+	private volatile boolean _running = true;
+	private volatile boolean _stopped;
+	
+	/**
+	 * Creates and starts an asynchronous log writer.
+	 * @param name the writer name, used for the thread name and reports
+	 * @param capacity the ring buffer capacity
+	 * @param blockWhenFull if {@code true} producers wait when the buffer is full, otherwise the record is dropped
+	 * @param syncInterval the interval in milliseconds between forcing written files to disk, {@code 0} to leave it to the operating system
+	 */
+	public AsyncLogWriter(String name, int capacity, boolean blockWhenFull, long syncInterval)
+	{
+		_name = name;
+		_buffer = new BoundedRingBuffer<>(capacity);
+		_blockWhenFull = blockWhenFull;
+		_syncInterval = syncInterval;
+		_thread = new Thread(this, "AsyncLogWriter-" + name);
+		_thread.setDaemon(true);
+		_thread.start();
+		WRITERS.add(this);
+	}
+	
+	/**
+	 * Queues the text to be appended to the file.
+	 * @param file the target file
+	 * @param text the already formatted text
+	 * @return {@code true} if the text was queued, {@code false} if it was dropped
+	 */
+	public boolean write(File file, String text)
+	{
+		_producers.incrementAndGet();
+		try
+		{
+			if (!_running)
+			{
+				_dropped.incrementAndGet();
+				return false;
+			}
+			
+			final Entry entry = new Entry(file, text);
+			while (!_buffer.offer(entry))
+			{
+				if (!_blockWhenFull || !_running || (Thread.currentThread() == _thread))
+				{
+					_dropped.incrementAndGet();
+					return false;
+				}
+				LockSupport.unpark(_thread);
+				LockSupport.parkNanos(FULL_PARK_NANOS);
+			}
+			_published.incrementAndGet();
+			return true;
+		}
+		finally
+		{
+			_producers.decrementAndGet();
+		}
+	}
+	
+	@Override
+	public void run()
+	{
+		while (!_stopped)
+		{
+			if (drain() == 0)
+			{
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+			maintain(false);
+		}
+		
+		// Final drain, every accepted record is in the buffer by now.
+		while (drain() > 0)
+		{
+			// keep draining
+		}
+		maintain(true);
+		for (FileSink sink : _sinks.values())
+		{
+			sink.close();
+		}
+		_sinks.clear();
+	}
+	
+	/**
+	 * Writes one batch from the ring buffer.
+	 * @return the amount of written entries
+	 */
+	private int drain()
+	{
+		int count = 0;
+		Entry entry;
+		while ((count < BATCH_SIZE) && ((entry = _buffer.poll()) != null))
+		{
+			FileSink sink = _sinks.get(entry._file);
+			if (sink == null)
+			{
+				sink = FileSink.open(entry._file);
+				if (sink == null)
+				{
+					_dropped.incrementAndGet();
+					count++;
+					continue;
+				}
+				_sinks.put(entry._file, sink);
+			}
+			sink.write(entry._text);
+			count++;
+		}
+		
+		if (count > 0)
+		{
+			for (FileSink sink : _sinks.values())
+			{
+				sink.flush();
+			}
+			_written.addAndGet(count);
+		}
+		return count;
+	}
+	
+	/**
+	 * Forces written data to disk and reports dropped records when due.
+	 * @param force if {@code true} ignores the interval
+	 */
+	private void maintain(boolean force)
+	{
+		final long now = System.currentTimeMillis();
+		if (!force && ((_syncInterval <= 0) || ((now - _lastSync) < _syncInterval)))
+		{
+			return;
+		}
+		_lastSync = now;
+		
+		for (FileSink sink : _sinks.values())
+		{
+			sink.sync();
+		}
+		
+		final long dropped = _dropped.get();
+		if (dropped > _reportedDropped)
+		{
+			_log.warning(getClass().getSimpleName() + ": " + _name + " dropped " + (dropped - _reportedDropped) + " records, buffer capacity is " + _buffer.capacity() + ".");
+			_reportedDropped = dropped;
+		}
+	}
+	
+	/**
+	 * Stops accepting records, writes the pending ones and closes the files.
+	 */
+	public void shutdown()
+	{
+		if (!WRITERS.remove(this))
+		{
+			return;
+		}
+		
+		// A producer either sees the writer stopped or is waited for, so no record is queued after the final drain.
+		_running = false;
+		while (_producers.get() > 0)
+		{
+			LockSupport.parkNanos(FULL_PARK_NANOS);
+		}
+		_stopped = true;
+		LockSupport.unpark(_thread);
+		try
+		{
+			_thread.join(TimeUnit.SECONDS.toMillis(10));
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Shuts down all the asynchronous log writers.
+	 */
+	public static void shutdownAll()
+	{
+		for (AsyncLogWriter writer : WRITERS)
+		{
+			writer.shutdown();
+		}
+	}
+	
+	/**
+	 * Gets the writer name.
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return _name;
+	}
+	
+	/**
+	 * Gets the amount of queued records.
+	 * @return the amount of queued records
+	 */
+	public long getPublished()
+	{
+		return _published.get();
+	}
+	
+	/**
+	 * Gets the amount of records written to file.
+	 * @return the amount of written records
+	 */
+	public long getWritten()
+	{
+		return _written.get();
+	}
+	
+	/**
+	 * Gets the amount of dropped records.
+	 * @return the amount of dropped records
+	 */
+	public long getDropped()
+	{
+		return _dropped.get();
+	}
+	
+	/**
+	 * Gets the amount of records waiting to be written.
+	 * @return the amount of pending records
+	 */
+	public int getPending()
+	{
+		return _buffer.size();
+	}
+	
+	private static final class Entry
+	{
+		protected final File _file;
+		protected final String _text;
+		
+		protected Entry(File file, String text)
+		{
+			_file = file;
+			_text = text;
+		}
+	}
+	
+	private static final class FileSink
+	{
+		private final File _file;
+		private final FileChannel _channel;
+		private final Writer _writer;
+		private boolean _dirty;
+		
+		private FileSink(File file, FileOutputStream out)
+		{
+			_file = file;
+			_channel = out.getChannel();
+			_writer = new BufferedWriter(new OutputStreamWriter(out));
+		}
+		
+		protected static FileSink open(File file)
+		{
+			try
+			{
+				final File parent = file.getAbsoluteFile().getParentFile();
+				if (parent != null)
+				{
+					parent.mkdirs();
+				}
+				return new FileSink(file, new FileOutputStream(file, true));
+			}
+			catch (IOException e)
+			{
+				_log.log(Level.WARNING, AsyncLogWriter.class.getSimpleName() + ": Could not open log file " + file + ": ", e);
+				return null;
+			}
+		}
+		
+		protected void write(String text)
+		{
+			try
+			{
+				_writer.write(text);
+				_dirty = true;
+			}
+			catch (IOException e)
+			{
+				_log.log(Level.WARNING, AsyncLogWriter.class.getSimpleName() + ": Could not write log file " + _file + ": ", e);
+			}
+		}
+		
+		protected void flush()
+		{
+			try
+			{
+				_writer.flush();
+			}
+			catch (IOException e)
+			{
+				_log.log(Level.WARNING, AsyncLogWriter.class.getSimpleName() + ": Could not flush log file " + _file + ": ", e);
+			}
+		}
+		
+		protected void sync()
+		{
+			if (!_dirty)
+			{
+				return;
+			}
+			
+			try
+			{
+				_channel.force(false);
+				_dirty = false;
+			}
+			catch (IOException e)
+			{
+				_log.log(Level.WARNING, AsyncLogWriter.class.getSimpleName() + ": Could not sync log file " + _file + ": ", e);
+			}
+		}
+		
+		protected void close()
+		{
+			try
+			{
+				_writer.close();
+			}
+			catch (IOException e)
+			{
+				_log.log(Level.WARNING, AsyncLogWriter.class.getSimpleName() + ": Could not close log file " + _file + ": ", e);
+			}
+		}
+	}
+}
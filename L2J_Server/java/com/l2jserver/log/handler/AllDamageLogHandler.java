@@ -19,9 +19,8 @@
 package com.l2jserver.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class AllDamageLogHandler extends FileHandler
+public class AllDamageLogHandler extends AsyncFileHandler
 {
 	public AllDamageLogHandler() throws IOException, SecurityException
 	{
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.log.handler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.logging.ErrorManager;
+import java.util.logging.Filter;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+import com.l2jserver.log.AsyncLogWriter;
+
+/**
+ * File handler that formats records on the calling thread and leaves the disk I/O to an {@link AsyncLogWriter}.<br>
+ * Reads the same {@code pattern}, {@code append}, {@code formatter}, {@code filter} and {@code level} properties as {@link java.util.logging.FileHandler}, plus:
+ * <ul>
+ * <li>{@code capacity}: the ring buffer capacity (default 8192)</li>
+ * <li>{@code blockWhenFull}: wait for free space instead of dropping records when the buffer is full (default false)</li>
+ * <li>{@code syncInterval}: milliseconds between forcing the file to disk, 0 to disable (default 1000)</li>
+ * </ul>
+ */
+public class AsyncFileHandler extends Handler
+{
+	private final File _file;
+	private final AsyncLogWriter _writer;
+	
+	public AsyncFileHandler() throws IOException, SecurityException
+	{
+		final String prefix = getClass().getName();
+		setLevel(parseLevel(getProperty(prefix + ".level"), Level.ALL));
+		setFilter(newInstance(getProperty(prefix + ".filter"), Filter.class, null));
+		setFormatter(newInstance(getProperty(prefix + ".formatter"), Formatter.class, new SimpleFormatter()));
+		
+		_file = new File(parsePattern(getProperty(prefix + ".pattern"), "log/" + getClass().getSimpleName() + ".log"));
+		final File parent = _file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+		{
+			parent.mkdirs();
+		}
+		if (!Boolean.parseBoolean(getProperty(prefix + ".append")))
+		{
+			// Truncate, as FileHandler does.
+			new FileOutputStream(_file).close();
+		}
+		
+		final int capacity = parseInt(getProperty(prefix + ".capacity"), 8192);
+		final boolean blockWhenFull = Boolean.parseBoolean(getProperty(prefix + ".blockWhenFull"));
+		final long syncInterval = parseInt(getProperty(prefix + ".syncInterval"), 1000);
+		_writer = new AsyncLogWriter(getClass().getSimpleName(), capacity, blockWhenFull, syncInterval);
+		
+		final String head = getFormatter().getHead(this);
+		if ((head != null) && !head.isEmpty())
+		{
+			_writer.write(_file, head);
+		}
+	}
+	
+	@Override
+	public void publish(LogRecord record)
+	{
+		if (!isLoggable(record))
+		{
+			return;
+		}
+		
+		final String text;
+		try
+		{
+			// Formatters are not thread safe, FileHandler serializes them the same way.
+			synchronized (this)
+			{
+				text = getFormatter().format(record);
+			}
+		}
+		catch (Exception e)
+		{
+			reportError(null, e, ErrorManager.FORMAT_FAILURE);
+			return;
+		}
+		
+		_writer.write(_file, text);
+	}
+	
+	@Override
+	public void flush()
+	{
+		// The writer flushes after every batch.
+	}
+	
+	@Override
+	public void close() throws SecurityException
+	{
+		final String tail = getFormatter().getTail(this);
+		if ((tail != null) && !tail.isEmpty())
+		{
+			_writer.write(_file, tail);
+		}
+		_writer.shutdown();
+	}
+	
+	/**
+	 * Gets the asynchronous writer of this handler.
+	 * @return the writer
+	 */
+	public AsyncLogWriter getWriter()
+	{
+		return _writer;
+	}
+	
+	private static String getProperty(String name)
+	{
+		final String value = LogManager.getLogManager().getProperty(name);
+		return value != null ? value.trim() : null;
+	}
+	
+	private static String parsePattern(String pattern, String defaultValue)
+	{
+		if ((pattern == null) || pattern.isEmpty())
+		{
+			return defaultValue;
+		}
+		return pattern.replace("%t", System.getProperty("java.io.tmpdir")).replace("%h", System.getProperty("user.home")).replace("%g", "0").replace("%u", "0").replace("%%", "%");
+	}
+	
+	private static Level parseLevel(String value, Level defaultValue)
+	{
+		if (value == null)
+		{
+			return defaultValue;
+		}
+		
+		try
+		{
+			return Level.parse(value);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return defaultValue;
+		}
+	}
+	
+	private static int parseInt(String value, int defaultValue)
+	{
+		if (value == null)
+		{
+			return defaultValue;
+		}
+		
+		try
+		{
+			return Integer.parseInt(value);
+		}
+		catch (NumberFormatException e)
+		{
+			return defaultValue;
+		}
+	}
+	
+	private static <T> T newInstance(String className, Class<T> type, T defaultValue)
+	{
+		if ((className == null) || className.isEmpty())
+		{
+			return defaultValue;
+		}
+		
+		try
+		{
+			return type.cast(ClassLoader.getSystemClassLoader().loadClass(className).getDeclaredConstructor().newInstance());
+		}
+		catch (Exception e)
+		{
+			return defaultValue;
+		}
+	}
+}
@@ -19,9 +19,8 @@
 package com.l2jserver.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class ChatLogHandler extends FileHandler
+public class ChatLogHandler extends AsyncFileHandler
 {
 	
 	public ChatLogHandler() throws IOException, SecurityException
@@ -19,12 +19,11 @@
 package com.l2jserver.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
 /**
  * @author Advi
  */
-public class ItemLogHandler extends FileHandler
+public class ItemLogHandler extends AsyncFileHandler
 {
 	public ItemLogHandler() throws IOException, SecurityException
 	{
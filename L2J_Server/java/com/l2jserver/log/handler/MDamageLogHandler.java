@@ -19,9 +19,8 @@
 package com.l2jserver.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class MDamageLogHandler extends FileHandler
+public class MDamageLogHandler extends AsyncFileHandler
 {
 	public MDamageLogHandler() throws IOException, SecurityException
 	{
@@ -19,9 +19,8 @@
 package com.l2jserver.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class PDamageLogHandler extends FileHandler
+public class PDamageLogHandler extends AsyncFileHandler
 {
 	public PDamageLogHandler() throws IOException, SecurityException
 	{
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2004-2015 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue backed by a ring buffer.<br>
+ * Each slot carries a sequence number telling whether it is free for the producer or filled for the consumer of the current lap, so neither side ever takes a lock.
+ * @param <E> the type of elements held in this buffer
+ */
+public final class BoundedRingBuffer<E>
+{
+	private final int _mask;
+	private final AtomicReferenceArray<E> _elements;
+	private final AtomicLongArray _sequences;
+	private final AtomicLong _head = new AtomicLong();
+	private final AtomicLong _tail = new AtomicLong();
+	
+	/**
+	 * Creates a ring buffer.
+	 * @param capacity the minimum capacity, rounded up to the next power of two
+	 */
+	public BoundedRingBuffer(int capacity)
+	{
+		if (capacity < 2)
+		{
+			throw new IllegalArgumentException("Capacity must be at least 2, got " + capacity);
+		}
+		
+		final int size = Integer.highestOneBit(capacity - 1) << 1;
+		_mask = size - 1;
+		_elements = new AtomicReferenceArray<>(size);
+		_sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++)
+		{
+			_sequences.set(i, i);
+		}
+	}
+	
+	/**
+	 * Inserts the element if there is free space.
+	 * @param element the element, must not be {@code null}
+	 * @return {@code true} if the element was inserted, {@code false} if the buffer is full
+	 */
+	public boolean offer(E element)
+	{
+		long tail = _tail.get();
+		while (true)
+		{
+			final int index = (int) (tail & _mask);
+			final long diff = _sequences.get(index) - tail;
+			if (diff == 0)
+			{
+				if (_tail.compareAndSet(tail, tail + 1))
+				{
+					_elements.lazySet(index, element);
+					_sequences.set(index, tail + 1);
+					return true;
+				}
+				tail = _tail.get();
+			}
+			else if (diff < 0)
+			{
+				return false;
+			}
+			else
+			{
+				tail = _tail.get();
+			}
+		}
+	}
+	
+	/**
+	 * Retrieves and removes the oldest element.
+	 * @return the oldest element, {@code null} if the buffer is empty
+	 */
+	public E poll()
+	{
+		long head = _head.get();
+		while (true)
+		{
+			final int index = (int) (head & _mask);
+			final long diff = _sequences.get(index) - (head + 1);
+			if (diff == 0)
+			{
+				if (_head.compareAndSet(head, head + 1))
+				{
+					final E element = _elements.get(index);
+					_elements.lazySet(index, null);
+					_sequences.set(index, head + _mask + 1);
+					return element;
+				}
+				head = _head.get();
+			}
+			else if (diff < 0)
+			{
+				return null;
+			}
+			else
+			{
+				head = _head.get();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the approximate amount of elements in the buffer.
+	 * @return the amount of elements
+	 */
+	public int size()
+	{
+		return (int) Math.max(0, Math.min(_tail.get() - _head.get(), _mask + 1));
+	}
+	
+	/**
+	 * Checks if the buffer is empty.
+	 * @return {@code true} if the buffer is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+	
+	/**
+	 * Gets the capacity.
+	 * @return the capacity
+	 */
+	public int capacity()
+	{
+		return _mask + 1;
+	}
+}